@@ -19,6 +19,7 @@ package com.ibm.jbatch.container.api.impl;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,6 +27,9 @@ import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import com.ibm.jbatch.container.exception.TransactionManagementException;
+import com.ibm.jbatch.container.impl.PurgeProgress;
+import com.ibm.jbatch.container.impl.StepProgress;
+import com.ibm.jbatch.container.services.PurgeCriteria;
 
 import jakarta.batch.operations.BatchRuntimeException;
 import jakarta.batch.operations.JobExecutionAlreadyCompleteException;
@@ -67,7 +71,7 @@ public class JobOperatorImpl implements JobOperator {
     /**
      * The real JobOperator.  All calls forwarded to this guy.
      */
-    private JobOperator jobOperator;
+    private JobOperatorImplDelegate jobOperator;
     
 	public JobOperatorImpl() {
 		jobOperator = new JobOperatorImplDelegate();
@@ -169,6 +173,93 @@ public class JobOperatorImpl implements JobOperator {
         }
     }
 
+    /**
+     * Impl-specific: pages through the instances of a job from newest to oldest, 
+     * seeking past the last instance of the previous page rather than skipping
+     * over all the instances before an offset.
+     * 
+     * @param beforeInstanceId id of the last instance of the previous page, or Long.MAX_VALUE for the first page
+     * @return the page, empty past the last instance
+     */
+    public List<JobInstance> getJobInstancesBefore(String jobName, long beforeInstanceId, int count) throws JobSecurityException {
+        Transaction tran = suspendTran();
+        try {
+            return jobOperator.getJobInstancesBefore(jobName, beforeInstanceId, count);
+        } finally {
+            resumeTran(tran);
+        }
+    }
+
+    /**
+     * Impl-specific: pages through the executions of all the instances of a job from 
+     * newest to oldest, in a single query per page.
+     * 
+     * @param beforeExecutionId id of the last execution of the previous page, or Long.MAX_VALUE for the first page
+     * @return the page, empty past the last execution
+     */
+    public List<JobExecution> getJobExecutionsBefore(String jobName, long beforeExecutionId, int count) throws JobSecurityException {
+        Transaction tran = suspendTran();
+        try {
+            return jobOperator.getJobExecutionsBefore(jobName, beforeExecutionId, count);
+        } finally {
+            resumeTran(tran);
+        }
+    }
+
+    /**
+     * Impl-specific: waits for a job execution to end without tying up a thread, e.g. to
+     * start another job once it has.  Dependent stages added without an executor run on
+     * the thread which ended the job, so should be short or use the *Async variants.
+     * 
+     * @return a future completed with the final state of the execution
+     */
+    public CompletableFuture<JobExecution> getJobExecutionCompletion(long executionId) throws NoSuchJobExecutionException, JobSecurityException {
+        Transaction tran = suspendTran();
+        try {
+            return jobOperator.getJobExecutionCompletion(executionId);
+        } finally {
+            resumeTran(tran);
+        }
+    }
+
+    /**
+     * Impl-specific: the live progress of each step running in a job execution, including
+     * each partition of a partitioned step, read from memory rather than the job repository.
+     * 
+     * @return an empty list unless the execution is running
+     */
+    public List<StepProgress> getStepProgress(long executionId) throws NoSuchJobExecutionException, JobSecurityException {
+        Transaction tran = suspendTran();
+        try {
+            return jobOperator.getStepProgress(executionId);
+        } finally {
+            resumeTran(tran);
+        }
+    }
+
+    /**
+     * Impl-specific: purges all the job instances of an apptag, a batch at a time,
+     * returning once they're gone.
+     */
+    public void purge(String apptag) {
+        Transaction tran = suspendTran();
+        try {
+            jobOperator.purge(apptag);
+        } finally {
+            resumeTran(tran);
+        }
+    }
+
+    /**
+     * Impl-specific: starts purging the matching job instances on the batch thread pool,
+     * a batch at a time.  Unless the current tag is admin, only its own instances are purged.
+     * 
+     * @return the progress of the purge, which can also be used to wait for it or cancel it
+     */
+    public PurgeProgress purge(PurgeCriteria criteria) {
+        return jobOperator.purge(criteria);
+    }
+
     @Override
     public List<Long> getRunningExecutions(String jobName) throws NoSuchJobException, JobSecurityException {
         Transaction tran = suspendTran();
@@ -23,11 +23,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,13 +46,16 @@ import jakarta.batch.runtime.JobExecution;
 import jakarta.batch.runtime.JobInstance;
 import jakarta.batch.runtime.StepExecution;
 
+import com.ibm.jbatch.container.impl.PurgeProgress;
+import com.ibm.jbatch.container.impl.StepProgress;
+import com.ibm.jbatch.container.jobinstance.JobInstanceImpl;
 import com.ibm.jbatch.container.services.IBatchKernelService;
 import com.ibm.jbatch.container.services.IJobExecution;
 import com.ibm.jbatch.container.services.IJobStatusManagerService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.PurgeCriteria;
 import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
-import com.ibm.jbatch.container.status.JobStatus;
 import com.ibm.jbatch.spi.BatchSecurityHelper;
 import com.ibm.jbatch.spi.services.IJobXMLLoaderService;
 
@@ -171,6 +173,24 @@ public class JobOperatorImplDelegate implements JobOperator {
 		}
 	}
 
+	public CompletableFuture<JobExecution> getJobExecutionCompletion(long executionId)
+			throws NoSuchJobExecutionException, JobSecurityException {
+		if (isAuthorized(persistenceService.getJobInstanceIdByExecutionId(executionId))) {
+			return batchKernel.getJobExecutionCompletion(executionId);
+		} else {
+			throw new JobSecurityException("The current user is not authorized to perform this operation");
+		}
+	}
+
+	public List<StepProgress> getStepProgress(long executionId)
+			throws NoSuchJobExecutionException, JobSecurityException {
+		if (isAuthorized(persistenceService.getJobInstanceIdByExecutionId(executionId))) {
+			return batchKernel.getStepProgress(executionId);
+		} else {
+			throw new JobSecurityException("The current user is not authorized to perform this operation");
+		}
+	}
+
 	@Override
 	public List<JobExecution> getJobExecutions(JobInstance instance)
 			throws NoSuchJobInstanceException, JobSecurityException {
@@ -249,48 +269,84 @@ public class JobOperatorImplDelegate implements JobOperator {
 			instanceIds	= persistenceService.jobOperatorGetJobInstanceIds(jobName, helper.getCurrentTag(), start, count);
 		}
 
-		// get the jobinstance ids associated with this job name
-
 		if (instanceIds.size() > 0){
-			// for every job instance id
+			// The query already filtered on the current tag (or the tag is admin), so 
+			// there's no need to look up and authorize each instance on its own
 			for (long id : instanceIds){
-				// get the job instance obj, add it to the list
-				JobStatus jobStatus = this._jobStatusManagerService.getJobStatus(id);
-				JobInstance jobInstance = jobStatus.getJobInstance();
-				logger.finest("Matched jobInstance = " + jobInstance.getInstanceId());
-				if(isAuthorized(jobInstance.getInstanceId())) {
-					logger.finest("Authorized so adding to list jobInstance =  " + jobInstance.getInstanceId());
-					jobInstances.add(jobInstance);	
-				}
+				JobInstanceImpl jobInstance = new JobInstanceImpl(id);
+				jobInstance.setJobName(jobName);
+				jobInstances.add(jobInstance);
 			}
 			// send the list of objs back to caller
 			logger.exiting(sourceClass, "getJobInstances", jobInstances);
 			return jobInstances;
+		} else if (start > 0 && getJobInstanceCountOrZero(jobName, helper) > 0) {
+			// Paged past the last instance
+			logger.exiting(sourceClass, "getJobInstances", jobInstances);
+			return jobInstances;
 		} else {
 			logger.fine("getJobInstances: Job Name " + jobName + " not found");
 			throw new NoSuchJobException( "Job Name " + jobName + " not found");
 		}
 	}
 
+	private int getJobInstanceCountOrZero(String jobName, BatchSecurityHelper helper) {
+		if (isCurrentTagAdmin(helper)) {
+			return persistenceService.jobOperatorGetJobInstanceCount(jobName);
+		} else {
+			return persistenceService.jobOperatorGetJobInstanceCount(jobName, helper.getCurrentTag());
+		}
+	}
+
+	/**
+	 * Pages through the instances of a job from newest to oldest, starting after 
+	 * the last instance of the previous page rather than at an offset.
+	 * 
+	 * @param beforeInstanceId id of the last instance of the previous page, or Long.MAX_VALUE for the first page
+	 * @return the page, empty past the last instance
+	 */
+	public List<JobInstance> getJobInstancesBefore(String jobName, long beforeInstanceId, int count) throws JobSecurityException {
+		if (count < 0) {
+			throw new IllegalArgumentException("Count should be a positive integer (or 0, which will return an empty list)");
+		} else if (count == 0) {
+			return new ArrayList<JobInstance>();
+		}
+		return persistenceService.jobOperatorGetJobInstances(jobName, getCurrentTagFilter(), beforeInstanceId, count);
+	}
+
+	/**
+	 * Pages through the executions of all the instances of a job from newest to oldest, 
+	 * in a single query per page.
+	 * 
+	 * @param beforeExecutionId id of the last execution of the previous page, or Long.MAX_VALUE for the first page
+	 * @return the page, empty past the last execution
+	 */
+	public List<JobExecution> getJobExecutionsBefore(String jobName, long beforeExecutionId, int count) throws JobSecurityException {
+		if (count < 0) {
+			throw new IllegalArgumentException("Count should be a positive integer (or 0, which will return an empty list)");
+		}
+		List<JobExecution> executions = new ArrayList<JobExecution>();
+		if (count > 0) {
+			executions.addAll(persistenceService.jobOperatorGetJobExecutions(jobName, getCurrentTagFilter(), beforeExecutionId, count));
+		}
+		return executions;
+	}
+
 	/*
 	 * This should only be called by the "external" JobOperator API, since it filters
 	 * out the "subjob" parallel execution entries.
 	 */
 	@Override
 	public Set<String> getJobNames() throws JobSecurityException {
+		return persistenceService.jobOperatorGetJobNames(getCurrentTagFilter());
+	}
 
-		Set<String> jobNames = new HashSet<String>();
-		Map<Long, String> data = persistenceService.jobOperatorGetExternalJobInstanceData();
-		Iterator<Map.Entry<Long,String>> it = data.entrySet().iterator();
-		while (it.hasNext()) {
-			Map.Entry<Long,String> entry = it.next();
-			long instanceId = entry.getKey();
-			if(isAuthorized(instanceId)) {
-				String name = entry.getValue();
-				jobNames.add(name);
-			}
-		}
-		return jobNames;
+	/**
+	 * @return the current tag, or null if it's admin and so sees everything
+	 */
+	private String getCurrentTagFilter() {
+		BatchSecurityHelper helper = getBatchSecurityHelper();
+		return isCurrentTagAdmin(helper) ? null : helper.getCurrentTag();
 	}
 
 	@Override
@@ -464,6 +520,20 @@ public class JobOperatorImplDelegate implements JobOperator {
 		}
 	}
 
+	/**
+	 * Starts purging the matching job instances in the background.  Only admin may purge
+	 * across apptags, anyone else only purges their own.
+	 */
+	public PurgeProgress purge(PurgeCriteria criteria) {
+		BatchSecurityHelper bsh = getBatchSecurityHelper();
+		if (!isCurrentTagAdmin(bsh)) {
+			logger.finer("Current tag is not admin, so only purging its own job instances.");
+			criteria = new PurgeCriteria(criteria);
+			criteria.setApptag(bsh.getCurrentTag());
+		}
+		return batchKernel.getRetentionEngine().purge(criteria);
+	}
+
 	private boolean isAuthorized(long instanceId) {
 		logger.entering(sourceClass, "isAuthorized", instanceId);
 		boolean retVal = false;
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import jakarta.batch.api.chunk.ItemReader;
 
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
+import com.ibm.jbatch.spi.SplittableItemReader;
 
 public class ItemReaderProxy extends AbstractProxy<ItemReader> implements ItemReader {
 
@@ -68,4 +69,23 @@ public class ItemReaderProxy extends AbstractProxy<ItemReader> implements ItemRe
 		return this.delegate.readItem();
     }
 
+    /**
+     * @return true if the reader can give up items it hasn't read yet
+     */
+    public boolean isSplittable() {
+        return this.delegate instanceof SplittableItemReader;
+    }
+
+    /**
+     * @see SplittableItemReader#splitRemaining()
+     */
+    public Serializable splitRemaining() {
+        try {
+            return ((SplittableItemReader) this.delegate).splitRemaining();
+        } catch (Exception e) {
+        	this.stepContext.setException(e);
+            throw new BatchContainerRuntimeException(e);
+        }
+    }
+
 }
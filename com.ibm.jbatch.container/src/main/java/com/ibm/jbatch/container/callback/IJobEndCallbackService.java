@@ -16,6 +16,8 @@
 */
 package com.ibm.jbatch.container.callback;
 
+import java.util.concurrent.CompletableFuture;
+
 import jakarta.batch.operations.JobSecurityException;
 import jakarta.batch.operations.NoSuchJobExecutionException;
 
@@ -28,4 +30,13 @@ public interface IJobEndCallbackService extends IBatchServiceBase {
 	public void deregisterJobEndCallback(JobEndCallback callback);
 	public long getCallbackOnTermination(long execID, JobEndCallback callback) 
 			throws NoSuchJobExecutionException, JobSecurityException;
+
+	/**
+	 * @return a future completed with the execution id by {@link #done(long)}, or already
+	 * completed if the execution is one of those which most recently ended.  Each caller
+	 * gets its own future, so cancelling it doesn't affect any other.  A caller that stops
+	 * waiting before the execution ends, e.g. one running in another runtime, should cancel
+	 * its future so it can be dropped.
+	 */
+	public CompletableFuture<Long> getCompletionFuture(long jobExecutionId);
 }
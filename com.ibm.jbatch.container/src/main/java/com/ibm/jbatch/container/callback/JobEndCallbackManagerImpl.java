@@ -16,8 +16,18 @@
  */
 package com.ibm.jbatch.container.callback;
 
-import java.util.HashSet;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -25,16 +35,18 @@ import jakarta.batch.operations.JobSecurityException;
 import jakarta.batch.operations.NoSuchJobExecutionException;
 
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
 import com.ibm.jbatch.spi.services.IBatchConfig;
 
 /**
+ * Notifies registered callbacks, and completes any futures waiting on it, as each job
+ * execution ends.
  * 
- * This isn't deprecated in the sense that it used to work... we did this function for the 
- * TCK originally and I copied it over to the RI in case we still wanted to make use of it.
- * 
- * Don't use without reworking and testing this class.
- * 
- * @deprecated
+ * Waiting takes no thread: a future is kept per execution id only while someone waits on it,
+ * and is completed (and dropped) by done(), or dropped once every waiter has cancelled, e.g.
+ * having timed out on an execution running in another runtime.  The ids of the executions which most recently
+ * ended are remembered, up to COMPLETED_EXECUTION_HISTORY_SIZE, so a future asked for just 
+ * after its execution ended is completed at once.
  * 
  * @author skurz
  *
@@ -44,25 +56,42 @@ public class JobEndCallbackManagerImpl implements IJobEndCallbackService {
 	private final static String sourceClass = JobEndCallbackManagerImpl.class.getName();
 	private final static Logger logger = Logger.getLogger(sourceClass);
 
-	private Set<JobEndCallback> callbacks = new HashSet<JobEndCallback>();
+	// Concurrent rather than synchronized, done() runs at the end of every job, on pool (possibly
+	// virtual) threads, and shouldn't hold a monitor while calling out to the callbacks.
+	private Set<JobEndCallback> callbacks = new CopyOnWriteArraySet<JobEndCallback>();
 	private long sleepTime = 500L;
 
+	// Futures of the executions someone is waiting on, completed and removed by done(), or removed by the last waiter to cancel
+	private final ConcurrentMap<Long, PendingCompletion> pendingCompletions = new ConcurrentHashMap<Long, PendingCompletion>();
+
+	// Ids of the executions which most recently ended, oldest first in the queue
+	private final Set<Long> completedExecutions = ConcurrentHashMap.newKeySet();
+	private final ConcurrentLinkedQueue<Long> completedExecutionsOrder = new ConcurrentLinkedQueue<Long>();
+	private final AtomicInteger completedExecutionsSize = new AtomicInteger();
+	private int completedExecutionHistorySize = Integer.parseInt(BatchContainerConstants.DEFAULT_COMPLETED_EXECUTION_HISTORY_SIZE);
+
 	@Override
-	public synchronized void registerJobEndCallback(JobEndCallback callback) {
+	public void registerJobEndCallback(JobEndCallback callback) {
 		callbacks.add(callback);
 	}
 
 	@Override
-	public synchronized void deregisterJobEndCallback(JobEndCallback callback) {
+	public void deregisterJobEndCallback(JobEndCallback callback) {
 		callbacks.remove(callback);
 	}
 
 	@Override
-	public synchronized void done(long jobExecutionId) {
+	public void done(long jobExecutionId) {
 		if (logger.isLoggable(Level.FINER)) {            
 			logger.finer("Firing callbacks for job execution id: " + jobExecutionId);
 		}
-		completedExecutions.add(jobExecutionId);
+		addCompletedExecution(jobExecutionId);
+		// After remembering the id, so a future registered meanwhile is either seen here or
+		// sees the id itself
+		PendingCompletion completion = pendingCompletions.remove(jobExecutionId);
+		if (completion != null) {
+			completion.complete(jobExecutionId);
+		}
 		JobEndCallback[] arr = callbacks.toArray(new JobEndCallback[0]);
 		for (JobEndCallback callback : arr) {
 			if (logger.isLoggable(Level.FINE)) {            
@@ -81,8 +110,11 @@ public class JobEndCallbackManagerImpl implements IJobEndCallbackService {
 	@Override
 	public void init(IBatchConfig batchConfig)
 			throws BatchContainerServiceException {
-		// TODO Auto-generated method stub
-
+		Properties props = batchConfig.getConfigProperties();
+		if (props != null) {
+			completedExecutionHistorySize = Integer.parseInt(props.getProperty(BatchContainerConstants.COMPLETED_EXECUTION_HISTORY_SIZE,
+					BatchContainerConstants.DEFAULT_COMPLETED_EXECUTION_HISTORY_SIZE).trim());
+		}
 	}
 
 	/* (non-Javadoc)
@@ -94,29 +126,76 @@ public class JobEndCallbackManagerImpl implements IJobEndCallbackService {
 
 	}
 
-	private Set<Long> completedExecutions = new HashSet<Long>();
-
-	public long getCallbackOnTermination(long execID, JobEndCallback callback) throws NoSuchJobExecutionException, JobSecurityException {
-		// First get the lock on the callback
-		synchronized (callback) {          
-			// If this execution is already complete, then there's no need to wait
-			if (!completedExecutions.contains(execID)) {
-				// While we have the lock we'll associate this callback with the execution id
-				// so we can only get notified when this particular execution id completes.
-				callback.setExecutionId(execID);
-				try {
-					callback.wait(sleepTime);
-				} catch (InterruptedException e) {
-					// Assume we should not continue and allow this to happen without complaint.
-					// Throw a new exception.
-					throw new IllegalStateException(e);
+	private void addCompletedExecution(long jobExecutionId) {
+		if (completedExecutions.add(jobExecutionId)) {
+			completedExecutionsOrder.offer(jobExecutionId);
+			if (completedExecutionsSize.incrementAndGet() > completedExecutionHistorySize) {
+				Long oldest = completedExecutionsOrder.poll();
+				if (oldest != null) {
+					completedExecutions.remove(oldest);
+					completedExecutionsSize.decrementAndGet();
 				}
-				// Now either we have the result, or we've waiting long enough and are going to bail.
-				if (!completedExecutions.contains(execID)) {
-					throw new IllegalStateException("Still didn't see a result for executionId: " + execID + 
-							".  Perhaps try increasing timeout.  Or, something else may have gone wrong.");
+			}
+		}
+	}
+
+	@Override
+	public CompletableFuture<Long> getCompletionFuture(final long jobExecutionId) {
+		if (completedExecutions.contains(jobExecutionId)) {
+			return CompletableFuture.completedFuture(jobExecutionId);
+		}
+		PendingCompletion completion;
+		do {
+			completion = pendingCompletions.get(jobExecutionId);
+			if (completion == null) {
+				PendingCompletion newCompletion = new PendingCompletion(jobExecutionId);
+				completion = pendingCompletions.putIfAbsent(jobExecutionId, newCompletion);
+				if (completion == null) {
+					completion = newCompletion;
 				}
-			}            
+			}
+			// Unless its last waiter just gave up on it, and it's on its way out of the map
+		} while (!completion.addWaiter());
+		// done() may have run between the first check and registering the future
+		if (completedExecutions.contains(jobExecutionId) && pendingCompletions.remove(jobExecutionId, completion)) {
+			completion.complete(jobExecutionId);
+		}
+
+		// Shared by every waiter on the execution, so hand each one a future of its own
+		final PendingCompletion sharedCompletion = completion;
+		final CompletableFuture<Long> result = new CompletableFuture<Long>();
+		sharedCompletion.whenComplete(new BiConsumer<Long, Throwable>() {
+			@Override
+			public void accept(Long id, Throwable t) {
+				result.complete(id);
+			}
+		});
+		// However it's done, completed or cancelled, that's one waiter fewer
+		result.whenComplete(new BiConsumer<Long, Throwable>() {
+			@Override
+			public void accept(Long id, Throwable t) {
+				sharedCompletion.removeWaiter();
+			}
+		});
+		return result;
+	}
+
+	public long getCallbackOnTermination(long execID, JobEndCallback callback) throws NoSuchJobExecutionException, JobSecurityException {
+		CompletableFuture<Long> completion = getCompletionFuture(execID);
+		try {
+			completion.get(sleepTime, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			completion.cancel(false);
+			throw new IllegalStateException("Still didn't see a result for executionId: " + execID + 
+					".  Perhaps try increasing timeout.  Or, something else may have gone wrong.");
+		} catch (InterruptedException e) {
+			completion.cancel(false);
+			// Assume we should not continue and allow this to happen without complaint.
+			// Throw a new exception.
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			// Never completed exceptionally
+			throw new IllegalStateException(e);
 		}
 
 		// Not absolutely required since we should have things coded such that a registered
@@ -128,6 +207,38 @@ public class JobEndCallbackManagerImpl implements IJobEndCallbackService {
 		return execID;
 	}
 
+	/*
+	 * The future shared by the waiters on one execution, counting them so the last to give up
+	 * can remove it.  Once the count drops to zero it's retired, and takes no more waiters.
+	 */
+	private class PendingCompletion extends CompletableFuture<Long> {
+
+		private final long jobExecutionId;
+		private final AtomicInteger waiters = new AtomicInteger();
+
+		private PendingCompletion(long jobExecutionId) {
+			this.jobExecutionId = jobExecutionId;
+		}
+
+		private boolean addWaiter() {
+			while (true) {
+				int current = waiters.get();
+				if (current < 0) {
+					return false;
+				}
+				if (waiters.compareAndSet(current, current + 1)) {
+					return true;
+				}
+			}
+		}
+
+		private void removeWaiter() {
+			if (waiters.decrementAndGet() == 0 && waiters.compareAndSet(0, -1)) {
+				pendingCompletions.remove(jobExecutionId, this);
+			}
+		}
+	}
+
 	private class JobEndCallbackImpl implements JobEndCallback {
 		
 		// The wrapper around long is chosen so that 'null' clearly signifies 'unset',
@@ -16,17 +16,24 @@
 */
 package com.ibm.jbatch.container.context.impl;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import jakarta.batch.runtime.Metric;
 
+/**
+ * A step metric.  The value is striped across cells, so the step thread and any
+ * processor or partition threads can add to it without contending, while other
+ * threads read it live at any time without locking.
+ */
 public class MetricImpl implements Metric {
 	
-	private MetricType name;
+	private final MetricType name;
 	
-	private long value;
+	private final LongAdder value = new LongAdder();
 	
 	public MetricImpl(MetricType name, long value) {
 		this.name = name;
-		this.value = value;
+		this.value.add(value);
 	}
 	
 	@Override
@@ -36,14 +43,14 @@ public class MetricImpl implements Metric {
 
 	@Override
 	public long getValue() {
-		return this.value;
+		return this.value.sum();
 	}
 	
 	public void incValue() {
-		++this.value;
+		this.value.increment();
 	}
 	
 	public void incValueBy(long incValue) {
-		this.value = this.value + incValue;
+		this.value.add(incValue);
 	}
 }
@@ -19,7 +19,7 @@ package com.ibm.jbatch.container.context.impl;
 import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,7 +54,10 @@ public class StepContextImpl implements StepContext {
     
 	public final static String TOP_LEVEL_STEP_EXECUTION_ID_PROP = "com.ibm.jbatch.container.context.impl.StepContextImpl#getExecutionId";
 
-	private ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
+	private final static MetricImpl.MetricType[] METRIC_TYPES = MetricImpl.MetricType.values();
+
+	// Indexed by metric type ordinal, so finding a metric to increment costs no hashing
+	private final AtomicReferenceArray<MetricImpl> metrics = new AtomicReferenceArray<MetricImpl>(METRIC_TYPES.length);
 
     public StepContextImpl(String stepId) {
         this.stepId = stepId;        
@@ -87,15 +90,48 @@ public class StepContextImpl implements StepContext {
 
     @Override
     public Metric[] getMetrics() {
-        return metrics.values().toArray(new Metric[0]);
+        int count = 0;
+        for (int i = 0; i < METRIC_TYPES.length; i++) {
+            if (metrics.get(i) != null) {
+                count++;
+            }
+        }
+        Metric[] result = new Metric[count];
+        for (int i = 0, j = 0; i < METRIC_TYPES.length && j < count; i++) {
+            MetricImpl metric = metrics.get(i);
+            if (metric != null) {
+                result[j++] = metric;
+            }
+        }
+        return result;
     }
     
     public MetricImpl getMetric(MetricImpl.MetricType metricType) {
-        return (MetricImpl)metrics.get(metricType.name());
+        return metrics.get(metricType.ordinal());
     }
     
     public void addMetric(MetricImpl.MetricType metricType, long value) {
-    	metrics.putIfAbsent(metricType.name(), new MetricImpl(metricType, value));
+    	metrics.compareAndSet(metricType.ordinal(), null, new MetricImpl(metricType, value));
+    }
+
+    /**
+     * Current value of the metric, or 0 if the step doesn't have it.  Safe to call from
+     * any thread while the step runs.
+     */
+    public long getMetricValue(MetricImpl.MetricType metricType) {
+        MetricImpl metric = metrics.get(metricType.ordinal());
+        return metric == null ? 0 : metric.getValue();
+    }
+
+    /**
+     * Copies the current value of every metric into values, indexed by metric type ordinal,
+     * without allocating.  Safe to call from any thread while the step runs.
+     */
+    public void sampleMetrics(long[] values) {
+        for (int i = 0; i < METRIC_TYPES.length && i < values.length; i++) {
+            MetricImpl metric = metrics.get(i);
+            values[i] = metric == null ? 0 : metric.getValue();
+        }
     }
 
     @Override
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.context.impl;
+
+import jakarta.batch.runtime.Metric.MetricType;
+
+/**
+ * Samples the metrics of a running step and works out the rates at which they
+ * changed since the previous sample.  Reads the step's metrics without locking,
+ * so it never holds up the step; each sampler is meant to be used by one thread.
+ */
+public class StepMetricSampler {
+
+	private final static int TYPES = MetricType.values().length;
+
+	private final StepContextImpl stepContext;
+
+	private final long[] previous = new long[TYPES];
+	private final long[] current = new long[TYPES];
+	private final double[] rates = new double[TYPES];
+
+	private long previousNanos;
+
+	public StepMetricSampler(StepContextImpl stepContext) {
+		this.stepContext = stepContext;
+		stepContext.sampleMetrics(previous);
+		previousNanos = System.nanoTime();
+	}
+
+	/**
+	 * Takes a sample, after which the get methods give the values as of now and the
+	 * rates since the previous sample (or since the sampler was created).
+	 */
+	public void sample() {
+		long nanos = System.nanoTime();
+		stepContext.sampleMetrics(current);
+		long elapsed = nanos - previousNanos;
+		for (int i = 0; i < TYPES; i++) {
+			rates[i] = elapsed <= 0 ? 0 : (current[i] - previous[i]) * 1000000000.0d / elapsed;
+			previous[i] = current[i];
+		}
+		previousNanos = nanos;
+	}
+
+	public long getValue(MetricType type) {
+		return previous[type.ordinal()];
+	}
+
+	/**
+	 * Per second, between the last two samples.
+	 */
+	public double getRate(MetricType type) {
+		return rates[type.ordinal()];
+	}
+
+	public double getReadRate() {
+		return getRate(MetricType.READ_COUNT);
+	}
+
+	public double getWriteRate() {
+		return getRate(MetricType.WRITE_COUNT);
+	}
+
+	public double getFilterRate() {
+		return getRate(MetricType.FILTER_COUNT);
+	}
+}
@@ -16,8 +16,6 @@
  */
 package com.ibm.jbatch.container.impl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.sql.Timestamp;
@@ -42,15 +40,18 @@ import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
+import com.ibm.jbatch.container.persistence.DefaultStepStateStore;
+import com.ibm.jbatch.container.persistence.IStepStateStore;
+import com.ibm.jbatch.container.persistence.PartitionStepStateStore;
 import com.ibm.jbatch.container.persistence.PersistentDataWrapper;
 import com.ibm.jbatch.container.services.IBatchKernelService;
-import com.ibm.jbatch.container.services.IJobStatusManagerService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
 import com.ibm.jbatch.container.status.ExecutionStatus;
 import com.ibm.jbatch.container.status.ExtendedBatchStatus;
 import com.ibm.jbatch.container.status.StepStatus;
 import com.ibm.jbatch.container.util.PartitionDataWrapper;
+import com.ibm.jbatch.container.util.SerializationHelper;
 import com.ibm.jbatch.jsl.model.JSLProperties;
 import com.ibm.jbatch.jsl.model.Property;
 import com.ibm.jbatch.jsl.model.Step;
@@ -84,7 +85,11 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 
 	protected static IPersistenceManagerService _persistenceManagementService = ServicesManagerImpl.getInstance().getPersistenceManagerService();
 
-	private static IJobStatusManagerService _jobStatusService = (IJobStatusManagerService) ServicesManagerImpl.getInstance().getJobStatusManagerService();
+	// Where this step's status, step execution and checkpoints are kept
+	protected IStepStateStore stepStateStore = DefaultStepStateStore.getInstance();
+
+	// Live progress of the step while it runs, null until it starts
+	protected StepProgress stepProgress = null;
 
 	protected BaseStepControllerImpl(RuntimeJobExecution jobExecution, Step step, StepContextImpl stepContext, long rootJobExecutionId) {
 		this.jobExecutionImpl = jobExecution;
@@ -208,7 +213,11 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 			// Don't let an exception caught here prevent us from persisting the failed batch status.
 			markJobAndStepFailed();
 			rethrowWithWarning("Failure ending step execution", t);
-		} 
+		} finally {
+			if (stepProgress != null) {
+				batchKernel.getStepProgressRegistry().stepEnded(stepProgress);
+			}
+		}
 
 		//
 		// Only happens on main thread.
@@ -262,7 +271,52 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 		Timestamp startTS = new Timestamp(time);
 		stepContext.setStartTime(startTS);
 		
-		_persistenceManagementService.updateStepExecution(stepContext);
+		stepStateStore.updateStepExecution(stepContext);
+
+		stepProgress = batchKernel.getStepProgressRegistry().stepStarted(jobInstance.getInstanceId(), jobExecutionImpl.getExecutionId(),
+				stepName, getPartitionNumber(), isPartitionedStep(), stepContext);
+	}
+
+	/**
+	 * @return the number of the partition this step runs, or -1 if it isn't a partition
+	 */
+	protected int getPartitionNumber() {
+		if (stepStateStore instanceof PartitionStepStateStore) {
+			// A lightweight partition runs in its top-level job's instance
+			return ((PartitionStepStateStore) stepStateStore).getPartitionNumber();
+		}
+		String jobName = jobInstance.getJobName();
+		if (jobName != null && jobName.startsWith(PartitionedStepBuilder.JOB_ID_SEPARATOR)) {
+			// A partition sub-job is named ':<top-level instance id>:<step>:<partition>', a split flow 
+			// ':<top-level instance id>:<split>:<flow>'
+			String[] parts = jobName.split(PartitionedStepBuilder.JOB_ID_SEPARATOR);
+			if (parts.length == 4 && parts[2].equals(stepName)) {
+				try {
+					return Integer.parseInt(parts[3]);
+				} catch (NumberFormatException e) {
+					// A flow with the same id as the step
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the name of the top-level job this step runs in, walking up from a partition
+	 * sub-job through any split flow sub-job it runs in
+	 */
+	protected String getTopLevelJobName() {
+		String jobName = jobInstance.getJobName();
+		while (jobName != null && jobName.startsWith(PartitionedStepBuilder.JOB_ID_SEPARATOR)) {
+			// Named ':<parent instance id>:<step or split>:<partition or flow>'
+			String[] parts = jobName.split(PartitionedStepBuilder.JOB_ID_SEPARATOR);
+			jobName = _persistenceManagementService.getJobStatus(Long.parseLong(parts[1])).getJobInstance().getJobName();
+		}
+		return jobName;
+	}
+
+	protected boolean isPartitionedStep() {
+		return false;
 	}
 	
 
@@ -286,7 +340,7 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 	protected void updateBatchStatus(BatchStatus updatedBatchStatus) {
 		logger.fine("Updating batch status from : " + stepStatus.getBatchStatus() + ", to: " + updatedBatchStatus);
 		stepStatus.setBatchStatus(updatedBatchStatus);
-		_jobStatusService.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
+		stepStateStore.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
 		stepContext.setBatchStatus(updatedBatchStatus);
 	}
 
@@ -296,13 +350,13 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 			logger.finer("In shouldStepBeExecuted() with stepContext =  " + this.stepContext);
 		}
 
-		this.stepStatus = _jobStatusService.getStepStatus(jobInstance.getInstanceId(), step.getId());
+		this.stepStatus = stepStateStore.getStepStatus(jobInstance.getInstanceId(), step.getId());
 		if (stepStatus == null) {
 			logger.finer("No existing step status found.  Create new step execution and proceed to execution.");
 			// create new step execution
 			StepExecutionImpl stepExecution = getNewStepExecution(rootJobExecutionId, stepContext);
 			// create new step status for this run
-			stepStatus = _jobStatusService.createStepStatus(stepExecution.getStepExecutionId());
+			stepStatus = stepStateStore.createStepStatus(stepExecution.getStepExecutionId());
 			((StepContextImpl) stepContext).setStepExecutionId(stepExecution.getStepExecutionId());
 			return true;
 		} else {
@@ -375,30 +429,33 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 	
 	protected void statusStarting() {
 		stepStatus.setBatchStatus(BatchStatus.STARTING);
-		_jobStatusService.updateJobCurrentStep(jobInstance.getInstanceId(), step.getId());
-		_jobStatusService.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
+		stepStateStore.updateJobCurrentStep(jobInstance.getInstanceId(), step.getId());
+		stepStateStore.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
 		stepContext.setBatchStatus(BatchStatus.STARTING);
 	}
 
 	protected void persistUserData() {
-		ByteArrayOutputStream persistentBAOS = new ByteArrayOutputStream();
-		ObjectOutputStream persistentDataOOS = null;
+		wrapPersistentUserData();
+		stepStateStore.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
+	}
 
+	/**
+	 * Serialize the current persistent user data into the StepStatus, without persisting it.
+	 */
+	protected void wrapPersistentUserData() {
+		byte[] persistentBytes = null;
 		try {
-			persistentDataOOS = new ObjectOutputStream(persistentBAOS);
-			persistentDataOOS.writeObject(stepContext.getPersistentUserData());
-			persistentDataOOS.close();
+			persistentBytes = SerializationHelper.serialize(stepContext.getPersistentUserData());
 		} catch (Exception e) {
 			throw new BatchContainerServiceException("Cannot persist the persistent user data for the step.", e);
 		}
 
-		stepStatus.setPersistentUserData(new PersistentDataWrapper(persistentBAOS.toByteArray()));
-		_jobStatusService.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
+		stepStatus.setPersistentUserData(new PersistentDataWrapper(persistentBytes));
 	}
 
 	protected void persistExitStatusEndTimestampAndStepExecution() {
 		stepStatus.setExitStatus(stepContext.getExitStatus());
-		_jobStatusService.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
+		stepStateStore.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
 
 		// set the end time metric before flushing
 		long time = System.currentTimeMillis();
@@ -406,14 +463,17 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 		stepContext.setEndTime(endTS);
 
 		persistStepExecution();
+
+		// Make sure the final status is written before anything downstream looks for it
+		stepStateStore.flushPendingUpdates(stepStatus.getStepExecutionId());
 	} 
 
 	protected void persistStepExecution() {
-		_persistenceManagementService.updateStepExecution(stepContext);
+		stepStateStore.updateStepExecution(stepContext);
 	}
 
 	private StepExecutionImpl getNewStepExecution(long rootJobExecutionId, StepContextImpl stepContext) {
-		return _persistenceManagementService.createStepExecution(rootJobExecutionId, stepContext);
+		return stepStateStore.createStepExecution(rootJobExecutionId, stepContext);
 	}
 
 	private void setContextProperties() {
@@ -440,6 +500,10 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 		transactionManager = transMgr.getTransactionManager(stepContext);
 	}
 
+	public void setStepStateStore(IStepStateStore stepStateStore) {
+		this.stepStateStore = stepStateStore;
+	}
+
 	public void setStepContext(StepContextImpl stepContext) {
 		this.stepContext = stepContext;
 	}
@@ -451,6 +515,31 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 	public void setAnalyzerQueue(BlockingQueue<PartitionDataWrapper> analyzerQueue) {
 		this.analyzerStatusQueue = analyzerQueue;
 	}
+
+	/**
+	 * @return the value of a step property which, if set, must be a positive integer, or
+	 * defaultValue if it's not set
+	 * @throws BatchContainerServiceException if it's set to anything else
+	 */
+	protected int getPositiveIntStepProperty(String propName, int defaultValue) {
+		Properties props = stepContext.getProperties();
+		String value = (props == null) ? null : props.getProperty(propName);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		int intValue;
+		try {
+			intValue = Integer.parseInt(value.trim(), 10);
+		} catch (NumberFormatException e) {
+			throw new BatchContainerServiceException("Step property " + propName + " of step: " + step.getId()
+					+ " must be a positive integer, not: " + value, e);
+		}
+		if (intValue < 1) {
+			throw new BatchContainerServiceException("Step property " + propName + " of step: " + step.getId()
+					+ " must be a positive integer, not: " + value);
+		}
+		return intValue;
+	}
 	
     @Override
     public List<Long> getLastRunStepExecutions() {
@@ -23,7 +23,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,6 +36,8 @@ import jakarta.batch.operations.JobExecutionNotRunningException;
 import jakarta.batch.operations.JobRestartException;
 import jakarta.batch.operations.JobStartException;
 import jakarta.batch.operations.NoSuchJobExecutionException;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
 import jakarta.batch.runtime.JobInstance;
 
 import com.ibm.jbatch.container.IThreadRootController;
@@ -48,7 +53,9 @@ import com.ibm.jbatch.container.services.impl.NoOpBatchSecurityHelper;
 import com.ibm.jbatch.container.services.impl.RuntimeBatchJobUtil;
 import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
 import com.ibm.jbatch.container.util.BatchFlowInSplitWorkUnit;
+import com.ibm.jbatch.container.util.BatchParallelWorkUnit;
 import com.ibm.jbatch.container.util.BatchPartitionWorkUnit;
 import com.ibm.jbatch.container.util.BatchWorkUnit;
 import com.ibm.jbatch.container.util.FlowInSplitBuilderConfig;
@@ -59,7 +66,6 @@ import com.ibm.jbatch.spi.BatchSPIManager;
 import com.ibm.jbatch.spi.BatchSecurityHelper;
 import com.ibm.jbatch.spi.services.IBatchConfig;
 import com.ibm.jbatch.spi.services.IBatchThreadPoolService;
-import com.ibm.jbatch.spi.services.ParallelTaskResult;
 
 public class BatchKernelImpl implements IBatchKernelService {
 
@@ -81,6 +87,13 @@ public class BatchKernelImpl implements IBatchKernelService {
 
 	private BatchJobUtil batchJobUtil = null;
 
+	// Null unless SCHEDULER_ENABLED
+	private BatchWorkScheduler scheduler = null;
+
+	private RetentionEngine retentionEngine = null;
+
+	private StepProgressRegistry stepProgressRegistry = null;
+
 	public BatchKernelImpl() {
 		executorService = servicesManager.getThreadPoolService();
 		callbackService = servicesManager.getJobCallbackService();
@@ -100,12 +113,81 @@ public class BatchKernelImpl implements IBatchKernelService {
 	}
 
 	public void init(IBatchConfig pgcConfig) throws BatchContainerServiceException {
+		Properties props = pgcConfig.getConfigProperties();
+		if (Boolean.parseBoolean(props.getProperty(BatchContainerConstants.SCHEDULER_ENABLED,
+				BatchContainerConstants.DEFAULT_SCHEDULER_ENABLED).trim())) {
+			try {
+				scheduler = new BatchWorkScheduler(executorService, props);
+			} catch (IllegalArgumentException e) {
+				throw new BatchContainerServiceException("Invalid batch scheduler configuration", e);
+			}
+		}
+		try {
+			retentionEngine = new RetentionEngine(persistenceService, executorService, scheduler, props);
+		} catch (IllegalArgumentException e) {
+			throw new BatchContainerServiceException("Invalid purge or retention configuration", e);
+		}
+		try {
+			stepProgressRegistry = new StepProgressRegistry(props);
+		} catch (IllegalArgumentException e) {
+			throw new BatchContainerServiceException("Invalid step progress configuration", e);
+		}
+	}
+
+	/**
+	 * @return the job scheduler, or null if jobs go straight to the thread pool
+	 */
+	public BatchWorkScheduler getScheduler() {
+		return scheduler;
 	}
 
 	@Override
-	public void shutdown() throws BatchContainerServiceException {
-		// TODO Auto-generated method stub
+	public RetentionEngine getRetentionEngine() {
+		return retentionEngine;
+	}
+
+	@Override
+	public StepProgressRegistry getStepProgressRegistry() {
+		return stepProgressRegistry;
+	}
+
+	@Override
+	public StepProgress getStepProgress(long executionId, String stepName) {
+		return stepProgressRegistry.getStepProgress(executionId, stepName);
+	}
+
+	@Override
+	public List<StepProgress> getStepProgress(long executionId) {
+		return stepProgressRegistry.getStepProgress(executionId);
+	}
+
+	private void submit(BatchWorkUnit batchWork) {
+		if (scheduler != null) {
+			Properties jobParameters = batchWork.getJobExecutionImpl().getJobParameters();
+			String priority = jobParameters != null ? jobParameters.getProperty(BatchWorkScheduler.PRIORITY_JOB_PARAMETER) : null;
+			scheduler.submitJob(batchWork, priority, getBatchSecurityHelper().getCurrentTag());
+		} else {
+			executorService.executeTask(batchWork, null);
+		}
+	}
 
+	private void submitParallel(BatchWorkUnit batchWork) {
+		if (scheduler != null) {
+			Object siblingGroup = batchWork instanceof BatchParallelWorkUnit ? ((BatchParallelWorkUnit) batchWork).getSiblingGroup() : batchWork;
+			scheduler.submitParallelWork(batchWork, siblingGroup);
+		} else {
+			executorService.executeParallelTask(batchWork, null);
+		}
+	}
+
+	@Override
+	public void shutdown() throws BatchContainerServiceException {
+		if (retentionEngine != null) {
+			retentionEngine.shutdown();
+		}
+		if (stepProgressRegistry != null) {
+			stepProgressRegistry.shutdown();
+		}
 	}
 
 	@Override
@@ -132,7 +214,7 @@ public class BatchKernelImpl implements IBatchKernelService {
 		BatchWorkUnit batchWork = new BatchWorkUnit(this, jobExecution);
 		registerCurrentInstanceAndExecution(jobExecution, batchWork.getController());
 
-		executorService.executeTask(batchWork, null);
+		submit(batchWork);
 
 		if (logger.isLoggable(Level.FINER)) {
 			logger.exiting(sourceClass, method, jobExecution);
@@ -187,7 +269,7 @@ public class BatchKernelImpl implements IBatchKernelService {
 
 		registerCurrentInstanceAndExecution(jobExecution, batchWork.getController());
 
-		executorService.executeTask(batchWork, null);
+		submit(batchWork);
 
 		if (logger.isLoggable(Level.FINER)) {
 			logger.exiting(sourceClass, method, jobExecution);
@@ -203,6 +285,9 @@ public class BatchKernelImpl implements IBatchKernelService {
 			logger.fine("JobExecution done with batchStatus: " + jobExecution.getBatchStatus() + " , getting ready to invoke callbacks for JobExecution: " + jobExecution.getExecutionId());
 		}
 
+		// Before anyone waiting for the job hears it's done
+		stepProgressRegistry.jobEnded(jobExecution.getInstanceId(), jobExecution.getExecutionId());
+
 		callbackService.done(jobExecution.getExecutionId());
 
 		if (logger.isLoggable(Level.FINE)) {
@@ -230,6 +315,38 @@ public class BatchKernelImpl implements IBatchKernelService {
 		return retVal;
 	}
 
+	@Override
+	public CompletableFuture<JobExecution> getJobExecutionCompletion(long executionId) throws NoSuchJobExecutionException {
+		if (!isExecutionRunning(executionId)) {
+			// Already ended, so no need to register a future, unless it's running in another runtime
+			IJobExecution execution = getJobExecution(executionId);
+			BatchStatus batchStatus = execution.getBatchStatus();
+			if (batchStatus == BatchStatus.COMPLETED || batchStatus == BatchStatus.FAILED
+					|| batchStatus == BatchStatus.STOPPED || batchStatus == BatchStatus.ABANDONED) {
+				return CompletableFuture.<JobExecution>completedFuture(execution);
+			}
+		}
+		// If it ends in between, its id is still remembered by the callback service
+		final CompletableFuture<Long> completion = callbackService.getCompletionFuture(executionId);
+		final CompletableFuture<JobExecution> result = completion.thenApply(new Function<Long, JobExecution>() {
+			@Override
+			public JobExecution apply(Long id) {
+				return getJobExecution(id);
+			}
+		});
+		// A dependent future doesn't pass cancelling on by itself, and the callback service
+		// keeps waiting until it's told
+		result.whenComplete(new BiConsumer<JobExecution, Throwable>() {
+			@Override
+			public void accept(JobExecution execution, Throwable t) {
+				if (result.isCancelled()) {
+					completion.cancel(false);
+				}
+			}
+		});
+		return result;
+	}
+
 	@Override
 	public void startGeneratedJob(BatchWorkUnit batchWork) {
 		String method = "startGeneratedJob";
@@ -239,7 +356,7 @@ public class BatchKernelImpl implements IBatchKernelService {
 		}
 
 		//This call is non-blocking
-		ParallelTaskResult result = executorService.executeParallelTask(batchWork, null);
+		submitParallel(batchWork);
 
 		if (logger.isLoggable(Level.FINER)) {
 			logger.exiting(sourceClass, method, new Object[] { batchWork });
@@ -274,14 +391,13 @@ public class BatchKernelImpl implements IBatchKernelService {
 
 		List<BatchPartitionWorkUnit> batchWorkUnits = new ArrayList<BatchPartitionWorkUnit>(jobModels.size());
 
-		int instance = 0;
-		for (JSLJob parallelJob  : jobModels){
-			Properties partitionProps = (partitionPropertiesArray == null) ? null : partitionPropertiesArray[instance];    			
+		if (logger.isLoggable(Level.FINER)) {
+			logger.finer("Starting execution for jobModels = " + jobModels);
+		}
+		List<RuntimeJobExecution> jobExecutions = JobExecutionHelper.startPartitions(jobModels, partitionPropertiesArray);
 
-			if (logger.isLoggable(Level.FINER)) {
-				logger.finer("Starting execution for jobModel = " + parallelJob.toString());
-			}
-			RuntimeJobExecution jobExecution = JobExecutionHelper.startPartition(parallelJob, partitionProps);
+		int instance = 0;
+		for (RuntimeJobExecution jobExecution : jobExecutions){
 			jobExecution.setPartitionInstance(instance);
 
 			if (logger.isLoggable(Level.FINE)) {
@@ -356,7 +472,7 @@ public class BatchKernelImpl implements IBatchKernelService {
 		}
 
 		//This call is non-blocking
-		ParallelTaskResult result = executorService.executeParallelTask(batchWork, null);
+		submitParallel(batchWork);
 
 		if (logger.isLoggable(Level.FINER)) {
 			logger.exiting(sourceClass, method, batchWork);
@@ -450,6 +566,7 @@ public class BatchKernelImpl implements IBatchKernelService {
 		} else {
 			instanceIdExecutingSet.add(instanceId);
 			executionId2jobControllerMap.put(jobExecution.getExecutionId(), controller);
+			stepProgressRegistry.jobStarted(instanceId, execId, jobExecution.getJobInstance().getJobName());
 		}
 	}
 	
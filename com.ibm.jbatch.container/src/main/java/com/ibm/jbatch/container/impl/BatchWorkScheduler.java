@@ -0,0 +1,414 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.services.IBatchThreadPoolService;
+
+/**
+ * Sits between the kernel and the thread pool, deciding which submitted jobs run next, so a
+ * burst of large jobs can't starve small ones.
+ *
+ * Top-level jobs take one of a fixed number of job slots.  Jobs waiting for a slot are queued
+ * by priority class, taken from the {@link #PRIORITY_JOB_PARAMETER} job parameter, else from
+ * the submitter's apptag, else the default class.  When a slot frees up, the classes take
+ * turns in proportion to their weights (stride scheduling, a form of weighted fair queuing),
+ * so a low priority class still makes progress.  An apptag may also be given a quota of job
+ * slots; its jobs beyond that wait even when slots are free, without holding up other jobs.
+ *
+ * Purges of the job repository take job slots too, in the {@link #PURGE_PRIORITY_CLASS}
+ * class, so a large purge gets no more of the pool than a low priority job.
+ *
+ * Partitions and split flows don't take job slots, since their job already holds one while it
+ * waits for them.  Instead the partitions (or flows) of any one partitioned step (or split)
+ * are admitted a few at a time, so one job can't flood the pool.
+ */
+public class BatchWorkScheduler {
+
+	private final static String sourceClass = BatchWorkScheduler.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	/**
+	 * Job parameter naming the priority class a job is queued in.
+	 */
+	public static final String PRIORITY_JOB_PARAMETER = "com.ibm.jbatch.priority";
+
+	/**
+	 * Priority class of purges, given a weight of 1 unless SCHEDULER_PRIORITY_CLASSES names it.
+	 */
+	public static final String PURGE_PRIORITY_CLASS = "purge";
+
+	private static final long STRIDE = 1L << 20;
+
+	private final IBatchThreadPoolService threadPool;
+	private final int maxConcurrentJobs;
+	private final int maxParallelPerParent;
+	private final String defaultClassName;
+	private final Map<String, PriorityClass> priorityClasses = new LinkedHashMap<String, PriorityClass>();
+	private final Map<String, String> apptagClasses;
+	private final Map<String, Integer> apptagQuotas = new HashMap<String, Integer>();
+
+	// Guarded by 'this'
+	private int runningJobs = 0;
+	private long pass = 0;
+	private final Map<String, Integer> runningJobsByApptag = new HashMap<String, Integer>();
+	private final Map<Object, ParallelGroup> parallelGroups = new HashMap<Object, ParallelGroup>();
+	private long parallelDeferredCount = 0;
+
+	private class PriorityClass {
+		final String name;
+		final int weight;
+		final long stride;
+		long pass = 0;
+		final ArrayDeque<QueuedJob> queue = new ArrayDeque<QueuedJob>();
+
+		long dispatchedCount = 0;
+		long totalWaitNanos = 0;
+		long maxWaitNanos = 0;
+
+		PriorityClass(String name, int weight) {
+			this.name = name;
+			this.weight = weight;
+			this.stride = STRIDE / weight;
+		}
+	}
+
+	private class QueuedJob {
+		final Runnable work;
+		final String apptag;
+		final PriorityClass priorityClass;
+		final long queuedNanos = System.nanoTime();
+
+		QueuedJob(Runnable work, String apptag, PriorityClass priorityClass) {
+			this.work = work;
+			this.apptag = apptag;
+			this.priorityClass = priorityClass;
+		}
+	}
+
+	// The partitions or flows of one partitioned step or split
+	private class ParallelGroup {
+		int running = 0;
+		final ArrayDeque<Runnable> waiting = new ArrayDeque<Runnable>();
+	}
+
+	public BatchWorkScheduler(IBatchThreadPoolService threadPool, Properties props) {
+		this.threadPool = threadPool;
+		this.maxConcurrentJobs = Integer.parseInt(props.getProperty(BatchContainerConstants.SCHEDULER_MAX_CONCURRENT_JOBS,
+				BatchContainerConstants.DEFAULT_SCHEDULER_MAX_CONCURRENT_JOBS).trim());
+		this.maxParallelPerParent = Integer.parseInt(props.getProperty(BatchContainerConstants.SCHEDULER_MAX_PARALLEL_PER_PARENT,
+				BatchContainerConstants.DEFAULT_SCHEDULER_MAX_PARALLEL_PER_PARENT).trim());
+
+		Map<String, String> weights = parseList(props.getProperty(BatchContainerConstants.SCHEDULER_PRIORITY_CLASSES,
+				BatchContainerConstants.DEFAULT_SCHEDULER_PRIORITY_CLASSES));
+		for (Map.Entry<String, String> entry : weights.entrySet()) {
+			int weight = Integer.parseInt(entry.getValue());
+			if (weight < 1) {
+				throw new IllegalArgumentException("Priority class: " + entry.getKey() + " must have a weight of at least 1");
+			}
+			priorityClasses.put(entry.getKey(), new PriorityClass(entry.getKey(), weight));
+		}
+		if (!priorityClasses.containsKey(PURGE_PRIORITY_CLASS)) {
+			priorityClasses.put(PURGE_PRIORITY_CLASS, new PriorityClass(PURGE_PRIORITY_CLASS, 1));
+		}
+
+		this.defaultClassName = props.getProperty(BatchContainerConstants.SCHEDULER_DEFAULT_PRIORITY_CLASS,
+				BatchContainerConstants.DEFAULT_SCHEDULER_DEFAULT_PRIORITY_CLASS).trim();
+		if (!priorityClasses.containsKey(defaultClassName)) {
+			throw new IllegalArgumentException("Default priority class: " + defaultClassName + " is not one of: " + priorityClasses.keySet());
+		}
+
+		this.apptagClasses = parseList(props.getProperty(BatchContainerConstants.SCHEDULER_APPTAG_PRIORITY_CLASSES, ""));
+		for (Map.Entry<String, String> entry : parseList(props.getProperty(BatchContainerConstants.SCHEDULER_APPTAG_QUOTAS, "")).entrySet()) {
+			apptagQuotas.put(entry.getKey(), Integer.parseInt(entry.getValue()));
+		}
+
+		logger.config("Batch work scheduler with " + maxConcurrentJobs + " job slots, priority classes: " + weights
+				+ ", default class: " + defaultClassName + ", apptag classes: " + apptagClasses + ", apptag quotas: " + apptagQuotas
+				+ ", max parallel work per step or split: " + (maxParallelPerParent > 0 ? String.valueOf(maxParallelPerParent) : "unlimited"));
+	}
+
+	// "a=1, b=2"
+	private static Map<String, String> parseList(String list) {
+		Map<String, String> retVal = new LinkedHashMap<String, String>();
+		for (String entry : list.split(",")) {
+			if (entry.trim().isEmpty()) {
+				continue;
+			}
+			int eq = entry.indexOf('=');
+			if (eq < 1) {
+				throw new IllegalArgumentException("Expected name=value but found: " + entry.trim());
+			}
+			retVal.put(entry.substring(0, eq).trim(), entry.substring(eq + 1).trim());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Runs a top-level job once it's its turn.
+	 *
+	 * @param priority the job's {@link #PRIORITY_JOB_PARAMETER}, or null
+	 * @param apptag the submitter's apptag
+	 */
+	public void submitJob(Runnable work, String priority, String apptag) {
+		PriorityClass priorityClass = classify(work, priority, apptag);
+		List<QueuedJob> ready;
+		synchronized (this) {
+			if (priorityClass.queue.isEmpty()) {
+				// No credit for time spent idle
+				priorityClass.pass = Math.max(priorityClass.pass, pass);
+			}
+			priorityClass.queue.add(new QueuedJob(work, apptag, priorityClass));
+			ready = takeReadyJobs();
+		}
+		dispatchJobs(ready);
+	}
+
+	/**
+	 * Runs a purge of the job repository once it's its turn, in the {@link #PURGE_PRIORITY_CLASS} class.
+	 */
+	public void submitPurge(Runnable work) {
+		submitJob(work, PURGE_PRIORITY_CLASS, null);
+	}
+
+	private PriorityClass classify(Runnable work, String priority, String apptag) {
+		String className = priority;
+		if (className == null && apptag != null) {
+			className = apptagClasses.get(apptag);
+		}
+		if (className == null) {
+			return priorityClasses.get(defaultClassName);
+		}
+		PriorityClass priorityClass = priorityClasses.get(className.trim());
+		if (priorityClass == null) {
+			logger.warning("Unknown priority class: " + className + " for: " + work + ", using: " + defaultClassName);
+			return priorityClasses.get(defaultClassName);
+		}
+		return priorityClass;
+	}
+
+	// Caller holds the lock
+	private List<QueuedJob> takeReadyJobs() {
+		List<QueuedJob> ready = new ArrayList<QueuedJob>();
+		while (runningJobs < maxConcurrentJobs) {
+			QueuedJob next = takeNextJob();
+			if (next == null) {
+				break;
+			}
+			runningJobs++;
+			if (next.apptag != null) {
+				Integer running = runningJobsByApptag.get(next.apptag);
+				runningJobsByApptag.put(next.apptag, running == null ? 1 : running + 1);
+			}
+
+			PriorityClass priorityClass = next.priorityClass;
+			long waitNanos = System.nanoTime() - next.queuedNanos;
+			priorityClass.dispatchedCount++;
+			priorityClass.totalWaitNanos += waitNanos;
+			priorityClass.maxWaitNanos = Math.max(priorityClass.maxWaitNanos, waitNanos);
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("Dispatching: " + next.work + " of priority class: "
+						+ priorityClass.name + " after waiting " + (waitNanos / 1000000L) + " ms");
+			}
+			ready.add(next);
+		}
+		return ready;
+	}
+
+	/*
+	 * The class with the lowest pass goes next, then moves its pass on by its stride, so over
+	 * time each class gets turns in proportion to its weight.  Jobs whose apptag is at its quota
+	 * are passed over.
+	 */
+	private QueuedJob takeNextJob() {
+		PriorityClass nextClass = null;
+		QueuedJob nextJob = null;
+		for (PriorityClass priorityClass : priorityClasses.values()) {
+			if (nextClass != null && priorityClass.pass >= nextClass.pass) {
+				continue;
+			}
+			for (QueuedJob queued : priorityClass.queue) {
+				if (hasQuota(queued.apptag)) {
+					nextClass = priorityClass;
+					nextJob = queued;
+					break;
+				}
+			}
+		}
+		if (nextJob == null) {
+			return null;
+		}
+		nextClass.queue.remove(nextJob);
+		pass = nextClass.pass;
+		nextClass.pass += nextClass.stride;
+		return nextJob;
+	}
+
+	private boolean hasQuota(String apptag) {
+		if (apptag == null) {
+			return true;
+		}
+		Integer quota = apptagQuotas.get(apptag);
+		if (quota == null) {
+			return true;
+		}
+		Integer running = runningJobsByApptag.get(apptag);
+		return running == null || running < quota;
+	}
+
+	private void dispatchJobs(List<QueuedJob> ready) {
+		for (final QueuedJob queued : ready) {
+			try {
+				threadPool.executeTask(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							queued.work.run();
+						} finally {
+							jobDone(queued);
+						}
+					}
+				}, null);
+			} catch (RuntimeException e) {
+				logger.log(Level.SEVERE, "Could not dispatch: " + queued.work, e);
+				jobDone(queued);
+				throw e;
+			}
+		}
+	}
+
+	private void jobDone(QueuedJob done) {
+		List<QueuedJob> ready;
+		synchronized (this) {
+			runningJobs--;
+			if (done.apptag != null) {
+				Integer running = runningJobsByApptag.get(done.apptag);
+				if (running != null && running > 1) {
+					runningJobsByApptag.put(done.apptag, running - 1);
+				} else {
+					runningJobsByApptag.remove(done.apptag);
+				}
+			}
+			ready = takeReadyJobs();
+		}
+		dispatchJobs(ready);
+	}
+
+	/**
+	 * Runs a partition or split flow, once fewer than the limit of its siblings are running.
+	 *
+	 * @param parent shared by the partitions of one step, or flows of one split
+	 */
+	public void submitParallelWork(Runnable work, Object parent) {
+		if (maxParallelPerParent <= 0) {
+			threadPool.executeParallelTask(work, null);
+			return;
+		}
+
+		boolean admitted;
+		synchronized (this) {
+			ParallelGroup group = parallelGroups.get(parent);
+			if (group == null) {
+				group = new ParallelGroup();
+				parallelGroups.put(parent, group);
+			}
+			admitted = group.running < maxParallelPerParent;
+			if (admitted) {
+				group.running++;
+			} else {
+				group.waiting.add(work);
+				parallelDeferredCount++;
+			}
+		}
+		if (admitted) {
+			dispatchParallelWork(parent, work);
+		}
+	}
+
+	private void dispatchParallelWork(final Object parent, final Runnable work) {
+		threadPool.executeParallelTask(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					work.run();
+				} finally {
+					parallelWorkDone(parent);
+				}
+			}
+		}, null);
+	}
+
+	private void parallelWorkDone(Object parent) {
+		Runnable next;
+		synchronized (this) {
+			ParallelGroup group = parallelGroups.get(parent);
+			next = group.waiting.poll();
+			if (next == null) {
+				group.running--;
+				if (group.running == 0) {
+					parallelGroups.remove(parent);
+				}
+			}
+		}
+		if (next != null) {
+			dispatchParallelWork(parent, next);
+		}
+	}
+
+	public synchronized int getRunningJobCount() {
+		return runningJobs;
+	}
+
+	/**
+	 * @return number of partitions and split flows which had to wait to be admitted
+	 */
+	public synchronized long getParallelDeferredCount() {
+		return parallelDeferredCount;
+	}
+
+	/**
+	 * Queue metrics for each priority class: jobs queued now, jobs dispatched so far, and their
+	 * total, average and longest wait for a job slot.
+	 *
+	 * @return metric name to value, keyed by priority class
+	 */
+	public synchronized Map<String, Map<String, Long>> getQueueStatistics() {
+		Map<String, Map<String, Long>> stats = new LinkedHashMap<String, Map<String, Long>>();
+		for (PriorityClass priorityClass : priorityClasses.values()) {
+			Map<String, Long> classStats = new LinkedHashMap<String, Long>();
+			classStats.put("weight", (long) priorityClass.weight);
+			classStats.put("queued", (long) priorityClass.queue.size());
+			classStats.put("dispatched", priorityClass.dispatchedCount);
+			classStats.put("totalWaitMillis", priorityClass.totalWaitNanos / 1000000L);
+			classStats.put("averageWaitMillis", priorityClass.dispatchedCount == 0 ? 0 : priorityClass.totalWaitNanos / priorityClass.dispatchedCount / 1000000L);
+			classStats.put("maxWaitMillis", priorityClass.maxWaitNanos / 1000000L);
+			stats.put(priorityClass.name, classStats);
+		}
+		return stats;
+	}
+}
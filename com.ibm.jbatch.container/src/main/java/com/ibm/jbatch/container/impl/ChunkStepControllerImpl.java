@@ -16,7 +16,6 @@
  */
 package com.ibm.jbatch.container.impl;
 
-import java.io.ByteArrayInputStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.io.StringWriter;
@@ -24,6 +23,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,11 +62,10 @@ import com.ibm.jbatch.container.persistence.CheckpointData;
 import com.ibm.jbatch.container.persistence.CheckpointDataKey;
 import com.ibm.jbatch.container.persistence.CheckpointManager;
 import com.ibm.jbatch.container.persistence.ItemCheckpointAlgorithm;
-import com.ibm.jbatch.container.services.IPersistenceManagerService;
-import com.ibm.jbatch.container.servicesmanager.ServicesManager;
-import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.transaction.impl.DefaultNonTransactionalManager;
+import com.ibm.jbatch.container.util.ChunkInstrumentationHelper;
 import com.ibm.jbatch.container.util.PartitionDataWrapper;
-import com.ibm.jbatch.container.util.TCCLObjectInputStream;
+import com.ibm.jbatch.container.util.SerializationHelper;
 import com.ibm.jbatch.container.validation.ArtifactValidationException;
 import com.ibm.jbatch.jsl.model.Chunk;
 import com.ibm.jbatch.jsl.model.ItemProcessor;
@@ -68,6 +73,9 @@ import com.ibm.jbatch.jsl.model.ItemReader;
 import com.ibm.jbatch.jsl.model.ItemWriter;
 import com.ibm.jbatch.jsl.model.Property;
 import com.ibm.jbatch.jsl.model.Step;
+import com.ibm.jbatch.spi.ChunkInstrumentation;
+import com.ibm.jbatch.spi.ChunkInstrumentation.Phase;
+import com.ibm.jbatch.spi.ChunkInstrumentation.PhaseTimer;
 
 public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
@@ -76,13 +84,29 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
     protected static final int DEFAULT_TRAN_TIMEOUT_SECONDS = 180;  // From the spec Sec. 9.7
 
+	/**
+	 * Step property which, set to "true", has the reader read the next chunk on a separate
+	 * thread while the current chunk is written and committed.  See {@link ReadAheadItemReader}.
+	 * Ignored if the step has item read listeners, which must see each read as it happens.
+	 */
+	public static final String PIPELINED_STEP_PROP = "com.ibm.jbatch.chunk.pipelined";
+
+	/**
+	 * Step property giving the number of threads to process a chunk's items on, in parallel.
+	 * The processor and any process listeners must then be thread-safe.  Items are still read
+	 * one at a time, and written in the order read.
+	 *
+	 * The pool threads aren't part of the chunk transaction, so with a non-transactional
+	 * (Java SE) transaction manager only.  Under a global transaction the processor keeps
+	 * running on the step thread, within the transaction, and the property is ignored.
+	 */
+	public static final String PROCESSOR_THREADS_STEP_PROP = "com.ibm.jbatch.chunk.processorThreads";
+
 	private Chunk chunk = null;
 	private ItemReaderProxy readerProxy = null;
 	private ItemProcessorProxy processorProxy = null;
 	private ItemWriterProxy writerProxy = null;
 	private CheckpointManager checkpointManager;
-	private ServicesManager servicesManager = ServicesManagerImpl.getInstance();
-	private IPersistenceManagerService _persistenceManagerService = null;
 	private SkipHandler skipHandler = null;
 	CheckpointDataKey readerChkptDK, writerChkptDK = null;
 	CheckpointData readerChkptData = null;
@@ -98,6 +122,10 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	List<ItemProcessListenerProxy> itemProcessListeners = null;
 	List<ItemWriteListenerProxy> itemWriteListeners = null;
 	private RetryHandler retryHandler;
+	private ReadAheadItemReader readAhead = null;  // Only in pipelined mode
+	private ExecutorService processorPool = null;  // Only with parallel processing
+	private PartitionWorkSplitter workSplitter = null;  // Only in a dynamically scheduled partition
+	private PhaseTimer phaseTimer = null;  // Only with chunk instrumentation
 
 	// metrics
 	long readCount = 0;
@@ -243,6 +271,11 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	 * @return an array list of objects to write
 	 */
 	private List<Object> readAndProcess() {
+		// After a rollback we go one item at a time anyway
+		if (processorPool != null && !currentChunkStatus.isRetryingAfterRollback()) {
+			return readAndProcessInParallel();
+		}
+
 		logger.entering(sourceClass, "readAndProcess");
 
 		List<Object> chunkToWrite = new ArrayList<Object>();
@@ -300,6 +333,118 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		return chunkToWrite;
 	}
 
+	/**
+	 * As {@link #readAndProcess()}, but each item is handed to the processor pool as soon as
+	 * it's read.  Once the chunk has been read, results are taken in the order read, with any
+	 * processing exception handled (skip, retry, etc.) on this thread, just as if the item had
+	 * been processed here.
+	 *
+	 * @return an array list of objects to write
+	 */
+	private List<Object> readAndProcessInParallel() {
+		logger.entering(sourceClass, "readAndProcessInParallel");
+
+		List<Object> itemsRead = new ArrayList<Object>();
+		List<Future<Object>> itemsProcessing = new ArrayList<Future<Object>>();
+		int next = 0;
+
+		try {
+			while (true) {
+				currentItemStatus = new SingleItemStatus();
+
+				Object itemRead = readItem();
+
+				if (currentChunkStatus.wasMarkedForRollbackWithRetry()) {
+					break;
+				}
+
+				if (!currentItemStatus.isSkipped() && !currentChunkStatus.hasReadNull()) {
+					itemsRead.add(itemRead);
+					itemsProcessing.add(submitProcessItem(itemRead));
+				}
+
+				// This will force the current item to finish processing on a stop request
+				if (stepContext.getBatchStatus().equals(BatchStatus.STOPPING)) {
+					currentChunkStatus.markStopping();
+					break;
+				}
+
+				if (checkpointManager.isReadyToCheckpoint()) {
+					break;
+				}
+
+				// last record in readerProxy reached
+				if (currentChunkStatus.hasReadNull()) {
+					break;
+				}
+			}
+
+			List<Object> chunkToWrite = new ArrayList<Object>();
+			while (next < itemsProcessing.size() && !currentChunkStatus.wasMarkedForRollbackWithRetry()) {
+				currentItemStatus = new SingleItemStatus();
+
+				Object itemProcessed = awaitProcessedItem(itemsRead.get(next), itemsProcessing.get(next));
+				next++;
+
+				if (!currentChunkStatus.wasMarkedForRollbackWithRetry() && !currentItemStatus.isSkipped() && !currentItemStatus.isFiltered()) {
+					chunkToWrite.add(itemProcessed);
+				}
+			}
+
+			logger.exiting(sourceClass, "readAndProcessInParallel", chunkToWrite);
+			return chunkToWrite;
+		} finally {
+			// On a rollback or failure, don't leave items still processing behind us
+			discardProcessing(itemsProcessing.subList(next, itemsProcessing.size()));
+		}
+	}
+
+	private Future<Object> submitProcessItem(final Object itemRead) {
+		return processorPool.submit(new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				return invokeProcessor(itemRead);
+			}
+		});
+	}
+
+	private Object awaitProcessedItem(Object itemRead, Future<Object> itemProcessing) {
+		try {
+			Object processedItem = itemProcessing.get();
+			if (processedItem == null) {
+				currentItemStatus.setFiltered(true);
+			}
+			return processedItem;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				return handleProcessException(itemRead, (Exception) cause);
+			}
+			throw new BatchContainerRuntimeException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BatchContainerRuntimeException("Interrupted waiting for item processing", e);
+		}
+	}
+
+	private void discardProcessing(List<Future<Object>> itemsProcessing) {
+		for (Future<Object> itemProcessing : itemsProcessing) {
+			itemProcessing.cancel(false);
+		}
+		for (Future<Object> itemProcessing : itemsProcessing) {
+			if (!itemProcessing.isCancelled()) {
+				try {
+					itemProcessing.get();
+				} catch (ExecutionException e) {
+					logger.fine("Discarding processing failure of an item not to be written: " + e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Reads an item from the reader
 	 * 
@@ -312,17 +457,22 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		try {			
 
 			currentChunkStatus.incrementItemsTouchedInCurrentChunk();
+			stepProgress.itemRead();
 
 			// call read listeners before and after the actual read
+			long start = startTiming();
 			for (ItemReadListenerProxy readListenerProxy : itemReadListeners) {
 				readListenerProxy.beforeRead();
 			}
+			start = endTiming(Phase.LISTENERS, start, itemReadListeners);
 
-			itemRead = readerProxy.readItem();
+			itemRead = isReadingAhead() ? readAhead.readItem() : readerProxy.readItem();
+			start = endTiming(Phase.READ, start);
 
 			for (ItemReadListenerProxy readListenerProxy : itemReadListeners) {
 				readListenerProxy.afterRead(itemRead);
 			}
+			endTiming(Phase.LISTENERS, start, itemReadListeners);
 
 			// itemRead == null means we reached the end of
 			// the readerProxy "resultset"
@@ -401,64 +551,87 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		}
 
 		try {
-
-			// call process listeners before and after the actual process call
-			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
-				processListenerProxy.beforeProcess(itemRead);
-			}
-
-			processedItem = processorProxy.processItem(itemRead);
+			processedItem = invokeProcessor(itemRead);
 
 			if (processedItem == null) {
 				currentItemStatus.setFiltered(true);
 			}
-
-			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
-				processListenerProxy.afterProcess(itemRead, processedItem);
-			}
 		} catch (Exception e) {
-			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
-				processListenerProxy.onProcessError(itemRead, e);
-			}
-			if(!currentChunkStatus.isRetryingAfterRollback()) {
-				if (retryProcessException(e, itemRead)) {
-					if (!retryHandler.isRollbackException(e)) {
-						processedItem = processItem(itemRead);
-					} else {
-						currentChunkStatus.markForRollbackWithRetry(e);
-					}
-				}
-				else if (skipProcessException(e, itemRead)) {
-					currentItemStatus.setSkipped(true);
-					stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
-				}
-				else {
-					throw new BatchContainerRuntimeException(e);
+			processedItem = handleProcessException(itemRead, e);
+		} catch (Throwable e) {
+			throw new BatchContainerRuntimeException(e);
+		}
+
+		logger.exiting(sourceClass, "processItem", processedItem==null ? "<null>" : processedItem);
+		return processedItem;
+	}
+
+	/**
+	 * Calls the processor, and the process listeners before and after it.  Called from the
+	 * processor pool with parallel processing, so it must leave the step's metrics and the
+	 * item and chunk status alone; the filter and skip counts are only updated on the step
+	 * thread, once it has the item's result.
+	 */
+	private Object invokeProcessor(Object itemRead) throws Exception {
+		long start = startTiming();
+		for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
+			processListenerProxy.beforeProcess(itemRead);
+		}
+		start = endTiming(Phase.LISTENERS, start, itemProcessListeners);
+
+		Object processedItem = processorProxy.processItem(itemRead);
+		start = endTiming(Phase.PROCESS, start);
+
+		for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
+			processListenerProxy.afterProcess(itemRead, processedItem);
+		}
+		endTiming(Phase.LISTENERS, start, itemProcessListeners);
+		return processedItem;
+	}
+
+	/**
+	 * Skip or retry after the processor (or a process listener) threw an exception.
+	 *
+	 * @return the processed item, if retried without rollback
+	 */
+	private Object handleProcessException(Object itemRead, Exception e) {
+		Object processedItem = null;
+		for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
+			processListenerProxy.onProcessError(itemRead, e);
+		}
+		if(!currentChunkStatus.isRetryingAfterRollback()) {
+			if (retryProcessException(e, itemRead)) {
+				if (!retryHandler.isRollbackException(e)) {
+					processedItem = processItem(itemRead);
+				} else {
+					currentChunkStatus.markForRollbackWithRetry(e);
 				}
 			}
+			else if (skipProcessException(e, itemRead)) {
+				currentItemStatus.setSkipped(true);
+				stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
+			}
 			else {
-				if (skipProcessException(e, itemRead)) {
-					currentItemStatus.setSkipped(true);
-					stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
-				} else if (retryProcessException(e, itemRead)) {
-
-					if (!retryHandler.isRollbackException(e)) {
-						// retry without rollback
-						processedItem = processItem(itemRead);
-					} else {
-						// retry with rollback
-						currentChunkStatus.markForRollbackWithRetry(e);
-					}
+				throw new BatchContainerRuntimeException(e);
+			}
+		}
+		else {
+			if (skipProcessException(e, itemRead)) {
+				currentItemStatus.setSkipped(true);
+				stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
+			} else if (retryProcessException(e, itemRead)) {
+
+				if (!retryHandler.isRollbackException(e)) {
+					// retry without rollback
+					processedItem = processItem(itemRead);
 				} else {
-					throw new BatchContainerRuntimeException(e);
+					// retry with rollback
+					currentChunkStatus.markForRollbackWithRetry(e);
 				}
+			} else {
+				throw new BatchContainerRuntimeException(e);
 			}
-
-		} catch (Throwable e) {
-			throw new BatchContainerRuntimeException(e);
 		}
-
-		logger.exiting(sourceClass, "processItem", processedItem==null ? "<null>" : processedItem);
 		return processedItem;
 	}
 
@@ -474,15 +647,19 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			try {
 
 				// call read listeners before and after the actual read
+				long start = startTiming();
 				for (ItemWriteListenerProxy writeListenerProxy : itemWriteListeners) {
 					writeListenerProxy.beforeWrite(theChunk);
 				}
+				start = endTiming(Phase.LISTENERS, start, itemWriteListeners);
 
 				writerProxy.writeItems(theChunk);
+				start = endTiming(Phase.WRITE, start);
 
 				for (ItemWriteListenerProxy writeListenerProxy : itemWriteListeners) {
 					writeListenerProxy.afterWrite(theChunk);
 				}
+				endTiming(Phase.LISTENERS, start, itemWriteListeners);
 			} catch (Exception e) {
 				this.stepContext.setException(e);
 				for (ItemWriteListenerProxy writeListenerProxy : itemWriteListeners) {
@@ -604,6 +781,12 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
 				// Done with the previous chunk status so advance reference to next one.
 				currentChunkStatus = getNextChunkStatusBasedOnPrevious();
+				stepProgress.chunkStarted();
+
+				// In pipelined mode, read ahead except while retrying item by item after a rollback
+				if (readAhead != null && !currentChunkStatus.isRetryingAfterRollback() && !readAhead.isStarted()) {
+					readAhead.start();
+				}
 
 				// Sequence surrounding beginCheckpoint() updated per MR
 				// https://java.net/bugzilla/show_bug.cgi?id=5873
@@ -613,11 +796,14 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 				// in a CheckpointAlgorithm for ease in keeping the sequence consistent
 				checkpointManager.beginCheckpoint();
 
+				long start = startTiming();
 				transactionManager.begin();
+				start = endTiming(Phase.TRANSACTION_BEGIN, start);
 
 				for (ChunkListenerProxy chunkProxy : chunkListeners) {
 					chunkProxy.beforeChunk();
 				}
+				endTiming(Phase.LISTENERS, start, chunkListeners);
 
 				chunkToWrite = readAndProcess();
 
@@ -637,17 +823,40 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 					continue;
 				}
 
+				start = startTiming();
 				for (ChunkListenerProxy chunkProxy : chunkListeners) {
 					chunkProxy.afterChunk();
 				}
+				endTiming(Phase.LISTENERS, start, chunkListeners);
+
+				// Before taking the reader's checkpoint, which must reflect any items it gives up
+				boolean splitting = trySplitRemaining();
+
+				start = startTiming();
+				if (isReadingAhead()) {
+					// The reader may be past the items in this chunk
+					checkpointManager.prepareCheckpoint(readAhead.getCheckpointToken());
+				} else {
+					checkpointManager.prepareCheckpoint();
+				}
 
-				checkpointManager.checkpoint();
+				// Reader and writer checkpoints plus the persistent user data go in one round-trip
+				this.wrapPersistentUserData();
+				start = endTiming(Phase.CHECKPOINT_SERIALIZATION, start);
 
-				this.persistUserData();
+				checkpointManager.persistCheckpoint(stepStatus);
+				start = endTiming(Phase.PERSISTENCE, start);
 
 				transactionManager.commit();
+				endTiming(Phase.TRANSACTION_COMMIT, start);
+				checkpointManager.checkpointCommitted();
 
 				checkpointManager.endCheckpoint();
+				stepProgress.checkpointed();
+
+				if (splitting) {
+					workSplitter.startSplit();
+				}
 
 				invokeCollectorIfPresent();
 
@@ -655,6 +864,8 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
 				// exit loop when last record is written or if we're stopping
 				if (currentChunkStatus.hasReadNull() || currentChunkStatus.isStopping()) {
+					stopReadAhead();
+
 					transactionManager.begin();
 
 					writerProxy.close();
@@ -680,6 +891,9 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 				stepContext.getMetric(MetricImpl.MetricType.ROLLBACK_COUNT).incValue();
 			} finally {
 				transactionManager.rollback();
+				if (workSplitter != null) {
+					workSplitter.abandonSplit();
+				}
 			}
 			logger.exiting(sourceClass, "invokeChunk");
 			throw new BatchContainerRuntimeException("Failure in Read-Process-Write Loop", t);
@@ -689,6 +903,30 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		logger.exiting(sourceClass, "invokeChunk");
 	}
 	
+	/**
+	 * @return the time to measure from, or 0 without instrumentation, which never reads the clock
+	 */
+	private long startTiming() {
+		return phaseTimer != null ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * @return the end of the phase, to measure the next one from
+	 */
+	private long endTiming(Phase phase, long start) {
+		if (phaseTimer == null) {
+			return 0L;
+		}
+		long end = System.nanoTime();
+		phaseTimer.record(phase, end - start);
+		return end;
+	}
+
+	// Listeners are only timed where there are any
+	private long endTiming(Phase phase, long start, List<?> listeners) {
+		return listeners.isEmpty() ? start : endTiming(phase, start);
+	}
+
 	private void updateNormalMetrics(int writeCount) {
 
 		int readCount = currentChunkStatus.getItemsTouchedInCurrentChunk();
@@ -720,6 +958,9 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
 	private void rollbackAfterRetryableException() {
 
+		// The reader is about to be repositioned, and we go item by item until we're past the failure
+		stopReadAhead();
+
 		writerProxy.close();
 		readerProxy.close();
 		callChunkListenerOnError(currentChunkStatus.getRetryableException());
@@ -731,6 +972,12 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	private void callReaderAndWriterCloseOnThrowable(Throwable t) {
 		logger.fine("Caught throwable in chunk processing. Attempting to close all readers and writers.");
 
+		try {
+			stopReadAhead();
+		} catch (Throwable t1) {
+			logWarning("Secondary throwable stopping read-ahead on rollback path.  Swallow throwable and continue to close writer.", t1);
+		}
+
 		try {
 			writerProxy.close();
 		} catch (Throwable t1) {
@@ -759,8 +1006,20 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		initializeChunkArtifacts();
 		
 		initializeCheckpointManager();
-		
-		invokeChunk();
+
+		initializeReadAhead();
+
+		initializeProcessorPool();
+
+		try {
+			initializeInstrumentation();
+
+			invokeChunk();
+		} finally {
+			if (processorPool != null) {
+				processorPool.shutdownNow();
+			}
+		}
 	}
 
 	private void initializeCheckpointManager() {
@@ -806,7 +1065,7 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		
 		// Finally, for both policies now
 		checkpointManager = new CheckpointManager(readerProxy, writerProxy, checkpointAlgorithm, jobExecutionImpl.getExecutionId(), jobExecutionImpl
-					.getJobInstance().getInstanceId(), step.getId());
+					.getJobInstance().getInstanceId(), step.getId(), stepStateStore);
 		
 		// A related piece of data we'll calculate here is the tran timeout.   Though we won't include
 		// it in the checkpoint manager since we'll set it directly on the tran mgr before each chunk.
@@ -814,6 +1073,99 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	}
 
 
+	private void initializeInstrumentation() {
+		ChunkInstrumentation instrumentation = ChunkInstrumentationHelper.getInstrumentation();
+		if (instrumentation == null) {
+			return;
+		}
+
+		// Tag a sub-job's steps with its top-level job's name
+		phaseTimer = instrumentation.startStep(getTopLevelJobName(), step.getId(), getPartitionNumber());
+	}
+
+	private void initializeReadAhead() {
+		Properties p = stepContext.getProperties();
+		String pipelined = (p == null) ? null : p.getProperty(PIPELINED_STEP_PROP);
+		if (pipelined != null && Boolean.parseBoolean(pipelined.trim()) && !itemReadListeners.isEmpty()) {
+			// beforeRead() would run once the item had already been read, and onReadError() for another item
+			logger.fine("Not pipelining step: " + step.getId() + ", it has item read listeners");
+		} else if (pipelined != null && Boolean.parseBoolean(pipelined.trim())) {
+			// Read at most one chunk (by item count) ahead
+			readAhead = new ReadAheadItemReader(readerProxy, checkpointAtThisItemCount, step.getId());
+			logger.fine("Pipelined chunk processing for step: " + step.getId() + ", reading ahead up to " + checkpointAtThisItemCount + " items");
+		}
+	}
+
+	private void initializeProcessorPool() {
+		int numThreads = getPositiveIntStepProperty(PROCESSOR_THREADS_STEP_PROP, 1);
+		if (numThreads > 1 && processorProxy != null && !(transactionManager instanceof DefaultNonTransactionalManager)) {
+			logger.warning("Ignoring " + PROCESSOR_THREADS_STEP_PROP + " of step: " + step.getId()
+					+ ", the processor must run within the step's global transaction");
+		} else if (numThreads > 1 && processorProxy != null) {
+			// Not the container's thread pool service, which may be bounded and busy running the very
+			// steps which would then wait on their processors.  Shut down once the step has run.
+			final String threadNamePrefix = "jbatch-process-" + step.getId() + "-";
+			final ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+			processorPool = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, threadNamePrefix + count.incrementAndGet());
+					t.setDaemon(true);
+					t.setContextClassLoader(tccl);
+					return t;
+				}
+			});
+			logger.fine("Processing items of step: " + step.getId() + " on " + numThreads + " threads");
+		}
+	}
+
+	/**
+	 * Hands some of the items the reader has yet to read to an idle worker, if there is one
+	 * and the reader is a {@link com.ibm.jbatch.spi.SplittableItemReader}.  Not when reading
+	 * ahead, since the checkpoint persisted would then predate the split.
+	 *
+	 * @return true if the reader gave up items, to be started as a new partition once this
+	 * chunk's checkpoint is committed
+	 */
+	private boolean trySplitRemaining() {
+		if (workSplitter == null || readAhead != null || !readerProxy.isSplittable()
+				|| currentChunkStatus.hasReadNull() || currentChunkStatus.isStopping()) {
+			return false;
+		}
+		if (!workSplitter.claimIdleWorker()) {
+			return false;
+		}
+		Serializable splitCheckpoint = null;
+		try {
+			splitCheckpoint = readerProxy.splitRemaining();
+		} finally {
+			if (splitCheckpoint == null) {
+				workSplitter.releaseIdleWorker();
+			}
+		}
+		if (splitCheckpoint == null) {
+			return false;
+		}
+		workSplitter.prepareSplit(splitCheckpoint);
+		return true;
+	}
+
+	public void setWorkSplitter(PartitionWorkSplitter workSplitter) {
+		this.workSplitter = workSplitter;
+	}
+
+	private boolean isReadingAhead() {
+		return readAhead != null && readAhead.isStarted();
+	}
+
+	private void stopReadAhead() {
+		if (readAhead != null) {
+			readAhead.stop();
+		}
+	}
+
 	/*
 	 * Initialize itemreader, itemwriter, and item processor checkpoint
 	 */
@@ -909,21 +1261,16 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		if (logger.isLoggable(Level.FINE))
 			logger.entering(sourceClass, sourceMethod);
 
-		_persistenceManagerService = servicesManager.getPersistenceManagerService();
 		readerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "READER");
-		CheckpointData readerChkptData = _persistenceManagerService.getCheckpointData(readerChkptDK);
+		CheckpointData readerChkptData = stepStateStore.getCheckpointData(readerChkptDK);
 		try {
 
 			// check for data in backing store
 			if (readerChkptData != null) {
 
 				byte[] readertoken = readerChkptData.getRestartToken();
-				ByteArrayInputStream readerChkptBA = new ByteArrayInputStream(readertoken);
-				TCCLObjectInputStream readerOIS = null;
 				try {
-					readerOIS = new TCCLObjectInputStream(readerChkptBA);
-					readerProxy.open((Serializable) readerOIS.readObject());
-					readerOIS.close();
+					readerProxy.open(SerializationHelper.deserializeWithTCCL(readertoken));
 				} catch (Exception ex) {
 					// is this what I should be throwing here?
 							throw new BatchContainerServiceException("Cannot persist the checkpoint data for [" + step.getId() + "]", ex);
@@ -939,18 +1286,14 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		}
 
 		writerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "WRITER");
-		CheckpointData writerChkptData = _persistenceManagerService.getCheckpointData(writerChkptDK);
+		CheckpointData writerChkptData = stepStateStore.getCheckpointData(writerChkptDK);
 
 		try {
 			// check for data in backing store
 			if (writerChkptData != null) {
 				byte[] writertoken = writerChkptData.getRestartToken();
-				ByteArrayInputStream writerChkptBA = new ByteArrayInputStream(writertoken);
-				TCCLObjectInputStream writerOIS = null;
 				try {
-					writerOIS = new TCCLObjectInputStream(writerChkptBA);
-					writerProxy.open((Serializable) writerOIS.readObject());
-					writerOIS.close();
+					writerProxy.open(SerializationHelper.deserializeWithTCCL(writertoken));
 				} catch (Exception ex) {
 					// is this what I should be throwing here?
 							throw new BatchContainerServiceException("Cannot persist the checkpoint data for [" + step.getId() + "]", ex);
@@ -1101,20 +1444,15 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
     }
 
 	private void positionReaderAtCheckpoint() {
-		_persistenceManagerService = servicesManager.getPersistenceManagerService();
 		readerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "READER");
 
-		CheckpointData readerData = _persistenceManagerService.getCheckpointData(readerChkptDK);
+		CheckpointData readerData = stepStateStore.getCheckpointData(readerChkptDK);
 		try {
 			// check for data in backing store
 			if (readerData != null) {
 				byte[] readertoken = readerData.getRestartToken();
-				ByteArrayInputStream readerChkptBA = new ByteArrayInputStream(readertoken);
-				TCCLObjectInputStream readerOIS = null;
 				try {
-					readerOIS = new TCCLObjectInputStream(readerChkptBA);
-					readerProxy.open((Serializable) readerOIS.readObject());
-					readerOIS.close();
+					readerProxy.open(SerializationHelper.deserializeWithTCCL(readertoken));
 				} catch (Exception ex) {
 					// is this what I should be throwing here?
 							throw new BatchContainerServiceException("Cannot persist the checkpoint data for [" + step.getId() + "]", ex);
@@ -1130,21 +1468,16 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	}
 
 	private void positionWriterAtCheckpoint() {
-		_persistenceManagerService = servicesManager.getPersistenceManagerService();
 		writerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "WRITER");
 
-		CheckpointData writerData =  _persistenceManagerService.getCheckpointData(writerChkptDK);
+		CheckpointData writerData =  stepStateStore.getCheckpointData(writerChkptDK);
 
 		try {
 			// check for data in backing store
 			if (writerData != null) {
 				byte[] writertoken = writerData.getRestartToken();
-				ByteArrayInputStream writerChkptBA = new ByteArrayInputStream(writertoken);
-				TCCLObjectInputStream writerOIS = null;
 				try {
-					writerOIS = new TCCLObjectInputStream(writerChkptBA);
-					writerProxy.open((Serializable) writerOIS.readObject());
-					writerOIS.close();
+					writerProxy.open(SerializationHelper.deserializeWithTCCL(writertoken));
 				} catch (Exception ex) {
 					// is this what I should be throwing here?
 							throw new BatchContainerServiceException("Cannot persist the checkpoint data for [" + step.getId() + "]", ex);
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Logger;
+
+import jakarta.batch.runtime.BatchStatus;
+
+import com.ibm.jbatch.container.IThreadRootController;
+import com.ibm.jbatch.container.artifact.proxy.InjectionReferences;
+import com.ibm.jbatch.container.artifact.proxy.ListenerFactory;
+import com.ibm.jbatch.container.context.impl.JobContextImpl;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.persistence.PartitionStepStateStore;
+import com.ibm.jbatch.container.status.ExecutionStatus;
+import com.ibm.jbatch.container.status.ExtendedBatchStatus;
+import com.ibm.jbatch.container.util.PartitionDataWrapper;
+import com.ibm.jbatch.jsl.model.JSLJob;
+import com.ibm.jbatch.jsl.model.Step;
+
+/**
+ * Runs one partition of a step in-process, without the sub-job a partition normally runs
+ * as.  There's no job instance, execution or JobStatus to maintain, so where a sub-job's
+ * {@link JobThreadRootControllerImpl} would persist the job's progress, this only keeps
+ * the batch status in the partition's JobContext for the parent step to look at.  All the
+ * partition's own state goes through its {@link PartitionStepStateStore}.
+ */
+public class LightweightPartitionControllerImpl implements IThreadRootController {
+
+	private final static String CLASSNAME = LightweightPartitionControllerImpl.class.getName();
+	private final static Logger logger = Logger.getLogger(CLASSNAME);
+
+	private final RuntimeJobExecution jobExecution;
+	private final JobContextImpl jobContext;
+	private final PartitionStepStateStore stepStateStore;
+	private final BlockingQueue<PartitionDataWrapper> analyzerQueue;
+	private final PartitionWorkSplitter workSplitter;
+
+	private volatile BaseStepControllerImpl stepController = null;
+
+	/**
+	 * @param workSplitter to give idle workers part of this partition's work, or null if the
+	 * step isn't scheduled dynamically
+	 */
+	public LightweightPartitionControllerImpl(RuntimeJobExecution jobExecution, PartitionStepStateStore stepStateStore,
+			BlockingQueue<PartitionDataWrapper> analyzerQueue, PartitionWorkSplitter workSplitter) {
+		this.jobExecution = jobExecution;
+		this.jobContext = jobExecution.getJobContext();
+		this.stepStateStore = stepStateStore;
+		this.analyzerQueue = analyzerQueue;
+		this.workSplitter = workSplitter;
+	}
+
+	@Override
+	public ExecutionStatus originateExecutionOnThread() {
+		String methodName = "originateExecutionOnThread";
+		logger.entering(CLASSNAME, methodName, stepStateStore.getPartitionNumber());
+
+		ExecutionStatus retVal = null;
+		try {
+			synchronized (this) {
+				if (jobContext.getBatchStatus().equals(BatchStatus.STOPPING)) {
+					logger.fine("Partition stopped before it started");
+				} else {
+					jobContext.setBatchStatus(BatchStatus.STARTED);
+
+					JSLJob jobModel = jobExecution.getJobNavigator().getRootModelElement();
+					jobExecution.setListenerFactory(new ListenerFactory(jobModel, new InjectionReferences(jobContext, null, null)));
+
+					Step step = (Step) jobModel.getExecutionElements().get(0);
+					stepController = ExecutionElementControllerFactory.getStepController(jobExecution, step, new StepContextImpl(step.getId()),
+							jobExecution.getExecutionId(), analyzerQueue);
+					stepController.setStepStateStore(stepStateStore);
+					if (workSplitter != null && stepController instanceof ChunkStepControllerImpl) {
+						((ChunkStepControllerImpl) stepController).setWorkSplitter(workSplitter);
+					}
+				}
+			}
+
+			if (stepController != null) {
+				retVal = stepController.execute();
+				if (ExtendedBatchStatus.EXCEPTION_THROWN.equals(retVal.getExtendedBatchStatus())) {
+					jobContext.setBatchStatus(BatchStatus.FAILED);
+				}
+			}
+		} catch (Throwable t) {
+			StringWriter sw = new StringWriter();
+			t.printStackTrace(new PrintWriter(sw));
+			logger.warning("Caught throwable running partition: " + stepStateStore.getPartitionNumber() + ", stack trace: " + sw.toString());
+			jobContext.setBatchStatus(BatchStatus.FAILED);
+		}
+
+		BatchStatus batchStatus = jobContext.getBatchStatus();
+		if (batchStatus.equals(BatchStatus.STARTED)) {
+			jobContext.setBatchStatus(BatchStatus.COMPLETED);
+		} else if (batchStatus.equals(BatchStatus.STOPPING)) {
+			jobContext.setBatchStatus(BatchStatus.STOPPED);
+		}
+		if (jobContext.getExitStatus() == null) {
+			jobContext.setExitStatus(jobContext.getBatchStatus().name());
+		}
+
+		logger.exiting(CLASSNAME, methodName, jobContext.getBatchStatus());
+		return retVal;
+	}
+
+	/**
+	 * @see PartitionStepStateStore#getPlanPartitionNumber()
+	 */
+	public int getPlanPartitionNumber() {
+		return stepStateStore.getPlanPartitionNumber();
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (jobContext.getBatchStatus().equals(BatchStatus.STARTED) ||
+				jobContext.getBatchStatus().equals(BatchStatus.STARTING)) {
+			jobContext.setBatchStatus(BatchStatus.STOPPING);
+			if (stepController != null) {
+				stepController.stop();
+			}
+		} else {
+			logger.fine("Stop ignored since batch status for partition is already: " + jobContext.getBatchStatus());
+		}
+	}
+
+	@Override
+	public List<Long> getLastRunStepExecutions() {
+		if (stepController == null) {
+			return new ArrayList<Long>();
+		}
+		return stepController.getLastRunStepExecutions();
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.batch.runtime.BatchStatus;
+
+import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
+import com.ibm.jbatch.container.persistence.PartitionStepStateStore;
+import com.ibm.jbatch.container.status.PartitionState;
+import com.ibm.jbatch.container.util.SerializationHelper;
+import com.ibm.jbatch.spi.SplittableItemReader;
+
+/**
+ * Lets one (lightweight) partition of a dynamically scheduled step hand part of its
+ * remaining work to a worker left idle, through its {@link SplittableItemReader}.
+ *
+ * The items given up become a new partition, whose row, holding the reader checkpoint the
+ * reader gave up, is written together with the checkpoint of the partition splitting it, so
+ * a restart never finds the same items in both.  Only once that's committed is the new
+ * partition started.
+ */
+public class PartitionWorkSplitter {
+
+	private final static String sourceClass = PartitionWorkSplitter.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final PartitionedStepControllerImpl partitionedStep;
+	private final PartitionStepStateStore stepStateStore;
+
+	private PartitionState pendingSplit = null;
+	private boolean claimedWorker = false;
+
+	PartitionWorkSplitter(PartitionedStepControllerImpl partitionedStep, PartitionStepStateStore stepStateStore) {
+		this.partitionedStep = partitionedStep;
+		this.stepStateStore = stepStateStore;
+	}
+
+	/**
+	 * @return true if a worker is idle, in which case it's ours until {@link #startSplit()}
+	 * or {@link #releaseIdleWorker()}
+	 */
+	public boolean claimIdleWorker() {
+		claimedWorker = partitionedStep.claimIdleWorker();
+		return claimedWorker;
+	}
+
+	public void releaseIdleWorker() {
+		if (claimedWorker) {
+			claimedWorker = false;
+			partitionedStep.releaseIdleWorker();
+		}
+	}
+
+	/**
+	 * Undoes a split whose checkpoint failed to persist or commit, if any: the items given up
+	 * stay with the partition, which restarts from its last committed checkpoint, and the
+	 * worker claimed goes back to being idle.
+	 */
+	public void abandonSplit() {
+		PartitionState split = pendingSplit;
+		pendingSplit = null;
+		try {
+			if (split != null) {
+				logger.fine("Partition: " + stepStateStore.getPartitionNumber() + " abandoning split partition: " + split.getPartitionNumber());
+				stepStateStore.removeSplit(split);
+			}
+		} catch (RuntimeException e) {
+			logger.log(Level.WARNING, "Could not remove partition: " + split.getPartitionNumber() + " split off from partition: "
+					+ stepStateStore.getPartitionNumber() + ", its items may be processed twice on restart", e);
+		} finally {
+			releaseIdleWorker();
+		}
+	}
+
+	/**
+	 * Have the items given up written as a new partition along with our next checkpoint.
+	 *
+	 * @param readerCheckpoint from {@link SplittableItemReader#splitRemaining()}
+	 */
+	public void prepareSplit(Serializable readerCheckpoint) {
+		PartitionState split = new PartitionState(partitionedStep.nextSplitPartitionNumber());
+		split.setPlanPartitionNumber(stepStateStore.getPlanPartitionNumber());
+		split.setBatchStatus(BatchStatus.STARTING);
+		try {
+			split.setReaderCheckpoint(SerializationHelper.serialize(readerCheckpoint));
+		} catch (IOException e) {
+			throw new BatchContainerRuntimeException("Cannot serialize the checkpoint given up by the reader of partition: "
+					+ stepStateStore.getPartitionNumber(), e);
+		}
+		stepStateStore.addSplit(split);
+		pendingSplit = split;
+
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Partition: " + stepStateStore.getPartitionNumber() + " splitting off partition: " + split.getPartitionNumber());
+		}
+	}
+
+	/**
+	 * Starts the partition prepared by {@link #prepareSplit(Serializable)}, on the idle worker.
+	 * Called once our checkpoint, and with it the new partition, is committed.
+	 */
+	public void startSplit() {
+		if (pendingSplit == null) {
+			throw new IllegalStateException("No split prepared by partition: " + stepStateStore.getPartitionNumber());
+		}
+		PartitionState split = pendingSplit;
+		pendingSplit = null;
+		claimedWorker = false;
+		partitionedStep.startSplitPartition(split);
+	}
+}
@@ -16,11 +16,18 @@
  */
 package com.ibm.jbatch.container.impl;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeSet;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,11 +49,15 @@ import com.ibm.jbatch.container.artifact.proxy.StepListenerProxy;
 import com.ibm.jbatch.container.context.impl.StepContextImpl;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.jobinstance.JobExecutionHelper;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.jsl.CloneUtility;
+import com.ibm.jbatch.container.persistence.PartitionStepStateStore;
+import com.ibm.jbatch.container.status.PartitionState;
 import com.ibm.jbatch.container.util.BatchPartitionPlan;
 import com.ibm.jbatch.container.util.BatchPartitionWorkUnit;
 import com.ibm.jbatch.container.util.BatchWorkUnit;
+import com.ibm.jbatch.container.util.PartitionAnalyzerQueue;
 import com.ibm.jbatch.container.util.PartitionDataWrapper;
 import com.ibm.jbatch.container.util.PartitionDataWrapper.PartitionEventType;
 import com.ibm.jbatch.container.util.PartitionsBuilderConfig;
@@ -67,6 +78,46 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 	private static final int DEFAULT_PARTITION_INSTANCES = 1;
 	private static final int DEFAULT_THREADS = 0; //0 means default to number of instances
 
+	/**
+	 * Step property which, set to true, runs the partitions in-process instead of as sub-jobs,
+	 * keeping only a row per partition in the partition status table rather than a job
+	 * instance, execution, step execution and statuses of their own.  It must not change
+	 * between executions of a job instance, since restart looks for the partitions' state in
+	 * one place or the other.
+	 */
+	public static final String LIGHTWEIGHT_PARTITIONS_STEP_PROP = "com.ibm.jbatch.partition.lightweight";
+
+	/**
+	 * Step property choosing how partitions are scheduled on the step's threads.  The default,
+	 * "static", runs them in partition order.  {@link #DYNAMIC_SCHEDULING} runs the partitions
+	 * with the largest {@link #PARTITION_SIZE_HINT_PROP} first, and with lightweight partitions,
+	 * lets a thread left with no partition to run take over part of the work of a running one,
+	 * if its reader is a {@link com.ibm.jbatch.spi.SplittableItemReader}.
+	 */
+	public static final String PARTITION_SCHEDULING_STEP_PROP = "com.ibm.jbatch.partition.scheduling";
+	public static final String DYNAMIC_SCHEDULING = "dynamic";
+
+	/**
+	 * Partition plan property estimating the size of a partition, e.g. its number of items,
+	 * for dynamic scheduling.  Partitions without one run after those with one.
+	 */
+	public static final String PARTITION_SIZE_HINT_PROP = "com.ibm.jbatch.partition.sizeHint";
+
+	/**
+	 * Step property bounding how much collector data and how many partition statuses may wait
+	 * for the analyzer, beyond which partitions wait for it to catch up.  Defaults to
+	 * {@link #DEFAULT_ANALYZER_QUEUE_SIZE}.
+	 */
+	public static final String ANALYZER_QUEUE_SIZE_STEP_PROP = "com.ibm.jbatch.partition.analyzerQueueSize";
+	public static final int DEFAULT_ANALYZER_QUEUE_SIZE = 1000;
+
+	/**
+	 * Step property which, set above 1, has each partition hand its collector data to the
+	 * analyzer that many calls at a time, rather than after every call, and whatever's left
+	 * when the partition ends.  The analyzer still gets each call's data, in order, but later.
+	 */
+	public static final String COLLECTOR_BATCH_SIZE_STEP_PROP = "com.ibm.jbatch.partition.collectorBatchSize";
+
 	private PartitionPlan plan = null;
 
 	private int partitions = DEFAULT_PARTITION_INSTANCES;
@@ -86,7 +137,19 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 
 	private PartitionAnalyzerProxy analyzerProxy = null;
 
+	private boolean lightweight = false;
+	private boolean dynamicScheduling = false;
+
+	// For dynamic scheduling
+	private final AtomicInteger idleWorkers = new AtomicInteger();
+	private final AtomicInteger numToRunThisExecution = new AtomicInteger();
+	private final AtomicInteger nextSplitPartitionNumber = new AtomicInteger();
+	private PartitionsBuilderConfig partitionsBuilderConfig = null;
+
 	final List<JSLJob> subJobs = new ArrayList<JSLJob>();
+	// Guards subJobs and the work units built from them.  Not a monitor, since it's held across
+	// database calls, which would pin a virtual thread to its carrier.
+	private final ReentrantLock subJobsLock = new ReentrantLock();
 	protected List<StepListenerProxy> stepListeners = null;
 
 	List<BatchPartitionWorkUnit> finishedWork = new ArrayList<BatchPartitionWorkUnit>();
@@ -104,9 +167,15 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 
 		// It's possible we may try to stop a partitioned step before any
 		// sub steps have been started.
-		synchronized (subJobs) {
+		subJobsLock.lock();
+		try {
 
-			if (parallelBatchWorkUnits != null) {
+			if (parallelBatchWorkUnits != null && lightweight) {
+				// Not known to the kernel, since they share our job execution
+				for (BatchWorkUnit subJob : parallelBatchWorkUnits) {
+					subJob.getController().stop();
+				}
+			} else if (parallelBatchWorkUnits != null) {
 				for (BatchWorkUnit subJob : parallelBatchWorkUnits) {
 					long jobExecutionId = -1;
 					try {
@@ -123,6 +192,8 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 					}
 				}
 			}
+		} finally {
+			subJobsLock.unlock();
 		}
 	}
 
@@ -306,6 +377,12 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 		
 		validateNumberOfPartitions();		
 
+		Properties stepProps = stepContext.getProperties();
+		String lightweightProp = (stepProps == null) ? null : stepProps.getProperty(LIGHTWEIGHT_PARTITIONS_STEP_PROP);
+		lightweight = lightweightProp != null && Boolean.parseBoolean(lightweightProp.trim());
+		String schedulingProp = (stepProps == null) ? null : stepProps.getProperty(PARTITION_SCHEDULING_STEP_PROP);
+		dynamicScheduling = schedulingProp != null && DYNAMIC_SCHEDULING.equalsIgnoreCase(schedulingProp.trim());
+
 		/* When true is specified, the partition count from the current run
 		 * is used and all results from past partitions are discarded. Any
 		 * resource cleanup or back out of work done in the previous run is the
@@ -323,7 +400,13 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 
 		//Set up a blocking queue to pick up collector data from a partitioned thread
 		if (this.analyzerProxy != null) {
-			this.analyzerStatusQueue =  new LinkedBlockingQueue<PartitionDataWrapper>();
+			int queueSize = getPositiveIntStepProperty(ANALYZER_QUEUE_SIZE_STEP_PROP, DEFAULT_ANALYZER_QUEUE_SIZE);
+			this.analyzerStatusQueue = new PartitionAnalyzerQueue(queueSize);
+		}
+		// Each partition reads this too, but a failure while a partition is still setting up never
+		// reaches the analyzer queue, so reject a bad value before any partition is started
+		if (step.getPartition().getCollector() != null) {
+			getPositiveIntStepProperty(COLLECTOR_BATCH_SIZE_STEP_PROP, 1);
 		}
 		this.finishedWorkQueue = new LinkedBlockingQueue<BatchPartitionWorkUnit>();
 
@@ -343,7 +426,8 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 	}
 
 	private void buildSubJobBatchWorkUnits() throws JobRestartException, JobStartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException  {
-		synchronized (subJobs) {		
+		subJobsLock.lock();
+		try {
 			//check if we've already issued a stop
 			if (jobExecutionImpl.getJobContext().getBatchStatus().equals(BatchStatus.STOPPING)){
 				logger.fine("Step already in STOPPING state, exiting from buildSubJobBatchWorkUnits() before beginning execution");
@@ -356,7 +440,10 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 
 			PartitionsBuilderConfig config = new PartitionsBuilderConfig(subJobs, partitionProperties, analyzerStatusQueue, finishedWorkQueue, jobExecutionImpl.getExecutionId());
 			// Then build all the subjobs but do not start them yet
-			if (executionType == ExecutionType.RESTART_NORMAL) {				
+			if (lightweight) {
+				partitionsBuilderConfig = config;
+				parallelBatchWorkUnits = buildLightweightPartitions();
+			} else if (executionType == ExecutionType.RESTART_NORMAL) {				
 				parallelBatchWorkUnits = batchKernel.buildOnRestartParallelPartitions(config);
 			} else { 	
 				// This case includes RESTART_OVERRIDE and RESTART_AFTER_COMPLETION.
@@ -368,6 +455,144 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 			}
 
 			// NOTE:  At this point I might not have as many work units as I had partitions, since some may have already completed.
+		} finally {
+			subJobsLock.unlock();
+		}
+	}
+
+	/*
+	 * Like the kernel's buildNewParallelPartitions() and buildOnRestartParallelPartitions(),
+	 * but the partitions share our job execution, and their state lives in the partition
+	 * status table, which is simply cleared where the kernel would create new sub-job instances.
+	 * Any partitions split off from those of the plan on a previous execution are rebuilt too.
+	 */
+	private List<BatchPartitionWorkUnit> buildLightweightPartitions() {
+		long jobInstanceId = jobInstance.getInstanceId();
+
+		Map<Integer, PartitionState> previousStates;
+		if (executionType == ExecutionType.RESTART_NORMAL) {
+			previousStates = _persistenceManagementService.getPartitionStates(jobInstanceId, step.getId());
+		} else {
+			if (executionType != ExecutionType.START) {
+				_persistenceManagementService.deletePartitionStates(jobInstanceId, step.getId());
+			}
+			previousStates = Collections.emptyMap();
+		}
+
+		TreeSet<Integer> partitionNumbers = new TreeSet<Integer>(previousStates.keySet());
+		for (int instance = 0; instance < partitions; instance++) {
+			partitionNumbers.add(instance);
+		}
+		nextSplitPartitionNumber.set(partitionNumbers.last() + 1);
+
+		List<BatchPartitionWorkUnit> batchWorkUnits = new ArrayList<BatchPartitionWorkUnit>(partitionNumbers.size());
+		for (int partitionNumber : partitionNumbers) {
+			PartitionState previous = previousStates.get(partitionNumber);
+			if (previous != null && BatchStatus.COMPLETED.equals(previous.getBatchStatus())) {
+				logger.fine("Partition " + partitionNumber + " of step " + step.getId() + " already completed");
+				continue;
+			}
+			batchWorkUnits.add(buildLightweightPartition(partitionNumber, previous));
+		}
+
+		return batchWorkUnits;
+	}
+
+	private BatchPartitionWorkUnit buildLightweightPartition(int partitionNumber, PartitionState previous) {
+		int planPartitionNumber = (previous == null) ? partitionNumber : previous.getPlanPartitionNumber();
+		JSLJob subJob = (partitionNumber < subJobs.size()) ? subJobs.get(partitionNumber)
+				: PartitionedStepBuilder.buildPartitionSubJob(jobExecutionImpl.getJobContext(), stepContext, step, partitionNumber);
+		Properties partitionProps = (partitionProperties == null) ? null : partitionProperties[planPartitionNumber];
+
+		RuntimeJobExecution partitionExecution = JobExecutionHelper.startLightweightPartition(subJob, partitionProps, jobExecutionImpl);
+		partitionExecution.setPartitionInstance(partitionNumber);
+
+		PartitionStepStateStore partitionStore = new PartitionStepStateStore(jobInstance.getInstanceId(), step.getId(),
+				stepContext.getInternalStepExecutionId(), partitionNumber, previous);
+		PartitionWorkSplitter workSplitter = dynamicScheduling ? new PartitionWorkSplitter(this, partitionStore) : null;
+		LightweightPartitionControllerImpl controller = new LightweightPartitionControllerImpl(partitionExecution, partitionStore,
+				analyzerStatusQueue, workSplitter);
+		return new BatchPartitionWorkUnit(batchKernel, partitionExecution, partitionsBuilderConfig, controller);
+	}
+
+	/*
+	 * Dynamic scheduling: a worker with no partition left to run becomes idle, until a running
+	 * partition claims it to run part of its work as a new partition.
+	 */
+	boolean claimIdleWorker() {
+		if (jobExecutionImpl.getJobContext().getBatchStatus().equals(BatchStatus.STOPPING)) {
+			return false;
+		}
+		while (true) {
+			int idle = idleWorkers.get();
+			if (idle <= 0) {
+				return false;
+			}
+			if (idleWorkers.compareAndSet(idle, idle - 1)) {
+				return true;
+			}
+		}
+	}
+
+	void releaseIdleWorker() {
+		idleWorkers.incrementAndGet();
+	}
+
+	int nextSplitPartitionNumber() {
+		return nextSplitPartitionNumber.getAndIncrement();
+	}
+
+	/*
+	 * Called on the thread of the partition it was split off from, which is still running, so
+	 * we can't yet have stopped waiting for partitions to finish.
+	 */
+	void startSplitPartition(PartitionState split) {
+		BatchPartitionWorkUnit workUnit;
+		subJobsLock.lock();
+		try {
+			if (jobExecutionImpl.getJobContext().getBatchStatus().equals(BatchStatus.STOPPING)) {
+				logger.fine("Step stopping, partition " + split.getPartitionNumber() + " of step " + step.getId() + " will run on restart");
+				return;
+			}
+			workUnit = buildLightweightPartition(split.getPartitionNumber(), split);
+			parallelBatchWorkUnits.add(workUnit);
+			numToRunThisExecution.incrementAndGet();
+		} finally {
+			subJobsLock.unlock();
+		}
+		batchKernel.startGeneratedJob(workUnit);
+	}
+
+	private void sortLargestFirst(List<BatchPartitionWorkUnit> workUnits) {
+		Collections.sort(workUnits, new Comparator<BatchPartitionWorkUnit>() {
+			@Override
+			public int compare(BatchPartitionWorkUnit workUnit1, BatchPartitionWorkUnit workUnit2) {
+				long hint1 = getSizeHint(workUnit1);
+				long hint2 = getSizeHint(workUnit2);
+				return (hint1 > hint2) ? -1 : ((hint1 == hint2) ? 0 : 1);
+			}
+		});
+	}
+
+	private long getSizeHint(BatchPartitionWorkUnit workUnit) {
+		Integer partition = workUnit.getJobExecutionImpl().getPartitionInstance();
+		if (workUnit.getController() instanceof LightweightPartitionControllerImpl) {
+			// A partition split off another on a previous execution has the properties of the one it came from
+			partition = ((LightweightPartitionControllerImpl) workUnit.getController()).getPlanPartitionNumber();
+		}
+		if (partition == null || partitionProperties == null || partition >= partitionProperties.length
+				|| partitionProperties[partition] == null) {
+			return -1;
+		}
+		String hint = partitionProperties[partition].getProperty(PARTITION_SIZE_HINT_PROP);
+		if (hint == null) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(hint.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Could not parse partition size hint in stepId: " + step.getId()
+					+ ", partition: " + partition + ", with " + PARTITION_SIZE_HINT_PROP + "=" + hint, e);
 		}
 	}
 
@@ -378,8 +603,16 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 			return;
 		}
 		
-		int numTotalForThisExecution = parallelBatchWorkUnits.size();
-		this.numPreviouslyCompleted = partitions - numTotalForThisExecution; 
+		// Only add to this from here on, partitions split off others are started as they're split
+		List<BatchPartitionWorkUnit> submitOrder = new ArrayList<BatchPartitionWorkUnit>(parallelBatchWorkUnits);
+		if (dynamicScheduling) {
+			sortLargestFirst(submitOrder);
+		}
+
+		int numTotalForThisExecution = submitOrder.size();
+		numToRunThisExecution.set(numTotalForThisExecution);
+		// Partitions split off others on a previous execution may leave more than the plan to run
+		this.numPreviouslyCompleted = Math.max(0, partitions - numTotalForThisExecution);
 		int numCurrentCompleted = 0;
 		int numCurrentSubmitted = 0;
 
@@ -394,80 +627,104 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 		//Start up to to the max num we are allowed from the num threads attribute
 		for (int i=0; i < this.threads && i < numTotalForThisExecution; i++, numCurrentSubmitted++) {
 			if (stepStatus.getStartCount() > 1 && !plan.getPartitionsOverride()) {
-				batchKernel.restartGeneratedJob(parallelBatchWorkUnits.get(i));
+				batchKernel.restartGeneratedJob(submitOrder.get(i));
 			} else {
-				batchKernel.startGeneratedJob(parallelBatchWorkUnits.get(i));
+				batchKernel.startGeneratedJob(submitOrder.get(i));
 			}
 		}
+		if (dynamicScheduling && lightweight) {
+			idleWorkers.set(Math.max(0, this.threads - numTotalForThisExecution));
+		}
 
-		boolean readyToSubmitAnother = false;
 		boolean exceptionThrownAnalyzingCollectorData = false;
 		boolean exceptionThrownAnalyzingStatus = false;
+		List<PartitionDataWrapper> batch = new ArrayList<PartitionDataWrapper>();
 
-
-		while (true) {
-			logger.finer("Begin main loop in waitForQueueCompletion(), readyToSubmitAnother = " + readyToSubmitAnother);
-			try {
-				if (analyzerProxy != null) {
-					logger.fine("Found analyzer, proceeding on analyzerQueue path");
-					PartitionDataWrapper dataWrapper = analyzerStatusQueue.take();
-					if (PartitionEventType.ANALYZE_COLLECTOR_DATA.equals(dataWrapper.getEventType())) {
-						logger.finer("Analyze collector data: " + dataWrapper.getCollectorData());
-						try {
-							analyzerProxy.analyzeCollectorData(dataWrapper.getCollectorData());
-						} catch (Throwable t) {
-							exceptionThrownAnalyzingCollectorData = true;
-							logger.warning("Caught exception calling analyzeCollectorData(), catching and continuing.");
-						}
-						continue; // without being ready to submit another
-					} else if (PartitionEventType.ANALYZE_STATUS.equals(dataWrapper.getEventType())) {
-						logger.fine("Calling analyzeStatus()");
-						try {
-							analyzerProxy.analyzeStatus(dataWrapper.getBatchstatus(), dataWrapper.getExitStatus());
-						} catch (Throwable t) {
-							exceptionThrownAnalyzingStatus = true;
-							// TODO - If we've caught an exception here we might want to stop submitting new partitions!
-							// To start, it is a smaller change in the working code to continue to submit them, so let's do that.
-							logger.warning("Caught exception calling analyzeStatus(), catching and continuing.  Will even continue starting new partitions if there are more to run.");
+		try {
+			while (true) {
+				logger.finer("Begin main loop in waitForQueueCompletion()");
+				// Partitions which finished since last time round the loop
+				int numNewlyCompleted = 0;
+				try {
+					if (analyzerProxy != null) {
+						logger.fine("Found analyzer, proceeding on analyzerQueue path");
+						// Take everything waiting at once, so partitions handing off data often wake us once, not each time
+						batch.clear();
+						((PartitionAnalyzerQueue) analyzerStatusQueue).takeBatch(batch);
+						for (PartitionDataWrapper dataWrapper : batch) {
+							if (PartitionEventType.ANALYZE_COLLECTOR_DATA.equals(dataWrapper.getEventType())) {
+								if (dataWrapper.getCollectorDataBatch() != null) {
+									for (Serializable data : dataWrapper.getCollectorDataBatch()) {
+										exceptionThrownAnalyzingCollectorData |= !analyzeCollectorData(data);
+									}
+								} else {
+									exceptionThrownAnalyzingCollectorData |= !analyzeCollectorData(dataWrapper.getCollectorData());
+								}
+							} else if (PartitionEventType.ANALYZE_STATUS.equals(dataWrapper.getEventType())) {
+								logger.fine("Calling analyzeStatus()");
+								try {
+									analyzerProxy.analyzeStatus(dataWrapper.getBatchstatus(), dataWrapper.getExitStatus());
+								} catch (Throwable t) {
+									exceptionThrownAnalyzingStatus = true;
+									// TODO - If we've caught an exception here we might want to stop submitting new partitions!
+									// To start, it is a smaller change in the working code to continue to submit them, so let's do that.
+									logger.warning("Caught exception calling analyzeStatus(), catching and continuing.  Will even continue starting new partitions if there are more to run.");
+								}
+								logger.fine("Analyze status called for completed partition: batchStatus= " + dataWrapper.getBatchstatus() + ", exitStatus = " + dataWrapper.getExitStatus());
+								finishedWork.add(finishedWorkQueue.take());  // Shouldn't be a a long wait.
+								numNewlyCompleted++;
+							} else {
+								logger.warning("Invalid partition state");
+								throw new IllegalStateException("Invalid partition state");
+							}
 						}
-						logger.fine("Analyze status called for completed partition: batchStatus= " + dataWrapper.getBatchstatus() + ", exitStatus = " + dataWrapper.getExitStatus());
-						finishedWork.add(finishedWorkQueue.take());  // Shouldn't be a a long wait.
-						readyToSubmitAnother = true;
 					} else {
-						logger.warning("Invalid partition state");
-						throw new IllegalStateException("Invalid partition state");
+						logger.fine("No analyzer, proceeding on finishedWorkQueue path");
+						// block until at least one thread has finished to
+						// submit more batch work. hold on to the finished work to look at later
+						finishedWork.add(finishedWorkQueue.take());
+						numNewlyCompleted++;
 					}
-				} else {
-					logger.fine("No analyzer, proceeding on finishedWorkQueue path");
-					// block until at least one thread has finished to
-					// submit more batch work. hold on to the finished work to look at later
-					finishedWork.add(finishedWorkQueue.take());
-					readyToSubmitAnother = true;
+				} catch (InterruptedException e) {
+					logger.severe("Caught exc"+ e);
+					throw new BatchContainerRuntimeException(e);
+				}
+
+				if (numNewlyCompleted == 0) {
+					logger.fine("Not ready to submit another."); // Must have just done a collector
+					continue;
 				}
-			} catch (InterruptedException e) {
-				logger.severe("Caught exc"+ e);
-				throw new BatchContainerRuntimeException(e);
-			}
 
-			if (readyToSubmitAnother) {
-				numCurrentCompleted++;
-				logger.fine("Ready to submit another (if there is another left to submit); numCurrentCompleted = " + numCurrentCompleted);
-				if (numCurrentCompleted < numTotalForThisExecution) {
-					if (numCurrentSubmitted < numTotalForThisExecution) {
-						logger.fine("Submitting # " + numCurrentSubmitted + " out of " + numTotalForThisExecution + " total for this execution");
-						if (stepStatus.getStartCount() > 1) {
-							batchKernel.restartGeneratedJob(parallelBatchWorkUnits.get(numCurrentSubmitted++));
-						} else {
-							batchKernel.startGeneratedJob(parallelBatchWorkUnits.get(numCurrentSubmitted++));
+				boolean allCompleted = false;
+				for (; numNewlyCompleted > 0; numNewlyCompleted--) {
+					numCurrentCompleted++;
+					logger.fine("Ready to submit another (if there is another left to submit); numCurrentCompleted = " + numCurrentCompleted);
+					if (numCurrentCompleted < numToRunThisExecution.get()) {
+						if (numCurrentSubmitted < numTotalForThisExecution) {
+							logger.fine("Submitting # " + numCurrentSubmitted + " out of " + numTotalForThisExecution + " total for this execution");
+							if (stepStatus.getStartCount() > 1) {
+								batchKernel.restartGeneratedJob(submitOrder.get(numCurrentSubmitted++));
+							} else {
+								batchKernel.startGeneratedJob(submitOrder.get(numCurrentSubmitted++));
+							}
+						} else if (dynamicScheduling && lightweight) {
+							// Nothing left to submit, so this worker is free to take over part of a running partition
+							idleWorkers.incrementAndGet();
 						}
-						readyToSubmitAnother = false;
+					} else {
+						allCompleted = true;
+						break;
 					}
-				} else {
+				}
+				if (allCompleted) {
 					logger.fine("Finished... breaking out of loop");
 					break;
 				}
-			} else {
-				logger.fine("Not ready to submit another."); // Must have just done a collector
+			}
+		} finally {
+			// Don't leave any partition waiting to hand off data no one will take
+			if (analyzerStatusQueue instanceof PartitionAnalyzerQueue) {
+				((PartitionAnalyzerQueue) analyzerStatusQueue).close();
 			}
 		}
 		
@@ -480,6 +737,20 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 		}
 	}        
 
+	/**
+	 * @return false if the analyzer threw an exception
+	 */
+	private boolean analyzeCollectorData(Serializable data) {
+		logger.finer("Analyze collector data: " + data);
+		try {
+			analyzerProxy.analyzeCollectorData(data);
+			return true;
+		} catch (Throwable t) {
+			logger.warning("Caught exception calling analyzeCollectorData(), catching and continuing.");
+			return false;
+		}
+	}
+
 	private void checkFinishedPartitions() {
 
 		/**
@@ -610,6 +881,11 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 		}
 	}
 
+	@Override
+	protected boolean isPartitionedStep() {
+		return true;
+	}
+
 	@Override
 	protected void sendStatusFromPartitionToAnalyzerIfPresent() {
 		// Since we're already on the main thread, there will never
@@ -620,6 +896,10 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 	@Override
 	protected void persistStepExecution() {
 		// Call special aggregating method
-		_persistenceManagementService.updateWithFinalPartitionAggregateStepExecution(rootJobExecutionId, stepContext);
+		if (lightweight) {
+			_persistenceManagementService.updateWithPartitionStateAggregateStepExecution(jobInstance.getInstanceId(), stepContext);
+		} else {
+			_persistenceManagementService.updateWithFinalPartitionAggregateStepExecution(rootJobExecutionId, stepContext);
+		}
 	}
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.jbatch.container.services.PurgeCriteria;
+
+/**
+ * Progress of one purge run by the {@link RetentionEngine}, updated as each batch of job
+ * instances is deleted.
+ */
+public class PurgeProgress {
+
+	private final PurgeCriteria criteria;
+	private final AtomicLong instancesPurged = new AtomicLong();
+	private final AtomicLong rowsDeleted = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	private volatile Date startTime = null;
+	private volatile Date endTime = null;
+	private volatile Throwable failure = null;
+	private volatile boolean cancelled = false;
+
+	PurgeProgress(PurgeCriteria criteria) {
+		this.criteria = criteria;
+	}
+
+	public PurgeCriteria getCriteria() {
+		return new PurgeCriteria(criteria);
+	}
+
+	/**
+	 * @return top-level job instances deleted so far, not counting their sub-jobs
+	 */
+	public long getInstancesPurged() {
+		return instancesPurged.get();
+	}
+
+	/**
+	 * @return rows deleted so far, across all tables
+	 */
+	public long getRowsDeleted() {
+		return rowsDeleted.get();
+	}
+
+	public long getBatches() {
+		return batches.get();
+	}
+
+	/**
+	 * @return when the first batch started, or null while waiting for a thread
+	 */
+	public Date getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return when the purge finished, failed or was cancelled, or null while it's running
+	 */
+	public Date getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * @return what stopped the purge, or null
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Stops the purge after the batch in progress, which is not rolled back.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	/**
+	 * @return whether the purge is done
+	 */
+	public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		return done.await(timeout, unit);
+	}
+
+	void started() {
+		startTime = new Date();
+	}
+
+	void batchDone(int instances, long rows) {
+		instancesPurged.addAndGet(instances);
+		rowsDeleted.addAndGet(rows);
+		batches.incrementAndGet();
+	}
+
+	void finished(Throwable failure) {
+		this.failure = failure;
+		endTime = new Date();
+		done.countDown();
+	}
+
+	@Override
+	public String toString() {
+		return "criteria: [" + criteria + "], instancesPurged: " + instancesPurged + ", rowsDeleted: " + rowsDeleted + ", batches: " + batches
+				+ (cancelled ? ", cancelled" : "") + (failure != null ? ", failure: " + failure : "");
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.batch.api.chunk.ItemReader;
+
+import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
+import com.ibm.jbatch.container.util.SerializationHelper;
+
+/**
+ * Reads ahead of the chunk loop on a separate thread, so the next items are already read
+ * while the step thread writes and commits the current chunk.
+ *
+ * Each item is handed over together with the reader's checkpoint token taken right after
+ * it was read, serialized on the spot since readers often update the same token object in
+ * place.  A checkpoint taken by the step thread then uses the token of the last item it
+ * actually consumed, so it never covers an item which was only read ahead.  Items still
+ * in the hand-off when the reader is stopped are discarded; a restart re-reads them from
+ * the last committed checkpoint.
+ *
+ * Exceptions thrown by readItem() are handed over in place of an item, and rethrown on the
+ * step thread, where skip and retry are handled as usual.  An Error ends the read-ahead;
+ * it is handed over the same way, and rethrown by every later readItem().  The reader is
+ * read outside the chunk transaction.
+ */
+public class ReadAheadItemReader {
+
+	private final static String sourceClass = ReadAheadItemReader.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final long POLL_MILLIS = 100;
+
+	// How long stop() waits for a read in progress before interrupting it, and again after
+	private static final long STOP_TIMEOUT_MILLIS = 30000;
+
+	private static class ReadResult {
+		Object item;
+		Exception readException;
+		// Ended the read-ahead, there's no item, nor checkpoint token
+		Error readerError;
+		byte[] checkpointToken;
+		RuntimeException checkpointException;
+	}
+
+	private final ItemReader reader;
+	private final String stepId;
+	private final BlockingQueue<ReadResult> handOff;
+
+	private Thread readerThread = null;
+	private volatile boolean stopped = true;
+
+	// Only touched by the step thread
+	private byte[] checkpointToken = null;
+	private RuntimeException checkpointException = null;
+	private boolean readNull = false;
+	private Error readerError = null;
+
+	/**
+	 * @param reader the (already open) reader
+	 * @param capacity most items read ahead of the step thread
+	 * @param stepId for naming the thread
+	 */
+	public ReadAheadItemReader(ItemReader reader, int capacity, String stepId) {
+		this.reader = reader;
+		this.stepId = stepId;
+		this.handOff = new ArrayBlockingQueue<ReadResult>(Math.max(1, capacity));
+	}
+
+	public boolean isStarted() {
+		return readerThread != null;
+	}
+
+	/**
+	 * Starts reading ahead from the reader's current position.
+	 */
+	public void start() {
+		if (readerThread != null) {
+			throw new IllegalStateException("Already reading ahead for step: " + stepId);
+		}
+		checkpointToken = captureCheckpointToken(new ReadResult()).checkpointToken;
+		checkpointException = null;
+		readNull = false;
+		readerError = null;
+		stopped = false;
+
+		readerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readAhead();
+			}
+		}, "jbatch-read-ahead-" + stepId);
+		readerThread.setDaemon(true);
+		readerThread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+		readerThread.start();
+	}
+
+	/**
+	 * Takes the next item, waiting for it to be read if need be.
+	 *
+	 * @return the item, or null at the end of the data
+	 * @throws Exception whatever readItem() threw for this item
+	 * @throws Error whatever ended the read-ahead
+	 */
+	public Object readItem() throws Exception {
+		if (readerThread == null) {
+			throw new IllegalStateException("Not reading ahead for step: " + stepId);
+		}
+		if (readerError != null) {
+			throw readerError;
+		}
+		if (readNull) {
+			return null;
+		}
+		ReadResult result;
+		try {
+			result = handOff.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BatchContainerRuntimeException("Interrupted waiting for read-ahead of step: " + stepId, e);
+		}
+		if (result.readerError != null) {
+			readerError = result.readerError;
+			throw readerError;
+		}
+		checkpointToken = result.checkpointToken;
+		checkpointException = result.checkpointException;
+		if (result.readException != null) {
+			throw result.readException;
+		}
+		if (result.item == null) {
+			readNull = true;
+		}
+		return result.item;
+	}
+
+	/**
+	 * @return the reader's checkpoint token, serialized, as of the last item taken
+	 */
+	public byte[] getCheckpointToken() {
+		if (checkpointException != null) {
+			throw checkpointException;
+		}
+		return checkpointToken;
+	}
+
+	/**
+	 * Stops reading ahead and discards whatever was read but not taken, waiting for a read
+	 * in progress to finish so the reader can be safely closed or repositioned.  A read which
+	 * hasn't finished within STOP_TIMEOUT_MILLIS is interrupted.
+	 */
+	public void stop() {
+		if (readerThread == null) {
+			return;
+		}
+		stopped = true;
+		handOff.clear();
+		try {
+			readerThread.join(STOP_TIMEOUT_MILLIS);
+			if (readerThread.isAlive()) {
+				logger.warning("Read-ahead of step: " + stepId + " still reading after " + STOP_TIMEOUT_MILLIS + "ms, interrupting it");
+				readerThread.interrupt();
+				readerThread.join(STOP_TIMEOUT_MILLIS);
+				if (readerThread.isAlive()) {
+					logger.warning("Read-ahead of step: " + stepId + " did not stop, the reader may still be in readItem()");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BatchContainerRuntimeException("Interrupted stopping read-ahead of step: " + stepId, e);
+		} finally {
+			handOff.clear();
+			readerThread = null;
+		}
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Stopped read-ahead of step: " + stepId);
+		}
+	}
+
+	private void readAhead() {
+		try {
+			while (!stopped) {
+				ReadResult result = new ReadResult();
+				try {
+					result.item = reader.readItem();
+				} catch (Exception e) {
+					result.readException = e;
+				}
+				captureCheckpointToken(result);
+
+				if (!handOff(result)) {
+					return;
+				}
+
+				if (result.item == null && result.readException == null) {
+					// End of the data
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			logger.fine("Read-ahead of step: " + stepId + " interrupted");
+		} catch (Error e) {
+			// Otherwise the step thread would wait for the next item forever
+			logger.log(Level.SEVERE, "Read-ahead of step: " + stepId + " failed", e);
+			ReadResult result = new ReadResult();
+			result.readerError = e;
+			try {
+				handOff(result);
+			} catch (InterruptedException ie) {
+				logger.fine("Read-ahead of step: " + stepId + " interrupted");
+			}
+		}
+	}
+
+	/**
+	 * Waits for room, unless told to stop.
+	 *
+	 * @return false if stopped
+	 */
+	private boolean handOff(ReadResult result) throws InterruptedException {
+		while (!handOff.offer(result, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+			if (stopped) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private ReadResult captureCheckpointToken(ReadResult result) {
+		try {
+			result.checkpointToken = SerializationHelper.serialize(reader.checkpointInfo());
+		} catch (RuntimeException e) {
+			result.checkpointException = e;
+		} catch (Exception e) {
+			result.checkpointException = new BatchContainerRuntimeException("Cannot serialize the reader checkpoint of step: " + stepId, e);
+		}
+		return result;
+	}
+}
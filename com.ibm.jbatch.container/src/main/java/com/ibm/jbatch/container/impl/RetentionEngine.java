@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.batch.runtime.BatchStatus;
+
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.PurgeCriteria;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.services.IBatchThreadPoolService;
+
+/**
+ * Purges job instances from the job repository on the batch thread pool, through the
+ * {@link BatchWorkScheduler} if there is one, a bounded batch at a time, so no one transaction
+ * holds its locks for long.  Batches are taken in job instance id order, each one after the
+ * last id of the one before, with an optional pause in between so running jobs get their
+ * share of the database.
+ *
+ * With RETENTION_ENABLED, also purges the finished job instances older than the max age
+ * every so often.  The timer thread only hands each run to the thread pool, and skips a
+ * run while the one before is still going.
+ */
+public class RetentionEngine {
+
+	private final static String sourceClass = RetentionEngine.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final IPersistenceManagerService persistenceService;
+	private final IBatchThreadPoolService threadPool;
+	// Null if purges go straight to the thread pool
+	private final BatchWorkScheduler scheduler;
+	private final int batchSize;
+	private final long batchDelay;
+
+	// Null unless RETENTION_ENABLED
+	private ScheduledExecutorService timer = null;
+	private long maxAgeMillis;
+	private Set<BatchStatus> retentionStatuses;
+	private volatile PurgeProgress lastRetentionRun = null;
+
+	private final AtomicLong runs = new AtomicLong();
+	private final AtomicLong totalInstancesPurged = new AtomicLong();
+	private final AtomicLong totalRowsDeleted = new AtomicLong();
+	private volatile boolean shutdown = false;
+
+	public RetentionEngine(IPersistenceManagerService persistenceService, IBatchThreadPoolService threadPool, Properties props) {
+		this(persistenceService, threadPool, null, props);
+	}
+
+	/**
+	 * @param scheduler runs the purges in its purge priority class, or null to run them straight on the thread pool
+	 */
+	public RetentionEngine(IPersistenceManagerService persistenceService, IBatchThreadPoolService threadPool, BatchWorkScheduler scheduler,
+			Properties props) {
+		this.persistenceService = persistenceService;
+		this.threadPool = threadPool;
+		this.scheduler = scheduler;
+		this.batchSize = Integer.parseInt(props.getProperty(BatchContainerConstants.PURGE_BATCH_SIZE,
+				BatchContainerConstants.DEFAULT_PURGE_BATCH_SIZE).trim());
+		this.batchDelay = Long.parseLong(props.getProperty(BatchContainerConstants.PURGE_BATCH_DELAY,
+				BatchContainerConstants.DEFAULT_PURGE_BATCH_DELAY).trim());
+		if (batchSize < 1) {
+			throw new IllegalArgumentException(BatchContainerConstants.PURGE_BATCH_SIZE + " must be at least 1");
+		}
+
+		if (Boolean.parseBoolean(props.getProperty(BatchContainerConstants.RETENTION_ENABLED,
+				BatchContainerConstants.DEFAULT_RETENTION_ENABLED).trim())) {
+			maxAgeMillis = TimeUnit.HOURS.toMillis(Long.parseLong(props.getProperty(BatchContainerConstants.RETENTION_MAX_AGE_HOURS,
+					BatchContainerConstants.DEFAULT_RETENTION_MAX_AGE_HOURS).trim()));
+			retentionStatuses = EnumSet.noneOf(BatchStatus.class);
+			for (String status : props.getProperty(BatchContainerConstants.RETENTION_BATCH_STATUSES,
+					BatchContainerConstants.DEFAULT_RETENTION_BATCH_STATUSES).split(",")) {
+				if (!status.trim().isEmpty()) {
+					retentionStatuses.add(BatchStatus.valueOf(status.trim()));
+				}
+			}
+			long interval = Long.parseLong(props.getProperty(BatchContainerConstants.RETENTION_INTERVAL_MINUTES,
+					BatchContainerConstants.DEFAULT_RETENTION_INTERVAL_MINUTES).trim());
+			if (interval < 1) {
+				throw new IllegalArgumentException(BatchContainerConstants.RETENTION_INTERVAL_MINUTES + " must be at least 1");
+			}
+
+			timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Batch retention timer");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			timer.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					// An exception here would cancel every later run
+					try {
+						runRetention();
+					} catch (RuntimeException e) {
+						logger.log(Level.WARNING, "Failed to start retention run", e);
+					}
+				}
+			}, interval, interval, TimeUnit.MINUTES);
+
+			logger.config("Batch retention purging instances in " + retentionStatuses + " older than " + maxAgeMillis + " ms, every "
+					+ interval + " minutes");
+		}
+	}
+
+	/**
+	 * Starts purging the job instances matching the criteria on the batch thread pool, once
+	 * the scheduler, if any, has a job slot for it.
+	 *
+	 * @return the progress of the purge, which can also be used to cancel it
+	 */
+	public PurgeProgress purge(PurgeCriteria criteria) {
+		final PurgeProgress progress = new PurgeProgress(new PurgeCriteria(criteria));
+		Runnable work = new Runnable() {
+			@Override
+			public void run() {
+				runPurge(progress);
+			}
+
+			@Override
+			public String toString() {
+				return "purge: " + progress.getCriteria();
+			}
+		};
+		if (scheduler != null) {
+			scheduler.submitPurge(work);
+		} else {
+			threadPool.executeTask(work, null);
+		}
+		return progress;
+	}
+
+	/**
+	 * Starts a retention purge now, rather than waiting for the timer.
+	 *
+	 * @return the progress of the purge, or of the one still running
+	 * @throws IllegalStateException unless RETENTION_ENABLED
+	 */
+	public synchronized PurgeProgress runRetention() {
+		if (retentionStatuses == null) {
+			throw new IllegalStateException("Retention is not enabled");
+		}
+		if (shutdown || (lastRetentionRun != null && !lastRetentionRun.isDone())) {
+			logger.fine("Skipping retention run, the last one is still going");
+			return lastRetentionRun;
+		}
+		PurgeCriteria criteria = new PurgeCriteria();
+		criteria.setBatchStatuses(retentionStatuses);
+		criteria.setEndedBefore(new Date(System.currentTimeMillis() - maxAgeMillis));
+		lastRetentionRun = purge(criteria);
+		return lastRetentionRun;
+	}
+
+	private void runPurge(PurgeProgress progress) {
+		PurgeCriteria criteria = progress.getCriteria();
+		progress.started();
+		runs.incrementAndGet();
+		Throwable failure = null;
+		try {
+			long afterInstanceId = 0;
+			while (!progress.isCancelled() && !shutdown) {
+				List<Long> instanceIds = persistenceService.getPurgeableJobInstanceIds(criteria, afterInstanceId, batchSize);
+				if (instanceIds.isEmpty()) {
+					break;
+				}
+				long rows = persistenceService.purgeJobInstances(instanceIds);
+				progress.batchDone(instanceIds.size(), rows);
+				totalInstancesPurged.addAndGet(instanceIds.size());
+				totalRowsDeleted.addAndGet(rows);
+				afterInstanceId = instanceIds.get(instanceIds.size() - 1);
+
+				if (logger.isLoggable(Level.FINE)) {
+					logger.fine("Purge progress: " + progress);
+				}
+				if (instanceIds.size() < batchSize) {
+					break;
+				}
+				if (batchDelay > 0) {
+					Thread.sleep(batchDelay);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure = e;
+		} catch (RuntimeException e) {
+			logger.log(Level.WARNING, "Purge failed after " + progress.getInstancesPurged() + " job instances", e);
+			failure = e;
+		} finally {
+			progress.finished(failure);
+		}
+		logger.info("Purged " + progress.getInstancesPurged() + " job instances, " + progress.getRowsDeleted() + " rows in "
+				+ (progress.getEndTime().getTime() - progress.getStartTime().getTime()) + " ms, " + progress);
+	}
+
+	/**
+	 * @return the last retention purge, or null if none has run yet
+	 */
+	public PurgeProgress getLastRetentionRun() {
+		return lastRetentionRun;
+	}
+
+	/**
+	 * @return purges started since the runtime started, whether on request or by retention
+	 */
+	public long getRuns() {
+		return runs.get();
+	}
+
+	public long getTotalInstancesPurged() {
+		return totalInstancesPurged.get();
+	}
+
+	public long getTotalRowsDeleted() {
+		return totalRowsDeleted.get();
+	}
+
+	/**
+	 * Stops the retention timer, and any purge in progress after its current batch.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		if (timer != null) {
+			timer.shutdownNow();
+		}
+	}
+}
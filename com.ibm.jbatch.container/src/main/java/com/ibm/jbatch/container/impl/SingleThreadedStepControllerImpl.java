@@ -17,6 +17,7 @@
 package com.ibm.jbatch.container.impl;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.logging.Logger;
@@ -28,8 +29,10 @@ import com.ibm.jbatch.container.artifact.proxy.PartitionCollectorProxy;
 import com.ibm.jbatch.container.artifact.proxy.ProxyFactory;
 import com.ibm.jbatch.container.artifact.proxy.StepListenerProxy;
 import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.util.PartitionAnalyzerQueue;
 import com.ibm.jbatch.container.util.PartitionDataWrapper;
 import com.ibm.jbatch.container.util.PartitionDataWrapper.PartitionEventType;
 import com.ibm.jbatch.container.validation.ArtifactValidationException;
@@ -54,6 +57,10 @@ public abstract class SingleThreadedStepControllerImpl extends BaseStepControlle
 	// Collector only used from partition threads, not main thread
 	protected PartitionCollectorProxy collectorProxy = null;
 
+	// Collector data waiting to be handed off together, null unless batched
+	private List<Serializable> pendingCollectorData = null;
+	private int collectorBatchSize = 1;
+
 	protected SingleThreadedStepControllerImpl(RuntimeJobExecution jobExecutionImpl, Step step, StepContextImpl stepContext, long rootJobExecutionId, BlockingQueue<PartitionDataWrapper> analyzerStatusQueue) {
 		super(jobExecutionImpl, step, stepContext, rootJobExecutionId, analyzerStatusQueue);
 	}
@@ -83,6 +90,11 @@ public abstract class SingleThreadedStepControllerImpl extends BaseStepControlle
 				} catch (ArtifactValidationException e) {
 					throw new BatchContainerServiceException("Cannot create the collector [" + collector.getRef() + "]", e);
 				}
+
+				collectorBatchSize = getPositiveIntStepProperty(PartitionedStepControllerImpl.COLLECTOR_BATCH_SIZE_STEP_PROP, 1);
+				if (collectorBatchSize > 1) {
+					pendingCollectorData = new ArrayList<Serializable>(collectorBatchSize);
+				}
 			}
 		}
 	}
@@ -120,26 +132,62 @@ public abstract class SingleThreadedStepControllerImpl extends BaseStepControlle
 	// Useless to have collector without analyzer but let's check so we don't hang or blow up.
 	protected void sendCollectorDataToAnalyzerIfPresent(Serializable data) {
 		if (analyzerStatusQueue != null) {
+			if (pendingCollectorData != null) {
+				pendingCollectorData.add(data);
+				if (pendingCollectorData.size() >= collectorBatchSize) {
+					sendPendingCollectorData();
+				}
+				return;
+			}
 			logger.finer("Sending collector partition data: " + data + " to analyzer queue: " + analyzerStatusQueue);
 			PartitionDataWrapper dataWrapper = new PartitionDataWrapper();
 			dataWrapper.setCollectorData(data);
 			dataWrapper.setEventType(PartitionEventType.ANALYZE_COLLECTOR_DATA);
-			analyzerStatusQueue.add(dataWrapper);
+			handOffToAnalyzer(dataWrapper);
 		} else {
 			logger.fine("Analyzer not configured.");
 		}
 	}
 
+	private void sendPendingCollectorData() {
+		if (pendingCollectorData == null || pendingCollectorData.isEmpty()) {
+			return;
+		}
+		logger.finer("Sending " + pendingCollectorData.size() + " collector partition data to analyzer queue: " + analyzerStatusQueue);
+		PartitionDataWrapper dataWrapper = new PartitionDataWrapper();
+		dataWrapper.setCollectorDataBatch(pendingCollectorData);
+		dataWrapper.setEventType(PartitionEventType.ANALYZE_COLLECTOR_DATA);
+		handOffToAnalyzer(dataWrapper);
+		pendingCollectorData = new ArrayList<Serializable>(collectorBatchSize);
+	}
+
+	// Waits while the analyzer is behind
+	private void handOffToAnalyzer(PartitionDataWrapper dataWrapper) {
+		try {
+			if (!(analyzerStatusQueue instanceof PartitionAnalyzerQueue)) {
+				analyzerStatusQueue.put(dataWrapper);
+			} else if (!((PartitionAnalyzerQueue) analyzerStatusQueue).handOff(dataWrapper)) {
+				logger.warning("Partition " + getPartitionNumber() + " of step: " + step.getId()
+						+ " handed off data after the analyzer stopped taking it, dropped: " + dataWrapper);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BatchContainerRuntimeException("Interrupted handing partition data to the analyzer", e);
+		}
+	}
+
 	// Useless to have collector without analyzer but let's check so we don't hang or blow up.
 	@Override
 	protected void sendStatusFromPartitionToAnalyzerIfPresent() {
 		if (analyzerStatusQueue != null) {
+			// The analyzer gets any collector data before the status
+			sendPendingCollectorData();
 			logger.fine("Send status from partition for analyzeStatus with batchStatus = " + stepStatus.getBatchStatus() + ", exitStatus = " + stepStatus.getExitStatus());
 			PartitionDataWrapper dataWrapper = new PartitionDataWrapper();
 			dataWrapper.setBatchStatus(stepStatus.getBatchStatus());
 			dataWrapper.setExitStatus(stepStatus.getExitStatus());
 			dataWrapper.setEventType(PartitionEventType.ANALYZE_STATUS);
-			analyzerStatusQueue.add(dataWrapper);
+			handOffToAnalyzer(dataWrapper);
 		} else {
 			logger.fine("Analyzer not configured.");
 		}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -64,6 +65,9 @@ public class SplitControllerImpl implements IExecutionElementController {
 	private final long rootJobExecutionId;
 
 	final List<JSLJob> subJobs = new ArrayList<JSLJob>();
+	// Guards subJobs and the work units built from them.  Not a monitor, since it's held across
+	// database calls, which would pin a virtual thread to its carrier.
+	private final ReentrantLock subJobsLock = new ReentrantLock();
 
 	protected Split split;
 
@@ -85,7 +89,8 @@ public class SplitControllerImpl implements IExecutionElementController {
 
 		// It's possible we may try to stop a split before any
 		// sub steps have been started.
-		synchronized (subJobs) {
+		subJobsLock.lock();
+		try {
 
 			if (parallelBatchWorkUnits != null) {
 				for (BatchParallelWorkUnit subJob : parallelBatchWorkUnits) {
@@ -104,6 +109,8 @@ public class SplitControllerImpl implements IExecutionElementController {
 					}
 				}
 			}
+		} finally {
+			subJobsLock.unlock();
 		}
 	}
 
@@ -142,7 +149,8 @@ public class SplitControllerImpl implements IExecutionElementController {
 		parallelBatchWorkUnits = new ArrayList<BatchFlowInSplitWorkUnit>();
 
 		// Build all sub jobs from flows in split
-		synchronized (subJobs) {
+		subJobsLock.lock();
+		try {
 			for (Flow flow : flows) {
 				subJobs.add(PartitionedStepBuilder.buildFlowInSplitSubJob(jobContext, this.split, flow));
 			}
@@ -159,6 +167,8 @@ public class SplitControllerImpl implements IExecutionElementController {
 					throw new IllegalStateException("There is an inconsistency somewhere in the internal subjob creation");
 				}
 			}
+		} finally {
+			subJobsLock.unlock();
 		}
 	}
 
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.Metric.MetricType;
+
+import com.ibm.jbatch.container.context.impl.MetricImpl;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.context.impl.StepMetricSampler;
+
+/**
+ * Live progress of a running step, or of one partition of a partitioned step, kept in memory
+ * by the {@link StepProgressRegistry}.  The step's thread updates it as it goes, while any
+ * other thread may read it at any time, without either one ever waiting on the other.
+ */
+public class StepProgress {
+
+	private static final MetricType[] METRIC_TYPES = MetricType.values();
+
+	private final long executionId;
+	private final String stepName;
+	private final int partition;
+	private final StepContextImpl stepContext;
+	private final Date startTime = new Date();
+
+	// Null unless this is a partitioned step
+	private final ConcurrentHashMap<Integer, StepProgress> partitions;
+
+	// Only written by the step's thread
+	private volatile long currentChunk = 0;
+	private volatile long currentChunkStartTime = 0;
+	private volatile long lastCheckpointTime = 0;
+	private volatile Date endTime = null;
+
+	// Written once per item, so lazily; readers may see a count an item or so behind
+	private final AtomicInteger itemsInCurrentChunk = new AtomicInteger();
+
+	// Only used by the sampler thread, which publishes the rates
+	StepMetricSampler sampler = null;
+	private volatile double readRate = 0;
+	private volatile double writeRate = 0;
+	private volatile double filterRate = 0;
+
+	StepProgress(long executionId, String stepName, int partition, boolean partitioned, StepContextImpl stepContext) {
+		this.executionId = executionId;
+		this.stepName = stepName;
+		this.partition = partition;
+		this.stepContext = stepContext;
+		this.partitions = partitioned ? new ConcurrentHashMap<Integer, StepProgress>() : null;
+	}
+
+	/**
+	 * @return the top-level job execution the step runs in, even where it runs in a
+	 * partition or split flow sub-job
+	 */
+	public long getExecutionId() {
+		return executionId;
+	}
+
+	public String getStepName() {
+		return stepName;
+	}
+
+	/**
+	 * @return the partition number, or -1 unless this is a partition
+	 */
+	public int getPartition() {
+		return partition;
+	}
+
+	public long getStepExecutionId() {
+		return stepContext.getInternalStepExecutionId();
+	}
+
+	public BatchStatus getBatchStatus() {
+		return stepContext.getBatchStatus();
+	}
+
+	public Date getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return when the step ended, or null while it's running.  Only partitions are still
+	 * seen once they've ended, under their step.
+	 */
+	public Date getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * @return a snapshot of the step's metrics as of now, or for a partitioned step, their
+	 * totals over its partitions of this execution
+	 */
+	public Metric[] getMetrics() {
+		Metric[] metrics = new Metric[METRIC_TYPES.length];
+		for (int i = 0; i < METRIC_TYPES.length; i++) {
+			metrics[i] = new MetricImpl(METRIC_TYPES[i], getMetricValue(METRIC_TYPES[i]));
+		}
+		return metrics;
+	}
+
+	public long getMetricValue(MetricType type) {
+		if (partitions == null || partitions.isEmpty()) {
+			return stepContext.getMetricValue(type);
+		}
+		long value = 0;
+		for (StepProgress partitionProgress : partitions.values()) {
+			value += partitionProgress.getMetricValue(type);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the number of the chunk in progress, counting from 1 and including chunks
+	 * retried after a rollback, or 0 before the first one.  Always 0 for a batchlet or a
+	 * partitioned step.
+	 */
+	public long getCurrentChunk() {
+		return currentChunk;
+	}
+
+	/**
+	 * @return items read so far in the chunk in progress
+	 */
+	public int getItemsInCurrentChunk() {
+		return itemsInCurrentChunk.get();
+	}
+
+	/**
+	 * @return when the chunk in progress began, or null before the first one
+	 */
+	public Date getCurrentChunkStartTime() {
+		long time = currentChunkStartTime;
+		return time == 0 ? null : new Date(time);
+	}
+
+	/**
+	 * @return when the step last committed a checkpoint, or null if it hasn't yet
+	 */
+	public Date getLastCheckpointTime() {
+		long time = lastCheckpointTime;
+		return time == 0 ? null : new Date(time);
+	}
+
+	/**
+	 * @return the progress of each partition started in this execution so far, in partition
+	 * order, or an empty list unless this is a partitioned step
+	 */
+	public List<StepProgress> getPartitions() {
+		if (partitions == null) {
+			return Collections.emptyList();
+		}
+		List<StepProgress> result = new ArrayList<StepProgress>(partitions.values());
+		Collections.sort(result, new Comparator<StepProgress>() {
+			@Override
+			public int compare(StepProgress progress1, StepProgress progress2) {
+				return Integer.compare(progress1.partition, progress2.partition);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * @return items read per second between the last two samples, or 0 unless
+	 * STEP_PROGRESS_SAMPLE_INTERVAL is set
+	 */
+	public double getReadRate() {
+		return readRate;
+	}
+
+	/**
+	 * @return items written per second between the last two samples, or 0 unless
+	 * STEP_PROGRESS_SAMPLE_INTERVAL is set
+	 */
+	public double getWriteRate() {
+		return writeRate;
+	}
+
+	/**
+	 * @return items filtered per second between the last two samples, or 0 unless
+	 * STEP_PROGRESS_SAMPLE_INTERVAL is set
+	 */
+	public double getFilterRate() {
+		return filterRate;
+	}
+
+	boolean isPartitioned() {
+		return partitions != null;
+	}
+
+	void addPartition(StepProgress partitionProgress) {
+		partitions.put(partitionProgress.partition, partitionProgress);
+	}
+
+	void chunkStarted() {
+		itemsInCurrentChunk.lazySet(0);
+		currentChunkStartTime = System.currentTimeMillis();
+		currentChunk = currentChunk + 1;
+	}
+
+	void itemRead() {
+		itemsInCurrentChunk.lazySet(itemsInCurrentChunk.get() + 1);
+	}
+
+	void checkpointed() {
+		lastCheckpointTime = System.currentTimeMillis();
+	}
+
+	void ended() {
+		endTime = new Date();
+	}
+
+	/**
+	 * Called on the sampler thread only.  A partitioned step's rates are the totals of its
+	 * partitions' rates, so its partitions are sampled first.
+	 */
+	void sample() {
+		if (partitions != null && !partitions.isEmpty()) {
+			double read = 0, write = 0, filter = 0;
+			for (StepProgress partitionProgress : partitions.values()) {
+				if (partitionProgress.endTime == null) {
+					partitionProgress.sample();
+					read += partitionProgress.readRate;
+					write += partitionProgress.writeRate;
+					filter += partitionProgress.filterRate;
+				}
+			}
+			readRate = read;
+			writeRate = write;
+			filterRate = filter;
+		} else if (sampler == null) {
+			sampler = new StepMetricSampler(stepContext);
+		} else {
+			sampler.sample();
+			readRate = sampler.getReadRate();
+			writeRate = sampler.getWriteRate();
+			filterRate = sampler.getFilterRate();
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("executionId: ").append(executionId).append(", step: ").append(stepName);
+		if (partition >= 0) {
+			buf.append(", partition: ").append(partition);
+		}
+		buf.append(", batchStatus: ").append(getBatchStatus());
+		buf.append(", read: ").append(getMetricValue(MetricType.READ_COUNT));
+		buf.append(", written: ").append(getMetricValue(MetricType.WRITE_COUNT));
+		buf.append(", filtered: ").append(getMetricValue(MetricType.FILTER_COUNT));
+		if (partitions == null) {
+			buf.append(", chunk: ").append(currentChunk);
+		} else {
+			buf.append(", partitions: ").append(partitions.size());
+		}
+		buf.append(String.format(", read/s: %.1f, written/s: %.1f, filtered/s: %.1f", readRate, writeRate, filterRate));
+		return buf.toString();
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+
+/**
+ * Keeps the {@link StepProgress} of every running step in memory, by top-level job execution
+ * and step name.  Steps in split flows are found under their top-level execution, and
+ * partitions under their partitioned step, whether they run as sub-jobs or lightweight.
+ *
+ * With STEP_PROGRESS_SAMPLE_INTERVAL, a timer thread samples the metrics of every running
+ * step every so often, to give their read, write and filter rates, and can write them to
+ * the log.
+ */
+public class StepProgressRegistry {
+
+	private final static String sourceClass = StepProgressRegistry.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	// The top-level execution each running job instance belongs to, sub-jobs included
+	private final ConcurrentHashMap<Long, Long> topLevelExecutions = new ConcurrentHashMap<Long, Long>();
+
+	private final ConcurrentHashMap<Long, ConcurrentHashMap<String, StepProgress>> steps = new ConcurrentHashMap<Long, ConcurrentHashMap<String, StepProgress>>();
+
+	// Null unless STEP_PROGRESS_SAMPLE_INTERVAL is set
+	private ScheduledExecutorService sampler = null;
+	private final boolean logSamples;
+
+	public StepProgressRegistry(Properties props) {
+		long interval = Long.parseLong(props.getProperty(BatchContainerConstants.STEP_PROGRESS_SAMPLE_INTERVAL,
+				BatchContainerConstants.DEFAULT_STEP_PROGRESS_SAMPLE_INTERVAL).trim());
+		logSamples = Boolean.parseBoolean(props.getProperty(BatchContainerConstants.STEP_PROGRESS_LOG,
+				BatchContainerConstants.DEFAULT_STEP_PROGRESS_LOG).trim());
+		if (interval < 0) {
+			throw new IllegalArgumentException(BatchContainerConstants.STEP_PROGRESS_SAMPLE_INTERVAL + " must not be negative");
+		}
+		if (interval > 0) {
+			sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Batch step progress sampler");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			sampler.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						sample();
+					} catch (Throwable t) {
+						// Don't let one bad sample stop the timer
+						logger.log(Level.WARNING, "Failed to sample step progress", t);
+					}
+				}
+			}, interval, interval, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * @return the progress of the step in the top-level execution, or null unless it's running
+	 */
+	public StepProgress getStepProgress(long executionId, String stepName) {
+		ConcurrentHashMap<String, StepProgress> executionSteps = steps.get(executionId);
+		return executionSteps == null ? null : executionSteps.get(stepName);
+	}
+
+	/**
+	 * @return the progress of each step running in the top-level execution, of which there's
+	 * more than one while a split runs, or an empty list unless the execution is running
+	 */
+	public List<StepProgress> getStepProgress(long executionId) {
+		ConcurrentHashMap<String, StepProgress> executionSteps = steps.get(executionId);
+		if (executionSteps == null) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<StepProgress>(executionSteps.values());
+	}
+
+	void jobStarted(long instanceId, long executionId, String jobName) {
+		if (jobName != null && jobName.startsWith(PartitionedStepBuilder.JOB_ID_SEPARATOR)) {
+			// A sub-job is named ':<parent instance id>:<step or split>:<partition or flow>'
+			String[] parts = jobName.split(PartitionedStepBuilder.JOB_ID_SEPARATOR);
+			Long topLevelExecutionId = null;
+			if (parts.length > 1) {
+				try {
+					topLevelExecutionId = topLevelExecutions.get(Long.parseLong(parts[1]));
+				} catch (NumberFormatException e) {
+					// Not a sub-job after all
+				}
+			}
+			if (topLevelExecutionId != null) {
+				topLevelExecutions.put(instanceId, topLevelExecutionId);
+				return;
+			}
+		}
+		topLevelExecutions.put(instanceId, executionId);
+		steps.put(executionId, new ConcurrentHashMap<String, StepProgress>());
+	}
+
+	void jobEnded(long instanceId, long executionId) {
+		topLevelExecutions.remove(instanceId);
+		steps.remove(executionId);
+	}
+
+	/**
+	 * @return the progress for the step to update, which can only be seen through this 
+	 * registry while its job is running
+	 */
+	StepProgress stepStarted(long instanceId, long executionId, String stepName, int partition, boolean partitioned, StepContextImpl stepContext) {
+		Long topLevelExecutionId = topLevelExecutions.get(instanceId);
+		ConcurrentHashMap<String, StepProgress> executionSteps = topLevelExecutionId == null ? null : steps.get(topLevelExecutionId);
+		StepProgress progress = new StepProgress(topLevelExecutionId == null ? executionId : topLevelExecutionId, 
+				stepName, partition, partitioned, stepContext);
+		if (executionSteps != null) {
+			if (partition < 0) {
+				executionSteps.put(stepName, progress);
+			} else {
+				StepProgress parent = executionSteps.get(stepName);
+				if (parent != null && parent.isPartitioned()) {
+					parent.addPartition(progress);
+				}
+			}
+		}
+		return progress;
+	}
+
+	/**
+	 * A partition stays in its step's progress, so the step's totals still count it.
+	 */
+	void stepEnded(StepProgress progress) {
+		progress.ended();
+		if (progress.getPartition() < 0) {
+			ConcurrentHashMap<String, StepProgress> executionSteps = steps.get(progress.getExecutionId());
+			if (executionSteps != null) {
+				executionSteps.remove(progress.getStepName(), progress);
+			}
+		}
+	}
+
+	/**
+	 * Samples the metrics of every running step, updating their rates, and writes them to
+	 * the log with STEP_PROGRESS_LOG.
+	 */
+	public synchronized void sample() {
+		StringBuilder report = logSamples ? new StringBuilder("Step progress:") : null;
+		for (ConcurrentHashMap<String, StepProgress> executionSteps : steps.values()) {
+			for (StepProgress progress : executionSteps.values()) {
+				progress.sample();
+				if (report != null) {
+					report.append("\n  ").append(progress);
+				}
+			}
+		}
+		if (report != null && report.indexOf("\n") > 0) {
+			logger.info(report.toString());
+		}
+	}
+
+	public void shutdown() {
+		if (sampler != null) {
+			sampler.shutdownNow();
+		}
+	}
+}
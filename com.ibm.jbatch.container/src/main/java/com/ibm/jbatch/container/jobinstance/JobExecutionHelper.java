@@ -16,6 +16,9 @@
  */
 package com.ibm.jbatch.container.jobinstance;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -153,25 +156,61 @@ public class JobExecutionHelper {
 	}
 	
 	public static RuntimeJobExecution startPartition(JSLJob jobModel, Properties jobParameters) throws JobStartException{
-		logger.entering(CLASSNAME, "startPartition", new Object[]{jobModel, jobParameters ==null ? "<null>" :jobParameters});
+		return startPartitions(Collections.singletonList(jobModel), new Properties[] { jobParameters }).get(0);
+	}
 
-		ModelNavigator<JSLJob> jobNavigator = getResolvedJobNavigator(jobModel, jobParameters, true);
-		JobContextImpl jobContext = getJobContext(jobNavigator);
-		
-		JobInstance jobInstance = getNewSubJobInstance(jobNavigator.getRootModelElement().getId());
+	/**
+	 * Like {@link #startPartition(JSLJob, Properties)} for each of a step's partitions, but
+	 * creating all their job instances, executions and statuses at once.
+	 *
+	 * @param jobModels the generated sub-job of each partition
+	 * @param partitionProps the partition properties of each partition, or null
+	 * @return the execution of each partition, in the same order
+	 */
+	public static List<RuntimeJobExecution> startPartitions(List<JSLJob> jobModels, Properties[] partitionProps) throws JobStartException{
+		logger.entering(CLASSNAME, "startPartitions", jobModels.size());
+
+		List<JobContextImpl> jobContexts = new ArrayList<JobContextImpl>(jobModels.size());
+		List<String> subJobNames = new ArrayList<String>(jobModels.size());
+		List<Properties> jobParameters = new ArrayList<Properties>(jobModels.size());
+		for (int i = 0; i < jobModels.size(); i++) {
+			Properties partitionParameters = (partitionProps == null) ? null : partitionProps[i];
+			ModelNavigator<JSLJob> jobNavigator = getResolvedJobNavigator(jobModels.get(i), partitionParameters, true);
+			jobContexts.add(getJobContext(jobNavigator));
+			subJobNames.add(jobNavigator.getRootModelElement().getId());
+			jobParameters.add(partitionParameters);
+		}
 
-		RuntimeJobExecution executionHelper = 
-				_persistenceManagementService.createJobExecution(jobInstance, jobParameters, jobContext.getBatchStatus());
+		String apptag = _batchKernelService.getBatchSecurityHelper().getCurrentTag();
+		List<RuntimeJobExecution> executionHelpers = 
+				_persistenceManagementService.createPartitionSubJobExecutions(subJobNames, apptag, jobParameters, BatchStatus.STARTING);
 
-		executionHelper.prepareForExecution(jobContext);
+		for (int i = 0; i < executionHelpers.size(); i++) {
+			executionHelpers.get(i).prepareForExecution(jobContexts.get(i));
+		}
 
-		JobStatus jobStatus = createNewJobStatus(jobInstance);
-		_jobStatusManagerService.updateJobStatus(jobStatus);
+		logger.exiting(CLASSNAME, "startPartitions", executionHelpers);
+		return executionHelpers;
+	}
+	
+	/**
+	 * Prepares a partition to run in-process, under the parent's job instance and execution
+	 * rather than a sub-job's, so nothing is persisted.
+	 */
+	public static RuntimeJobExecution startLightweightPartition(JSLJob jobModel, Properties partitionProps, RuntimeJobExecution parentExecution) {
+		logger.entering(CLASSNAME, "startLightweightPartition", new Object[]{jobModel, partitionProps ==null ? "<null>" :partitionProps});
+
+		ModelNavigator<JSLJob> jobNavigator = getResolvedJobNavigator(jobModel, partitionProps, true);
+		JobContextImpl jobContext = getJobContext(jobNavigator);
 
-		logger.exiting(CLASSNAME, "startPartition", executionHelper);
+		RuntimeJobExecution executionHelper = new RuntimeJobExecution(parentExecution.getJobInstance(), parentExecution.getExecutionId());
+		executionHelper.setJobParameters(partitionProps);
+		executionHelper.prepareForExecution(jobContext);
+
+		logger.exiting(CLASSNAME, "startLightweightPartition", executionHelper);
 		return executionHelper;
 	}
-	
+
 	public static RuntimeJobExecution restartJob(long executionId, JSLJob gennedJobModel) throws JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, NoSuchJobExecutionException {
 		return restartExecution(executionId, null, null, false, false);
 	}
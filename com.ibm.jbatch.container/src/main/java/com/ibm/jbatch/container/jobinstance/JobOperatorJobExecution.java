@@ -16,6 +16,7 @@
  */
 package com.ibm.jbatch.container.jobinstance;
 
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.Date;
 import java.util.Properties;
@@ -25,11 +26,13 @@ import jakarta.batch.runtime.BatchStatus;
 
 import com.ibm.jbatch.container.annotation.TCKExperimentProperty;
 import com.ibm.jbatch.container.context.impl.JobContextImpl;
+import com.ibm.jbatch.container.exception.PersistenceException;
 import com.ibm.jbatch.container.services.IJobExecution;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService.TimestampType;
 import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.util.SerializationHelper;
 import com.ibm.jbatch.spi.TaggedJobExecution;
 
 public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecution {
@@ -53,6 +56,7 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 	String exitStatus;
 	String cachedExitStatus;
 	Properties jobProperties = null;
+	private byte[] serializedJobProperties = null;
 	String jobName = null;
 	private JobContextImpl jobContext = null;
 	
@@ -176,8 +180,17 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 	}
 
 	@Override
-	public Properties getJobParameters() {
-		// TODO Auto-generated method stub
+	public synchronized Properties getJobParameters() {
+		if (serializedJobProperties != null) {
+			try {
+				jobProperties = (Properties) SerializationHelper.deserialize(serializedJobProperties);
+			} catch (IOException e) {
+				throw new PersistenceException(e);
+			} catch (ClassNotFoundException e) {
+				throw new PersistenceException(e);
+			}
+			serializedJobProperties = null;
+		}
 		return jobProperties;
 	}
 
@@ -220,8 +233,17 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 		startTime = ts;
 	}
 
-	public void setJobParameters(Properties jProps){
+	public synchronized void setJobParameters(Properties jProps){
 		jobProperties = jProps;
+		serializedJobProperties = null;
+	}
+
+	/**
+	 * @param serializedJobProps the parameters as stored, deserialized the first time they're asked for
+	 */
+	public synchronized void setSerializedJobParameters(byte[] serializedJobProps){
+		jobProperties = null;
+		serializedJobProperties = serializedJobProps;
 	}
 
 	@Override
@@ -38,11 +38,26 @@ import com.ibm.jbatch.jsl.model.Property;
 import com.ibm.jbatch.jsl.model.Stop;
 
 
+/**
+ * Copies the parts of a step which are resolved separately for each of its partitions.
+ *
+ * Copies are copy-on-write: by the time a step is partitioned its model has already been
+ * resolved once, so only what still contains a property expression (e.g. #{partitionPlan['x']})
+ * can be changed by resolving it again.  Anything else is shared between the step and all its
+ * partitions rather than copied, and resolving it just sets the same values it already has.
+ * The chunk itself is always copied, since it's updated with defaults as the step runs.
+ */
 public class CloneUtility {
 
     private static  ObjectFactory jslFactory = new ObjectFactory();
 
+    private static final String PROPERTY_EXPRESSION_START = "#{";
+
     public static Batchlet cloneBatchlet(Batchlet batchlet){
+    	if (!hasPropertyExpression(batchlet.getRef(), batchlet.getProperties())) {
+    		return batchlet;
+    	}
+
     	Batchlet newBatchlet = jslFactory.createBatchlet();
 
     	newBatchlet.setRef(batchlet.getRef());
@@ -56,11 +71,17 @@ public class CloneUtility {
     		return null;
     	}
 
+    	// Always a new list, so properties can be added to it
     	JSLProperties newJSLProps = jslFactory.createJSLProperties();
 
     	newJSLProps.setPartition(jslProps.getPartition());;
 
     	for(Property jslProp : jslProps.getPropertyList()) {
+    		if (!hasPropertyExpression(jslProp)) {
+    			newJSLProps.getPropertyList().add(jslProp);
+    			continue;
+    		}
+
     		Property newProperty = jslFactory.createProperty();
 
     		newProperty.setName(jslProp.getName());
@@ -121,9 +142,22 @@ public class CloneUtility {
     		return null;
     	}
 
+    	boolean hasPropertyExpression = false;
+    	for(Listener listener : listeners.getListenerList()) {
+    		hasPropertyExpression |= hasPropertyExpression(listener.getRef(), listener.getProperties());
+    	}
+    	if (!hasPropertyExpression) {
+    		return listeners;
+    	}
+
     	Listeners newListeners = jslFactory.createListeners();
 
     	for(Listener listener : listeners.getListenerList()) {
+    		if (!hasPropertyExpression(listener.getRef(), listener.getProperties())) {
+    			newListeners.getListenerList().add(listener);
+    			continue;
+    		}
+
     		Listener newListener = jslFactory.createListener();
     		newListeners.getListenerList().add(newListener);
     		newListener.setRef(listener.getRef());
@@ -154,8 +188,8 @@ public class CloneUtility {
     }
 
     private static CheckpointAlgorithm cloneCheckpointAlorithm(CheckpointAlgorithm checkpointAlgorithm){
-        if (checkpointAlgorithm == null) {
-            return null;
+        if (checkpointAlgorithm == null || !hasPropertyExpression(checkpointAlgorithm.getRef(), checkpointAlgorithm.getProperties())) {
+            return checkpointAlgorithm;
         }
 
         CheckpointAlgorithm newCheckpointAlgorithm = jslFactory.createCheckpointAlgorithm();
@@ -167,8 +201,8 @@ public class CloneUtility {
     }
 
     private static ItemProcessor cloneItemProcessor(ItemProcessor itemProcessor) {
-        if (itemProcessor == null) {
-            return null;
+        if (itemProcessor == null || !hasPropertyExpression(itemProcessor.getRef(), itemProcessor.getProperties())) {
+            return itemProcessor;
         }
 
         ItemProcessor newItemProcessor = jslFactory.createItemProcessor();
@@ -179,8 +213,8 @@ public class CloneUtility {
     }
 
     private static ItemReader cloneItemReader(ItemReader itemReader) {
-        if (itemReader == null) {
-            return null;
+        if (itemReader == null || !hasPropertyExpression(itemReader.getRef(), itemReader.getProperties())) {
+            return itemReader;
         }
 
         ItemReader newItemReader = jslFactory.createItemReader();
@@ -191,6 +225,10 @@ public class CloneUtility {
     }
 
     private static ItemWriter cloneItemWriter(ItemWriter itemWriter) {
+        if (!hasPropertyExpression(itemWriter.getRef(), itemWriter.getProperties())) {
+            return itemWriter;
+        }
+
         ItemWriter newItemWriter = jslFactory.createItemWriter();
         newItemWriter.setRef(itemWriter.getRef());
         newItemWriter.setProperties(cloneJSLProperties(itemWriter.getProperties()));
@@ -204,6 +242,17 @@ public class CloneUtility {
             return null;
         }
 
+        boolean hasPropertyExpression = false;
+        for  (ExceptionClassFilter.Include oldInclude : exceptionClassFilter.getIncludeList()) {
+            hasPropertyExpression |= hasPropertyExpression(oldInclude.getClazz());
+        }
+        for  (ExceptionClassFilter.Exclude oldExclude : exceptionClassFilter.getExcludeList()) {
+            hasPropertyExpression |= hasPropertyExpression(oldExclude.getClazz());
+        }
+        if (!hasPropertyExpression) {
+            return exceptionClassFilter;
+        }
+
         ExceptionClassFilter newExceptionClassFilter = jslFactory.createExceptionClassFilter();
 
         for  (ExceptionClassFilter.Include oldInclude : exceptionClassFilter.getIncludeList()) {
@@ -245,6 +294,27 @@ public class CloneUtility {
 
     }
 
+    private static boolean hasPropertyExpression(String ref, JSLProperties jslProps) {
+        if (hasPropertyExpression(ref)) {
+            return true;
+        }
+        if (jslProps != null) {
+            for (Property jslProp : jslProps.getPropertyList()) {
+                if (hasPropertyExpression(jslProp)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasPropertyExpression(Property jslProp) {
+        return hasPropertyExpression(jslProp.getName()) || hasPropertyExpression(jslProp.getValue());
+    }
+
+    private static boolean hasPropertyExpression(String str) {
+        return str != null && str.contains(PROPERTY_EXPRESSION_START);
+    }
 
     /**
      * Creates a java.util.Properties map from a com.ibm.jbatch.jsl.model.Properties
@@ -22,25 +22,18 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
 import java.net.URL;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.HashMap;
 import java.util.Properties;
 
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
-import javax.xml.transform.stream.StreamSource;
 
 
 import com.ibm.jbatch.container.jsl.ModelResolver;
 import com.ibm.jbatch.jsl.model.JSLJob;
 import com.ibm.jbatch.jsl.model.Step;
-import com.ibm.jbatch.jsl.util.ValidatorHelper;
-import com.ibm.jbatch.jsl.util.JSLValidationEventHandler;
+import com.ibm.jbatch.jsl.util.JSLUnmarshallerPool;
 
 public class JobModelResolverImpl implements ModelResolver<JSLJob> {
     
@@ -49,33 +42,7 @@ public class JobModelResolverImpl implements ModelResolver<JSLJob> {
     }    
     
     private JSLJob unmarshalJobXML(String jobXML) {
-        Object result = null;
-        JSLJob job = null;
-        JSLValidationEventHandler handler = new JSLValidationEventHandler();
-        try {
-            JAXBContext ctx = JAXBContext.newInstance("com.ibm.jbatch.jsl.model");
-            Unmarshaller u = ctx.createUnmarshaller();
-            u.setSchema(ValidatorHelper.getXJCLSchema());
-
-            u.setEventHandler(handler);
-
-            // Use this for anonymous type
-            //job = (Job)u.unmarshal(new StreamSource(new StringReader(jobXML)));
-
-            // Use this for named complex type
-            result = u.unmarshal(new StreamSource(new StringReader(jobXML)));
-
-        } catch (JAXBException e) {
-            throw new IllegalArgumentException("Exception unmarshalling jobXML", e);
-        }
-
-        if (handler.eventOccurred()) {
-            throw new IllegalArgumentException("xJCL invalid per schema");
-        }
-
-        job = ((JAXBElement<JSLJob>)result).getValue();
-        
-        return job;
+        return JSLUnmarshallerPool.unmarshal(jobXML, JSLJob.class);
     }
     
 	private JSLJob getJslJobInheritance(String jobId) throws IOException {
@@ -22,21 +22,14 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
 import java.net.URL;
 import java.util.Properties;
 
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
-import javax.xml.transform.stream.StreamSource;
 
 
 import com.ibm.jbatch.container.jsl.ModelResolver;
 import com.ibm.jbatch.jsl.model.Step;
-import com.ibm.jbatch.jsl.util.ValidatorHelper;
-import com.ibm.jbatch.jsl.util.JSLValidationEventHandler;
+import com.ibm.jbatch.jsl.util.JSLUnmarshallerPool;
 
 //FIXME: basically identical to JobModelResolverImpl
 public class StepModelResolverImpl implements ModelResolver<Step> {
@@ -98,33 +91,7 @@ public class StepModelResolverImpl implements ModelResolver<Step> {
 	}
 
     private Step unmarshalStepXML(String stepXML) {
-        Object result = null;
-        Step step = null;
-        JSLValidationEventHandler handler = new JSLValidationEventHandler();
-        try {
-            JAXBContext ctx = JAXBContext.newInstance("com.ibm.jbatch.jsl.model");
-            Unmarshaller u = ctx.createUnmarshaller();
-            u.setSchema(ValidatorHelper.getXJCLSchema());
-
-            u.setEventHandler(handler);
-
-            // Use this for anonymous type
-            //job = (Job)u.unmarshal(new StreamSource(new StringReader(jobXML)));
-
-            // Use this for named complex type
-            result = u.unmarshal(new StreamSource(new StringReader(stepXML)));
-
-        } catch (JAXBException e) {
-            throw new IllegalArgumentException("Exception unmarshalling jobXML", e);
-        }
-
-        if (handler.eventOccurred()) {
-            throw new IllegalArgumentException("xJCL invalid per schema, see SysOut for now for details");
-        }
-
-        step = ((JAXBElement<Step>)result).getValue();
-        
-        return step;
+        return JSLUnmarshallerPool.unmarshal(stepXML, Step.class);
     }
 
 }
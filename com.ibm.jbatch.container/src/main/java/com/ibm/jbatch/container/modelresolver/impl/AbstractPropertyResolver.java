@@ -16,7 +16,11 @@
 */
 package com.ibm.jbatch.container.modelresolver.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 
@@ -29,6 +33,32 @@ public abstract class AbstractPropertyResolver<B> implements
 	protected boolean isPartitionedStep = false;
 	
 	public static final String UNRESOLVED_PROP_VALUE = ""; //Substitute empty String for unresolvable props	
+
+	// Most distinct strings kept compiled for each kind of resolver, past which the least recently used are dropped
+	private static final int MAX_CACHED_TEMPLATES = 4096;
+
+	// Compiled strings, shared by all resolvers of a kind since "#{partitionPlan[...]}" is only a property to a partitioned step's
+	private static final Map<String, PropertyTemplate> jobTemplates = Collections.synchronizedMap(new TemplateCache());
+	private static final Map<String, PropertyTemplate> partitionTemplates = Collections.synchronizedMap(new TemplateCache());
+
+	/**
+	 * Access-ordered, so strings of jobs no longer run, e.g. of an application since redeployed,
+	 * make way for new ones.
+	 */
+	private static class TemplateCache extends LinkedHashMap<String, PropertyTemplate> {
+
+		private static final long serialVersionUID = 1L;
+
+		private TemplateCache() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PropertyTemplate> eldest) {
+			return size() > MAX_CACHED_TEMPLATES;
+		}
+	}
+
 	public AbstractPropertyResolver(boolean isPartitionStep){
 		this.isPartitionedStep = isPartitionStep;
 	}
@@ -108,61 +138,88 @@ public abstract class AbstractPropertyResolver<B> implements
 	protected String replaceAllProperties(String str,
 			final Properties submittedProps, final Properties xmlProperties) {
 
+		if (str == null || str.indexOf("#{") == -1) {
+			return str;
+		}
+
+		return this.evaluate(this.getTemplate(str), submittedProps, xmlProperties);
+	}
+
+	/**
+	 * Gets the compiled form of String str, compiling it only the first time it's seen,
+	 * e.g. for the first of a step's partitions.
+	 */
+	private PropertyTemplate getTemplate(final String str) {
+
+		final Map<String, PropertyTemplate> templates = isPartitionedStep ? partitionTemplates : jobTemplates;
+
+		PropertyTemplate template = templates.get(str);
+		if (template == null) {
+			// Compiled outside the lock; another thread compiling the same string at once is harmless
+			template = this.compile(str);
+			templates.put(str, template);
+		}
+		return template;
+	}
+
+	/**
+	 * Split String str into the literal text and the properties to substitute into it.
+	 */
+	private PropertyTemplate compile(final String str) {
+
+		final List<String> literals = new ArrayList<String>();
+		final List<NextProperty> properties = new ArrayList<NextProperty>();
+		final List<PropertyTemplate> defaultValues = new ArrayList<PropertyTemplate>();
+
 		int startIndex = 0;
 		NextProperty nextProp = this.findNextProperty(str, startIndex);
-		
-		
+
 		while (nextProp != null) {
 
+			literals.add(str.substring(startIndex, nextProp.startIndex));
+			properties.add(nextProp);
+			defaultValues.add(nextProp.defaultValueExpression != null ? this.compile(nextProp.defaultValueExpression) : null);
+
 			// get the start index past this property for the next property in
 			// the string
-			//startIndex = this.getEndIndexOfNextProperty(str, startIndex);
-			startIndex = nextProp.endIndex;
+			startIndex = nextProp.endIndex + "']}".length() + nextProp.getDefaultValExprWithDelimitersIfExists().length();
+
+			// find the next property
+			nextProp = this.findNextProperty(str, startIndex);
+		}
+		literals.add(str.substring(startIndex));
+
+		return new PropertyTemplate(literals.toArray(new String[literals.size()]),
+				properties.toArray(new NextProperty[properties.size()]),
+				defaultValues.toArray(new PropertyTemplate[defaultValues.size()]));
+	}
+
+	private String evaluate(final PropertyTemplate template,
+			final Properties submittedProps, final Properties xmlProperties) {
+
+		if (template.properties.length == 0) {
+			return template.literals[0];
+		}
+
+		StringBuilder result = new StringBuilder(template.literals[0]);
+		for (int i = 0; i < template.properties.length; i++) {
+
+			NextProperty nextProp = template.properties[i];
 
 			// resolve the property
 			String nextPropValue = this.resolvePropertyValue(nextProp.propName, nextProp.propType, submittedProps, xmlProperties);
-			
+
 			//if the property didn't resolve use the default value if it exists
 			if (nextPropValue.equals(UNRESOLVED_PROP_VALUE)){
-			    if (nextProp.defaultValueExpression != null) { 
-			        nextPropValue = this.replaceAllProperties(nextProp.defaultValueExpression, submittedProps, xmlProperties);
+			    if (template.defaultValues[i] != null) {
+			        nextPropValue = this.evaluate(template.defaultValues[i], submittedProps, xmlProperties);
 			    }
 			}
-			
-
-			// After we get this value the lenght of the string might change so
-			// we need to reset the start index
-			int lengthDifference = 0;
-			switch(nextProp.propType) {
-			
-				case JOB_PARAMETERS:
-					lengthDifference = nextPropValue.length() - (nextProp.propName.length() + "#{jobParameters['']}".length()); // this can be a negative value
-					startIndex = startIndex + lengthDifference; // move start index for next property
-					str = str.replace("#{jobParameters['" + nextProp.propName + "']}" + nextProp.getDefaultValExprWithDelimitersIfExists(), nextPropValue);
-					break;
-				case JOB_PROPERTIES:
-					lengthDifference = nextPropValue.length() - (nextProp.propName.length() + "#{jobProperties['']}".length()); // this can be a negative value
-					startIndex = startIndex + lengthDifference; // move start index for next property
-					str = str.replace("#{jobProperties['" + nextProp.propName + "']}" + nextProp.getDefaultValExprWithDelimitersIfExists(), nextPropValue);
-					break;
-				case SYSTEM_PROPERTIES:
-					lengthDifference = nextPropValue.length() - (nextProp.propName.length() + "#{systemProperties['']}".length()); // this can be a negative value
-					startIndex = startIndex + lengthDifference; // move start index for next property
-					str = str.replace("#{systemProperties['" + nextProp.propName + "']}" + nextProp.getDefaultValExprWithDelimitersIfExists(), nextPropValue);
-					break;
-				case PARTITION_PROPERTIES:
-					lengthDifference = nextPropValue.length() - (nextProp.propName.length() + "#{partitionPlan['']}".length()); // this can be a negative value
-					startIndex = startIndex + lengthDifference; // move start index for next property
-					str = str.replace("#{partitionPlan['" + nextProp.propName + "']}" + nextProp.getDefaultValExprWithDelimitersIfExists(), nextPropValue);
-					break;					
-
-			}
 
-			// find the next property
-			nextProp = this.findNextProperty(str, startIndex);
+			result.append(nextPropValue).append(template.literals[i + 1]);
 		}
 
-		return str;
+		return result.toString();
 	}
 
 	/**
@@ -334,7 +391,7 @@ public abstract class AbstractPropertyResolver<B> implements
         }
 
 
-        final int endPropIndex = str.indexOf("']}");
+        final int endPropIndex = str.indexOf("']}", startPropIndex);
         
         
         // This check allows something like this "Some filename is ${jobParameters['']}"
@@ -379,7 +436,7 @@ public abstract class AbstractPropertyResolver<B> implements
         return null;
     }
 
-	class NextProperty {
+	static class NextProperty {
 		
 		final String propName;
 		final PROPERTY_TYPE propType;
@@ -405,4 +462,22 @@ public abstract class AbstractPropertyResolver<B> implements
 		}
 		
 	}
+
+	/*
+	 * A string with properties to substitute, as the literal text between them (one more
+	 * than there are properties), the properties, and the compiled default value
+	 * expression, if any, of each property.
+	 */
+	static class PropertyTemplate {
+
+		final String[] literals;
+		final NextProperty[] properties;
+		final PropertyTemplate[] defaultValues;
+
+		PropertyTemplate(String[] literals, NextProperty[] properties, PropertyTemplate[] defaultValues) {
+			this.literals = literals;
+			this.properties = properties;
+			this.defaultValues = defaultValues;
+		}
+	}
 }
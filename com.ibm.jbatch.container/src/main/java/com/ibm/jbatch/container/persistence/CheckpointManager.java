@@ -16,8 +16,10 @@
 */
 package com.ibm.jbatch.container.persistence;
 
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,16 +29,14 @@ import com.ibm.jbatch.container.artifact.proxy.ItemReaderProxy;
 import com.ibm.jbatch.container.artifact.proxy.ItemWriterProxy;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
-import com.ibm.jbatch.container.services.IPersistenceManagerService;
-import com.ibm.jbatch.container.servicesmanager.ServicesManager;
-import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.StepStatus;
+import com.ibm.jbatch.container.util.SerializationHelper;
 
 public class CheckpointManager {
 	private final static String sourceClass = CheckpointManager.class.getName();
 	private final static Logger logger = Logger.getLogger(sourceClass);
 
-	private ServicesManager servicesManager = ServicesManagerImpl.getInstance();
-	private IPersistenceManagerService _persistenceManagerService = null;
+	private IStepStateStore stepStateStore = null;
 	
 	private ItemReaderProxy readerProxy = null;
 	private ItemWriterProxy writerProxy = null;
@@ -45,18 +45,18 @@ public class CheckpointManager {
 	private long executionId = 0;
 	private String stepId = null;
 	private long jobInstanceID = 0;
+	private Map<CheckpointDataKey, CheckpointData> pendingCheckpoints = null;
 	
 
 	public CheckpointManager(ItemReaderProxy reader, ItemWriterProxy writer,CheckpointAlgorithm chkptAlg,
-			long executionId, long jobInstanceID, String  stepId) {
+			long executionId, long jobInstanceID, String  stepId, IStepStateStore stepStateStore) {
 		this.readerProxy = reader;
 		this.writerProxy = writer;
 		this.checkpointAlgorithm = chkptAlg;
 		this.executionId = executionId;
 		this.stepId = stepId;
 		this.jobInstanceID = jobInstanceID;
-		
-		_persistenceManagerService = servicesManager.getPersistenceManagerService();
+		this.stepStateStore = stepStateStore;
 	}
 
 
@@ -98,43 +98,89 @@ public class CheckpointManager {
 	}
 	
 	public void checkpoint() {
-		String method = "checkpoint";
+		prepareCheckpoint();
+		persistCheckpoint(null);
+	}
+
+	/**
+	 * Gather the reader and writer checkpoints, to be persisted by a later call
+	 * to {@link #persistCheckpoint(StepStatus)}.
+	 */
+	public void prepareCheckpoint() {
+		byte[] readerToken;
+		try {
+			readerToken = serializeToken(readerProxy.checkpointInfo());
+		} catch (Exception ex) {
+			throw new BatchContainerServiceException("Cannot persist the checkpoint data for [" + stepId + "]", ex);
+		}
+		prepareCheckpoint(readerToken);
+	}
+
+	/**
+	 * As {@link #prepareCheckpoint()}, but with a reader checkpoint already taken, e.g. when
+	 * the reader has read ahead of the items being checkpointed.
+	 *
+	 * @param readerToken the reader's serialized checkpoint token
+	 */
+	public void prepareCheckpoint(byte[] readerToken) {
+		String method = "prepareCheckpoint";
 		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method, " [executionId " + executionId + "] "); }
 
-		ByteArrayOutputStream readerChkptBA = new ByteArrayOutputStream();
-		ByteArrayOutputStream writerChkptBA = new ByteArrayOutputStream();
-		
-		ObjectOutputStream readerOOS = null, writerOOS = null;
-		CheckpointDataKey readerChkptDK = null, writerChkptDK = null;
-		
+		Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>(4);
+
 		try{
-			
-			readerOOS = new ObjectOutputStream(readerChkptBA);
-			readerOOS.writeObject(readerProxy.checkpointInfo());
-			readerOOS.close();
 			CheckpointData readerChkptData  = new CheckpointData(jobInstanceID, stepId, "READER");
-			readerChkptData.setRestartToken(readerChkptBA.toByteArray());
-			readerChkptDK = new CheckpointDataKey(jobInstanceID, stepId, "READER");
-			
-			_persistenceManagerService.updateCheckpointData(readerChkptDK, readerChkptData);
-			
-			writerOOS = new ObjectOutputStream(writerChkptBA);
-			writerOOS.writeObject(writerProxy.checkpointInfo());
-			writerOOS.close();
-			CheckpointData writerChkptData = new CheckpointData(jobInstanceID, stepId, "WRITER");
-			writerChkptData.setRestartToken(writerChkptBA.toByteArray());
-			writerChkptDK = new CheckpointDataKey(jobInstanceID, stepId, "WRITER");
+			readerChkptData.setRestartToken(readerToken);
+			checkpoints.put(new CheckpointDataKey(jobInstanceID, stepId, "READER"), readerChkptData);
 
-			_persistenceManagerService.updateCheckpointData(writerChkptDK, writerChkptData);
-			
+			CheckpointData writerChkptData = new CheckpointData(jobInstanceID, stepId, "WRITER");
+			writerChkptData.setRestartToken(serializeToken(writerProxy.checkpointInfo()));
+			checkpoints.put(new CheckpointDataKey(jobInstanceID, stepId, "WRITER"), writerChkptData);
 		}
 		catch (Exception ex){
 			// is this what I should be throwing here?
 			throw new BatchContainerServiceException("Cannot persist the checkpoint data for [" + stepId + "]", ex);
 		}
+		pendingCheckpoints = checkpoints;
 
 		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method, " [executionId " + executionId + "] ");}
+	}
+
+	/**
+	 * Persist the checkpoints gathered by {@link #prepareCheckpoint()} together with the
+	 * StepStatus, if one is passed, (e.g. carrying the step's persistent user data).
+	 *
+	 * @param stepStatus StepStatus to persist in the same round-trip, or null
+	 */
+	public void persistCheckpoint(StepStatus stepStatus) {
+		String method = "persistCheckpoint";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method, " [executionId " + executionId + "] "); }
+
+		if (pendingCheckpoints == null) {
+			throw new IllegalStateException("No checkpoint prepared for [" + stepId + "]");
+		}
+
+		try{
+			stepStateStore.updateCheckpointData(pendingCheckpoints, stepStatus);
+		}
+		catch (Exception ex){
+			throw new BatchContainerServiceException("Cannot persist the checkpoint data for [" + stepId + "]", ex);
+		} finally {
+			pendingCheckpoints = null;
+		}
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method, " [executionId " + executionId + "] ");}
+	}
+
+	/**
+	 * The transaction of the checkpoint last persisted has committed.
+	 */
+	public void checkpointCommitted() {
+		stepStateStore.checkpointCommitted();
+	}
 
+	private byte[] serializeToken(Serializable token) throws IOException {
+		return SerializationHelper.serialize(token);
 	}
 	
 	public int checkpointTimeout() {
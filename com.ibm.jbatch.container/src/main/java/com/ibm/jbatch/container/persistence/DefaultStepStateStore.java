@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.persistence;
+
+import java.util.Map;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
+import com.ibm.jbatch.container.services.IJobStatusManagerService;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.StepStatus;
+
+/**
+ * Keeps step state in the persistence and job status services, as for any step other than
+ * a lightweight partition.
+ */
+public class DefaultStepStateStore implements IStepStateStore {
+
+	private static final DefaultStepStateStore INSTANCE = new DefaultStepStateStore();
+
+	private final IPersistenceManagerService persistenceService = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+	private final IJobStatusManagerService jobStatusService = ServicesManagerImpl.getInstance().getJobStatusManagerService();
+
+	public static DefaultStepStateStore getInstance() {
+		return INSTANCE;
+	}
+
+	private DefaultStepStateStore() {
+	}
+
+	@Override
+	public StepStatus getStepStatus(long jobInstanceId, String stepName) {
+		return jobStatusService.getStepStatus(jobInstanceId, stepName);
+	}
+
+	@Override
+	public StepStatus createStepStatus(long stepExecutionId) {
+		return jobStatusService.createStepStatus(stepExecutionId);
+	}
+
+	@Override
+	public void updateStepStatus(long stepExecutionId, StepStatus stepStatus) {
+		jobStatusService.updateStepStatus(stepExecutionId, stepStatus);
+	}
+
+	@Override
+	public void updateJobCurrentStep(long jobInstanceId, String stepName) {
+		jobStatusService.updateJobCurrentStep(jobInstanceId, stepName);
+	}
+
+	@Override
+	public StepExecutionImpl createStepExecution(long rootJobExecutionId, StepContextImpl stepContext) {
+		return persistenceService.createStepExecution(rootJobExecutionId, stepContext);
+	}
+
+	@Override
+	public void updateStepExecution(StepContextImpl stepContext) {
+		persistenceService.updateStepExecution(stepContext);
+	}
+
+	@Override
+	public CheckpointData getCheckpointData(CheckpointDataKey key) {
+		return persistenceService.getCheckpointData(key);
+	}
+
+	@Override
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints, StepStatus stepStatus) {
+		persistenceService.updateCheckpointData(checkpoints, stepStatus);
+	}
+
+	@Override
+	public void checkpointCommitted() {
+		// Nothing is staged
+	}
+
+	@Override
+	public void flushPendingUpdates(long stepExecutionId) {
+		persistenceService.flushPendingUpdates(stepExecutionId);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.persistence;
+
+import java.util.Map;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
+import com.ibm.jbatch.container.status.StepStatus;
+
+/**
+ * Where a step controller keeps its StepStatus, step execution and checkpoints.  Normally
+ * that's the persistence and job status services, see {@link DefaultStepStateStore}, but a
+ * partition run in-process keeps them in its row of the partition status table instead,
+ * see {@link PartitionStepStateStore}.
+ */
+public interface IStepStateStore {
+
+	public StepStatus getStepStatus(long jobInstanceId, String stepName);
+
+	public StepStatus createStepStatus(long stepExecutionId);
+
+	public void updateStepStatus(long stepExecutionId, StepStatus stepStatus);
+
+	public void updateJobCurrentStep(long jobInstanceId, String stepName);
+
+	public StepExecutionImpl createStepExecution(long rootJobExecutionId, StepContextImpl stepContext);
+
+	public void updateStepExecution(StepContextImpl stepContext);
+
+	public CheckpointData getCheckpointData(CheckpointDataKey key);
+
+	/**
+	 * @param stepStatus persisted along with the checkpoints, or null
+	 */
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints, StepStatus stepStatus);
+
+	/**
+	 * The transaction of the checkpoints last passed to updateCheckpointData has committed.
+	 */
+	public void checkpointCommitted();
+
+	public void flushPendingUpdates(long stepExecutionId);
+}
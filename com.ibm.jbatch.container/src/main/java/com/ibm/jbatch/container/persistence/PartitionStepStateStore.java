@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.Metric;
+
+import com.ibm.jbatch.container.context.impl.MetricImpl;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.PartitionState;
+import com.ibm.jbatch.container.status.StepStatus;
+
+/**
+ * Keeps the state of one partition run in-process (rather than as a sub-job) in its row of
+ * the partition status table.  The partition has no step execution or StepStatus of its
+ * own: it borrows the parent step's execution id, and its StepStatus lives only in memory
+ * between writes.
+ *
+ * The row is written at each checkpoint, and once the partition ends, so a restart finds
+ * the partition's checkpoints, persistent user data, start count and final status where
+ * a sub-job would have found them in its own tables.  Metrics are written summed over all
+ * the partition's executions, as the parent's aggregate of the sub-job step executions would.
+ *
+ * A checkpoint only counts once its chunk's transaction commits.  Until then it is written
+ * but not relied on: if the write or the commit fails, the row is written back with the
+ * last committed checkpoint when the partition ends, so the restart re-reads the chunk.
+ */
+public class PartitionStepStateStore implements IStepStateStore {
+
+	private final static String sourceClass = PartitionStepStateStore.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final String READER = "READER";
+
+	// In PartitionState count order
+	private static final Metric.MetricType[] COUNT_TYPES = {
+		MetricImpl.MetricType.READ_COUNT, MetricImpl.MetricType.WRITE_COUNT,
+		MetricImpl.MetricType.COMMIT_COUNT, MetricImpl.MetricType.ROLLBACK_COUNT,
+		MetricImpl.MetricType.READ_SKIP_COUNT, MetricImpl.MetricType.PROCESS_SKIP_COUNT,
+		MetricImpl.MetricType.FILTER_COUNT, MetricImpl.MetricType.WRITE_SKIP_COUNT };
+
+	private final IPersistenceManagerService persistenceService = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+
+	private final long jobInstanceId;
+	private final String stepName;
+	private final long parentStepExecutionId;
+	private final PartitionState previous;
+	private final PartitionState partitionState;
+
+	private StepContextImpl stepContext = null;
+	private StepStatus stepStatus = null;
+
+	// As of the last commit, while partitionState may hold a checkpoint whose commit is still pending
+	private byte[] committedReaderCheckpoint = null;
+	private byte[] committedWriterCheckpoint = null;
+
+	// Partitions split off from this one, to be written along with its next checkpoint
+	private final List<PartitionState> pendingSplits = new ArrayList<PartitionState>();
+
+	/**
+	 * @param jobInstanceId the top-level job instance id
+	 * @param stepName the partitioned step
+	 * @param parentStepExecutionId the partitioned step's (internal) step execution id
+	 * @param partitionNumber the partition
+	 * @param previous as left by the partition's previous execution, or null if none
+	 */
+	public PartitionStepStateStore(long jobInstanceId, String stepName, long parentStepExecutionId, int partitionNumber, PartitionState previous) {
+		this.jobInstanceId = jobInstanceId;
+		this.stepName = stepName;
+		this.parentStepExecutionId = parentStepExecutionId;
+		this.previous = previous;
+		this.partitionState = new PartitionState(partitionNumber);
+		if (previous != null) {
+			partitionState.setPlanPartitionNumber(previous.getPlanPartitionNumber());
+			partitionState.setReaderCheckpoint(previous.getReaderCheckpoint());
+			partitionState.setWriterCheckpoint(previous.getWriterCheckpoint());
+			committedReaderCheckpoint = previous.getReaderCheckpoint();
+			committedWriterCheckpoint = previous.getWriterCheckpoint();
+		}
+	}
+
+	public int getPartitionNumber() {
+		return partitionState.getPartitionNumber();
+	}
+
+	/**
+	 * @see PartitionState#getPlanPartitionNumber()
+	 */
+	public int getPlanPartitionNumber() {
+		return partitionState.getPlanPartitionNumber();
+	}
+
+	/**
+	 * Have a partition split off from this one written in the same round-trip as this
+	 * one's next checkpoint.
+	 *
+	 * @param split the new partition's status
+	 */
+	public synchronized void addSplit(PartitionState split) {
+		pendingSplits.add(split);
+	}
+
+	/**
+	 * Forget a split whose checkpoint failed to commit, deleting its row if already written,
+	 * since the items it was given are still this partition's to read.
+	 *
+	 * @param split the state passed to {@link #addSplit(PartitionState)}
+	 */
+	public void removeSplit(PartitionState split) {
+		synchronized (this) {
+			if (pendingSplits.remove(split)) {
+				return;
+			}
+		}
+		persistenceService.deletePartitionState(jobInstanceId, stepName, split.getPartitionNumber());
+	}
+
+	@Override
+	public StepStatus getStepStatus(long jobInstanceId, String stepName) {
+		if (previous == null) {
+			return null;
+		}
+		StepStatus status = new StepStatus(parentStepExecutionId);
+		status.setBatchStatus(previous.getBatchStatus() == null ? BatchStatus.STARTING : previous.getBatchStatus());
+		status.setExitStatus(previous.getExitStatus());
+		status.setStartCount(previous.getStartCount());
+		if (previous.getPersistentUserData() != null) {
+			status.setPersistentUserData(new PersistentDataWrapper(previous.getPersistentUserData()));
+		}
+		status.setLastRunStepExecutionId(parentStepExecutionId);
+		stepStatus = status;
+		return status;
+	}
+
+	@Override
+	public StepStatus createStepStatus(long stepExecutionId) {
+		stepStatus = new StepStatus(stepExecutionId);
+		return stepStatus;
+	}
+
+	@Override
+	public void updateStepStatus(long stepExecutionId, StepStatus stepStatus) {
+		// Written along with the next checkpoint, or at the end
+		this.stepStatus = stepStatus;
+	}
+
+	@Override
+	public void updateJobCurrentStep(long jobInstanceId, String stepName) {
+		// The parent step already did
+	}
+
+	@Override
+	public StepExecutionImpl createStepExecution(long rootJobExecutionId, StepContextImpl stepContext) {
+		this.stepContext = stepContext;
+		StepExecutionImpl stepExecution = new StepExecutionImpl(rootJobExecutionId, parentStepExecutionId);
+		stepExecution.setStepName(stepName);
+		return stepExecution;
+	}
+
+	@Override
+	public void updateStepExecution(StepContextImpl stepContext) {
+		this.stepContext = stepContext;
+		BatchStatus batchStatus = stepContext.getBatchStatus();
+		if (BatchStatus.COMPLETED.equals(batchStatus) || BatchStatus.STOPPED.equals(batchStatus) || BatchStatus.FAILED.equals(batchStatus)) {
+			revertToCommittedCheckpoint();
+			synchronized (this) {
+				// Any split still pending went with a checkpoint that never committed
+				pendingSplits.clear();
+			}
+			writePartitionState();
+		}
+	}
+
+	@Override
+	public synchronized CheckpointData getCheckpointData(CheckpointDataKey key) {
+		byte[] token = READER.equals(key.getBatchDataStreamName()) ? committedReaderCheckpoint : committedWriterCheckpoint;
+		if (token == null) {
+			return null;
+		}
+		CheckpointData checkpointData = new CheckpointData(key.getJobInstanceId(), key.getStepName(), key.getBatchDataStreamName());
+		checkpointData.setRestartToken(token);
+		return checkpointData;
+	}
+
+	@Override
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints, StepStatus stepStatus) {
+		synchronized (this) {
+			for (Map.Entry<CheckpointDataKey, CheckpointData> entry : checkpoints.entrySet()) {
+				if (READER.equals(entry.getKey().getBatchDataStreamName())) {
+					partitionState.setReaderCheckpoint(entry.getValue().getRestartToken());
+				} else {
+					partitionState.setWriterCheckpoint(entry.getValue().getRestartToken());
+				}
+			}
+		}
+		if (stepStatus != null) {
+			this.stepStatus = stepStatus;
+		}
+		try {
+			writePartitionState();
+		} catch (RuntimeException e) {
+			revertToCommittedCheckpoint();
+			throw e;
+		}
+	}
+
+	@Override
+	public synchronized void checkpointCommitted() {
+		committedReaderCheckpoint = partitionState.getReaderCheckpoint();
+		committedWriterCheckpoint = partitionState.getWriterCheckpoint();
+	}
+
+	private synchronized void revertToCommittedCheckpoint() {
+		partitionState.setReaderCheckpoint(committedReaderCheckpoint);
+		partitionState.setWriterCheckpoint(committedWriterCheckpoint);
+	}
+
+	@Override
+	public void flushPendingUpdates(long stepExecutionId) {
+		// Nothing is deferred
+	}
+
+	private synchronized void writePartitionState() {
+		if (stepStatus != null) {
+			partitionState.setBatchStatus(stepStatus.getBatchStatus());
+			partitionState.setExitStatus(stepStatus.getExitStatus());
+			partitionState.setStartCount(stepStatus.getStartCount());
+			partitionState.setPersistentUserData(stepStatus.getPersistentUserDataBytes());
+		}
+
+		long[] counts = new long[PartitionState.COUNT_METRICS];
+		for (int i = 0; i < counts.length; i++) {
+			if (previous != null) {
+				counts[i] = previous.getCounts()[i];
+			}
+			MetricImpl metric = stepContext == null ? null : stepContext.getMetric(COUNT_TYPES[i]);
+			if (metric != null) {
+				counts[i] += metric.getValue();
+			}
+		}
+		partitionState.setCounts(counts);
+
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Writing status of step: " + stepName + ", " + partitionState);
+		}
+		if (pendingSplits.isEmpty()) {
+			persistenceService.updatePartitionState(jobInstanceId, stepName, partitionState);
+		} else {
+			List<PartitionState> states = new ArrayList<PartitionState>(pendingSplits.size() + 1);
+			states.add(partitionState);
+			states.addAll(pendingSplits);
+			persistenceService.updatePartitionStates(jobInstanceId, stepName, states);
+			pendingSplits.clear();
+		}
+	}
+}
@@ -18,6 +18,7 @@ package com.ibm.jbatch.container.services;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import jakarta.batch.operations.JobExecutionAlreadyCompleteException;
 import jakarta.batch.operations.JobExecutionNotMostRecentException;
@@ -25,8 +26,12 @@ import jakarta.batch.operations.JobExecutionNotRunningException;
 import jakarta.batch.operations.JobRestartException;
 import jakarta.batch.operations.JobStartException;
 import jakarta.batch.operations.NoSuchJobExecutionException;
+import jakarta.batch.runtime.JobExecution;
 import jakarta.batch.runtime.JobInstance;
 
+import com.ibm.jbatch.container.impl.RetentionEngine;
+import com.ibm.jbatch.container.impl.StepProgress;
+import com.ibm.jbatch.container.impl.StepProgressRegistry;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.util.BatchFlowInSplitWorkUnit;
 import com.ibm.jbatch.container.util.BatchPartitionWorkUnit;
@@ -40,6 +45,13 @@ public interface IBatchKernelService extends IBatchServiceBase {
 
 	IJobExecution getJobExecution(long executionId) throws NoSuchJobExecutionException;
 
+	/**
+	 * @return a future completed with the final state of the execution once it ends, without 
+	 * tying up a thread meanwhile.  Dependent stages added without an executor run on the 
+	 * thread which ended the job.
+	 */
+	CompletableFuture<JobExecution> getJobExecutionCompletion(long executionId) throws NoSuchJobExecutionException;
+
 	IJobExecution restartJob(long executionID) throws JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, NoSuchJobExecutionException;
 
 	IJobExecution restartJob(long executionID, Properties overrideJobParameters) throws JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, NoSuchJobExecutionException;
@@ -58,6 +70,21 @@ public interface IBatchKernelService extends IBatchServiceBase {
 
 	BatchSecurityHelper getBatchSecurityHelper();
 
+	RetentionEngine getRetentionEngine();
+
+	StepProgressRegistry getStepProgressRegistry();
+
+	/**
+	 * @return the live progress of the step, from memory, or null unless it's running in the 
+	 * top-level execution
+	 */
+	StepProgress getStepProgress(long executionId, String stepName);
+
+	/**
+	 * @return the live progress of each step running in the top-level execution, from memory
+	 */
+	List<StepProgress> getStepProgress(long executionId);
+
     List<BatchPartitionWorkUnit> buildNewParallelPartitions(PartitionsBuilderConfig config) throws JobRestartException, JobStartException;
 
     List<BatchPartitionWorkUnit> buildOnRestartParallelPartitions(PartitionsBuilderConfig config) throws JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException;
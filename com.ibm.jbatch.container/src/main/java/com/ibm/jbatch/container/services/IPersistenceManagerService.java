@@ -34,6 +34,7 @@ import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
 import com.ibm.jbatch.container.persistence.CheckpointData;
 import com.ibm.jbatch.container.persistence.CheckpointDataKey;
 import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.status.PartitionState;
 import com.ibm.jbatch.container.status.StepStatus;
 import com.ibm.jbatch.spi.services.IBatchServiceBase;
 
@@ -55,6 +56,32 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 
 	public List<Long> jobOperatorGetJobInstanceIds(String jobName, String appTag, int start, int count);
 
+	/**
+	 * @param appTag only job names with an instance of this application tag, or null for all
+	 * @return names of the (non-partition) jobs with at least one instance
+	 */
+	public Set<String> jobOperatorGetJobNames(String appTag);
+
+	/**
+	 * Pages through the instances of a job from newest to oldest, using the last instance id 
+	 * of the previous page rather than an offset, so the database seeks straight to the page.
+	 * 
+	 * @param appTag only instances of this application tag, or null for all
+	 * @param beforeInstanceId only instances with a lower id, or Long.MAX_VALUE for the first page
+	 * @param count the most instances to return
+	 */
+	public List<JobInstance> jobOperatorGetJobInstances(String jobName, String appTag, long beforeInstanceId, int count);
+
+	/**
+	 * Pages through the executions of all the instances of a job from newest to oldest, 
+	 * the same way.
+	 * 
+	 * @param appTag only executions of instances of this application tag, or null for all
+	 * @param beforeExecutionId only executions with a lower id, or Long.MAX_VALUE for the first page
+	 * @param count the most executions to return
+	 */
+	public List<IJobExecution> jobOperatorGetJobExecutions(String jobName, String appTag, long beforeExecutionId, int count);
+
 	public Timestamp jobOperatorQueryJobExecutionTimestamp(long key, TimestampType timetype);
 
 	public String jobOperatorQueryJobExecutionBatchStatus(long key);
@@ -85,6 +112,23 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 
 	public void purge(String apptag);
 
+	/**
+	 * Finds the next batch of top-level job instances to purge, in instance id order.
+	 * 
+	 * @param afterInstanceId only instances with a higher id, i.e. the last of the previous batch, or 0 for the first
+	 * @param max the most ids to return
+	 */
+	public List<Long> getPurgeableJobInstanceIds(PurgeCriteria criteria, long afterInstanceId, int max);
+
+	/**
+	 * Deletes the given top-level job instances, their partition and split flow sub-jobs, and 
+	 * all their executions, step executions, statuses and checkpoints, in one transaction 
+	 * where we own the connection.
+	 * 
+	 * @return the number of rows deleted, across all tables
+	 */
+	public long purgeJobInstances(List<Long> jobInstanceIds);
+
 	public JobStatus getJobStatusFromExecution(long executionId);
 
 	public long getJobInstanceIdByExecutionId(long executionId) throws NoSuchJobExecutionException;
@@ -139,6 +183,62 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 	 */
 	public void updateWithFinalPartitionAggregateStepExecution(long rootJobExecutionId, StepContextImpl stepContext);
 
+	// PARTITION_STATUS, for partitions run in-process without a sub-job of their own
+	/**
+	 * Get the state of each partition of a step, as left by its previous executions.
+	 *
+	 * @param jobInstanceId the (top-level) job instance id
+	 * @param stepName the step name
+	 * @return the partition states by partition number, empty if none were ever persisted
+	 */
+	public Map<Integer, PartitionState> getPartitionStates(long jobInstanceId, String stepName);
+
+	/**
+	 * Insert or update the state of a single partition.
+	 *
+	 * @param jobInstanceId the (top-level) job instance id
+	 * @param stepName the step name
+	 * @param partitionState the partition state
+	 */
+	public void updatePartitionState(long jobInstanceId, String stepName, PartitionState partitionState);
+
+	/**
+	 * Insert or update the state of several partitions at once, e.g. a partition along with
+	 * one split off from it, which must be written together.
+	 *
+	 * @param jobInstanceId the (top-level) job instance id
+	 * @param stepName the step name
+	 * @param partitionStates the partition states
+	 */
+	public void updatePartitionStates(long jobInstanceId, String stepName, List<PartitionState> partitionStates);
+
+	/**
+	 * Delete the partition states of a step, so its partitions next start from scratch.
+	 *
+	 * @param jobInstanceId the (top-level) job instance id
+	 * @param stepName the step name
+	 */
+	public void deletePartitionStates(long jobInstanceId, String stepName);
+
+	/**
+	 * Delete the state of a single partition, e.g. one split off from another whose
+	 * checkpoint then failed to commit.
+	 *
+	 * @param jobInstanceId the (top-level) job instance id
+	 * @param stepName the step name
+	 * @param partitionNumber the partition number
+	 */
+	public void deletePartitionState(long jobInstanceId, String stepName, int partitionNumber);
+
+	/**
+	 * Like {@link #updateWithFinalPartitionAggregateStepExecution(long, StepContextImpl)}, but for
+	 * a step whose partitions ran in-process, aggregating the metrics from the partition states.
+	 *
+	 * @param jobInstanceId the (top-level) job instance id
+	 * @param stepContext the step context for this step execution
+	 */
+	public void updateWithPartitionStateAggregateStepExecution(long jobInstanceId, StepContextImpl stepContext);
+
 	// JOB_STATUS
 	/**
 	 * Create a JobStatus
@@ -164,6 +264,67 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 	 */
 	public void updateJobStatus(long instanceId, JobStatus jobStatus);
 
+	/**
+	 * Update only the batch status of a JobStatus
+	 *
+	 * @param jobInstanceId the parent job instance id
+	 * @param batchStatus the new batch status
+	 * @throws IllegalStateException if there's no JobStatus for the instance
+	 */
+	public void updateJobBatchStatus(long jobInstanceId, BatchStatus batchStatus);
+
+	/**
+	 * Update only the batch and exit status of a JobStatus
+	 *
+	 * @param jobInstanceId the parent job instance id
+	 * @param batchStatus the new batch status
+	 * @param exitStatus the new exit status
+	 * @throws IllegalStateException if there's no JobStatus for the instance
+	 */
+	public void updateJobExecutionStatus(long jobInstanceId, BatchStatus batchStatus, String exitStatus);
+
+	/**
+	 * Update only the current step of a JobStatus
+	 *
+	 * @param jobInstanceId the parent job instance id
+	 * @param currentStepName the id of the step now running
+	 * @throws IllegalStateException if there's no JobStatus for the instance
+	 */
+	public void updateJobCurrentStep(long jobInstanceId, String currentStepName);
+
+	/**
+	 * Point a JobStatus at a new execution, resetting its batch status to STARTING and clearing restartOn
+	 *
+	 * @param jobInstanceId the parent job instance id
+	 * @param newExecutionId the new job execution id
+	 * @throws IllegalStateException if there's no JobStatus for the instance
+	 */
+	public void updateJobStatusWithNewExecution(long jobInstanceId, long newExecutionId);
+
+	/**
+	 * Update only the restartOn value of a JobStatus
+	 *
+	 * @param jobInstanceId the parent job instance id
+	 * @param restartOn the step to restart on
+	 * @throws IllegalStateException if there's no JobStatus for the instance
+	 */
+	public void updateJobStatusFromJSLStop(long jobInstanceId, String restartOn);
+
+	/**
+	 * Write any step status updates which were deferred, i.e. when write-behind is enabled.
+	 * Called before anything that reads status back.
+	 */
+	public void flushPendingUpdates();
+
+	/**
+	 * Write any step status updates which were deferred, and report any deferred update of
+	 * the given step execution which failed.  Called at the end of each step.
+	 * 
+	 * @param stepExecutionId
+	 * @throws com.ibm.jbatch.container.exception.PersistenceException if a deferred update of the step execution failed
+	 */
+	public void flushPendingUpdates(long stepExecutionId);
+
 	// STEP_STATUS
 	/**
 	 * Create a StepStatus
@@ -205,6 +366,15 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 
     public void updateCheckpointData(CheckpointDataKey key, CheckpointData value);
 
+	/**
+	 * Insert or update a set of checkpoints, (e.g. the reader and writer checkpoints taken at
+	 * the end of a chunk), and optionally a StepStatus, all on a single connection.
+	 *
+	 * @param checkpoints the checkpoint data to insert or update, by key
+	 * @param stepStatus if non-null, also update this StepStatus (e.g. with new persistent user data)
+	 */
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints, StepStatus stepStatus);
+
 	CheckpointData getCheckpointData(CheckpointDataKey key);
 
 	void createCheckpointData(CheckpointDataKey key, CheckpointData value);
@@ -213,6 +383,18 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 
 	JobInstance createSubJobInstance(String name, String apptag);
 
+	/**
+	 * Create the job instance, job execution and job status of each partition sub-job of a
+	 * step, all on one connection, (and in SE mode in one transaction).
+	 *
+	 * @param subJobNames the generated sub-job id of each partition
+	 * @param apptag the application tag that owns the sub-jobs
+	 * @param partitionProperties the partition properties of each partition, each may be null
+	 * @param batchStatus the current BatchStatus
+	 * @return the RuntimeJobExecution of each partition, in the same order as the names
+	 */
+	public List<RuntimeJobExecution> createPartitionSubJobExecutions(List<String> subJobNames, String apptag, List<Properties> partitionProperties, BatchStatus batchStatus);
+
 	public RuntimeFlowInSplitExecution createFlowInSplitExecution(JobInstance jobInstance, BatchStatus batchStatus);
 
 	public StepExecution getStepExecutionByStepExecutionId(long stepExecId);
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.services;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
+
+import jakarta.batch.runtime.BatchStatus;
+
+/**
+ * Which job instances to purge from the job repository.  Each criterion left unset matches
+ * every instance.  Partition and split flow sub-jobs are purged with their top-level job.
+ */
+public class PurgeCriteria {
+
+	private String apptag = null;
+	private String jobName = null;
+	private Set<BatchStatus> batchStatuses = null;
+	private Date endedBefore = null;
+
+	public PurgeCriteria() {
+	}
+
+	public PurgeCriteria(PurgeCriteria other) {
+		this.apptag = other.apptag;
+		this.jobName = other.jobName;
+		this.batchStatuses = other.batchStatuses;
+		this.endedBefore = other.endedBefore;
+	}
+
+	public String getApptag() {
+		return apptag;
+	}
+
+	/**
+	 * @param apptag only instances submitted under this apptag
+	 */
+	public void setApptag(String apptag) {
+		this.apptag = apptag;
+	}
+
+	public String getJobName() {
+		return jobName;
+	}
+
+	/**
+	 * @param jobName only instances of this job
+	 */
+	public void setJobName(String jobName) {
+		this.jobName = jobName;
+	}
+
+	public Set<BatchStatus> getBatchStatuses() {
+		return batchStatuses;
+	}
+
+	/**
+	 * @param batchStatuses only instances all of whose executions are in one of these statuses
+	 */
+	public void setBatchStatuses(Set<BatchStatus> batchStatuses) {
+		if (batchStatuses == null) {
+			this.batchStatuses = null;
+		} else {
+			Set<BatchStatus> copy = EnumSet.noneOf(BatchStatus.class);
+			copy.addAll(batchStatuses);
+			this.batchStatuses = Collections.unmodifiableSet(copy);
+		}
+	}
+
+	public Date getEndedBefore() {
+		return endedBefore;
+	}
+
+	/**
+	 * @param endedBefore only instances all of whose executions ended (or were last updated) before this
+	 */
+	public void setEndedBefore(Date endedBefore) {
+		this.endedBefore = endedBefore == null ? null : new Date(endedBefore.getTime());
+	}
+
+	@Override
+	public String toString() {
+		return "apptag: " + apptag + ", jobName: " + jobName + ", batchStatuses: " + batchStatuses + ", endedBefore: " + endedBefore;
+	}
+}
@@ -17,10 +17,15 @@
 package com.ibm.jbatch.container.services.impl;
 
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -49,6 +54,25 @@ public class DelegatingBatchArtifactFactoryImpl implements IBatchArtifactFactory
 	private final static String BATCH_XML = "META-INF/batch.xml";
 	private final static QName BATCH_ROOT_ELEM = new QName("https://jakarta.ee/xml/ns/jakartaee", "batch-artifacts");
 
+	/*
+	 * The batch.xml of each application, parsed once.  Weak keys, and the maps only hold their
+	 * classes weakly (the loader holds them strongly anyway), so an application's map goes
+	 * along with its loader when it's redeployed.
+	 */
+	private static final Map<ClassLoader, ArtifactMap> loader2ArtifactMap = new WeakHashMap<ClassLoader, ArtifactMap>();
+
+	// Stored on the class itself, so doesn't keep it from being unloaded either
+	private static final ClassValue<Constructor<?>> artifactConstructors = new ClassValue<Constructor<?>>() {
+		@Override
+		protected Constructor<?> computeValue(Class<?> artifactClass) {
+			try {
+				return artifactClass.getDeclaredConstructor();
+			} catch (NoSuchMethodException e) {
+				throw new BatchContainerRuntimeException("Batch artifact class: " + artifactClass.getName() + " has no no-arg constructor", e);
+			}
+		}
+	};
+
 	// Uses TCCL
 	@Override
 	public Object load(String batchId) {
@@ -80,12 +104,9 @@ public class DelegatingBatchArtifactFactoryImpl implements IBatchArtifactFactory
             logger.fine("TCCL = " + tccl);
         }
 
-        ArtifactMap artifactMap = initArtifactMapFromClassLoader(tccl);
+        ArtifactMap artifactMap = getArtifactMap(tccl);
 
-		Object loadedArtifact = null;
-        if (artifactMap != null) {
-        	loadedArtifact = artifactMap.getArtifactById(batchId);
-        }
+		Object loadedArtifact = artifactMap.getArtifactById(batchId);
 
 		if (loadedArtifact == null) {
 			if (logger.isLoggable(Level.FINER)) {
@@ -93,16 +114,12 @@ public class DelegatingBatchArtifactFactoryImpl implements IBatchArtifactFactory
 	        }
 			
 			try {
-				Class<?> artifactClass = Thread.currentThread().getContextClassLoader().loadClass(batchId);
+				Class<?> artifactClass = artifactMap.loadClassById(batchId);
 				if(artifactClass != null) {
-					loadedArtifact = artifactClass.newInstance();
+					loadedArtifact = newInstance(artifactClass, batchId);
 				}
 			} catch (ClassNotFoundException e) {
 				throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + batchId, e);
-			} catch (InstantiationException e) {
-				throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + batchId, e);
-			} catch (IllegalAccessException e) {
-				throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + batchId, e);
 			}
 		}
 
@@ -115,8 +132,23 @@ public class DelegatingBatchArtifactFactoryImpl implements IBatchArtifactFactory
 		return loadedArtifact;
 	}
 
+    private ArtifactMap getArtifactMap(ClassLoader loader) {
+        synchronized (loader2ArtifactMap) {
+            ArtifactMap artifactMap = loader2ArtifactMap.get(loader);
+            if (artifactMap == null) {
+                artifactMap = initArtifactMapFromClassLoader(loader);
+                if (artifactMap == null) {
+                    // No batch.xml, remember that too
+                    artifactMap = new ArtifactMap(loader);
+                }
+                loader2ArtifactMap.put(loader, artifactMap);
+            }
+            return artifactMap;
+        }
+    }
+
     private ArtifactMap initArtifactMapFromClassLoader(ClassLoader loader) {
-        ArtifactMap artifactMap = new ArtifactMap();
+        ArtifactMap artifactMap = new ArtifactMap(loader);
         
         InputStream is = getBatchXMLStreamFromClassLoader(loader);
         if (is == null) {
@@ -209,35 +241,56 @@ public class DelegatingBatchArtifactFactoryImpl implements IBatchArtifactFactory
 		}
 	}
 
-	private class ArtifactMap {
+	private static Object newInstance(Class<?> artifactClass, String id) {
+		try {
+			return artifactConstructors.get(artifactClass).newInstance();
+		} catch (IllegalAccessException e) {
+			throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + id, e);
+		} catch (InstantiationException e) {
+			throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + id, e);
+		} catch (InvocationTargetException e) {
+			throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + id, e.getCause());
+		}
+	}
+
+	private static class ArtifactMap {
 
-		private Map<String, Class<?>> idToArtifactClassMap = new HashMap<String, Class<?>>();
+		private final WeakReference<ClassLoader> loader;
+
+		private Map<String, WeakReference<Class<?>>> idToArtifactClassMap = new HashMap<String, WeakReference<Class<?>>>();
+
+		// Artifacts referred to by class name rather than by a batch.xml id
+		private final Map<String, WeakReference<Class<?>>> classNameToClassMap = new ConcurrentHashMap<String, WeakReference<Class<?>>>();
 
 		// Maps to a list of types not a single type since there's no reason a single artifact couldn't be annotated
 		// with >1 batch artifact annotation type.
 		private Map<String, List<String>> idToArtifactTypeListMap = new HashMap<String, List<String>>();
 
+		private ArtifactMap(ClassLoader loader) {
+			this.loader = new WeakReference<ClassLoader>(loader);
+		}
+
 		/*
 		 * Init already synchronized, so no need to synch further
 		 */
 		private void addEntry(String batchTypeName, String id, String className) {
 			try {
 				if (!idToArtifactClassMap.containsKey(id)) {
-					Class<?> artifactClass = Thread.currentThread().getContextClassLoader().loadClass(className);
+					Class<?> artifactClass = loader.get().loadClass(className);
 
-					idToArtifactClassMap.put(id, artifactClass);
+					idToArtifactClassMap.put(id, new WeakReference<Class<?>>(artifactClass));
 					List<String> typeList = new ArrayList<String>();
 					typeList.add(batchTypeName);                    
 					idToArtifactTypeListMap.put(id, typeList);                    
 				} else {
 
-					Class<?> artifactClass = Thread.currentThread().getContextClassLoader().loadClass(className);
+					Class<?> artifactClass = loader.get().loadClass(className);
 
 					// Already contains entry for this 'id', let's make sure it's the same Class
 					// which thus must implement >1 batch artifact "type" (i.e. contains >1 batch artifact annotation).
-					if (!idToArtifactClassMap.get(id).equals(artifactClass)) {
+					if (!artifactClass.equals(idToArtifactClassMap.get(id).get())) {
 						if (logger.isLoggable(Level.SEVERE)) {
-							Class<?> alreadyLoaded = idToArtifactClassMap.get(id); 
+							Class<?> alreadyLoaded = idToArtifactClassMap.get(id).get(); 
 							logger.severe("Attempted to load batch artifact with id: " + id + ", and className: " + className + 
 									".   Found: " + artifactClass + ", however the artifact id: " + id + 
 									" is already associated with: " + alreadyLoaded + ", of className: " +
@@ -258,21 +311,25 @@ public class DelegatingBatchArtifactFactoryImpl implements IBatchArtifactFactory
 
 			Object artifactInstance = null;
 
-			try {
-				Class<?> clazz = idToArtifactClassMap.get(id);
-				if (clazz != null) {
-					artifactInstance = (idToArtifactClassMap.get(id)).newInstance();	
-				}
-			} catch (IllegalAccessException e) {
-				throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + id, e);
-			} catch (InstantiationException e) {
-				throw new BatchContainerRuntimeException("Tried but failed to load artifact with id: " + id, e);
+			WeakReference<Class<?>> classRef = idToArtifactClassMap.get(id);
+			Class<?> clazz = (classRef == null) ? null : classRef.get();
+			if (clazz != null) {
+				artifactInstance = newInstance(clazz, id);
 			}
 
-
 			return artifactInstance;
 		}
 
+		private Class<?> loadClassById(String className) throws ClassNotFoundException {
+			WeakReference<Class<?>> classRef = classNameToClassMap.get(className);
+			Class<?> clazz = (classRef == null) ? null : classRef.get();
+			if (clazz == null) {
+				clazz = loader.get().loadClass(className);
+				classNameToClassMap.put(className, new WeakReference<Class<?>>(clazz));
+			}
+			return clazz;
+		}
+
 		private List<String> getBatchTypeList(String id) {
 			return idToArtifactTypeListMap.get(id);
 		}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.services.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Runs an UPDATE for many rows in one JDBC batch, telling which rows it found, e.g. to insert
+ * the rest.  A driver may answer {@link Statement#SUCCESS_NO_INFO} for some or all of a batch
+ * rather than a count, as Oracle's commonly does, so those rows are updated again one at a
+ * time to find out.  Updating a row with the same values twice does no harm.
+ */
+public class JDBCBatchUpdate {
+
+	/**
+	 * Sets the parameters of a row's statement.
+	 */
+	public interface RowBinder {
+		public void bind(PreparedStatement statement, int row) throws SQLException;
+	}
+
+	private JDBCBatchUpdate() {
+	}
+
+	/**
+	 * @return for each row, whether the UPDATE found it
+	 * @throws SQLException if the driver reports any row's update as {@link Statement#EXECUTE_FAILED}
+	 */
+	public static boolean[] updateRows(Connection conn, String sql, int rows, RowBinder binder) throws SQLException {
+		boolean[] found = new boolean[rows];
+		if (rows == 0) {
+			return found;
+		}
+		PreparedStatement statement = conn.prepareStatement(sql);
+		try {
+			for (int row = 0; row < rows; row++) {
+				binder.bind(statement, row);
+				statement.addBatch();
+			}
+			int[] updateCounts = statement.executeBatch();
+
+			boolean[] unknown = new boolean[rows];
+			boolean anyUnknown = false;
+			for (int row = 0; row < rows; row++) {
+				// A driver may stop counting at a failure, leaving the rest of the batch unknown
+				int count = row < updateCounts.length ? updateCounts[row] : Statement.SUCCESS_NO_INFO;
+				if (count == Statement.EXECUTE_FAILED) {
+					throw new SQLException("Batched update of row " + row + " of " + rows + " failed: " + sql);
+				} else if (count == Statement.SUCCESS_NO_INFO) {
+					unknown[row] = true;
+					anyUnknown = true;
+				} else {
+					found[row] = count > 0;
+				}
+			}
+
+			if (anyUnknown) {
+				for (int row = 0; row < rows; row++) {
+					if (unknown[row]) {
+						binder.bind(statement, row);
+						found[row] = statement.executeUpdate() > 0;
+					}
+				}
+			}
+		} finally {
+			statement.close();
+		}
+		return found;
+	}
+}
@@ -0,0 +1,660 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.services.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small bounded pool of physical JDBC connections, used in SE mode where there is no
+ * DataSource (and so no server-provided pool) to get connections from.
+ *
+ * The connections handed out are proxies.  Connection.close() returns the physical connection
+ * to the pool, and prepareStatement(String) / prepareStatement(String, String[]) are served
+ * from a per-connection LRU cache keyed by the SQL text, where PreparedStatement.close()
+ * hands the statement back to the cache.  This way the usual getConnection() / cleanupConnection()
+ * idiom of the persistence manager doesn't need to change at all.  A connection or statement call
+ * failing with a connection exception (SQLState class 08) marks the connection broken, so it is
+ * discarded rather than returned to the pool.
+ *
+ * Idle connections are evicted lazily, i.e. whenever a connection is borrowed or returned,
+ * so the pool doesn't need a thread of its own.
+ *
+ * Borrowers may be virtual threads, so waiting for a connection uses a ReentrantLock and
+ * Condition rather than a monitor, which would pin the carrier thread while waiting.
+ */
+public class JDBCConnectionPool {
+
+	private final static String CLASSNAME = JDBCConnectionPool.class.getName();
+	private final static Logger logger = Logger.getLogger(CLASSNAME);
+
+	/**
+	 * Creates a new physical connection, fully initialized (e.g. with the schema set).
+	 */
+	public interface ConnectionFactory {
+		public Connection newConnection() throws SQLException;
+	}
+
+	private final ConnectionFactory factory;
+	private final int maxSize;
+	private final long idleTimeoutMillis;
+	private final long waitTimeoutMillis;
+	private final int statementCacheSize;
+
+	// Guarded by 'lock'.  Most recently used at the head, so the tail holds the longest idle.
+	private final ReentrantLock lock = new ReentrantLock();
+	// Signalled when a connection is returned or a slot freed, or on shutdown
+	private final Condition available = lock.newCondition();
+	private final ArrayDeque<PooledConnection> idle = new ArrayDeque<PooledConnection>();
+	private int totalConnections = 0;
+	private boolean shutdown = false;
+
+	private final AtomicLong connectionsCreated = new AtomicLong();
+	private final AtomicLong connectionsDestroyed = new AtomicLong();
+	private final AtomicLong connectionsEvicted = new AtomicLong();
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong waitCount = new AtomicLong();
+	private final AtomicLong waitTimeoutCount = new AtomicLong();
+	private final AtomicLong statementCacheHits = new AtomicLong();
+	private final AtomicLong statementCacheMisses = new AtomicLong();
+
+	/**
+	 * @param factory creates new physical connections
+	 * @param maxSize maximum number of physical connections, idle or in use
+	 * @param idleTimeoutMillis idle connections older than this are closed, a value <= 0 disables eviction
+	 * @param waitTimeoutMillis how long to wait for a connection when the pool is exhausted
+	 * @param statementCacheSize maximum number of cached statements per connection, 0 disables caching
+	 */
+	public JDBCConnectionPool(ConnectionFactory factory, int maxSize, long idleTimeoutMillis, long waitTimeoutMillis, int statementCacheSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Connection pool max size must be at least 1, found: " + maxSize);
+		}
+		this.factory = factory;
+		this.maxSize = maxSize;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.waitTimeoutMillis = waitTimeoutMillis;
+		this.statementCacheSize = Math.max(0, statementCacheSize);
+	}
+
+	/**
+	 * @return a pooled connection; closing it returns it to the pool.
+	 * @throws SQLException if a new connection can't be created, or if none frees up within the wait timeout
+	 */
+	public Connection getConnection() throws SQLException {
+		while (true) {
+			PooledConnection pc = null;
+			boolean create = false;
+			List<PooledConnection> evicted = new ArrayList<PooledConnection>();
+
+			lock.lock();
+			try {
+				long now = System.currentTimeMillis();
+				long deadline = now + waitTimeoutMillis;
+				boolean waited = false;
+				collectIdleEvictions(now, evicted);
+				while (true) {
+					if (shutdown) {
+						throw new SQLException("Connection pool has been shut down");
+					}
+					pc = idle.pollFirst();
+					if (pc != null) {
+						break;
+					}
+					if (totalConnections < maxSize) {
+						totalConnections++;
+						create = true;
+						break;
+					}
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						waitTimeoutCount.incrementAndGet();
+						throw new SQLException("Timed out after " + waitTimeoutMillis + " ms waiting for a connection, all " + maxSize + " pooled connections are in use");
+					}
+					if (!waited) {
+						waitCount.incrementAndGet();
+						waited = true;
+					}
+					try {
+						available.await(remaining, TimeUnit.MILLISECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new SQLException("Interrupted waiting for a pooled connection", e);
+					}
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			for (PooledConnection e : evicted) {
+				connectionsEvicted.incrementAndGet();
+				destroy(e);
+			}
+
+			if (create) {
+				try {
+					pc = new PooledConnection(factory.newConnection());
+				} catch (SQLException e) {
+					releaseSlot();
+					throw e;
+				} catch (RuntimeException e) {
+					releaseSlot();
+					throw e;
+				}
+				connectionsCreated.incrementAndGet();
+				if (logger.isLoggable(Level.FINE)) {
+					logger.fine("Created pooled connection: " + pc.physical + ", " + this);
+				}
+			} else if (!pc.isUsable()) {
+				// Dead while idle, e.g. the database went away.  Try again with another.
+				destroyAndReleaseSlot(pc);
+				continue;
+			}
+
+			borrowCount.incrementAndGet();
+			return pc.checkout();
+		}
+	}
+
+	/**
+	 * Closes all idle connections and refuses further requests.  Connections still in use are closed
+	 * when they're returned.
+	 */
+	public void shutdown() {
+		List<PooledConnection> toClose = new ArrayList<PooledConnection>();
+		lock.lock();
+		try {
+			shutdown = true;
+			toClose.addAll(idle);
+			idle.clear();
+			totalConnections -= toClose.size();
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		for (PooledConnection pc : toClose) {
+			destroy(pc);
+		}
+		logger.config("Connection pool shut down, " + this);
+	}
+
+	private void collectIdleEvictions(long now, List<PooledConnection> evicted) {
+		if (idleTimeoutMillis <= 0) {
+			return;
+		}
+		PooledConnection oldest;
+		while ((oldest = idle.peekLast()) != null && now - oldest.lastReturned > idleTimeoutMillis) {
+			idle.pollLast();
+			totalConnections--;
+			evicted.add(oldest);
+		}
+	}
+
+	private void returnConnection(PooledConnection pc) {
+		boolean reusable = pc.reset();
+		List<PooledConnection> evicted = new ArrayList<PooledConnection>();
+		lock.lock();
+		try {
+			if (reusable && !shutdown) {
+				long now = System.currentTimeMillis();
+				pc.lastReturned = now;
+				idle.addFirst(pc);
+				collectIdleEvictions(now, evicted);
+				available.signal();
+				pc = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+		for (PooledConnection e : evicted) {
+			connectionsEvicted.incrementAndGet();
+			destroy(e);
+		}
+		if (pc != null) {
+			destroyAndReleaseSlot(pc);
+		}
+	}
+
+	private void releaseSlot() {
+		lock.lock();
+		try {
+			totalConnections--;
+			available.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void destroyAndReleaseSlot(PooledConnection pc) {
+		releaseSlot();
+		destroy(pc);
+	}
+
+	private void destroy(PooledConnection pc) {
+		connectionsDestroyed.incrementAndGet();
+		pc.closePhysical();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * @return number of physical connections currently open, idle or in use
+	 */
+	public int getTotalConnections() {
+		lock.lock();
+		try {
+			return totalConnections;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getIdleConnections() {
+		lock.lock();
+		try {
+			return idle.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getActiveConnections() {
+		lock.lock();
+		try {
+			return totalConnections - idle.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getConnectionsCreated() {
+		return connectionsCreated.get();
+	}
+
+	public long getConnectionsDestroyed() {
+		return connectionsDestroyed.get();
+	}
+
+	public long getConnectionsEvicted() {
+		return connectionsEvicted.get();
+	}
+
+	public long getBorrowCount() {
+		return borrowCount.get();
+	}
+
+	/**
+	 * @return number of requests which found the pool exhausted and had to wait
+	 */
+	public long getWaitCount() {
+		return waitCount.get();
+	}
+
+	public long getWaitTimeoutCount() {
+		return waitTimeoutCount.get();
+	}
+
+	public long getStatementCacheHits() {
+		return statementCacheHits.get();
+	}
+
+	public long getStatementCacheMisses() {
+		return statementCacheMisses.get();
+	}
+
+	/**
+	 * @return a snapshot of the pool metrics, keyed by name
+	 */
+	public Map<String, Long> getStatistics() {
+		Map<String, Long> stats = new LinkedHashMap<String, Long>();
+		stats.put("maxSize", (long) maxSize);
+		stats.put("totalConnections", (long) getTotalConnections());
+		stats.put("idleConnections", (long) getIdleConnections());
+		stats.put("activeConnections", (long) getActiveConnections());
+		stats.put("connectionsCreated", getConnectionsCreated());
+		stats.put("connectionsDestroyed", getConnectionsDestroyed());
+		stats.put("connectionsEvicted", getConnectionsEvicted());
+		stats.put("borrowCount", getBorrowCount());
+		stats.put("waitCount", getWaitCount());
+		stats.put("waitTimeoutCount", getWaitTimeoutCount());
+		stats.put("statementCacheHits", getStatementCacheHits());
+		stats.put("statementCacheMisses", getStatementCacheMisses());
+		return stats;
+	}
+
+	@Override
+	public String toString() {
+		return "JDBCConnectionPool[maxSize=" + maxSize + ", total=" + getTotalConnections() + ", idle=" + getIdleConnections()
+				+ ", created=" + getConnectionsCreated() + ", destroyed=" + getConnectionsDestroyed() + ", evicted=" + getConnectionsEvicted()
+				+ ", borrows=" + getBorrowCount() + ", waits=" + getWaitCount() + ", waitTimeouts=" + getWaitTimeoutCount()
+				+ ", statementCacheHits=" + getStatementCacheHits() + ", statementCacheMisses=" + getStatementCacheMisses() + "]";
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * A physical connection plus its statement cache.  Only used by one borrower at a time.
+	 */
+	private class PooledConnection {
+
+		private final Connection physical;
+		private long lastReturned;
+		private boolean broken = false;
+
+		// Access-ordered, so iteration starts with the least recently used.
+		private final LinkedHashMap<String, CachedStatement> statementCache = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true);
+
+		// Statements we don't cache, which we still have to close if the borrower forgets to.
+		private final List<Statement> uncachedStatements = new ArrayList<Statement>();
+
+		private PooledConnection(Connection physical) {
+			this.physical = physical;
+		}
+
+		private Connection checkout() {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new ConnectionHandler(this));
+		}
+
+		private boolean isUsable() {
+			try {
+				return !physical.isClosed();
+			} catch (SQLException e) {
+				return false;
+			}
+		}
+
+		private PreparedStatement prepare(String key, Method method, Object[] args, Connection logical) throws Throwable {
+			CachedStatement cached = statementCacheSize > 0 ? statementCache.get(key) : null;
+			if (cached != null && !cached.inUse) {
+				statementCacheHits.incrementAndGet();
+				cached.inUse = true;
+				return cached.checkout(logical);
+			}
+
+			statementCacheMisses.incrementAndGet();
+			PreparedStatement ps = (PreparedStatement) invoke(physical, method, args);
+			if (statementCacheSize == 0 || cached != null) {
+				// Caching disabled, or the same SQL is already open on this connection, so just hand out a plain one.
+				return (PreparedStatement) wrapUncached(ps, PreparedStatement.class, logical);
+			}
+
+			cached = new CachedStatement(this, ps);
+			cached.inUse = true;
+			statementCache.put(key, cached);
+			trimStatementCache();
+			return cached.checkout(logical);
+		}
+
+		/**
+		 * @return a proxy for a statement we don't cache, so its failures are still seen by checkBroken()
+		 */
+		private Statement wrapUncached(Statement physicalStatement, Class<?> type, Connection logical) {
+			uncachedStatements.add(physicalStatement);
+			return (Statement) Proxy.newProxyInstance(type.getClassLoader(),
+					new Class<?>[] { type }, new StatementHandler(this, physicalStatement, null, logical));
+		}
+
+		private void trimStatementCache() {
+			Iterator<CachedStatement> it = statementCache.values().iterator();
+			while (statementCache.size() > statementCacheSize && it.hasNext()) {
+				CachedStatement cs = it.next();
+				if (!cs.inUse) {
+					it.remove();
+					closeQuietly(cs.physical);
+				}
+			}
+		}
+
+		/**
+		 * Get ready to be handed out again.
+		 *
+		 * @return false if the connection should be discarded instead
+		 */
+		private boolean reset() {
+			for (Statement s : uncachedStatements) {
+				closeQuietly(s);
+			}
+			uncachedStatements.clear();
+
+			// Anything the borrower left open goes back in the cache
+			for (CachedStatement cs : statementCache.values()) {
+				if (cs.inUse) {
+					cs.release();
+				}
+			}
+
+			if (broken) {
+				return false;
+			}
+			try {
+				if (!physical.getAutoCommit()) {
+					logger.fine("Pooled connection returned with autocommit off, rolling back any outstanding work");
+					physical.rollback();
+					physical.setAutoCommit(true);
+				}
+				physical.clearWarnings();
+				return true;
+			} catch (SQLException e) {
+				logger.fine("Discarding pooled connection which failed to reset: " + e.getLocalizedMessage());
+				return false;
+			}
+		}
+
+		private void closePhysical() {
+			for (CachedStatement cs : statementCache.values()) {
+				closeQuietly(cs.physical);
+			}
+			statementCache.clear();
+			try {
+				physical.close();
+			} catch (SQLException e) {
+				logger.fine("Exception closing pooled connection: " + e.getLocalizedMessage());
+			}
+		}
+
+		private void closeQuietly(Statement s) {
+			try {
+				s.close();
+			} catch (SQLException e) {
+				logger.finest("Exception closing statement: " + e.getLocalizedMessage());
+			}
+		}
+
+		private void checkBroken(Throwable t) {
+			// SQLState class 08 is "connection exception"
+			if (t instanceof SQLException) {
+				String state = ((SQLException) t).getSQLState();
+				if (state != null && state.startsWith("08")) {
+					broken = true;
+				}
+			}
+		}
+	}
+
+	private class CachedStatement {
+
+		private final PooledConnection owner;
+		private final PreparedStatement physical;
+		private boolean inUse = false;
+
+		private CachedStatement(PooledConnection owner, PreparedStatement physical) {
+			this.owner = owner;
+			this.physical = physical;
+		}
+
+		private PreparedStatement checkout(Connection logical) {
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, new StatementHandler(owner, physical, this, logical));
+		}
+
+		private void release() {
+			inUse = false;
+			try {
+				physical.clearParameters();
+				physical.clearBatch();
+			} catch (SQLException e) {
+				logger.finest("Exception clearing cached statement: " + e.getLocalizedMessage());
+			}
+		}
+	}
+
+	private class ConnectionHandler implements InvocationHandler {
+
+		private final PooledConnection pc;
+		private boolean closed = false;
+
+		private ConnectionHandler(PooledConnection pc) {
+			this.pc = pc;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("close")) {
+				// Tolerate double closes, cleanupConnection() relies on it
+				if (!closed) {
+					closed = true;
+					returnConnection(pc);
+				}
+				return null;
+			} else if (name.equals("isClosed")) {
+				return closed;
+			} else if (name.equals("equals")) {
+				return proxy == args[0];
+			} else if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (name.equals("toString")) {
+				return "PooledConnection[" + pc.physical + (closed ? ", closed]" : "]");
+			}
+
+			if (closed) {
+				throw new SQLException("Connection has been returned to the pool");
+			}
+
+			try {
+				if (name.equals("prepareStatement") && args.length == 1) {
+					return pc.prepare((String) args[0], method, args, (Connection) proxy);
+				} else if (name.equals("prepareStatement") && args.length == 2 && args[1] instanceof String[]) {
+					StringBuilder key = new StringBuilder((String) args[0]);
+					for (String column : (String[]) args[1]) {
+						key.append('\u0000').append(column);
+					}
+					return pc.prepare(key.toString(), method, args, (Connection) proxy);
+				}
+
+				Object result = JDBCConnectionPool.invoke(pc.physical, method, args);
+				if (result instanceof Statement) {
+					return pc.wrapUncached((Statement) result, method.getReturnType(), (Connection) proxy);
+				}
+				return result;
+			} catch (Throwable t) {
+				pc.checkBroken(t);
+				throw t;
+			}
+		}
+	}
+
+	/**
+	 * Hands out a statement of a pooled connection, either one from the statement cache
+	 * (cs is non-null), or one which is closed for real.
+	 */
+	private class StatementHandler implements InvocationHandler {
+
+		private final PooledConnection pc;
+		private final Statement physical;
+		private final CachedStatement cs;
+		private final Connection logicalConnection;
+		private boolean closed = false;
+
+		private StatementHandler(PooledConnection pc, Statement physical, CachedStatement cs, Connection logicalConnection) {
+			this.pc = pc;
+			this.physical = physical;
+			this.cs = cs;
+			this.logicalConnection = logicalConnection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("close")) {
+				if (!closed) {
+					closed = true;
+					if (cs != null) {
+						cs.release();
+					} else {
+						pc.closeQuietly(physical);
+					}
+				}
+				return null;
+			} else if (name.equals("isClosed")) {
+				return closed;
+			} else if (name.equals("equals")) {
+				return proxy == args[0];
+			} else if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (name.equals("toString")) {
+				return (cs != null ? "CachedStatement[" : "Statement[") + physical + (closed ? ", closed]" : "]");
+			}
+
+			// A cached statement outlives the borrower's use of it, so don't allow use after close
+			if (closed || logicalConnection.isClosed()) {
+				throw new SQLException("Statement has been closed");
+			}
+
+			if (name.equals("getConnection")) {
+				return logicalConnection;
+			}
+			try {
+				return JDBCConnectionPool.invoke(physical, method, args);
+			} catch (Throwable t) {
+				// e.g. an executeUpdate() on a connection the database has dropped
+				pc.checkBroken(t);
+				throw t;
+			}
+		}
+	}
+}
@@ -16,7 +16,6 @@
  */
 package com.ibm.jbatch.container.services.impl;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -32,9 +31,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -65,11 +67,15 @@ import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
 import com.ibm.jbatch.container.persistence.CheckpointData;
 import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.persistence.PersistentDataWrapper;
 import com.ibm.jbatch.container.services.IJobExecution;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.PurgeCriteria;
 import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.status.PartitionState;
 import com.ibm.jbatch.container.status.StepStatus;
-import com.ibm.jbatch.container.util.TCCLObjectInputStream;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.container.util.SerializationHelper;
 import com.ibm.jbatch.spi.services.IBatchConfig;
 
 public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, JDBCPersistenceManagerSQLConstants {
@@ -89,6 +95,31 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	protected String userId = "";
 	protected String pwd = "";
 
+	// SE mode only, EE mode relies on the DataSource for pooling
+	protected JDBCConnectionPool connectionPool = null;
+
+	// STATUS_SCHEMA_MODE=COLUMNS, i.e. JOBSTATUS and STEPSTATUS have a column per field instead of a serialized object
+	protected boolean statusColumns = false;
+
+	// CHECKPOINT_SCHEMA_MODE=STRUCTURED, i.e. checkpoint data lives in STEPCHECKPOINTDATA keyed by its own columns
+	protected boolean structuredCheckpoints = false;
+
+	// Single statement upsert of STEPCHECKPOINTDATA for this database, or null to update then insert
+	protected String checkpointUpsert = null;
+	protected int checkpointUpsertParameterCount = 0;
+
+	// Job instances per purge batch, for purge(apptag)
+	protected int purgeBatchSize = Integer.parseInt(BatchContainerConstants.DEFAULT_PURGE_BATCH_SIZE);
+
+	// Most ids in one IN list, within every database's limit
+	private static final int MAX_PURGE_IN_LIST = 500;
+
+	// Rows read per query when migrating serialized JobStatus and StepStatus into the columns
+	private static final int STATUS_MIGRATION_PAGE_SIZE = 500;
+
+	// SE mode only, null unless WRITE_BEHIND_ENABLED
+	protected WriteBehindQueue writeBehind = null;
+
 	/* (non-Javadoc)
 	 * @see com.ibm.jbatch.container.services.impl.AbstractPersistenceManagerImpl#init(com.ibm.jbatch.container.IBatchConfig)
 	 */
@@ -137,6 +168,9 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			pwd = batchConfig.getDatabaseConfigurationBean().getDbPassword();
 
 			logger.config("driver: " + driver + ", url: " + url);
+
+			initConnectionPool(batchConfig.getConfigProperties());
+			initWriteBehind(batchConfig.getConfigProperties());
 		}
 
 		try {
@@ -147,9 +181,34 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 				}
 				checkAllTables();
 			}
+
+			statusColumns = isStatusColumnsMode(batchConfig.getConfigProperties());
+			if (statusColumns) {
+				addColumnsIfNotExist(JOBSTATUS_TABLE, JOBSTATUS_STATUS_COLUMNS);
+				addColumnsIfNotExist(STEPSTATUS_TABLE, STEPSTATUS_STATUS_COLUMNS);
+				migrateJobStatusToColumns();
+				migrateStepStatusToColumns();
+			}
+
+			if (batchConfig.getConfigProperties() != null) {
+				purgeBatchSize = Integer.parseInt(batchConfig.getConfigProperties().getProperty(BatchContainerConstants.PURGE_BATCH_SIZE, 
+						BatchContainerConstants.DEFAULT_PURGE_BATCH_SIZE).trim());
+			}
+
+			structuredCheckpoints = isStructuredCheckpointMode(batchConfig.getConfigProperties());
+			if (structuredCheckpoints) {
+				initCheckpointUpsert();
+				migrateCheckpointDataToStructured();
+			}
 		} catch (SQLException e) {
 			logger.severe(e.getLocalizedMessage());
 			throw new BatchContainerServiceException(e);
+		} catch (IOException e) {
+			logger.severe(e.getLocalizedMessage());
+			throw new BatchContainerServiceException(e);
+		} catch (ClassNotFoundException e) {
+			logger.severe(e.getLocalizedMessage());
+			throw new BatchContainerServiceException(e);
 		}
 
 		logger.config("Exiting CLASSNAME.init()");
@@ -224,10 +283,49 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		createIfNotExists(JOBSTATUS_TABLE, CREATE_TAB_JOBSTATUS);
 		createIfNotExists(STEPSTATUS_TABLE, CREATE_TAB_STEPSTATUS);	
+		createIfNotExists(PARTITIONSTATUS_TABLE, CREATE_TAB_PARTITIONSTATUS);
+		createIfNotExists(STEPCHECKPOINTDATA_TABLE, CREATE_TAB_STEPCHECKPOINTDATA);
+
+		createIndexIfNotExists(JOBINSTANCEDATA_TABLE, JOBINSTANCEDATA_NAME_INDEX, CREATE_JOBINSTANCEDATA_NAME_INDEX);
+		createIndexIfNotExists(JOBINSTANCEDATA_TABLE, JOBINSTANCEDATA_APPTAG_INDEX, CREATE_JOBINSTANCEDATA_APPTAG_INDEX);
+		createIndexIfNotExists(EXECUTIONINSTANCEDATA_TABLE, EXECUTIONINSTANCEDATA_JOBINSTANCEID_INDEX, CREATE_EXECUTIONINSTANCEDATA_JOBINSTANCEID_INDEX);
+		createIndexIfNotExists(STEPEXECUTIONINSTANCEDATA_TABLE, STEPEXECUTIONINSTANCEDATA_JOBEXECID_INDEX, CREATE_STEPEXECUTIONINSTANCEDATA_JOBEXECID_INDEX);
 
 		logger.exiting(CLASSNAME, "checkAllTables");
 	}
 
+	/**
+	 * Creates indexName on tableName using the createIndexStatement DDL, 
+	 * so tables created by an earlier release get it too.
+	 * 
+	 * @param tableName
+	 * @param indexName
+	 * @param createIndexStatement
+	 * @throws SQLException
+	 */
+	private void createIndexIfNotExists(String tableName, String indexName, String createIndexStatement) throws SQLException {
+		logger.entering(CLASSNAME, "createIndexIfNotExists", new Object[] {tableName, indexName});
+
+		boolean exists = false;
+		Connection conn = getConnection();
+		DatabaseMetaData dbmd = conn.getMetaData();
+		ResultSet rs = dbmd.getIndexInfo(null, schema, tableName, false, true);
+		while (rs.next()) {
+			if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+				exists = true;
+				break;
+			}
+		}
+		cleanupConnection(conn, rs, null);
+
+		if (!exists) {
+			logger.log(Level.INFO, indexName + " index does not exist. Trying to create it.");
+			executeStatement(createIndexStatement);
+		}
+
+		logger.exiting(CLASSNAME, "createIndexIfNotExists");
+	}
+
 	/**
 	 * Creates tableName using the createTableStatement DDL.
 	 * 
@@ -252,6 +350,365 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		logger.exiting(CLASSNAME, "createIfNotExists");
 	}
 
+	private boolean isStatusColumnsMode(Properties configProps) {
+		String mode = BatchContainerConstants.DEFAULT_STATUS_SCHEMA_MODE;
+		if (configProps != null) {
+			mode = configProps.getProperty(BatchContainerConstants.STATUS_SCHEMA_MODE, mode).trim();
+		}
+		if (BatchContainerConstants.STATUS_SCHEMA_MODE_COLUMNS.equalsIgnoreCase(mode)) {
+			logger.config("JOBSTATUS and STEPSTATUS use a column per field");
+			return true;
+		} else if (BatchContainerConstants.STATUS_SCHEMA_MODE_BLOB.equalsIgnoreCase(mode)) {
+			return false;
+		}
+		throw new BatchContainerServiceException("Unknown " + BatchContainerConstants.STATUS_SCHEMA_MODE + ": " + mode 
+				+ ", expected " + BatchContainerConstants.STATUS_SCHEMA_MODE_BLOB + " or " + BatchContainerConstants.STATUS_SCHEMA_MODE_COLUMNS);
+	}
+
+	private boolean isStructuredCheckpointMode(Properties configProps) {
+		String mode = BatchContainerConstants.DEFAULT_CHECKPOINT_SCHEMA_MODE;
+		if (configProps != null) {
+			mode = configProps.getProperty(BatchContainerConstants.CHECKPOINT_SCHEMA_MODE, mode).trim();
+		}
+		if (BatchContainerConstants.CHECKPOINT_SCHEMA_MODE_STRUCTURED.equalsIgnoreCase(mode)) {
+			logger.config("Checkpoint data is keyed by job instance, step and type in STEPCHECKPOINTDATA");
+			return true;
+		} else if (BatchContainerConstants.CHECKPOINT_SCHEMA_MODE_LEGACY.equalsIgnoreCase(mode)) {
+			return false;
+		}
+		throw new BatchContainerServiceException("Unknown " + BatchContainerConstants.CHECKPOINT_SCHEMA_MODE + ": " + mode 
+				+ ", expected " + BatchContainerConstants.CHECKPOINT_SCHEMA_MODE_LEGACY + " or " + BatchContainerConstants.CHECKPOINT_SCHEMA_MODE_STRUCTURED);
+	}
+
+	/**
+	 * Picks the single statement upsert of STEPCHECKPOINTDATA for this database, if it has one.
+	 * 
+	 * @throws SQLException
+	 */
+	private void initCheckpointUpsert() throws SQLException {
+		String dbProductName = getDatabaseProductName();
+
+		if ("PostgreSQL".equals(dbProductName)) {
+			checkpointUpsert = UPSERT_STEPCHECKPOINTDATA_POSTGRESQL;
+		} else if ("MySQL".equals(dbProductName) || "MariaDB".equals(dbProductName)) {
+			checkpointUpsert = UPSERT_STEPCHECKPOINTDATA_MYSQL;
+		} else if (dbProductName != null && dbProductName.startsWith("DB2")) {
+			checkpointUpsert = UPSERT_STEPCHECKPOINTDATA_DB2;
+		} else if ("Microsoft SQL Server".equals(dbProductName)) {
+			checkpointUpsert = UPSERT_STEPCHECKPOINTDATA_SQLSERVER;
+		} else if ("Oracle".equals(dbProductName)) {
+			checkpointUpsert = UPSERT_STEPCHECKPOINTDATA_ORACLE;
+		} else {
+			// e.g. Derby, whose MERGE can't take its source row from parameters
+			checkpointUpsert = null;
+		}
+
+		if (checkpointUpsert != null) {
+			checkpointUpsertParameterCount = 0;
+			for (int i = 0; i < checkpointUpsert.length(); i++) {
+				if (checkpointUpsert.charAt(i) == '?') {
+					checkpointUpsertParameterCount++;
+				}
+			}
+		}
+		logger.config("STEPCHECKPOINTDATA upsert for " + dbProductName + ": " + (checkpointUpsert == null ? "update, then insert" : checkpointUpsert));
+	}
+
+	private String getDatabaseProductName() throws SQLException {
+		Connection conn = getConnection();
+		try {
+			return conn.getMetaData().getDatabaseProductName();
+		} finally {
+			cleanupConnection(conn, null, null);
+		}
+	}
+
+	/**
+	 * Moves any rows of the legacy CHECKPOINTDATA table into STEPCHECKPOINTDATA, dropping 
+	 * those of job instances which no longer exist.
+	 * 
+	 * @throws SQLException
+	 */
+	private void migrateCheckpointDataToStructured() throws SQLException {
+		logger.entering(CLASSNAME, "migrateCheckpointDataToStructured");
+
+		// Without a primary key the same id may have been written more than once, keep one of each
+		Map<String, byte[]> legacy = new LinkedHashMap<String, byte[]>();
+		Connection conn = getConnection();
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			statement = conn.prepareStatement(SELECT_ALL_CHECKPOINTDATA);
+			rs = statement.executeQuery();
+			while (rs.next()) {
+				legacy.put(rs.getString("id"), rs.getBytes("obj"));
+			}
+			rs.close();
+			rs = null;
+			statement.close();
+			statement = null;
+
+			if (!legacy.isEmpty()) {
+				logger.log(Level.INFO, "Migrating " + legacy.size() + " CHECKPOINTDATA rows to STEPCHECKPOINTDATA.");
+
+				List<String> migratedIds = new ArrayList<String>(legacy.size());
+				List<CheckpointDataKey> keys = new ArrayList<CheckpointDataKey>(legacy.size());
+				List<byte[]> values = new ArrayList<byte[]>(legacy.size());
+				statement = conn.prepareStatement(SELECT_JOBINSTANCEDATA_ID);
+				for (Map.Entry<String, byte[]> entry : legacy.entrySet()) {
+					CheckpointDataKey key = parseCheckpointDataKey(entry.getKey());
+					if (key == null) {
+						logger.warning("Leaving CHECKPOINTDATA row with unrecognized id: " + entry.getKey());
+						continue;
+					}
+					migratedIds.add(entry.getKey());
+					statement.setLong(1, key.getJobInstanceId());
+					rs = statement.executeQuery();
+					if (rs.next()) {
+						keys.add(key);
+						values.add(entry.getValue());
+					}
+					rs.close();
+					rs = null;
+				}
+				statement.close();
+				statement = null;
+
+				writeStepCheckpointData(conn, keys, values);
+
+				statement = conn.prepareStatement(DELETE_CHECKPOINTDATA);
+				for (String id : migratedIds) {
+					statement.setString(1, id);
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			}
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+
+		logger.exiting(CLASSNAME, "migrateCheckpointDataToStructured");
+	}
+
+	/**
+	 * @param id legacy CHECKPOINTDATA id, i.e. CheckpointDataKey.getCommaSeparatedKey()
+	 * @return the key, or null if id isn't one
+	 */
+	private CheckpointDataKey parseCheckpointDataKey(String id) {
+		if (id == null) {
+			return null;
+		}
+		int first = id.indexOf(',');
+		int last = id.lastIndexOf(',');
+		if (first <= 0 || last <= first) {
+			return null;
+		}
+		try {
+			return new CheckpointDataKey(Long.parseLong(id.substring(0, first)), id.substring(first + 1, last), id.substring(last + 1));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Adds any of the given columns that tableName doesn't already have.
+	 * 
+	 * @param tableName
+	 * @param columnDefinitions column name followed by its type
+	 * @throws SQLException
+	 */
+	private void addColumnsIfNotExist(String tableName, String[] columnDefinitions) throws SQLException {
+		logger.entering(CLASSNAME, "addColumnsIfNotExist", tableName);
+
+		Set<String> existing = new HashSet<String>();
+		Connection conn = getConnection();
+		DatabaseMetaData dbmd = conn.getMetaData();
+		ResultSet rs = dbmd.getColumns(null, schema, tableName, null);
+		while (rs.next()) {
+			existing.add(rs.getString("COLUMN_NAME").toUpperCase());
+		}
+		cleanupConnection(conn, rs, null);
+
+		String dbProductName = getDatabaseProductName();
+		for (String columnDefinition : columnDefinitions) {
+			String columnName = columnDefinition.substring(0, columnDefinition.indexOf(' '));
+			if (!existing.contains(columnName.toUpperCase())) {
+				logger.log(Level.INFO, tableName + " table does not have column " + columnName + ". Trying to add it.");
+				String column = columnName + " " + getColumnType(dbProductName, columnDefinition.substring(columnName.length() + 1));
+				if ("Oracle".equals(dbProductName)) {
+					executeStatement("ALTER TABLE " + tableName + " ADD (" + column + ")");
+				} else if ("Microsoft SQL Server".equals(dbProductName)) {
+					executeStatement("ALTER TABLE " + tableName + " ADD " + column);
+				} else if (dbProductName != null && dbProductName.startsWith("Adaptive Server")) {
+					// ASE columns default to NOT NULL, which an existing table can't take
+					executeStatement("ALTER TABLE " + tableName + " ADD " + column + " NULL");
+				} else {
+					executeStatement("ALTER TABLE " + tableName + " ADD COLUMN " + column);
+				}
+			}
+		}
+
+		logger.exiting(CLASSNAME, "addColumnsIfNotExist");
+	}
+
+	/**
+	 * Maps the column types of JOBSTATUS_STATUS_COLUMNS and STEPSTATUS_STATUS_COLUMNS onto 
+	 * those the shipped DDL uses for this database.
+	 * 
+	 * @param dbProductName
+	 * @param type BIGINT, INTEGER, VARCHAR(n), BLOB or CLOB
+	 * @return the type to declare the column with
+	 */
+	private String getColumnType(String dbProductName, String type) {
+		if ("PostgreSQL".equals(dbProductName)) {
+			if ("BLOB".equals(type)) {
+				return "bytea";
+			} else if ("CLOB".equals(type)) {
+				return "text";
+			}
+		} else if ("MySQL".equals(dbProductName) || "MariaDB".equals(dbProductName)) {
+			if ("BLOB".equals(type)) {
+				return "LONGBLOB";
+			} else if ("CLOB".equals(type)) {
+				return "LONGTEXT";
+			}
+		} else if ("Microsoft SQL Server".equals(dbProductName)) {
+			if ("BLOB".equals(type)) {
+				return "VARBINARY(MAX)";
+			} else if ("CLOB".equals(type)) {
+				return "NVARCHAR(MAX)";
+			}
+		} else if (dbProductName != null && dbProductName.startsWith("Adaptive Server")) {
+			if ("BLOB".equals(type)) {
+				return "IMAGE";
+			} else if ("CLOB".equals(type)) {
+				return "TEXT";
+			}
+		} else if ("Oracle".equals(dbProductName)) {
+			if ("BIGINT".equals(type)) {
+				return "NUMBER(19,0)";
+			} else if ("INTEGER".equals(type)) {
+				return "NUMBER(11,0)";
+			} else if (type.startsWith("VARCHAR(")) {
+				return "VARCHAR2" + type.substring("VARCHAR".length());
+			}
+		}
+		// Derby, DB2 and Oracle LOBs take the types as written
+		return type;
+	}
+
+	/**
+	 * Moves any JobStatus still stored as a serialized object into the columns.
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void migrateJobStatusToColumns() throws SQLException, IOException, ClassNotFoundException {
+		logger.entering(CLASSNAME, "migrateJobStatusToColumns");
+
+		// A page at a time, by id, so a large table is never held in memory at once
+		List<JobStatus> unmigrated = new ArrayList<JobStatus>(STATUS_MIGRATION_PAGE_SIZE);
+		long lastId = Long.MIN_VALUE;
+		int migrated = 0;
+		Connection conn = getConnection();
+		PreparedStatement select = null;
+		PreparedStatement update = null;
+		ResultSet rs = null;
+		try {
+			select = conn.prepareStatement(SELECT_UNMIGRATED_JOBSTATUS);
+			select.setMaxRows(STATUS_MIGRATION_PAGE_SIZE);
+			update = conn.prepareStatement(UPDATE_JOBSTATUS_COLUMNS);
+			do {
+				unmigrated.clear();
+				select.setLong(1, lastId);
+				rs = select.executeQuery();
+				while (rs.next() && unmigrated.size() < STATUS_MIGRATION_PAGE_SIZE) {
+					lastId = rs.getLong("id");
+					unmigrated.add((JobStatus) deserializeObject(rs.getBytes("obj")));
+				}
+				rs.close();
+				rs = null;
+
+				if (!unmigrated.isEmpty()) {
+					for (JobStatus jobStatus : unmigrated) {
+						setJobStatusColumns(update, jobStatus.getJobInstanceId(), jobStatus);
+						update.addBatch();
+					}
+					update.executeBatch();
+					migrated += unmigrated.size();
+				}
+			} while (unmigrated.size() == STATUS_MIGRATION_PAGE_SIZE);
+
+			if (migrated > 0) {
+				logger.log(Level.INFO, "Migrated " + migrated + " JOBSTATUS rows to columns.");
+			}
+		} finally {
+			if (update != null) {
+				update.close();
+			}
+			cleanupConnection(conn, rs, select);
+		}
+
+		logger.exiting(CLASSNAME, "migrateJobStatusToColumns");
+	}
+
+	/**
+	 * Moves any StepStatus still stored as a serialized object into the columns.
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void migrateStepStatusToColumns() throws SQLException, IOException, ClassNotFoundException {
+		logger.entering(CLASSNAME, "migrateStepStatusToColumns");
+
+		// A page at a time, by id, so a large table is never held in memory at once
+		List<StepStatus> unmigrated = new ArrayList<StepStatus>(STATUS_MIGRATION_PAGE_SIZE);
+		long lastId = Long.MIN_VALUE;
+		int migrated = 0;
+		Connection conn = getConnection();
+		PreparedStatement select = null;
+		PreparedStatement update = null;
+		ResultSet rs = null;
+		try {
+			select = conn.prepareStatement(SELECT_UNMIGRATED_STEPSTATUS);
+			select.setMaxRows(STATUS_MIGRATION_PAGE_SIZE);
+			update = conn.prepareStatement(UPDATE_STEPSTATUS_COLUMNS);
+			do {
+				unmigrated.clear();
+				select.setLong(1, lastId);
+				rs = select.executeQuery();
+				while (rs.next() && unmigrated.size() < STATUS_MIGRATION_PAGE_SIZE) {
+					lastId = rs.getLong("id");
+					unmigrated.add((StepStatus) deserializeObject(rs.getBytes("obj")));
+				}
+				rs.close();
+				rs = null;
+
+				if (!unmigrated.isEmpty()) {
+					for (StepStatus stepStatus : unmigrated) {
+						setStepStatusColumns(update, stepStatus.getStepExecutionId(), stepStatus);
+						update.addBatch();
+					}
+					update.executeBatch();
+					migrated += unmigrated.size();
+				}
+			} while (unmigrated.size() == STATUS_MIGRATION_PAGE_SIZE);
+
+			if (migrated > 0) {
+				logger.log(Level.INFO, "Migrated " + migrated + " STEPSTATUS rows to columns.");
+			}
+		} finally {
+			if (update != null) {
+				update.close();
+			}
+			cleanupConnection(conn, rs, select);
+		}
+
+		logger.exiting(CLASSNAME, "migrateStepStatusToColumns");
+	}
+
 	/**
 	 * Executes the provided SQL statement
 	 * 
@@ -278,7 +735,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	@Override
 	public void createCheckpointData(CheckpointDataKey key, CheckpointData value) {
 		logger.entering(CLASSNAME, "createCheckpointData", new Object[] {key, value});
-		insertCheckpointData(key.getCommaSeparatedKey(), value);
+		if (structuredCheckpoints) {
+			updateCheckpointData(Collections.singletonMap(key, value), (StepStatus) null);
+		} else {
+			insertCheckpointData(key.getCommaSeparatedKey(), value);
+		}
 		logger.exiting(CLASSNAME, "createCheckpointData");
 	}
 
@@ -288,7 +749,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	@Override
 	public CheckpointData getCheckpointData(CheckpointDataKey key) {
 		logger.entering(CLASSNAME, "getCheckpointData", key==null ? "<null>" : key);
-		CheckpointData checkpointData = queryCheckpointData(key.getCommaSeparatedKey());
+		CheckpointData checkpointData = structuredCheckpoints ? queryStepCheckpointData(key) : queryCheckpointData(key.getCommaSeparatedKey());
 		logger.exiting(CLASSNAME, "getCheckpointData", checkpointData==null ? "<null>" : checkpointData);
 		return checkpointData;
 	}
@@ -299,6 +760,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	@Override
 	public void updateCheckpointData(CheckpointDataKey key, CheckpointData value) {
 		logger.entering(CLASSNAME, "updateCheckpointData", new Object[] {key, value});
+		if (structuredCheckpoints) {
+			updateCheckpointData(Collections.singletonMap(key, value), (StepStatus) null);
+			logger.exiting(CLASSNAME, "updateCheckpointData");
+			return;
+		}
 		CheckpointData data = queryCheckpointData(key.getCommaSeparatedKey());
 		if(data != null) {
 			updateCheckpointData(key.getCommaSeparatedKey(), value);
@@ -308,6 +774,169 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		logger.exiting(CLASSNAME, "updateCheckpointData");
 	}
 
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#updateCheckpointData(java.util.Map, com.ibm.jbatch.container.status.StepStatus)
+	 */
+	@Override
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints, StepStatus stepStatus) {
+		logger.entering(CLASSNAME, "updateCheckpointData", new Object[] {checkpoints, stepStatus==null ? "<null>" : stepStatus});
+
+		// Commit boundary, and the step status written below must not be overwritten by an older queued one
+		if (stepStatus != null) {
+			flushPendingUpdates(stepStatus.getStepExecutionId());
+		} else {
+			flushPendingUpdates();
+		}
+
+		List<CheckpointDataKey> keys = new ArrayList<CheckpointDataKey>(checkpoints.size());
+		List<byte[]> values = new ArrayList<byte[]>(checkpoints.size());
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+		boolean localTran = false;
+		try {
+			for (Map.Entry<CheckpointDataKey, CheckpointData> entry : checkpoints.entrySet()) {
+				keys.add(entry.getKey());
+				values.add(serializeObject(entry.getValue()));
+			}
+
+			conn = getConnection();
+
+			// In SE mode we own the connection, so group the statements into one local tran.  In EE mode
+			// the connection may be enlisted in the chunk's global tran, so leave it alone.
+			if (batchConfig.isJ2seMode() && conn.getAutoCommit()) {
+				conn.setAutoCommit(false);
+				localTran = true;
+			}
+
+			if (structuredCheckpoints) {
+				writeStepCheckpointData(conn, keys, values);
+			} else {
+				// Try to update every row first, then insert any that weren't found
+				final List<CheckpointDataKey> updateKeys = keys;
+				final List<byte[]> updateValues = values;
+				boolean[] found = JDBCBatchUpdate.updateRows(conn, UPDATE_CHECKPOINTDATA, keys.size(), new JDBCBatchUpdate.RowBinder() {
+					@Override
+					public void bind(PreparedStatement statement, int row) throws SQLException {
+						statement.setBytes(1, updateValues.get(row));
+						statement.setObject(2, updateKeys.get(row).getCommaSeparatedKey());
+					}
+				});
+
+				statement = conn.prepareStatement(INSERT_CHECKPOINTDATA);
+				boolean insertNeeded = false;
+				for (int i = 0; i < keys.size(); i++) {
+					if (!found[i]) {
+						statement.setObject(1, keys.get(i).getCommaSeparatedKey());
+						statement.setBytes(2, values.get(i));
+						statement.addBatch();
+						insertNeeded = true;
+					}
+				}
+				if (insertNeeded) {
+					statement.executeBatch();
+				}
+				statement.close();
+			}
+
+			if (stepStatus != null) {
+				statement = prepareStepStatusUpdate(conn, stepStatus.getStepExecutionId(), stepStatus);
+				statement.executeUpdate();
+			}
+
+			if (localTran) {
+				conn.commit();
+			}
+		} catch (SQLException e) {
+			rollbackLocalTran(conn, localTran);
+			throw new PersistenceException(e);
+		} catch (IOException e) {
+			rollbackLocalTran(conn, localTran);
+			throw new PersistenceException(e);
+		} finally {
+			if (localTran) {
+				try {
+					conn.setAutoCommit(true);
+				} catch (SQLException e) {
+					logger.fine("Failed to reset autocommit on connection: " + e.getLocalizedMessage());
+				}
+			}
+			cleanupConnection(conn, null, statement);
+		}
+		logger.exiting(CLASSNAME, "updateCheckpointData");
+	}
+
+	/**
+	 * Writes STEPCHECKPOINTDATA rows on the caller's connection, with the database's upsert
+	 * if it has one, or else by updating every row then inserting any that weren't found.
+	 */
+	private void writeStepCheckpointData(Connection conn, List<CheckpointDataKey> keys, List<byte[]> values) throws SQLException {
+		if (keys.isEmpty()) {
+			return;
+		}
+		PreparedStatement statement = null;
+		try {
+			if (checkpointUpsert != null) {
+				statement = conn.prepareStatement(checkpointUpsert);
+				for (int i = 0; i < keys.size(); i++) {
+					setStepCheckpointDataKey(statement, 1, keys.get(i));
+					for (int param = 4; param <= checkpointUpsertParameterCount; param++) {
+						statement.setBytes(param, values.get(i));
+					}
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				return;
+			}
+
+			final List<CheckpointDataKey> updateKeys = keys;
+			final List<byte[]> updateValues = values;
+			boolean[] found = JDBCBatchUpdate.updateRows(conn, UPDATE_STEPCHECKPOINTDATA, keys.size(), new JDBCBatchUpdate.RowBinder() {
+				@Override
+				public void bind(PreparedStatement statement, int row) throws SQLException {
+					statement.setBytes(1, updateValues.get(row));
+					setStepCheckpointDataKey(statement, 2, updateKeys.get(row));
+				}
+			});
+
+			boolean insertNeeded = false;
+			for (int i = 0; i < keys.size(); i++) {
+				if (!found[i]) {
+					if (statement == null) {
+						statement = conn.prepareStatement(INSERT_STEPCHECKPOINTDATA);
+					}
+					setStepCheckpointDataKey(statement, 1, keys.get(i));
+					statement.setBytes(4, values.get(i));
+					statement.addBatch();
+					insertNeeded = true;
+				}
+			}
+			if (insertNeeded) {
+				statement.executeBatch();
+			}
+		} finally {
+			if (statement != null) {
+				statement.close();
+			}
+		}
+	}
+
+	private void setStepCheckpointDataKey(PreparedStatement statement, int index, CheckpointDataKey key) throws SQLException {
+		statement.setLong(index, key.getJobInstanceId());
+		statement.setString(index + 1, key.getStepName());
+		statement.setString(index + 2, key.getBatchDataStreamName());
+	}
+
+	private void rollbackLocalTran(Connection conn, boolean localTran) {
+		if (localTran) {
+			try {
+				conn.rollback();
+			} catch (SQLException e) {
+				logger.warning("Secondary exception rolling back local transaction: " + e.getLocalizedMessage());
+			}
+		}
+	}
+
 
 	/**
 	 * @return the database connection and sets it to the default schema JBATCH or the schema defined in batch-config.
@@ -322,22 +951,118 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			logger.finest("J2EE mode, getting connection from data source");
 			connection = dataSource.getConnection();
 			logger.finest("autocommit="+connection.getAutoCommit());
+			setSchemaOnConnection(connection);
+		} else if (connectionPool != null) {
+			logger.finest("JSE mode, getting pooled connection");
+			connection = connectionPool.getConnection();
 		} else {
-			try {
-				Class.forName(driver);
-			} catch (ClassNotFoundException e) {
-				throw new PersistenceException(e);
-			}
-			logger.finest("JSE mode, getting connection from " + url);
-			connection = DriverManager.getConnection(url, userId, pwd);
-			logger.finest("autocommit="+connection.getAutoCommit());
+			connection = newSEConnection();
 		}
-		setSchemaOnConnection(connection);
 
 		logger.finest("Exiting: " + CLASSNAME + ".getConnection() with conn =" + connection);
 		return connection;
 	}
 
+	/**
+	 * @return a new physical connection from the DriverManager, set to the default schema JBATCH or the schema defined in batch-config.
+	 * @throws SQLException
+	 */
+	private Connection newSEConnection() throws SQLException {
+		try {
+			Class.forName(driver);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		}
+		logger.finest("JSE mode, getting connection from " + url);
+		Connection connection = DriverManager.getConnection(url, userId, pwd);
+		logger.finest("autocommit="+connection.getAutoCommit());
+		setSchemaOnConnection(connection);
+		return connection;
+	}
+
+	private void initConnectionPool(Properties configProps) {
+		Properties props = configProps != null ? configProps : new Properties();
+
+		boolean poolEnabled = Boolean.parseBoolean(props.getProperty(BatchContainerConstants.JDBC_CONNECTION_POOL_ENABLED,
+				BatchContainerConstants.DEFAULT_JDBC_CONNECTION_POOL_ENABLED).trim());
+		if (!poolEnabled) {
+			logger.config("JDBC connection pooling is disabled, a new connection will be obtained for each request");
+			return;
+		}
+
+		int maxSize = Integer.parseInt(props.getProperty(BatchContainerConstants.JDBC_CONNECTION_POOL_MAX_SIZE,
+				BatchContainerConstants.DEFAULT_JDBC_CONNECTION_POOL_MAX_SIZE).trim());
+		long idleTimeout = Long.parseLong(props.getProperty(BatchContainerConstants.JDBC_CONNECTION_POOL_IDLE_TIMEOUT,
+				BatchContainerConstants.DEFAULT_JDBC_CONNECTION_POOL_IDLE_TIMEOUT).trim());
+		long waitTimeout = Long.parseLong(props.getProperty(BatchContainerConstants.JDBC_CONNECTION_POOL_WAIT_TIMEOUT,
+				BatchContainerConstants.DEFAULT_JDBC_CONNECTION_POOL_WAIT_TIMEOUT).trim());
+		int statementCacheSize = Integer.parseInt(props.getProperty(BatchContainerConstants.JDBC_STATEMENT_CACHE_SIZE,
+				BatchContainerConstants.DEFAULT_JDBC_STATEMENT_CACHE_SIZE).trim());
+
+		logger.config("JDBC connection pool settings: maxSize = " + maxSize + ", idleTimeout = " + idleTimeout 
+				+ "s, waitTimeout = " + waitTimeout + "s, statementCacheSize = " + statementCacheSize);
+
+		connectionPool = new JDBCConnectionPool(new JDBCConnectionPool.ConnectionFactory() {
+			@Override
+			public Connection newConnection() throws SQLException {
+				return newSEConnection();
+			}
+		}, maxSize, idleTimeout * 1000, waitTimeout * 1000, statementCacheSize);
+	}
+
+	private void initWriteBehind(Properties configProps) {
+		Properties props = configProps != null ? configProps : new Properties();
+
+		boolean enabled = Boolean.parseBoolean(props.getProperty(BatchContainerConstants.WRITE_BEHIND_ENABLED,
+				BatchContainerConstants.DEFAULT_WRITE_BEHIND_ENABLED).trim());
+		if (!enabled) {
+			return;
+		}
+
+		int maxPending = Integer.parseInt(props.getProperty(BatchContainerConstants.WRITE_BEHIND_MAX_PENDING,
+				BatchContainerConstants.DEFAULT_WRITE_BEHIND_MAX_PENDING).trim());
+		long linger = Long.parseLong(props.getProperty(BatchContainerConstants.WRITE_BEHIND_LINGER,
+				BatchContainerConstants.DEFAULT_WRITE_BEHIND_LINGER).trim());
+
+		logger.config("Write-behind of step status updates enabled: maxPending = " + maxPending + ", linger = " + linger + "ms");
+
+		writeBehind = new WriteBehindQueue(maxPending, linger);
+	}
+
+	/**
+	 * @return the SE-mode write-behind queue, for its metrics, or null if status updates are written synchronously.
+	 */
+	public WriteBehindQueue getWriteBehindQueue() {
+		return writeBehind;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#flushPendingUpdates()
+	 */
+	@Override
+	public void flushPendingUpdates() {
+		if (writeBehind != null) {
+			writeBehind.flush();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#flushPendingUpdates(long)
+	 */
+	@Override
+	public void flushPendingUpdates(long stepExecutionId) {
+		if (writeBehind != null) {
+			writeBehind.flush(String.valueOf(stepExecutionId));
+		}
+	}
+
+	/**
+	 * @return the SE-mode connection pool, for its metrics, or null if connections aren't pooled.
+	 */
+	public JDBCConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
 	/**
 	 * @return the database connection. The schema is set to whatever default its used by the underlying database.
 	 * @throws SQLException
@@ -429,8 +1154,43 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement.setObject(1, key);
 			rs = statement.executeQuery();
 			if (rs.next()) {
-				byte[] buf = rs.getBytes("obj");
-				data = (CheckpointData)deserializeObject(buf);
+				byte[] buf = rs.getBytes("obj");
+				data = (CheckpointData)deserializeObject(buf);
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		} finally {
+			if (objectIn != null) {
+				try {
+					objectIn.close();
+				} catch (IOException e) {
+					throw new PersistenceException(e);
+				}
+			}
+			cleanupConnection(conn, rs, statement);
+		}
+		logger.exiting(CLASSNAME, "queryCheckpointData");
+		return data;	
+	}
+
+
+	private CheckpointData queryStepCheckpointData(CheckpointDataKey key) {
+		logger.entering(CLASSNAME, "queryStepCheckpointData", key);
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		CheckpointData data = null;
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(SELECT_STEPCHECKPOINTDATA);
+			setStepCheckpointDataKey(statement, 1, key);
+			rs = statement.executeQuery();
+			if (rs.next()) {
+				data = (CheckpointData)deserializeObject(rs.getBytes("obj"));
 			}
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -439,20 +1199,12 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (ClassNotFoundException e) {
 			throw new PersistenceException(e);
 		} finally {
-			if (objectIn != null) {
-				try {
-					objectIn.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
 			cleanupConnection(conn, rs, statement);
 		}
-		logger.exiting(CLASSNAME, "queryCheckpointData");
-		return data;	
+		logger.exiting(CLASSNAME, "queryStepCheckpointData");
+		return data;
 	}
 
-
 	/**
 	 * insert data to DB table
 	 * 
@@ -465,17 +1217,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		logger.entering(CLASSNAME, "insertCheckpointData", new Object[] {key, value});
 		Connection conn = null;
 		PreparedStatement statement = null;
-		ByteArrayOutputStream baos = null;
-		ObjectOutputStream oout = null;
 		byte[] b;
 		try {
 			conn = getConnection();
 			statement = conn.prepareStatement(INSERT_CHECKPOINTDATA);
-			baos = new ByteArrayOutputStream();
-			oout = new ObjectOutputStream(baos);
-			oout.writeObject(value);
-
-			b = baos.toByteArray();
+			b = serializeObject((Serializable)value);
 
 			statement.setObject(1, key);
 			statement.setBytes(2, b);
@@ -485,20 +1231,6 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (IOException e) {
 			throw new PersistenceException(e);
 		} finally {
-			if (baos != null) {
-				try {
-					baos.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
-			if (oout != null) {
-				try {
-					oout.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
 			cleanupConnection(conn, null, statement);
 		}
 		logger.exiting(CLASSNAME, "insertCheckpointData");
@@ -517,17 +1249,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		logger.entering(CLASSNAME, "updateCheckpointData", new Object[] {key, value});
 		Connection conn = null;
 		PreparedStatement statement = null;
-		ByteArrayOutputStream baos = null;
-		ObjectOutputStream oout = null;
 		byte[] b;
 		try {
 			conn = getConnection();
 			statement = conn.prepareStatement(UPDATE_CHECKPOINTDATA);
-			baos = new ByteArrayOutputStream();
-			oout = new ObjectOutputStream(baos);
-			oout.writeObject(value);
-
-			b = baos.toByteArray();
+			b = serializeObject(value);
 
 			statement.setBytes(1, b);
 			statement.setObject(2, key);
@@ -537,20 +1263,6 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (IOException e) {
 			throw new PersistenceException(e);
 		} finally {
-			if (baos != null) {
-				try {
-					baos.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
-			if (oout != null) {
-				try {
-					oout.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
 			cleanupConnection(conn, null, statement);
 		}
 		logger.exiting(CLASSNAME, "updateCheckpointData");
@@ -700,7 +1412,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement = conn.prepareStatement("select jobinstanceid from jobinstancedata where name = ? and apptag = ? order by jobinstanceid desc");
 			statement.setObject(1, jobName);
 			statement.setObject(2, appTag);
-			rs = statement.executeQuery();
+			rs = queryPage(statement, start, count);
 			while (rs.next()) {
 				long id = rs.getLong("jobinstanceid");
 				data.add(id);
@@ -712,15 +1424,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			cleanupConnection(conn, rs, statement);
 		}
 
-		if (data.size() > 0){
-			try {
-				return data.subList(start, start+count);
-			}
-			catch (IndexOutOfBoundsException oobEx){
-				return data.subList(start, data.size());
-			}
-		}
-		else return data;
+		return data;
 	}
 
 	@Override
@@ -738,7 +1442,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			conn = getConnection();
 			statement = conn.prepareStatement(SELECT_JOBINSTANCEDATA_IDS);
 			statement.setObject(1, jobName);
-			rs = statement.executeQuery();
+			rs = queryPage(statement, start, count);
 			while (rs.next()) {
 				long id = rs.getLong("jobinstanceid");
 				data.add(id);
@@ -750,15 +1454,26 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			cleanupConnection(conn, rs, statement);
 		}
 
-		if (data.size() > 0){
-			try {
-				return data.subList(start, start+count);
-			}
-			catch (IndexOutOfBoundsException oobEx){
-				return data.subList(start, data.size());
-			}
+		return data;
+	}
+
+	/**
+	 * Runs the query, stopping after the rows of the page and skipping those before it, 
+	 * rather than reading (and keeping) every row in the table.
+	 * 
+	 * @return the result set, positioned before the first row of the page
+	 */
+	private ResultSet queryPage(PreparedStatement statement, int start, int count) throws SQLException {
+		long maxRows = (long) start + count;
+		if (maxRows <= Integer.MAX_VALUE) {
+			statement.setMaxRows((int) maxRows);
+			statement.setFetchSize(Math.min(count, 1000));
+		}
+		ResultSet rs = statement.executeQuery();
+		for (int i = 0; i < start && rs.next(); i++) {
+			// skip the rows before the page
 		}
-		else return data;
+		return rs;
 	}
 
 	@Override
@@ -792,6 +1507,105 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		return data;
 	}
 
+	@Override
+	public Set<String> jobOperatorGetJobNames(String appTag) {
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		Set<String> data = new HashSet<String>();
+
+		try {
+			conn = getConnection();
+
+			// Filter out 'subjob' parallel execution entries which start with the special character
+			final String filter = "not like '" + PartitionedStepBuilder.JOB_ID_SEPARATOR + "%'";
+
+			if (appTag == null) {
+				statement = conn.prepareStatement("select distinct name from jobinstancedata where name " + filter);
+			} else {
+				statement = conn.prepareStatement("select distinct name from jobinstancedata where apptag = ? and name " + filter);
+				statement.setString(1, appTag);
+			}
+			rs = statement.executeQuery();
+			while (rs.next()) {
+				data.add(rs.getString("name"));
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		}
+		finally {
+			cleanupConnection(conn, rs, statement);
+		}
+
+		return data;
+	}
+
+	@Override
+	public List<JobInstance> jobOperatorGetJobInstances(String jobName, String appTag, long beforeInstanceId, int count) {
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		List<JobInstance> data = new ArrayList<JobInstance>();
+
+		try {
+			conn = getConnection();
+			if (appTag == null) {
+				statement = conn.prepareStatement("select jobinstanceid from jobinstancedata where name = ? and jobinstanceid < ? order by jobinstanceid desc");
+			} else {
+				statement = conn.prepareStatement("select jobinstanceid from jobinstancedata where name = ? and jobinstanceid < ? and apptag = ? order by jobinstanceid desc");
+				statement.setString(3, appTag);
+			}
+			statement.setString(1, jobName);
+			statement.setLong(2, beforeInstanceId);
+			rs = queryPage(statement, 0, count);
+			while (rs.next()) {
+				JobInstanceImpl jobInstance = new JobInstanceImpl(rs.getLong("jobinstanceid"));
+				jobInstance.setJobName(jobName);
+				data.add(jobInstance);
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		}
+		finally {
+			cleanupConnection(conn, rs, statement);
+		}
+
+		return data;
+	}
+
+	@Override
+	public List<IJobExecution> jobOperatorGetJobExecutions(String jobName, String appTag, long beforeExecutionId, int count) {
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		List<IJobExecution> data = new ArrayList<IJobExecution>();
+
+		try {
+			conn = getConnection();
+			String query = "select A.jobexecid, A.jobinstanceid, A.createtime, A.starttime, A.endtime, A.updatetime, A.parameters, A.batchstatus, A.exitstatus, B.name " 
+					+ "from executioninstancedata A inner join jobinstancedata B on A.jobinstanceid = B.jobinstanceid where B.name = ? and A.jobexecid < ?";
+			if (appTag == null) {
+				statement = conn.prepareStatement(query + " order by A.jobexecid desc");
+			} else {
+				statement = conn.prepareStatement(query + " and B.apptag = ? order by A.jobexecid desc");
+				statement.setString(3, appTag);
+			}
+			statement.setString(1, jobName);
+			statement.setLong(2, beforeExecutionId);
+			rs = queryPage(statement, 0, count);
+			while (rs.next()) {
+				data.add(readJobExecutionRecord(rs));
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		}
+		finally {
+			cleanupConnection(conn, rs, statement);
+		}
+
+		return data;
+	}
+
 	@Override
 	public Timestamp jobOperatorQueryJobExecutionTimestamp(long key, TimestampType timestampType) {
 
@@ -965,6 +1779,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 	public Map<String, StepExecution> getMostRecentStepExecutionsForJobInstance(long instanceId) {
 
+		flushPendingUpdates();
+
 		Map<String, StepExecution> data = new HashMap<String, StepExecution>();
 
 		Connection conn = null;
@@ -1018,8 +1834,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 					Serializable persistentData = null;
 					byte[] pDataBytes = rs.getBytes("persistentData");
 					if (pDataBytes != null) {
-						objectIn = new TCCLObjectInputStream(new ByteArrayInputStream(pDataBytes));
-						persistentData = (Serializable)objectIn.readObject();
+						persistentData = SerializationHelper.deserializeWithTCCL(pDataBytes);
 					}
 
 					stepEx = new StepExecutionImpl(jobexecid, stepexecid);
@@ -1058,6 +1873,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 	@Override
 	public List<StepExecution> getStepExecutionsForJobExecution(long execid) {
+		flushPendingUpdates();
+
 		Connection conn = null;
 		PreparedStatement statement = null;
 		ResultSet rs = null;
@@ -1108,8 +1925,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 				Serializable persistentData = null;
 				byte[] pDataBytes = rs.getBytes("persistentData");
 				if (pDataBytes != null) {
-					objectIn = new TCCLObjectInputStream(new ByteArrayInputStream(pDataBytes));
-					persistentData = (Serializable)objectIn.readObject();
+					persistentData = SerializationHelper.deserializeWithTCCL(pDataBytes);
 				}
 
 				stepEx = new StepExecutionImpl(jobexecid, stepexecid);
@@ -1149,6 +1965,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 	@Override
 	public StepExecution getStepExecutionByStepExecutionId(long stepExecId) {
+		flushPendingUpdates();
+
 		Connection conn = null;
 		PreparedStatement statement = null;
 		ResultSet rs = null;
@@ -1197,8 +2015,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 				Serializable persistentData = null;
 				byte[] pDataBytes = rs.getBytes("persistentData");
 				if (pDataBytes != null) {
-					objectIn = new TCCLObjectInputStream(new ByteArrayInputStream(pDataBytes));
-					persistentData = (Serializable) objectIn.readObject();
+					persistentData = SerializationHelper.deserializeWithTCCL(pDataBytes);
 				}
 
 				stepEx = new StepExecutionImpl(jobexecid, stepexecid);
@@ -1274,6 +2091,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	public void updateWithFinalExecutionStatusesAndTimestamps(long key,
 			BatchStatus batchStatus, String exitStatus, Timestamp updatets) {
 		// TODO Auto-generated methddod stub
+		flushPendingUpdates();
 		Connection conn = null;
 		PreparedStatement statement = null;
 		ByteArrayOutputStream baos = null;
@@ -1370,10 +2188,6 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			jobEx = (rs.next()) ?  readJobExecutionRecord(rs) : null;
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
-		} catch (ClassNotFoundException e) {
-			throw new PersistenceException(e);
 		} finally {
 			if (objectIn != null) {
 				try {
@@ -1405,10 +2219,6 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			}
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
-		} catch (ClassNotFoundException e) {
-			throw new PersistenceException(e);
 		} finally {
 			if (objectIn != null) {
 				try {
@@ -1422,7 +2232,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		return data;
 	}
 
-	private IJobExecution readJobExecutionRecord(ResultSet rs) throws SQLException, IOException, ClassNotFoundException {
+	private IJobExecution readJobExecutionRecord(ResultSet rs) throws SQLException {
 		if (rs == null) {
 			return null;
 		}
@@ -1435,7 +2245,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		retMe.setEndTime(rs.getTimestamp("endtime"));
 		retMe.setLastUpdateTime(rs.getTimestamp("updatetime"));
 
-		retMe.setJobParameters((Properties)deserializeObject(rs.getBytes("parameters")));
+		// Only deserialized if asked for
+		retMe.setSerializedJobParameters(rs.getBytes("parameters"));
 
 		retMe.setBatchStatus(rs.getString("batchstatus"));
 		retMe.setExitStatus(rs.getString("exitstatus"));
@@ -1500,47 +2311,198 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	public void purge(String apptag) {
 
 		logger.entering(CLASSNAME, "purge", apptag);
-		String deleteJobs = "DELETE FROM jobinstancedata WHERE apptag = ?";
-		String deleteJobExecutions = "DELETE FROM executioninstancedata " 
-				+ "WHERE jobexecid IN (" 
-				+ "SELECT B.jobexecid FROM jobinstancedata A INNER JOIN executioninstancedata B " 
-				+ "ON A.jobinstanceid = B.jobinstanceid " 
-				+ "WHERE A.apptag = ?)";
-		String deleteStepExecutions = "DELETE FROM stepexecutioninstancedata " 
-				+ "WHERE stepexecid IN ("
-				+ "SELECT C.stepexecid FROM jobinstancedata A INNER JOIN executioninstancedata B "
-				+ "ON A.jobinstanceid = B.jobinstanceid INNER JOIN stepexecutioninstancedata C "
-				+ "ON B.jobexecid = C.jobexecid "
-				+ "WHERE A.apptag = ?)";
+
+		PurgeCriteria criteria = new PurgeCriteria();
+		criteria.setApptag(apptag);
+		long purged = 0;
+		long afterInstanceId = 0;
+		List<Long> instanceIds;
+		while (!(instanceIds = getPurgeableJobInstanceIds(criteria, afterInstanceId, purgeBatchSize)).isEmpty()) {
+			purgeJobInstances(instanceIds);
+			purged += instanceIds.size();
+			afterInstanceId = instanceIds.get(instanceIds.size() - 1);
+		}
+
+		logger.exiting(CLASSNAME, "purge", purged);
+	}
+
+	@Override
+	public List<Long> getPurgeableJobInstanceIds(PurgeCriteria criteria, long afterInstanceId, int max) {
+		logger.entering(CLASSNAME, "getPurgeableJobInstanceIds", new Object[] {criteria, afterInstanceId, max});
+
+		// Filter out 'subjob' parallel execution entries, which are purged with their top-level job
+		StringBuilder query = new StringBuilder("select A.jobinstanceid from jobinstancedata A where A.jobinstanceid > ? and A.name not like '")
+				.append(PartitionedStepBuilder.JOB_ID_SEPARATOR).append("%'");
+		if (criteria.getApptag() != null) {
+			query.append(" and A.apptag = ?");
+		}
+		if (criteria.getJobName() != null) {
+			query.append(" and A.name = ?");
+		}
+		if (criteria.getBatchStatuses() != null || criteria.getEndedBefore() != null) {
+			// An instance without executions may be just about to get its first one
+			query.append(" and exists (select B.jobexecid from executioninstancedata B where B.jobinstanceid = A.jobinstanceid)");
+		}
+		if (criteria.getBatchStatuses() != null) {
+			query.append(" and not exists (select B.jobexecid from executioninstancedata B where B.jobinstanceid = A.jobinstanceid and (B.batchstatus is null");
+			if (!criteria.getBatchStatuses().isEmpty()) {
+				query.append(" or B.batchstatus not in (");
+				appendParameters(query, criteria.getBatchStatuses().size());
+				query.append(")");
+			}
+			query.append("))");
+		}
+		if (criteria.getEndedBefore() != null) {
+			query.append(" and not exists (select B.jobexecid from executioninstancedata B where B.jobinstanceid = A.jobinstanceid"
+					+ " and (coalesce(B.endtime, B.updatetime) is null or coalesce(B.endtime, B.updatetime) >= ?))");
+		}
+		query.append(" order by A.jobinstanceid");
 
 		Connection conn = null;
 		PreparedStatement statement = null;
+		ResultSet rs = null;
+		List<Long> data = new ArrayList<Long>();
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement(deleteStepExecutions);
-			statement.setString(1, apptag);
-			statement.executeUpdate();
+			statement = conn.prepareStatement(query.toString());
+			int index = 1;
+			statement.setLong(index++, afterInstanceId);
+			if (criteria.getApptag() != null) {
+				statement.setString(index++, criteria.getApptag());
+			}
+			if (criteria.getJobName() != null) {
+				statement.setString(index++, criteria.getJobName());
+			}
+			if (criteria.getBatchStatuses() != null) {
+				for (BatchStatus batchStatus : criteria.getBatchStatuses()) {
+					statement.setString(index++, batchStatus.name());
+				}
+			}
+			if (criteria.getEndedBefore() != null) {
+				statement.setTimestamp(index++, new Timestamp(criteria.getEndedBefore().getTime()));
+			}
+			rs = queryPage(statement, 0, max);
+			while (rs.next()) {
+				data.add(rs.getLong(1));
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
 
-			statement = conn.prepareStatement(deleteJobExecutions);
-			statement.setString(1, apptag);
-			statement.executeUpdate();
+		logger.exiting(CLASSNAME, "getPurgeableJobInstanceIds", data.size());
+		return data;
+	}
 
-			statement = conn.prepareStatement(deleteJobs);
-			statement.setString(1, apptag);
-			statement.executeUpdate();
+	@Override
+	public long purgeJobInstances(List<Long> jobInstanceIds) {
+		logger.entering(CLASSNAME, "purgeJobInstances", jobInstanceIds);
+
+		// Nothing queued may be written back after its row is gone
+		flushPendingUpdates();
+
+		long deleted = 0;
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		boolean localTran = false;
+		try {
+			conn = getConnection();
+
+			// As in updateCheckpointData(), only group them in a local tran where we own the connection
+			if (batchConfig.isJ2seMode() && conn.getAutoCommit()) {
+				conn.setAutoCommit(false);
+				localTran = true;
+			}
+
+			// Sub-jobs are named after the instance id of their parent, which may itself be a sub-job
+			List<Long> allIds = new ArrayList<Long>(jobInstanceIds);
+			statement = conn.prepareStatement(SELECT_SUBJOB_INSTANCE_IDS);
+			for (int i = 0; i < allIds.size(); i++) {
+				statement.setString(1, PartitionedStepBuilder.JOB_ID_SEPARATOR + allIds.get(i) + PartitionedStepBuilder.JOB_ID_SEPARATOR + "%");
+				rs = statement.executeQuery();
+				while (rs.next()) {
+					allIds.add(rs.getLong(1));
+				}
+				rs.close();
+				rs = null;
+			}
+			statement.close();
+			statement = null;
+
+			for (int from = 0; from < allIds.size(); from += MAX_PURGE_IN_LIST) {
+				List<Long> ids = allIds.subList(from, Math.min(from + MAX_PURGE_IN_LIST, allIds.size()));
+				for (String delete : PURGE_DELETES_BY_JOBINSTANCE) {
+					deleted += deleteByJobInstanceIds(conn, delete, ids);
+				}
+				if (structuredCheckpoints) {
+					deleted += deleteByJobInstanceIds(conn, PURGE_DELETE_STEPCHECKPOINTDATA_BY_JOBINSTANCE, ids);
+				} else {
+					statement = conn.prepareStatement(PURGE_DELETE_CHECKPOINTDATA_BY_JOBINSTANCE);
+					for (long id : ids) {
+						statement.setString(1, id + ",%");
+						statement.addBatch();
+					}
+					for (int count : statement.executeBatch()) {
+						deleted += Math.max(count, 0);
+					}
+					statement.close();
+					statement = null;
+				}
+				deleted += deleteByJobInstanceIds(conn, PURGE_DELETE_JOBINSTANCEDATA, ids);
+			}
 
+			if (localTran) {
+				conn.commit();
+			}
 		} catch (SQLException e) {
+			rollbackLocalTran(conn, localTran);
 			throw new PersistenceException(e);
 		} finally {
+			if (localTran) {
+				try {
+					conn.setAutoCommit(true);
+				} catch (SQLException e) {
+					logger.fine("Failed to reset autocommit on connection: " + e.getLocalizedMessage());
+				}
+			}
+			cleanupConnection(conn, rs, statement);
+		}
 
-			cleanupConnection(conn, null, statement);
+		logger.exiting(CLASSNAME, "purgeJobInstances", deleted);
+		return deleted;
+	}
+
+	private int deleteByJobInstanceIds(Connection conn, String deletePrefix, List<Long> ids) throws SQLException {
+		StringBuilder sql = new StringBuilder(deletePrefix);
+		appendParameters(sql, ids.size());
+		sql.append(")");
+		// Subqueries are left open by their prefix
+		if (deletePrefix.indexOf("(select") > 0) {
+			sql.append(")");
+		}
+		PreparedStatement statement = conn.prepareStatement(sql.toString());
+		try {
+			for (int i = 0; i < ids.size(); i++) {
+				statement.setLong(i + 1, ids.get(i));
+			}
+			return statement.executeUpdate();
+		} finally {
+			statement.close();
 		}
-		logger.exiting(CLASSNAME, "purge");
+	}
 
+	private void appendParameters(StringBuilder sql, int count) {
+		for (int i = 0; i < count; i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
 	}
 
 	@Override
 	public JobStatus getJobStatusFromExecution(long executionId) {
+		flushPendingUpdates();
+
 
 		Connection conn = null;
 		PreparedStatement statement = null;
@@ -1549,15 +2511,24 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("select A.obj from jobstatus A inner join " + 
-					"executioninstancedata B on A.id = B.jobinstanceid where B.jobexecid = ?");
-			statement.setLong(1, executionId);
-			rs = statement.executeQuery();
-			byte[] buf = null;
-			if (rs.next()) {
-				buf = rs.getBytes("obj");
+			if (statusColumns) {
+				statement = conn.prepareStatement(SELECT_JOBSTATUS_COLUMNS_BY_EXECUTION);
+				statement.setLong(1, executionId);
+				rs = statement.executeQuery();
+				if (rs.next()) {
+					retVal = readJobStatusColumns(rs);
+				}
+			} else {
+				statement = conn.prepareStatement("select A.obj from jobstatus A inner join " + 
+						"executioninstancedata B on A.id = B.jobinstanceid where B.jobexecid = ?");
+				statement.setLong(1, executionId);
+				rs = statement.executeQuery();
+				byte[] buf = null;
+				if (rs.next()) {
+					buf = rs.getBytes("obj");
+				}
+				retVal = (JobStatus)deserializeObject(buf);
 			}
-			retVal = (JobStatus)deserializeObject(buf);
 		} catch (Exception e) {
 			throw new PersistenceException(e);
 		} finally {
@@ -1603,15 +2574,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 * @throws IOException
 	 */
 	private byte[] serializeObject(Serializable theObject) throws IOException {
-
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		ObjectOutputStream oout = new ObjectOutputStream(baos);
-		oout.writeObject(theObject);
-		byte[] data = baos.toByteArray();
-		baos.close();
-		oout.close();
-
-		return data;
+		return SerializationHelper.serialize(theObject);
 	}
 
 	/**
@@ -1623,16 +2586,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 * @throws ClassNotFoundException
 	 */
 	private Serializable deserializeObject(byte[] buffer) throws IOException, ClassNotFoundException {
-
-		Serializable theObject = null;
-		ObjectInputStream objectIn = null;
-
-		if (buffer != null) {
-			objectIn = new ObjectInputStream(new ByteArrayInputStream(buffer));
-			theObject = (Serializable)objectIn.readObject();
-			objectIn.close();
-		}
-		return theObject;
+		return SerializationHelper.deserialize(buffer);
 	}
 
 	/* (non-Javadoc)
@@ -1647,7 +2601,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("INSERT INTO jobinstancedata (name, apptag) VALUES(?, ?)", new String[] { "JOBINSTANCEID" } );
+			statement = conn.prepareStatement(INSERT_JOBINSTANCEDATA, new String[] { "JOBINSTANCEID" } );
 			statement.setString(1, name);
 			statement.setString(2, apptag); 
 			statement.executeUpdate();
@@ -1662,7 +2616,115 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} finally {
 			cleanupConnection(conn, rs, statement);
 		}
-		return jobInstance;
+		return jobInstance;
+	}
+
+	@Override
+	public List<RuntimeJobExecution> createPartitionSubJobExecutions(List<String> subJobNames, String apptag, List<Properties> partitionProperties, BatchStatus batchStatus) {
+		logger.entering(CLASSNAME, "createPartitionSubJobExecutions", new Object[] {subJobNames, apptag, batchStatus});
+
+		// Job statuses are written below, so don't let an older queued one overwrite them
+		flushPendingUpdates();
+
+		List<RuntimeJobExecution> jobExecutions = new ArrayList<RuntimeJobExecution>(subJobNames.size());
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		boolean localTran = false;
+		try {
+			conn = getConnection();
+
+			// As in updateCheckpointData(), only group them in a local tran where we own the connection
+			if (batchConfig.isJ2seMode() && conn.getAutoCommit()) {
+				conn.setAutoCommit(false);
+				localTran = true;
+			}
+
+			// Not every driver returns the keys generated by a batch, (Derby only returns the last),
+			// so instances and executions are inserted a row at a time, on the one statement.
+			List<JobInstanceImpl> jobInstances = new ArrayList<JobInstanceImpl>(subJobNames.size());
+			statement = conn.prepareStatement(INSERT_JOBINSTANCEDATA, new String[] { "JOBINSTANCEID" } );
+			for (String subJobName : subJobNames) {
+				statement.setString(1, subJobName);
+				statement.setString(2, apptag);
+				statement.executeUpdate();
+				rs = statement.getGeneratedKeys();
+				if (!rs.next()) {
+					throw new IllegalStateException("No job instance id generated for sub-job: " + subJobName);
+				}
+				JobInstanceImpl jobInstance = new JobInstanceImpl(rs.getLong(1));
+				jobInstance.setJobName(subJobName);
+				jobInstances.add(jobInstance);
+				rs.close();
+			}
+			rs = null;
+			statement.close();
+
+			statement = conn.prepareStatement(INSERT_EXECUTIONINSTANCEDATA, new String[] { "JOBEXECID" });
+			for (int i = 0; i < jobInstances.size(); i++) {
+				JobInstanceImpl jobInstance = jobInstances.get(i);
+				statement.setLong(1, jobInstance.getInstanceId());
+				statement.setTimestamp(2, now);
+				statement.setTimestamp(3, now);
+				statement.setString(4, batchStatus.name());
+				statement.setObject(5, serializeObject(partitionProperties == null ? null : partitionProperties.get(i)));
+				statement.executeUpdate();
+				rs = statement.getGeneratedKeys();
+				if (!rs.next()) {
+					throw new IllegalStateException("No job execution id generated for sub-job: " + jobInstance.getJobName());
+				}
+				RuntimeJobExecution jobExecution = new RuntimeJobExecution(jobInstance, rs.getLong(1));
+				jobExecution.setBatchStatus(batchStatus.name());
+				jobExecution.setCreateTime(now);
+				jobExecution.setLastUpdateTime(now);
+				jobExecutions.add(jobExecution);
+				rs.close();
+			}
+			rs = null;
+			statement.close();
+
+			// The job status keys are the instance ids, so these can be batched
+			statement = conn.prepareStatement(statusColumns ? INSERT_JOBSTATUS_ALL_COLUMNS : "INSERT INTO jobstatus (id, obj) VALUES(?, ?)");
+			for (JobInstanceImpl jobInstance : jobInstances) {
+				JobStatus jobStatus = new JobStatus(jobInstance.getInstanceId());
+				jobStatus.setJobInstance(jobInstance);
+				if (statusColumns) {
+					setJobStatusColumns(statement, jobInstance.getInstanceId(), jobStatus);
+				} else {
+					statement.setLong(1, jobInstance.getInstanceId());
+					statement.setBytes(2, serializeObject(jobStatus));
+				}
+				statement.addBatch();
+			}
+			statement.executeBatch();
+
+			if (localTran) {
+				conn.commit();
+			}
+		} catch (SQLException e) {
+			rollbackLocalTran(conn, localTran);
+			throw new PersistenceException(e);
+		} catch (IOException e) {
+			rollbackLocalTran(conn, localTran);
+			throw new PersistenceException(e);
+		} catch (RuntimeException e) {
+			rollbackLocalTran(conn, localTran);
+			throw e;
+		} finally {
+			if (localTran) {
+				try {
+					conn.setAutoCommit(true);
+				} catch (SQLException e) {
+					logger.fine("Failed to reset autocommit on connection: " + e.getLocalizedMessage());
+				}
+			}
+			cleanupConnection(conn, rs, statement);
+		}
+
+		logger.exiting(CLASSNAME, "createPartitionSubJobExecutions", jobExecutions);
+		return jobExecutions;
 	}
 
 	/* (non-Javadoc)
@@ -1677,7 +2739,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("INSERT INTO jobinstancedata (name, apptag) VALUES(?, ?)", new String[] { "JOBINSTANCEID" } );
+			statement = conn.prepareStatement(INSERT_JOBINSTANCEDATA, new String[] { "JOBINSTANCEID" } );
 			statement.setString(1, name);
 			statement.setString(2, apptag);
 			statement.executeUpdate();
@@ -1716,7 +2778,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		long newJobExecutionId = 0L;
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("INSERT INTO executioninstancedata (jobinstanceid, createtime, updatetime, batchstatus, parameters) VALUES(?, ?, ?, ?, ?)", new String[] { "JOBEXECID" });
+			statement = conn.prepareStatement(INSERT_EXECUTIONINSTANCEDATA, new String[] { "JOBEXECID" });
 			statement.setLong(1, jobInstance.getInstanceId());
 			statement.setTimestamp(2, timestamp);
 			statement.setTimestamp(3, timestamp);
@@ -1974,6 +3036,9 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	@Override
 	public void updateWithFinalPartitionAggregateStepExecution(long rootJobExecutionId, StepContextImpl stepContext) {
 
+		// The partitions' own step executions are summed below
+		flushPendingUpdates();
+
 		String stepName = stepContext.getStepName();
 		
 		Connection conn = null;
@@ -2024,20 +3089,213 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 				writeSkipCount);
 	}	
 
+	@Override
+	public Map<Integer, PartitionState> getPartitionStates(long jobInstanceId, String stepName) {
+		logger.entering(CLASSNAME, "getPartitionStates", new Object[] {jobInstanceId, stepName});
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		Map<Integer, PartitionState> partitionStates = new HashMap<Integer, PartitionState>();
+
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(SELECT_PARTITIONSTATUS);
+			statement.setLong(1, jobInstanceId);
+			statement.setString(2, stepName);
+			rs = statement.executeQuery();
+			while (rs.next()) {
+				PartitionState partitionState = new PartitionState(rs.getInt("partitionnum"));
+				int planPartitionNumber = rs.getInt("planpartitionnum");
+				if (!rs.wasNull()) {
+					partitionState.setPlanPartitionNumber(planPartitionNumber);
+				}
+				String batchStatus = rs.getString("batchstatus");
+				if (batchStatus != null) {
+					partitionState.setBatchStatus(BatchStatus.valueOf(batchStatus));
+				}
+				partitionState.setExitStatus(rs.getString("exitstatus"));
+				partitionState.setStartCount(rs.getInt("startcount"));
+				partitionState.setPersistentUserData(rs.getBytes("persistentdata"));
+				partitionState.setReaderCheckpoint(rs.getBytes("readercheckpoint"));
+				partitionState.setWriterCheckpoint(rs.getBytes("writercheckpoint"));
+				long[] counts = new long[PartitionState.COUNT_METRICS];
+				for (int i = 0; i < counts.length; i++) {
+					counts[i] = rs.getLong(9 + i);
+				}
+				partitionState.setCounts(counts);
+				partitionStates.put(partitionState.getPartitionNumber(), partitionState);
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+
+		logger.exiting(CLASSNAME, "getPartitionStates", partitionStates.size());
+		return partitionStates;
+	}
+
+	@Override
+	public void updatePartitionState(long jobInstanceId, String stepName, PartitionState partitionState) {
+		updatePartitionStates(jobInstanceId, stepName, Collections.singletonList(partitionState));
+	}
+
+	@Override
+	public void updatePartitionStates(long jobInstanceId, String stepName, List<PartitionState> partitionStates) {
+		logger.entering(CLASSNAME, "updatePartitionStates", new Object[] {jobInstanceId, stepName, partitionStates});
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+		boolean localTran = false;
+
+		try {
+			conn = getConnection();
+
+			// As in updateCheckpointData(), only group them in a local tran where we own the connection
+			if (partitionStates.size() > 1 && batchConfig.isJ2seMode() && conn.getAutoCommit()) {
+				conn.setAutoCommit(false);
+				localTran = true;
+			}
+
+			for (PartitionState partitionState : partitionStates) {
+				statement = conn.prepareStatement(UPDATE_PARTITIONSTATUS);
+				setPartitionStateColumns(statement, jobInstanceId, stepName, partitionState);
+				if (statement.executeUpdate() == 0) {
+					// First write for this partition
+					statement.close();
+					statement = conn.prepareStatement(INSERT_PARTITIONSTATUS);
+					setPartitionStateColumns(statement, jobInstanceId, stepName, partitionState);
+					statement.executeUpdate();
+				}
+				statement.close();
+			}
+
+			if (localTran) {
+				conn.commit();
+			}
+		} catch (SQLException e) {
+			rollbackLocalTran(conn, localTran);
+			throw new PersistenceException(e);
+		} finally {
+			if (localTran) {
+				try {
+					conn.setAutoCommit(true);
+				} catch (SQLException e) {
+					logger.fine("Failed to reset autocommit on connection: " + e.getLocalizedMessage());
+				}
+			}
+			cleanupConnection(conn, null, statement);
+		}
+
+		logger.exiting(CLASSNAME, "updatePartitionStates");
+	}
+
+	// Same column order for INSERT_PARTITIONSTATUS and UPDATE_PARTITIONSTATUS
+	private void setPartitionStateColumns(PreparedStatement statement, long jobInstanceId, String stepName, PartitionState partitionState) throws SQLException {
+		statement.setInt(1, partitionState.getPlanPartitionNumber());
+		statement.setString(2, partitionState.getBatchStatus() == null ? null : partitionState.getBatchStatus().name());
+		statement.setString(3, partitionState.getExitStatus());
+		statement.setInt(4, partitionState.getStartCount());
+		statement.setBytes(5, partitionState.getPersistentUserData());
+		statement.setBytes(6, partitionState.getReaderCheckpoint());
+		statement.setBytes(7, partitionState.getWriterCheckpoint());
+		long[] counts = partitionState.getCounts();
+		for (int i = 0; i < PartitionState.COUNT_METRICS; i++) {
+			statement.setLong(8 + i, counts[i]);
+		}
+		statement.setLong(16, jobInstanceId);
+		statement.setString(17, stepName);
+		statement.setInt(18, partitionState.getPartitionNumber());
+	}
+
+	@Override
+	public void deletePartitionStates(long jobInstanceId, String stepName) {
+		logger.entering(CLASSNAME, "deletePartitionStates", new Object[] {jobInstanceId, stepName});
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(DELETE_PARTITIONSTATUS);
+			statement.setLong(1, jobInstanceId);
+			statement.setString(2, stepName);
+			statement.executeUpdate();
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, null, statement);
+		}
+
+		logger.exiting(CLASSNAME, "deletePartitionStates");
+	}
+
+	@Override
+	public void deletePartitionState(long jobInstanceId, String stepName, int partitionNumber) {
+		logger.entering(CLASSNAME, "deletePartitionState", new Object[] {jobInstanceId, stepName, partitionNumber});
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(DELETE_ONE_PARTITIONSTATUS);
+			statement.setLong(1, jobInstanceId);
+			statement.setString(2, stepName);
+			statement.setInt(3, partitionNumber);
+			statement.executeUpdate();
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, null, statement);
+		}
+
+		logger.exiting(CLASSNAME, "deletePartitionState");
+	}
+
+	@Override
+	public void updateWithPartitionStateAggregateStepExecution(long jobInstanceId, StepContextImpl stepContext) {
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		long[] counts = new long[PartitionState.COUNT_METRICS];
+
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(SELECT_PARTITIONSTATUS_SUMS);
+			statement.setLong(1, jobInstanceId);
+			statement.setString(2, stepContext.getStepName());
+			rs = statement.executeQuery();
+			if (rs.next()) {
+				for (int i = 0; i < counts.length; i++) {
+					counts[i] = rs.getLong(1 + i);
+				}
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+
+		updateStepExecutionWithMetrics(stepContext, counts[0], counts[1], counts[2], counts[3], counts[4], counts[5], counts[6], counts[7]);
+	}
+
 	private void updateStepExecutionWithMetrics(StepContextImpl stepContext, long readCount, 
 			long writeCount, long commitCount, long rollbackCount, long readSkipCount, long processSkipCount, long filterCount,
 			long writeSkipCount) {
 
-		long stepExecutionId = stepContext.getInternalStepExecutionId();
-		String batchStatus = stepContext.getBatchStatus() == null ? BatchStatus.STARTING.name() : stepContext.getBatchStatus().name();
-		String exitStatus = stepContext.getExitStatus();
-		String stepName = stepContext.getStepName();
+		final long stepExecutionId = stepContext.getInternalStepExecutionId();
+		final String batchStatus = stepContext.getBatchStatus() == null ? BatchStatus.STARTING.name() : stepContext.getBatchStatus().name();
+		final String exitStatus = stepContext.getExitStatus();
+		final String stepName = stepContext.getStepName();
 		if (logger.isLoggable(Level.FINE)) {
 			logger.fine("batchStatus: " + batchStatus + " | stepName: " + stepName + " | stepExecID: " + stepContext.getStepExecutionId());
 		}
 
-		Timestamp startTime = stepContext.getStartTimeTS();
-		Timestamp endTime = stepContext.getEndTimeTS();
+		final Timestamp startTime = stepContext.getStartTimeTS();
+		final Timestamp endTime = stepContext.getEndTimeTS();
 
 		Serializable persistentData = stepContext.getPersistentUserData();
 
@@ -2047,6 +3305,32 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 							endTime==null ? "<null>" : endTime, persistentData==null ? "<null>" : persistentData});
 		}
 
+		// Serialized here either way, so a queued write has a snapshot of the user's object
+		final byte[] persistentBytes;
+		try {
+			persistentBytes = serializeObject(persistentData);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		}
+
+		final long[] counts = new long[] {readCount, writeCount, commitCount, rollbackCount, readSkipCount, processSkipCount, filterCount, writeSkipCount};
+		if (writeBehind != null) {
+			writeBehind.enqueue(String.valueOf(stepExecutionId), "stepexecution:" + stepExecutionId, new WriteBehindQueue.PendingWrite() {
+				@Override
+				public void write() {
+					writeStepExecution(stepExecutionId, batchStatus, exitStatus, stepName, counts, startTime, endTime, persistentBytes);
+				}
+			});
+		} else {
+			writeStepExecution(stepExecutionId, batchStatus, exitStatus, stepName, counts, startTime, endTime, persistentBytes);
+		}
+	}
+
+	/**
+	 * @param counts read, write, commit, rollback, read skip, process skip, filter and write skip counts, in that order
+	 */
+	private void writeStepExecution(long stepExecutionId, String batchStatus, String exitStatus, String stepName, long[] counts,
+			Timestamp startTime, Timestamp endTime, byte[] persistentBytes) {
 		Connection conn = null;
 		PreparedStatement statement = null;
 		String query = "UPDATE stepexecutioninstancedata SET batchstatus = ?, exitstatus = ?, stepname = ?,  readcount = ?," 
@@ -2059,23 +3343,16 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement.setString(1, batchStatus);
 			statement.setString(2, exitStatus);
 			statement.setString(3, stepName);
-			statement.setLong(4, readCount);
-			statement.setLong(5, writeCount);
-			statement.setLong(6, commitCount);
-			statement.setLong(7, rollbackCount);
-			statement.setLong(8, readSkipCount);
-			statement.setLong(9, processSkipCount);
-			statement.setLong(10, filterCount);
-			statement.setLong(11, writeSkipCount);
+			for (int i = 0; i < counts.length; i++) {
+				statement.setLong(4 + i, counts[i]);
+			}
 			statement.setTimestamp(12, startTime);
 			statement.setTimestamp(13, endTime);
-			statement.setObject(14, serializeObject(persistentData));
+			statement.setObject(14, persistentBytes);
 			statement.setLong(15, stepExecutionId); 
 			statement.executeUpdate();
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
 		} finally {
 			cleanupConnection(conn, null, statement);
 		}
@@ -2092,9 +3369,16 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		JobStatus jobStatus = new JobStatus(jobInstanceId);
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("INSERT INTO jobstatus (id, obj) VALUES(?, ?)");
-			statement.setLong(1, jobInstanceId);
-			statement.setBytes(2, serializeObject(jobStatus));
+			if (statusColumns) {
+				statement = conn.prepareStatement(INSERT_JOBSTATUS_COLUMNS);
+				statement.setLong(1, jobInstanceId);
+				statement.setString(2, jobStatus.getBatchStatus().name());
+				statement.setLong(3, jobStatus.getLatestExecutionId());
+			} else {
+				statement = conn.prepareStatement("INSERT INTO jobstatus (id, obj) VALUES(?, ?)");
+				statement.setLong(1, jobInstanceId);
+				statement.setBytes(2, serializeObject(jobStatus));
+			}
 			statement.executeUpdate();
 
 		} catch (SQLException e) {
@@ -2113,12 +3397,17 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 */
 	@Override
 	public JobStatus getJobStatus(long instanceId) {
+		flushPendingUpdates();
+		return readJobStatus(instanceId);
+	}
+
+	private JobStatus readJobStatus(long instanceId) {
 		logger.entering(CLASSNAME, "getJobStatus", instanceId);
 		Connection conn = null;
 		PreparedStatement statement = null;
 		ResultSet rs = null;
 		RuntimeJobExecution jobExecution = null;
-		String query = "SELECT obj FROM jobstatus WHERE id = ?";
+		String query = statusColumns ? SELECT_JOBSTATUS_COLUMNS : "SELECT obj FROM jobstatus WHERE id = ?";
 		JobStatus jobStatus = null;
 
 		try {
@@ -2127,7 +3416,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement.setLong(1, instanceId);
 			rs = statement.executeQuery();
 			if(rs.next()) {
-				jobStatus = (JobStatus)deserializeObject(rs.getBytes(1));
+				if (statusColumns) {
+					jobStatus = readJobStatusColumns(rs);
+				} else {
+					jobStatus = (JobStatus)deserializeObject(rs.getBytes(1));
+				}
 			}
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -2147,6 +3440,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 */
 	@Override
 	public void updateJobStatus(long instanceId, JobStatus jobStatus) {
+		flushPendingUpdates();
+		writeJobStatus(instanceId, jobStatus);
+	}
+
+	private void writeJobStatus(long instanceId, JobStatus jobStatus) {
 		logger.entering(CLASSNAME, "updateJobStatus", new Object[] {instanceId, jobStatus});
 		if (logger.isLoggable(Level.FINE)) {
 			logger.fine("Updating Job Status to: " + jobStatus.getBatchStatus());
@@ -2155,9 +3453,14 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		PreparedStatement statement = null;
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("UPDATE jobstatus SET obj = ? WHERE id = ?");
-			statement.setBytes(1, serializeObject(jobStatus));
-			statement.setLong(2, instanceId);
+			if (statusColumns) {
+				statement = conn.prepareStatement(UPDATE_JOBSTATUS_COLUMNS);
+				setJobStatusColumns(statement, instanceId, jobStatus);
+			} else {
+				statement = conn.prepareStatement("UPDATE jobstatus SET obj = ? WHERE id = ?");
+				statement.setBytes(1, serializeObject(jobStatus));
+				statement.setLong(2, instanceId);
+			}
 			statement.executeUpdate();
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -2169,6 +3472,163 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		logger.exiting(CLASSNAME, "updateJobStatus");
 	}	
 
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#updateJobBatchStatus(long, jakarta.batch.runtime.BatchStatus)
+	 */
+	@Override
+	public void updateJobBatchStatus(long jobInstanceId, BatchStatus batchStatus) {
+		flushPendingUpdates();
+		if (statusColumns) {
+			updateJobStatusColumns(jobInstanceId, UPDATE_JOBSTATUS_BATCHSTATUS, batchStatus.name());
+		} else {
+			JobStatus js = getJobStatusToUpdate(jobInstanceId);
+			if (BatchStatus.ABANDONED.equals(js.getBatchStatus())) {
+				logger.fine("Don't update batch status for id = " + jobInstanceId + " since it is already ABANDONED"); 
+			}
+			js.setBatchStatus(batchStatus);
+			writeJobStatus(jobInstanceId, js);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#updateJobExecutionStatus(long, jakarta.batch.runtime.BatchStatus, java.lang.String)
+	 */
+	@Override
+	public void updateJobExecutionStatus(long jobInstanceId, BatchStatus batchStatus, String exitStatus) {
+		flushPendingUpdates();
+		if (statusColumns) {
+			updateJobStatusColumns(jobInstanceId, UPDATE_JOBSTATUS_EXECUTIONSTATUS, batchStatus.name(), exitStatus);
+		} else {
+			JobStatus js = getJobStatusToUpdate(jobInstanceId);
+			js.setBatchStatus(batchStatus);
+			js.setExitStatus(exitStatus);
+			writeJobStatus(jobInstanceId, js);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#updateJobCurrentStep(long, java.lang.String)
+	 */
+	@Override
+	public void updateJobCurrentStep(long jobInstanceId, String currentStepName) {
+		// Never deferred, in BLOB mode this is a read-modify-write of the whole JobStatus,
+		// which mustn't race a JobOperator stop or abandon of the same job
+		if (statusColumns) {
+			updateJobStatusColumns(jobInstanceId, UPDATE_JOBSTATUS_CURRENTSTEP, currentStepName);
+		} else {
+			JobStatus js = getJobStatusToUpdate(jobInstanceId);
+			js.setCurrentStepId(currentStepName);
+			writeJobStatus(jobInstanceId, js);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#updateJobStatusWithNewExecution(long, long)
+	 */
+	@Override
+	public void updateJobStatusWithNewExecution(long jobInstanceId, long newExecutionId) {
+		flushPendingUpdates();
+		if (statusColumns) {
+			updateJobStatusColumns(jobInstanceId, UPDATE_JOBSTATUS_NEWEXECUTION, newExecutionId, BatchStatus.STARTING.name());
+		} else {
+			JobStatus js = getJobStatusToUpdate(jobInstanceId);
+			js.setRestartOn(null);
+			js.setLatestExecutionId(newExecutionId);
+			js.setBatchStatus(BatchStatus.STARTING);
+			writeJobStatus(jobInstanceId, js);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#updateJobStatusFromJSLStop(long, java.lang.String)
+	 */
+	@Override
+	public void updateJobStatusFromJSLStop(long jobInstanceId, String restartOn) {
+		flushPendingUpdates();
+		if (statusColumns) {
+			updateJobStatusColumns(jobInstanceId, UPDATE_JOBSTATUS_RESTARTON, restartOn);
+		} else {
+			JobStatus js = getJobStatusToUpdate(jobInstanceId);
+			js.setRestartOn(restartOn);
+			writeJobStatus(jobInstanceId, js);
+		}
+	}
+
+	private JobStatus getJobStatusToUpdate(long jobInstanceId) {
+		JobStatus js = readJobStatus(jobInstanceId);
+		if (js == null) {
+			throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
+		}
+		return js;
+	}
+
+	/**
+	 * Runs an UPDATE of some of the JOBSTATUS columns, without reading the row first.
+	 * 
+	 * @param jobInstanceId bound to the last parameter
+	 * @param sql the update statement
+	 * @param values bound to the other parameters, in order
+	 */
+	private void updateJobStatusColumns(long jobInstanceId, String sql, Object... values) {
+		logger.entering(CLASSNAME, "updateJobStatusColumns", new Object[] {jobInstanceId, sql});
+		Connection conn = null;
+		PreparedStatement statement = null;
+		int updateCount = 0;
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(sql);
+			int i = 1;
+			for (Object value : values) {
+				if (value instanceof Long) {
+					statement.setLong(i++, (Long) value);
+				} else {
+					statement.setString(i++, (String) value);
+				}
+			}
+			statement.setLong(i, jobInstanceId);
+			updateCount = statement.executeUpdate();
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, null, statement);
+		}
+		if (updateCount == 0) {
+			throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
+		}
+		logger.exiting(CLASSNAME, "updateJobStatusColumns");
+	}
+
+	private void setJobStatusColumns(PreparedStatement statement, long instanceId, JobStatus jobStatus) throws SQLException {
+		JobInstanceImpl jobInstance = jobStatus.getJobInstance();
+		statement.setString(1, jobStatus.getBatchStatus().name());
+		statement.setString(2, jobStatus.getExitStatus());
+		statement.setString(3, jobStatus.getCurrentStepId());
+		statement.setLong(4, jobStatus.getLatestExecutionId());
+		statement.setString(5, jobStatus.getRestartOn());
+		statement.setString(6, jobInstance == null ? null : jobInstance.getJobName());
+		statement.setString(7, jobInstance == null ? null : jobInstance.getJobXML());
+		statement.setLong(8, instanceId);
+	}
+
+	private JobStatus readJobStatusColumns(ResultSet rs) throws SQLException {
+		long instanceId = rs.getLong("id");
+		JobStatus jobStatus = new JobStatus(instanceId);
+		jobStatus.setBatchStatus(BatchStatus.valueOf(rs.getString("batchstatus")));
+		jobStatus.setExitStatus(rs.getString("exitstatus"));
+		jobStatus.setCurrentStepId(rs.getString("currentstepid"));
+		jobStatus.setLatestExecutionId(rs.getLong("latestexecid"));
+		jobStatus.setRestartOn(rs.getString("restarton"));
+
+		String jobName = rs.getString("jobname");
+		String jobXML = rs.getString("jobxml");
+		if (jobName != null || jobXML != null) {
+			JobInstanceImpl jobInstance = new JobInstanceImpl(instanceId, jobXML);
+			jobInstance.setJobName(jobName);
+			jobStatus.setJobInstance(jobInstance);
+		}
+		return jobStatus;
+	}
+
 	/* (non-Javadoc)
 	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#createStepStatus(long)
 	 */
@@ -2180,9 +3640,17 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		StepStatus stepStatus = new StepStatus(stepExecId);
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("INSERT INTO stepstatus (id, obj) VALUES(?, ?)");
-			statement.setLong(1, stepExecId);
-			statement.setBytes(2, serializeObject(stepStatus));
+			if (statusColumns) {
+				statement = conn.prepareStatement(INSERT_STEPSTATUS_COLUMNS);
+				statement.setLong(1, stepExecId);
+				statement.setString(2, stepStatus.getBatchStatus().name());
+				statement.setInt(3, stepStatus.getStartCount());
+				statement.setLong(4, stepStatus.getLastRunStepExecutionId());
+			} else {
+				statement = conn.prepareStatement("INSERT INTO stepstatus (id, obj) VALUES(?, ?)");
+				statement.setLong(1, stepExecId);
+				statement.setBytes(2, serializeObject(stepStatus));
+			}
 			statement.executeUpdate();
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -2200,12 +3668,14 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 */
 	@Override
 	public StepStatus getStepStatus(long instanceId, String stepName) {
+		flushPendingUpdates();
+
 		logger.entering(CLASSNAME, "getStepStatus", new Object[] {instanceId, stepName});
 		Connection conn = null;
 		PreparedStatement statement = null;
 		ResultSet rs = null;
 		RuntimeJobExecution jobExecution = null;
-		String query = "SELECT obj FROM stepstatus WHERE id IN ("
+		String query = statusColumns ? SELECT_STEPSTATUS_COLUMNS_BY_STEPNAME : "SELECT obj FROM stepstatus WHERE id IN ("
 				+ "SELECT B.stepexecid FROM executioninstancedata A INNER JOIN stepexecutioninstancedata B ON A.jobexecid = B.jobexecid " 
 				+ "WHERE A.jobinstanceid = ? and B.stepname = ?)";
 		StepStatus stepStatus = null;
@@ -2217,7 +3687,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement.setString(2, stepName);
 			rs = statement.executeQuery();
 			if(rs.next()) {
-				stepStatus = (StepStatus)deserializeObject(rs.getBytes(1));
+				if (statusColumns) {
+					stepStatus = readStepStatusColumns(rs);
+				} else {
+					stepStatus = (StepStatus)deserializeObject(rs.getBytes(1));
+				}
 			}
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -2236,7 +3710,21 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#updateStepStatus(long, com.ibm.jbatch.container.status.StepStatus)
 	 */
 	@Override
-	public void updateStepStatus(long stepExecutionId, StepStatus stepStatus) {
+	public void updateStepStatus(final long stepExecutionId, StepStatus stepStatus) {
+		if (writeBehind != null) {
+			final StepStatus snapshot = new StepStatus(stepStatus);
+			writeBehind.enqueue(String.valueOf(stepExecutionId), "stepstatus:" + stepExecutionId, new WriteBehindQueue.PendingWrite() {
+				@Override
+				public void write() {
+					writeStepStatus(stepExecutionId, snapshot);
+				}
+			});
+		} else {
+			writeStepStatus(stepExecutionId, stepStatus);
+		}
+	}
+
+	private void writeStepStatus(long stepExecutionId, StepStatus stepStatus) {
 		logger.entering(CLASSNAME, "updateStepStatus", new Object[] {stepExecutionId, stepStatus});
 
 		if (logger.isLoggable(Level.FINE)) {
@@ -2246,9 +3734,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		PreparedStatement statement = null;
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("UPDATE stepstatus SET obj = ? WHERE id = ?");
-			statement.setBytes(1, serializeObject(stepStatus));
-			statement.setLong(2, stepExecutionId);
+			statement = prepareStepStatusUpdate(conn, stepExecutionId, stepStatus);
 			statement.executeUpdate();
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -2260,6 +3746,57 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		logger.exiting(CLASSNAME, "updateStepStatus");
 	}
 
+	/**
+	 * @return a statement ready to execute that writes the whole StepStatus, in whichever form STATUS_SCHEMA_MODE calls for
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	private PreparedStatement prepareStepStatusUpdate(Connection conn, long stepExecutionId, StepStatus stepStatus) throws SQLException, IOException {
+		PreparedStatement statement = null;
+		if (statusColumns) {
+			statement = conn.prepareStatement(UPDATE_STEPSTATUS_COLUMNS);
+			setStepStatusColumns(statement, stepExecutionId, stepStatus);
+		} else {
+			statement = conn.prepareStatement(UPDATE_STEPSTATUS);
+			statement.setBytes(1, serializeObject(stepStatus));
+			statement.setLong(2, stepExecutionId);
+		}
+		return statement;
+	}
+
+	private void setStepStatusColumns(PreparedStatement statement, long stepExecutionId, StepStatus stepStatus) throws SQLException {
+		statement.setString(1, stepStatus.getBatchStatus().name());
+		statement.setString(2, stepStatus.getExitStatus());
+		statement.setInt(3, stepStatus.getStartCount());
+		statement.setBytes(4, stepStatus.getPersistentUserDataBytes());
+		if (stepStatus.getNumPartitions() == null) {
+			statement.setNull(5, Types.INTEGER);
+		} else {
+			statement.setInt(5, stepStatus.getNumPartitions());
+		}
+		statement.setLong(6, stepStatus.getLastRunStepExecutionId());
+		statement.setLong(7, stepExecutionId);
+	}
+
+	private StepStatus readStepStatusColumns(ResultSet rs) throws SQLException {
+		StepStatus stepStatus = new StepStatus(rs.getLong("id"));
+		stepStatus.setBatchStatus(BatchStatus.valueOf(rs.getString("batchstatus")));
+		stepStatus.setExitStatus(rs.getString("exitstatus"));
+		stepStatus.setStartCount(rs.getInt("startcount"));
+
+		byte[] persistentData = rs.getBytes("persistentdata");
+		if (persistentData != null) {
+			stepStatus.setPersistentUserData(new PersistentDataWrapper(persistentData));
+		}
+
+		int numPartitions = rs.getInt("numpartitions");
+		if (!rs.wasNull()) {
+			stepStatus.setNumPartitions(numPartitions);
+		}
+		stepStatus.setLastRunStepExecutionId(rs.getLong("laststepexecid"));
+		return stepStatus;
+	}
+
 	/* (non-Javadoc)
 	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#getTagName(long)
 	 */
@@ -2317,8 +3854,12 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 	@Override
 	public void shutdown() throws BatchContainerServiceException {
-		// TODO Auto-generated method stub
-
+		if (writeBehind != null) {
+			writeBehind.shutdown();
+		}
+		if (connectionPool != null) {
+			connectionPool.shutdown();
+		}
 	}
 
 
@@ -24,6 +24,8 @@ package com.ibm.jbatch.container.services.impl;
 	 final String JOBINSTANCEDATA_TABLE = "JOBINSTANCEDATA";
 	 final String EXECUTIONINSTANCEDATA_TABLE = "EXECUTIONINSTANCEDATA";
 	 final String STEPEXECUTIONINSTANCEDATA_TABLE = "STEPEXECUTIONINSTANCEDATA";
+	 final String PARTITIONSTATUS_TABLE = "PARTITIONSTATUS";
+	 final String STEPCHECKPOINTDATA_TABLE = "STEPCHECKPOINTDATA";
 	
 	 final String CREATE_TAB_JOBSTATUS = "CREATE TABLE JOBSTATUS("
 			+ "id BIGINT CONSTRAINT JOBSTATUS_PK PRIMARY KEY," 
@@ -68,6 +70,34 @@ package com.ibm.jbatch.container.services.impl;
 			+ "endTime TIMESTAMP,"
 			+ "persistentData BLOB," 
 			+ "CONSTRAINT JOBEXEC_STEPEXEC_FK FOREIGN KEY (jobexecid) REFERENCES EXECUTIONINSTANCEDATA (jobexecid) ON DELETE CASCADE)";
+	 final String CREATE_TAB_PARTITIONSTATUS = "CREATE TABLE PARTITIONSTATUS("
+			+ "jobinstanceid BIGINT NOT NULL,"
+			+ "stepname VARCHAR(512) NOT NULL,"
+			+ "partitionnum INTEGER NOT NULL,"
+			+ "planpartitionnum INTEGER,"
+			+ "batchstatus VARCHAR(512),"
+			+ "exitstatus VARCHAR(512),"
+			+ "startcount INTEGER,"
+			+ "persistentdata BLOB,"
+			+ "readercheckpoint BLOB,"
+			+ "writercheckpoint BLOB,"
+			+ "readcount BIGINT,"
+			+ "writecount BIGINT,"
+			+ "commitcount BIGINT,"
+			+ "rollbackcount BIGINT,"
+			+ "readskipcount BIGINT,"
+			+ "processskipcount BIGINT,"
+			+ "filtercount BIGINT,"
+			+ "writeskipcount BIGINT,"
+			+ "CONSTRAINT PARTITIONSTATUS_PK PRIMARY KEY (jobinstanceid, stepname, partitionnum),"
+			+ "CONSTRAINT PARTITIONSTATUS_JOBINST_FK FOREIGN KEY (jobinstanceid) REFERENCES JOBINSTANCEDATA (jobinstanceid) ON DELETE CASCADE)";
+	 final String CREATE_TAB_STEPCHECKPOINTDATA = "CREATE TABLE STEPCHECKPOINTDATA("
+			+ "jobinstanceid BIGINT NOT NULL,"
+			+ "stepname VARCHAR(512) NOT NULL,"
+			+ "type VARCHAR(128) NOT NULL,"
+			+ "obj BLOB,"
+			+ "CONSTRAINT STEPCHECKPOINTDATA_PK PRIMARY KEY (jobinstanceid, stepname, type),"
+			+ "CONSTRAINT STEPCHECKPOINTDATA_JOBINST_FK FOREIGN KEY (jobinstanceid) REFERENCES JOBINSTANCEDATA (jobinstanceid) ON DELETE CASCADE)";
 	
 	 final String INSERT_JOBSTATUS = "insert into jobstatus values(?, ?)";
 	
@@ -94,14 +124,136 @@ package com.ibm.jbatch.container.services.impl;
 	 final String CREATE_CHECKPOINTDATA_INDEX = "create index chk_index on checkpointdata(id)";
 	
 	 final String DELETE_CHECKPOINTDATA = "delete from checkpointdata where id = ?";
+
+	 final String SELECT_ALL_CHECKPOINTDATA = "select id, obj from checkpointdata";
+
+	// Purge, each DELETE followed by the list of job instance ids, children before parents
+	 final String[] PURGE_DELETES_BY_JOBINSTANCE = {
+			"delete from stepstatus where id in (select S.stepexecid from stepexecutioninstancedata S inner join executioninstancedata E on S.jobexecid = E.jobexecid where E.jobinstanceid in (",
+			"delete from stepexecutioninstancedata where jobexecid in (select jobexecid from executioninstancedata where jobinstanceid in (",
+			"delete from executioninstancedata where jobinstanceid in (",
+			"delete from jobstatus where id in (",
+			"delete from partitionstatus where jobinstanceid in ("
+	};
+
+	 final String PURGE_DELETE_STEPCHECKPOINTDATA_BY_JOBINSTANCE = "delete from stepcheckpointdata where jobinstanceid in (";
+
+	 final String PURGE_DELETE_JOBINSTANCEDATA = "delete from jobinstancedata where jobinstanceid in (";
+
+	 final String PURGE_DELETE_CHECKPOINTDATA_BY_JOBINSTANCE = "delete from checkpointdata where id like ?";
+
+	 final String SELECT_SUBJOB_INSTANCE_IDS = "select jobinstanceid from jobinstancedata where name like ?";
+
+	// CHECKPOINT_SCHEMA_MODE=STRUCTURED, where checkpoint data is keyed by its own columns rather than a single id string
+	 final String SELECT_STEPCHECKPOINTDATA = "select obj from stepcheckpointdata where jobinstanceid = ? and stepname = ? and type = ?";
+
+	 final String UPDATE_STEPCHECKPOINTDATA = "update stepcheckpointdata set obj = ? where jobinstanceid = ? and stepname = ? and type = ?";
+
+	 final String INSERT_STEPCHECKPOINTDATA = "insert into stepcheckpointdata (jobinstanceid, stepname, type, obj) values(?, ?, ?, ?)";
+
+	// Single statement upserts, each taking the key columns then obj (twice for Oracle)
+	 final String UPSERT_STEPCHECKPOINTDATA_POSTGRESQL = "insert into stepcheckpointdata (jobinstanceid, stepname, type, obj) values(?, ?, ?, ?) "
+			+ "on conflict (jobinstanceid, stepname, type) do update set obj = excluded.obj";
+
+	 final String UPSERT_STEPCHECKPOINTDATA_MYSQL = "insert into stepcheckpointdata (jobinstanceid, stepname, type, obj) values(?, ?, ?, ?) "
+			+ "on duplicate key update obj = values(obj)";
+
+	 final String UPSERT_STEPCHECKPOINTDATA_DB2 = "merge into stepcheckpointdata t "
+			+ "using (values (cast(? as bigint), cast(? as varchar(512)), cast(? as varchar(128)), cast(? as blob(2G)))) s (jobinstanceid, stepname, type, obj) "
+			+ "on t.jobinstanceid = s.jobinstanceid and t.stepname = s.stepname and t.type = s.type "
+			+ "when matched then update set obj = s.obj "
+			+ "when not matched then insert (jobinstanceid, stepname, type, obj) values (s.jobinstanceid, s.stepname, s.type, s.obj)";
+
+	 final String UPSERT_STEPCHECKPOINTDATA_SQLSERVER = "merge into stepcheckpointdata with (holdlock) t "
+			+ "using (values (?, ?, ?, ?)) s (jobinstanceid, stepname, type, obj) "
+			+ "on t.jobinstanceid = s.jobinstanceid and t.stepname = s.stepname and t.type = s.type "
+			+ "when matched then update set obj = s.obj "
+			+ "when not matched then insert (jobinstanceid, stepname, type, obj) values (s.jobinstanceid, s.stepname, s.type, s.obj);";
+
+	 final String UPSERT_STEPCHECKPOINTDATA_ORACLE = "merge into stepcheckpointdata t "
+			+ "using (select ? jobinstanceid, ? stepname, ? type from dual) s "
+			+ "on (t.jobinstanceid = s.jobinstanceid and t.stepname = s.stepname and t.type = s.type) "
+			+ "when matched then update set t.obj = ? "
+			+ "when not matched then insert (jobinstanceid, stepname, type, obj) values (s.jobinstanceid, s.stepname, s.type, ?)";
+
+	// Indexes for the JobOperator queries, by job name and by parent row
+	 final String JOBINSTANCEDATA_NAME_INDEX = "JOBINST_NAME_INDEX";
+	 final String CREATE_JOBINSTANCEDATA_NAME_INDEX = "create index jobinst_name_index on jobinstancedata(name, jobinstanceid)";
+
+	 final String JOBINSTANCEDATA_APPTAG_INDEX = "JOBINST_APPTAG_INDEX";
+	 final String CREATE_JOBINSTANCEDATA_APPTAG_INDEX = "create index jobinst_apptag_index on jobinstancedata(apptag)";
+
+	 final String EXECUTIONINSTANCEDATA_JOBINSTANCEID_INDEX = "JOBEXEC_JOBINST_INDEX";
+	 final String CREATE_EXECUTIONINSTANCEDATA_JOBINSTANCEID_INDEX = "create index jobexec_jobinst_index on executioninstancedata(jobinstanceid)";
+
+	 final String STEPEXECUTIONINSTANCEDATA_JOBEXECID_INDEX = "STEPEXEC_JOBEXEC_INDEX";
+	 final String CREATE_STEPEXECUTIONINSTANCEDATA_JOBEXECID_INDEX = "create index stepexec_jobexec_index on stepexecutioninstancedata(jobexecid)";
+
+	// STATUS_SCHEMA_MODE=COLUMNS, where each JobStatus and StepStatus field has its own column rather than living in the obj BLOB
+	 final String[] JOBSTATUS_STATUS_COLUMNS = {
+			"batchstatus VARCHAR(32)",
+			"exitstatus VARCHAR(512)",
+			"currentstepid VARCHAR(512)",
+			"latestexecid BIGINT",
+			"restarton VARCHAR(512)",
+			"jobname VARCHAR(512)",
+			"jobxml CLOB" };
+	 final String[] STEPSTATUS_STATUS_COLUMNS = {
+			"batchstatus VARCHAR(32)",
+			"exitstatus VARCHAR(512)",
+			"startcount INTEGER",
+			"persistentdata BLOB",
+			"numpartitions INTEGER",
+			"laststepexecid BIGINT" };
+
+	 final String SELECT_UNMIGRATED_JOBSTATUS = "select id, obj from jobstatus where batchstatus is null and obj is not null and id > ? order by id";
+	 final String SELECT_UNMIGRATED_STEPSTATUS = "select id, obj from stepstatus where batchstatus is null and obj is not null and id > ? order by id";
+
+	 final String INSERT_JOBSTATUS_COLUMNS = "insert into jobstatus (id, batchstatus, latestexecid) values(?, ?, ?)";
+	// Same column order as UPDATE_JOBSTATUS_COLUMNS
+	 final String INSERT_JOBSTATUS_ALL_COLUMNS = "insert into jobstatus (batchstatus, exitstatus, currentstepid, latestexecid, restarton, jobname, jobxml, id) values(?, ?, ?, ?, ?, ?, ?, ?)";
+	 final String UPDATE_JOBSTATUS_COLUMNS = "update jobstatus set obj = null, batchstatus = ?, exitstatus = ?, currentstepid = ?, latestexecid = ?, restarton = ?, jobname = ?, jobxml = ? where id = ?";
+	 final String SELECT_JOBSTATUS_COLUMNS = "select id, batchstatus, exitstatus, currentstepid, latestexecid, restarton, jobname, jobxml from jobstatus where id = ?";
+	 final String SELECT_JOBSTATUS_COLUMNS_BY_EXECUTION = "select A.id, A.batchstatus, A.exitstatus, A.currentstepid, A.latestexecid, A.restarton, A.jobname, A.jobxml from jobstatus A inner join "
+			+ "executioninstancedata B on A.id = B.jobinstanceid where B.jobexecid = ?";
+	 final String UPDATE_JOBSTATUS_BATCHSTATUS = "update jobstatus set batchstatus = ? where id = ?";
+	 final String UPDATE_JOBSTATUS_EXECUTIONSTATUS = "update jobstatus set batchstatus = ?, exitstatus = ? where id = ?";
+	 final String UPDATE_JOBSTATUS_CURRENTSTEP = "update jobstatus set currentstepid = ? where id = ?";
+	 final String UPDATE_JOBSTATUS_NEWEXECUTION = "update jobstatus set restarton = null, latestexecid = ?, batchstatus = ? where id = ?";
+	 final String UPDATE_JOBSTATUS_RESTARTON = "update jobstatus set restarton = ? where id = ?";
+
+	 final String INSERT_STEPSTATUS_COLUMNS = "insert into stepstatus (id, batchstatus, startcount, laststepexecid) values(?, ?, ?, ?)";
+	 final String SELECT_STEPSTATUS_COLUMNS_BY_STEPNAME = "select id, batchstatus, exitstatus, startcount, persistentdata, numpartitions, laststepexecid from stepstatus where id in ("
+			+ "select B.stepexecid from executioninstancedata A inner join stepexecutioninstancedata B on A.jobexecid = B.jobexecid "
+			+ "where A.jobinstanceid = ? and B.stepname = ?)";
+	 final String UPDATE_STEPSTATUS_COLUMNS = "update stepstatus set obj = null, batchstatus = ?, exitstatus = ?, startcount = ?, persistentdata = ?, numpartitions = ?, laststepexecid = ? where id = ?";
+
+	 final String SELECT_PARTITIONSTATUS = "select partitionnum, planpartitionnum, batchstatus, exitstatus, startcount, persistentdata, readercheckpoint, writercheckpoint, "
+			+ "readcount, writecount, commitcount, rollbackcount, readskipcount, processskipcount, filtercount, writeskipcount "
+			+ "from partitionstatus where jobinstanceid = ? and stepname = ?";
+	 final String UPDATE_PARTITIONSTATUS = "update partitionstatus set planpartitionnum = ?, batchstatus = ?, exitstatus = ?, startcount = ?, persistentdata = ?, readercheckpoint = ?, writercheckpoint = ?, "
+			+ "readcount = ?, writecount = ?, commitcount = ?, rollbackcount = ?, readskipcount = ?, processskipcount = ?, filtercount = ?, writeskipcount = ? "
+			+ "where jobinstanceid = ? and stepname = ? and partitionnum = ?";
+	 final String INSERT_PARTITIONSTATUS = "insert into partitionstatus (planpartitionnum, batchstatus, exitstatus, startcount, persistentdata, readercheckpoint, writercheckpoint, "
+			+ "readcount, writecount, commitcount, rollbackcount, readskipcount, processskipcount, filtercount, writeskipcount, "
+			+ "jobinstanceid, stepname, partitionnum) values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	 final String DELETE_PARTITIONSTATUS = "delete from partitionstatus where jobinstanceid = ? and stepname = ?";
+	 final String DELETE_ONE_PARTITIONSTATUS = "delete from partitionstatus where jobinstanceid = ? and stepname = ? and partitionnum = ?";
+	 final String SELECT_PARTITIONSTATUS_SUMS = "select SUM(readcount) readcount, SUM(writecount) writecount, SUM(commitcount) commitcount, SUM(rollbackcount) rollbackcount, "
+			+ "SUM(readskipcount) readskipcount, SUM(processskipcount) processskipcount, SUM(filtercount) filtercount, SUM(writeskipcount) writeskipcount "
+			+ "from partitionstatus where jobinstanceid = ? and stepname = ?";
 	
 	// JOB OPERATOR QUERIES
 	 final String INSERT_JOBINSTANCEDATA = "insert into jobinstancedata (name, apptag) values(?, ?)";
 	
 	 final String INSERT_EXECUTIONDATA = "insert into executionInstanceData (jobinstanceid, parameters) values(?, ?)";
+
+	 final String INSERT_EXECUTIONINSTANCEDATA = "insert into executioninstancedata (jobinstanceid, createtime, updatetime, batchstatus, parameters) values(?, ?, ?, ?, ?)";
 	
 	 final String SELECT_JOBINSTANCEDATA_COUNT = "select count(jobinstanceid) as jobinstancecount from jobinstancedata where name = ?";
 	
+	 final String SELECT_JOBINSTANCEDATA_ID = "select jobinstanceid from jobinstancedata where jobinstanceid = ?";
+
 	 final String SELECT_JOBINSTANCEDATA_IDS = "select jobinstanceid from jobinstancedata where name = ? order by jobinstanceid desc";
 	
 	 final String SELECT_JOBINSTANCEDATA_NAMES = "select name from jobinstancedata where apptag = ?";
@@ -77,49 +77,23 @@ public class JobStatusManagerImpl implements IJobStatusManagerService {
 
     @Override
     public void updateJobBatchStatus(long jobInstanceId, BatchStatus batchStatus) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
-            throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
-        }
-        if (BatchStatus.ABANDONED.equals(js.getBatchStatus())) {
-        	logger.fine("Don't update batch status for id = " + jobInstanceId + " since it is already ABANDONED"); 
-        }
-        js.setBatchStatus(batchStatus);
-        persistJobStatus(jobInstanceId, js);
+        _persistenceManager.updateJobBatchStatus(jobInstanceId, batchStatus);
     }
 
     @Override
     public void updateJobExecutionStatus(long jobInstanceId, BatchStatus batchStatus, String exitStatus) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
-            throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
-        }
-        js.setBatchStatus(batchStatus);
-        js.setExitStatus(exitStatus);
-        persistJobStatus(jobInstanceId, js);
+        _persistenceManager.updateJobExecutionStatus(jobInstanceId, batchStatus, exitStatus);
     }
 
     @Override
     public void updateJobCurrentStep(long jobInstanceId, String currentStepName) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
-            throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
-        }
-        js.setCurrentStepId(currentStepName);
-        persistJobStatus(jobInstanceId, js);        
+        _persistenceManager.updateJobCurrentStep(jobInstanceId, currentStepName);
     }
 
 
     @Override
     public void updateJobStatusWithNewExecution(long jobInstanceId, long newExecutionId) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
-            throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
-        }
-        js.setRestartOn(null);
-        js.setLatestExecutionId(newExecutionId);
-        js.setBatchStatus(BatchStatus.STARTING);
-        persistJobStatus(jobInstanceId, js);                
+        _persistenceManager.updateJobStatusWithNewExecution(jobInstanceId, newExecutionId);
     }
 
     private void persistJobStatus(long jobInstanceId, JobStatus newJobStatus) throws BatchContainerServiceException {       
@@ -167,15 +141,7 @@ public class JobStatusManagerImpl implements IJobStatusManagerService {
     }
 
     @Override
-    /*
-     * Inefficient, since we've already updated the status to stopped.. would be better to have a single update.
-     */
     public void updateJobStatusFromJSLStop(long jobInstanceId, String restartOn) throws BatchContainerServiceException {       
-        JobStatus js = getJobStatus(jobInstanceId);        
-        if (js == null) {
-            throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
-        }
-        js.setRestartOn(restartOn);
-        persistJobStatus(jobInstanceId, js);   
+        _persistenceManager.updateJobStatusFromJSLStop(jobInstanceId, restartOn);
     }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.services.impl;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.services.IBatchConfig;
+import com.ibm.jbatch.spi.services.ParallelTaskResult;
+
+/**
+ * Runs each task (job, partition or split flow) on a new virtual thread, so thousands of
+ * partitions mostly blocked on JDBC or file I/O don't need thousands of OS threads.
+ *
+ * Virtual threads are looked up reflectively, since we build for older JVMs; where they
+ * aren't available we fall back to a growable pool of platform threads.
+ *
+ * With a concurrency limit, a task beyond the limit waits (on its own, cheap, virtual
+ * thread) until another finishes.  Since a job waits for its partitions and split flows to
+ * finish while holding its own permit, the limit must comfortably exceed the number of
+ * jobs running at once, just as the bounded pool's size must.
+ */
+public class VirtualThreadPoolServiceImpl extends AbstractThreadPoolServiceImpl implements BatchContainerConstants {
+
+	private final static String sourceClass = VirtualThreadPoolServiceImpl.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final String THREAD_NAME_PREFIX = "jbatch-virtual-";
+	private static final String TRACE_PINNED_THREADS_PROP = "jdk.tracePinnedThreads";
+
+	private String defaultMaxConcurrency = "-1";
+
+	private boolean virtual = false;
+	private int maxConcurrency = -1;
+	private Semaphore permits = null;
+
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final AtomicInteger peakRunning = new AtomicInteger();
+
+	public VirtualThreadPoolServiceImpl() {
+		super();
+	}
+
+	@Override
+	public void init(IBatchConfig batchConfig) throws BatchContainerServiceException {
+		String method = "init";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method);	}
+
+		String maxConcurrencyStr = batchConfig.getConfigProperties().getProperty(VIRTUAL_THREADPOOL_MAX_CONCURRENCY, defaultMaxConcurrency);
+		maxConcurrency = Integer.parseInt(maxConcurrencyStr.trim());
+		if (maxConcurrency > 0) {
+			permits = new Semaphore(maxConcurrency, true);
+		}
+
+		// Only read by the JVM before the first virtual thread starts, so set it before creating ours
+		String tracePinned = batchConfig.getConfigProperties().getProperty(VIRTUAL_THREADPOOL_TRACE_PINNED);
+		if (tracePinned != null && !tracePinned.trim().isEmpty() && System.getProperty(TRACE_PINNED_THREADS_PROP) == null) {
+			System.setProperty(TRACE_PINNED_THREADS_PROP, tracePinned.trim());
+		}
+
+		executorService = createVirtualThreadExecutor();
+		virtual = executorService != null;
+		if (!virtual) {
+			logger.warning("Virtual threads are not available in this JVM, running batch work on platform threads instead");
+			executorService = Executors.newCachedThreadPool(new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable r) {
+					return new Thread(r, "jbatch-" + count.incrementAndGet());
+				}
+			});
+		}
+
+		logger.config("Batch thread pool using " + (virtual ? "virtual" : "platform") + " threads, max concurrency: "
+				+ (maxConcurrency > 0 ? String.valueOf(maxConcurrency) : "unlimited")
+				+ ", " + TRACE_PINNED_THREADS_PROP + "=" + System.getProperty(TRACE_PINNED_THREADS_PROP, "<unset>"));
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method);	}
+	}
+
+	/**
+	 * Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())
+	 *
+	 * @return the executor, or null if this JVM doesn't have virtual threads
+	 */
+	private ExecutorService createVirtualThreadExecutor() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+			ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (Exception e) {
+			// e.g. preview feature not enabled
+			logger.log(Level.FINE, "Could not create a virtual thread executor", e);
+			return null;
+		}
+	}
+
+	@Override
+	public void executeTask(Runnable work, Object config) {
+		super.executeTask(limit(work), config);
+	}
+
+	@Override
+	public ParallelTaskResult executeParallelTask(Runnable work, Object config) {
+		String method = "executeParallelTask";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method);  }
+
+		Future<?> result = executorService.submit(limit(work));
+		ParallelTaskResult taskResult = new JSEResultAdapter(result);
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method);   }
+
+		return taskResult;
+	}
+
+	private Runnable limit(final Runnable work) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				if (permits != null) {
+					waiting.incrementAndGet();
+					try {
+						permits.acquire();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new BatchContainerServiceException("Interrupted waiting to run batch work", e);
+					} finally {
+						waiting.decrementAndGet();
+					}
+				}
+				int nowRunning = running.incrementAndGet();
+				int peak = peakRunning.get();
+				while (nowRunning > peak && !peakRunning.compareAndSet(peak, nowRunning)) {
+					peak = peakRunning.get();
+				}
+				try {
+					work.run();
+				} finally {
+					running.decrementAndGet();
+					if (permits != null) {
+						permits.release();
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return true if tasks run on virtual threads, false if on the platform thread fallback
+	 */
+	public boolean isVirtual() {
+		return virtual;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public int getRunningCount() {
+		return running.get();
+	}
+
+	/**
+	 * @return number of tasks waiting for the concurrency limit
+	 */
+	public int getWaitingCount() {
+		return waiting.get();
+	}
+
+	public int getPeakRunningCount() {
+		return peakRunning.get();
+	}
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.services.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.exception.PersistenceException;
+
+/**
+ * Defers status writes which don't need to be durable right away, so they're taken off
+ * the batch thread and done by a background writer instead.
+ *
+ * Each write is queued under a key naming the row it updates, and since every write
+ * replaces the whole row (or column), a newer write for the same key simply replaces the
+ * pending one.  The writer waits up to 'linger' after the first write arrives, so a burst
+ * of updates (e.g. a step moving through STARTING and STARTED) turns into one write.
+ *
+ * All writes, whether done by the writer or by a caller flushing, happen while holding a
+ * single lock, so a write can never be overtaken by an older one for the same row.  A
+ * synchronous write of a row which may also have been queued must call {@link #flush()}
+ * first for the same reason.
+ *
+ * When the queue is full, the caller flushes it itself rather than waiting on the writer.
+ *
+ * Callers may be virtual threads, so the locks are ReentrantLocks rather than monitors,
+ * which would pin the carrier thread while a caller waits on a database round-trip.
+ *
+ * Each write also names its owner, e.g. the step execution it belongs to.  A failed write
+ * is logged, and rethrown only by the next {@link #flush(String)} of that same owner, so
+ * one job never fails because of another job's write.
+ */
+public class WriteBehindQueue {
+
+	private final static String CLASSNAME = WriteBehindQueue.class.getName();
+	private final static Logger logger = Logger.getLogger(CLASSNAME);
+
+	/**
+	 * A deferred write, which must already hold a snapshot of whatever it writes.
+	 */
+	public interface PendingWrite {
+		public void write();
+	}
+
+	private final int maxPending;
+	private final long lingerMillis;
+
+	// Guards the queue state below
+	private final ReentrantLock lock = new ReentrantLock();
+	// Signalled when a write is queued, or on shutdown
+	private final Condition changed = lock.newCondition();
+	private LinkedHashMap<String, QueuedWrite> pending = new LinkedHashMap<String, QueuedWrite>();
+	private boolean writing = false;
+	private boolean shutdown = false;
+	// First failure of each owner, since its last flush
+	private final Map<String, RuntimeException> failures = new HashMap<String, RuntimeException>();
+
+	// Held while writing a batch, so batches are written one at a time and in order
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	private final Thread writer;
+
+	private final AtomicLong enqueuedCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong writeCount = new AtomicLong();
+	private final AtomicLong flushCount = new AtomicLong();
+	private final AtomicLong overflowCount = new AtomicLong();
+	private final AtomicLong totalFlushNanos = new AtomicLong();
+	private final AtomicLong maxFlushNanos = new AtomicLong();
+
+	/**
+	 * @param maxPending most distinct rows that may be waiting to be written
+	 * @param lingerMillis how long the writer waits for more writes to coalesce
+	 */
+	public WriteBehindQueue(int maxPending, long lingerMillis) {
+		this.maxPending = maxPending;
+		this.lingerMillis = lingerMillis;
+		writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				runWriter();
+			}
+		}, "jbatch-write-behind");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	private static class QueuedWrite {
+		private final String owner;
+		private final PendingWrite write;
+
+		private QueuedWrite(String owner, PendingWrite write) {
+			this.owner = owner;
+			this.write = write;
+		}
+	}
+
+	/**
+	 * Queues a write, replacing any write still pending for the same key.
+	 *
+	 * @param owner whose {@link #flush(String)} reports the write failing
+	 * @param key the row written
+	 */
+	public void enqueue(String owner, String key, PendingWrite write) {
+		boolean stopped;
+		boolean full = false;
+		lock.lock();
+		try {
+			stopped = shutdown;
+			if (!stopped) {
+				enqueuedCount.incrementAndGet();
+				if (pending.put(key, new QueuedWrite(owner, write)) != null) {
+					coalescedCount.incrementAndGet();
+				}
+				full = pending.size() >= maxPending;
+				changed.signalAll();
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if (stopped) {
+			writeLock.lock();
+			try {
+				write.write();
+			} finally {
+				writeLock.unlock();
+			}
+		} else if (full) {
+			overflowCount.incrementAndGet();
+			flush(owner);
+		}
+	}
+
+	/**
+	 * Writes everything queued so far on the calling thread, after waiting for any write
+	 * already underway.  Failures are left for their owners' flushes.
+	 */
+	public void flush() {
+		flush(null);
+	}
+
+	/**
+	 * Writes everything queued so far on the calling thread, after waiting for any write
+	 * already underway.
+	 *
+	 * @param owner as passed to {@link #enqueue(String, String, PendingWrite)}, or null
+	 * @throws RuntimeException the failure of any of the owner's writes since its last flush,
+	 * typically a {@link PersistenceException}
+	 */
+	public void flush(String owner) {
+		lock.lock();
+		try {
+			if (pending.isEmpty() && !writing && (owner == null || !failures.containsKey(owner))) {
+				return;
+			}
+		} finally {
+			lock.unlock();
+		}
+		writeLock.lock();
+		try {
+			writeBatch(drain());
+		} finally {
+			doneWriting();
+			writeLock.unlock();
+		}
+		if (owner != null) {
+			RuntimeException e;
+			lock.lock();
+			try {
+				e = failures.remove(owner);
+			} finally {
+				lock.unlock();
+			}
+			if (e != null) {
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Flushes, and stops the writer.  Writes enqueued afterwards are done synchronously.
+	 */
+	public void shutdown() {
+		lock.lock();
+		try {
+			shutdown = true;
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		flush();
+		lock.lock();
+		try {
+			// Already logged, and nobody is left to report them to
+			failures.clear();
+		} finally {
+			lock.unlock();
+		}
+		logger.config("Write-behind queue shut down, " + this);
+	}
+
+	private void runWriter() {
+		while (true) {
+			try {
+				if (!awaitWrites()) {
+					return;
+				}
+			} catch (InterruptedException e) {
+				return;
+			}
+			// Drain only once we hold writeLock, so a caller flushing can't write anything newer first
+			writeLock.lock();
+			try {
+				writeBatch(drain());
+			} finally {
+				doneWriting();
+				writeLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Waits for something to write, then lingers a little so more can coalesce.
+	 *
+	 * @return false on shutdown
+	 */
+	private boolean awaitWrites() throws InterruptedException {
+		lock.lock();
+		try {
+			while (pending.isEmpty()) {
+				if (shutdown) {
+					return false;
+				}
+				changed.await();
+			}
+			long deadline = System.currentTimeMillis() + lingerMillis;
+			long remaining = lingerMillis;
+			while (remaining > 0 && !shutdown && !pending.isEmpty() && pending.size() < maxPending) {
+				changed.await(remaining, TimeUnit.MILLISECONDS);
+				remaining = deadline - System.currentTimeMillis();
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private List<QueuedWrite> drain() {
+		lock.lock();
+		try {
+			List<QueuedWrite> batch = new ArrayList<QueuedWrite>(pending.values());
+			pending = new LinkedHashMap<String, QueuedWrite>();
+			writing = !batch.isEmpty();
+			return batch;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Only once any failure has been recorded, so flush() can't miss it
+	private void doneWriting() {
+		lock.lock();
+		try {
+			writing = false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void addFailure(String owner, RuntimeException e) {
+		lock.lock();
+		try {
+			if (!failures.containsKey(owner)) {
+				failures.put(owner, e);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Caller holds writeLock
+	private void writeBatch(List<QueuedWrite> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		// One bad write shouldn't lose the rest, they're already off the queue
+		for (QueuedWrite queued : batch) {
+			try {
+				queued.write.write();
+				writeCount.incrementAndGet();
+			} catch (RuntimeException e) {
+				logger.log(Level.SEVERE, "Write-behind of status update for " + queued.owner + " failed", e);
+				addFailure(queued.owner, e);
+			}
+		}
+
+		long elapsed = System.nanoTime() - start;
+		flushCount.incrementAndGet();
+		totalFlushNanos.addAndGet(elapsed);
+		long max = maxFlushNanos.get();
+		while (elapsed > max && !maxFlushNanos.compareAndSet(max, elapsed)) {
+			max = maxFlushNanos.get();
+		}
+	}
+
+	/**
+	 * @return number of rows waiting to be written
+	 */
+	public int getQueueDepth() {
+		lock.lock();
+		try {
+			return pending.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getMaxPending() {
+		return maxPending;
+	}
+
+	public long getEnqueuedCount() {
+		return enqueuedCount.get();
+	}
+
+	/**
+	 * @return number of writes which replaced one still pending for the same row
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	public long getWriteCount() {
+		return writeCount.get();
+	}
+
+	/**
+	 * @return number of batches written, by the writer or by callers flushing
+	 */
+	public long getFlushCount() {
+		return flushCount.get();
+	}
+
+	/**
+	 * @return number of times the queue filled up and the caller had to flush it
+	 */
+	public long getOverflowCount() {
+		return overflowCount.get();
+	}
+
+	public long getTotalFlushLatencyMillis() {
+		return totalFlushNanos.get() / 1000000L;
+	}
+
+	public long getMaxFlushLatencyMillis() {
+		return maxFlushNanos.get() / 1000000L;
+	}
+
+	/**
+	 * @return a snapshot of the queue metrics, keyed by name
+	 */
+	public Map<String, Long> getStatistics() {
+		Map<String, Long> stats = new LinkedHashMap<String, Long>();
+		stats.put("maxPending", (long) maxPending);
+		stats.put("queueDepth", (long) getQueueDepth());
+		stats.put("enqueuedCount", getEnqueuedCount());
+		stats.put("coalescedCount", getCoalescedCount());
+		stats.put("writeCount", getWriteCount());
+		stats.put("flushCount", getFlushCount());
+		stats.put("overflowCount", getOverflowCount());
+		stats.put("totalFlushLatencyMillis", getTotalFlushLatencyMillis());
+		stats.put("maxFlushLatencyMillis", getMaxFlushLatencyMillis());
+		return stats;
+	}
+
+	@Override
+	public String toString() {
+		return "WriteBehindQueue[maxPending=" + maxPending + ", depth=" + getQueueDepth() + ", enqueued=" + getEnqueuedCount()
+				+ ", coalesced=" + getCoalescedCount() + ", writes=" + getWriteCount() + ", flushes=" + getFlushCount()
+				+ ", overflows=" + getOverflowCount() + ", totalFlushLatencyMillis=" + getTotalFlushLatencyMillis()
+				+ ", maxFlushLatencyMillis=" + getMaxFlushLatencyMillis() + "]";
+	}
+}
@@ -37,9 +37,13 @@ import com.ibm.jbatch.container.services.IJobStatusManagerService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.servicesmanager.ServiceTypes.Name;
 import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.container.util.ChunkInstrumentationHelper;
+import com.ibm.jbatch.container.util.SerializationHelper;
 import com.ibm.jbatch.spi.BatchSPIManager;
 import com.ibm.jbatch.spi.BatchSPIManager.PlatformMode;
+import com.ibm.jbatch.spi.ChunkInstrumentation;
 import com.ibm.jbatch.spi.DatabaseConfigurationBean;
+import com.ibm.jbatch.spi.SerializationCodec;
 import com.ibm.jbatch.spi.ServiceRegistry;
 import com.ibm.jbatch.spi.services.IBatchArtifactFactory;
 import com.ibm.jbatch.spi.services.IBatchServiceBase;
@@ -112,6 +116,8 @@ public class ServicesManagerImpl implements BatchContainerConstants, ServicesMan
 					initServiceImplOverrides();
 					initDatabaseConfig();
 					initPlatformSEorEE();
+					initSerializationCodec();
+					initChunkInstrumentation();
 
 					isInited = Boolean.TRUE;
 					
@@ -281,6 +287,39 @@ public class ServicesManagerImpl implements BatchContainerConstants, ServicesMan
 	}
 
 
+	private void initSerializationCodec() {
+		SerializationCodec codec = BatchSPIManager.getInstance().getSerializationCodec();
+		if (codec != null) {
+			logger.config("Serialization codec set via SPI, do NOT load from properties file.");
+		} else {
+			String codecName = batchContainerProps.getProperty(SERIALIZATION_CODEC, DEFAULT_SERIALIZATION_CODEC);
+			try {
+				codec = SerializationHelper.lookupCodec(codecName);
+			} catch (IllegalArgumentException e) {
+				throw new BatchContainerServiceException(e);
+			}
+		}
+		SerializationHelper.setCodec(codec);
+
+		String threshold = batchContainerProps.getProperty(SERIALIZATION_COMPRESSION_THRESHOLD, DEFAULT_SERIALIZATION_COMPRESSION_THRESHOLD);
+		SerializationHelper.setCompressionThreshold(Integer.parseInt(threshold.trim()));
+	}
+
+	private void initChunkInstrumentation() {
+		ChunkInstrumentation instrumentation = BatchSPIManager.getInstance().getChunkInstrumentation();
+		if (instrumentation != null) {
+			logger.config("Chunk instrumentation set via SPI, do NOT load from properties file.");
+		} else {
+			String instrumentationName = batchContainerProps.getProperty(CHUNK_INSTRUMENTATION, DEFAULT_CHUNK_INSTRUMENTATION);
+			try {
+				instrumentation = ChunkInstrumentationHelper.lookupInstrumentation(instrumentationName, batchContainerProps);
+			} catch (IllegalArgumentException e) {
+				throw new BatchContainerServiceException(e);
+			}
+		}
+		ChunkInstrumentationHelper.setInstrumentation(instrumentation);
+	}
+
 	// Push hardened config value onto batchConfigImpl and cache the value in a field.
 	private void initPlatformSEorEE() {
 		String seMode = serviceImplClassNames.get(Name.JAVA_EDITION_IS_SE_DUMMY_SERVICE);
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.status;
+
+import jakarta.batch.runtime.BatchStatus;
+
+/**
+ * Everything kept about one partition of a step run with lightweight partitions: its status,
+ * checkpoints and persistent user data, and its metrics summed over all its executions.
+ */
+public class PartitionState {
+
+	/**
+	 * Number of counts, see {@link #getCounts()}
+	 */
+	public static final int COUNT_METRICS = 8;
+
+	private final int partitionNumber;
+	private int planPartitionNumber;
+	private BatchStatus batchStatus;
+	private String exitStatus;
+	private int startCount;
+	private byte[] persistentUserData;
+	private byte[] readerCheckpoint;
+	private byte[] writerCheckpoint;
+	private long[] counts = new long[COUNT_METRICS];
+
+	public PartitionState(int partitionNumber) {
+		this.partitionNumber = partitionNumber;
+		this.planPartitionNumber = partitionNumber;
+	}
+
+	public int getPartitionNumber() {
+		return partitionNumber;
+	}
+
+	/**
+	 * @return the partition of the plan whose properties this partition runs with, which is
+	 * another one if this partition was split off from it
+	 */
+	public int getPlanPartitionNumber() {
+		return planPartitionNumber;
+	}
+
+	public void setPlanPartitionNumber(int planPartitionNumber) {
+		this.planPartitionNumber = planPartitionNumber;
+	}
+
+	public BatchStatus getBatchStatus() {
+		return batchStatus;
+	}
+
+	public void setBatchStatus(BatchStatus batchStatus) {
+		this.batchStatus = batchStatus;
+	}
+
+	public String getExitStatus() {
+		return exitStatus;
+	}
+
+	public void setExitStatus(String exitStatus) {
+		this.exitStatus = exitStatus;
+	}
+
+	public int getStartCount() {
+		return startCount;
+	}
+
+	public void setStartCount(int startCount) {
+		this.startCount = startCount;
+	}
+
+	public byte[] getPersistentUserData() {
+		return persistentUserData;
+	}
+
+	public void setPersistentUserData(byte[] persistentUserData) {
+		this.persistentUserData = persistentUserData;
+	}
+
+	public byte[] getReaderCheckpoint() {
+		return readerCheckpoint;
+	}
+
+	public void setReaderCheckpoint(byte[] readerCheckpoint) {
+		this.readerCheckpoint = readerCheckpoint;
+	}
+
+	public byte[] getWriterCheckpoint() {
+		return writerCheckpoint;
+	}
+
+	public void setWriterCheckpoint(byte[] writerCheckpoint) {
+		this.writerCheckpoint = writerCheckpoint;
+	}
+
+	/**
+	 * @return read, write, commit, rollback, read skip, process skip, filter and write skip counts, in that order
+	 */
+	public long[] getCounts() {
+		return counts;
+	}
+
+	public void setCounts(long[] counts) {
+		this.counts = counts;
+	}
+
+	@Override
+	public String toString() {
+		return "partition: " + partitionNumber + ",planPartition: " + planPartitionNumber + ",batchStatus: " + batchStatus + ",exitStatus: " + exitStatus + ",startCount: " + startCount;
+	}
+}
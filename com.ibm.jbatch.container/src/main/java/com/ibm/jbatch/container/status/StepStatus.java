@@ -16,14 +16,13 @@
  */
 package com.ibm.jbatch.container.status;
 
-import java.io.ByteArrayInputStream;
 import java.io.Serializable;
 
 import jakarta.batch.runtime.BatchStatus;
 
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.persistence.PersistentDataWrapper;
-import com.ibm.jbatch.container.util.TCCLObjectInputStream;
+import com.ibm.jbatch.container.util.SerializationHelper;
 
 public class StepStatus implements Serializable {
 
@@ -48,6 +47,19 @@ public class StepStatus implements Serializable {
         this.batchStatus = BatchStatus.STARTING;
     }
 
+    /**
+     * Copies the current state of another StepStatus.
+     */
+    public StepStatus(StepStatus other) {
+        this.stepExecutionId = other.stepExecutionId;
+        this.batchStatus = other.batchStatus;
+        this.exitStatus = other.exitStatus;
+        this.startCount = other.startCount;
+        this.persistentUserData = other.persistentUserData;
+        this.numPartitions = other.numPartitions;
+        this.lastRunStepExecutionId = other.lastRunStepExecutionId;
+    }
+
     public void setBatchStatus(BatchStatus batchStatus) {
         this.batchStatus = batchStatus;
     }
@@ -80,6 +92,10 @@ public class StepStatus implements Serializable {
         startCount++;
     }
 
+    public void setStartCount(int startCount) {
+        this.startCount = startCount;
+    }
+
     public void setExitStatus(String exitStatus) {
         this.exitStatus = exitStatus;
     }
@@ -95,14 +111,11 @@ public class StepStatus implements Serializable {
     public Serializable getPersistentUserData() {
         if (this.persistentUserData != null) {
             byte[] persistentToken = this.persistentUserData.getPersistentDataBytes();
-            ByteArrayInputStream persistentByteArrayInputStream = new ByteArrayInputStream(persistentToken);
-            TCCLObjectInputStream persistentOIS = null;
 
             Serializable persistentObject = null;
 
             try {
-                persistentOIS = new TCCLObjectInputStream(persistentByteArrayInputStream);
-                persistentObject = (Serializable) persistentOIS.readObject();
+                persistentObject = SerializationHelper.deserializeWithTCCL(persistentToken);
             } catch (Exception e) {
                 throw new BatchContainerRuntimeException(e);
             }
@@ -113,6 +126,13 @@ public class StepStatus implements Serializable {
         }
     }
 
+    /**
+     * @return the persistent user data still in its serialized form, or null if there is none
+     */
+    public byte[] getPersistentUserDataBytes() {
+        return persistentUserData == null ? null : persistentUserData.getPersistentDataBytes();
+    }
+
     public Integer getNumPartitions() {
         return numPartitions;
     }
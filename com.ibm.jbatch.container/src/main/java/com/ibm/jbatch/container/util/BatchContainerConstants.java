@@ -27,14 +27,112 @@ public interface BatchContainerConstants {
 	public static final String BOUNDED_THREADPOOL_MAX_POOL_SIZE = "BOUNDED_THREADPOOL_MAX_POOL_SIZE";
 	public static final String THREADPOOL_JNDI_LOCATION = "THREADPOOL_JNDI_LOCATION";
 
+	// Virtual thread pool, most tasks running at once (-1 = no limit) and jdk.tracePinnedThreads setting
+	public static final String VIRTUAL_THREADPOOL_MAX_CONCURRENCY = "VIRTUAL_THREADPOOL_MAX_CONCURRENCY";
+	public static final String VIRTUAL_THREADPOOL_TRACE_PINNED = "VIRTUAL_THREADPOOL_TRACE_PINNED";
+
+	// Priority and fairness aware scheduling of jobs ahead of the thread pool
+	public static final String SCHEDULER_ENABLED = "SCHEDULER_ENABLED";
+	public static final String SCHEDULER_MAX_CONCURRENT_JOBS = "SCHEDULER_MAX_CONCURRENT_JOBS";
+	public static final String SCHEDULER_PRIORITY_CLASSES = "SCHEDULER_PRIORITY_CLASSES";
+	public static final String SCHEDULER_DEFAULT_PRIORITY_CLASS = "SCHEDULER_DEFAULT_PRIORITY_CLASS";
+	public static final String SCHEDULER_APPTAG_PRIORITY_CLASSES = "SCHEDULER_APPTAG_PRIORITY_CLASSES";
+	public static final String SCHEDULER_APPTAG_QUOTAS = "SCHEDULER_APPTAG_QUOTAS";
+	public static final String SCHEDULER_MAX_PARALLEL_PER_PARENT = "SCHEDULER_MAX_PARALLEL_PER_PARENT";
+
+	// Purging the job repository in bounded batches, and periodic purging by age
+	public static final String PURGE_BATCH_SIZE = "PURGE_BATCH_SIZE";
+	public static final String PURGE_BATCH_DELAY = "PURGE_BATCH_DELAY";
+	public static final String RETENTION_ENABLED = "RETENTION_ENABLED";
+	public static final String RETENTION_MAX_AGE_HOURS = "RETENTION_MAX_AGE_HOURS";
+	public static final String RETENTION_BATCH_STATUSES = "RETENTION_BATCH_STATUSES";
+	public static final String RETENTION_INTERVAL_MINUTES = "RETENTION_INTERVAL_MINUTES";
+
+	// Ids of the executions which most recently ended, remembered for completion futures
+	public static final String COMPLETED_EXECUTION_HISTORY_SIZE = "COMPLETED_EXECUTION_HISTORY_SIZE";
+
+	// Timing the phases of the chunk loop
+	public static final String CHUNK_INSTRUMENTATION = "CHUNK_INSTRUMENTATION";
+	public static final String CHUNK_INSTRUMENTATION_LOG_INTERVAL = "CHUNK_INSTRUMENTATION_LOG_INTERVAL";
+	public static final String CHUNK_INSTRUMENTATION_JMX = "CHUNK_INSTRUMENTATION_JMX";
+
+	// Sampling the progress of running steps
+	public static final String STEP_PROGRESS_SAMPLE_INTERVAL = "STEP_PROGRESS_SAMPLE_INTERVAL";
+	public static final String STEP_PROGRESS_LOG = "STEP_PROGRESS_LOG";
+
 	public static final String JDBC_DRIVER = "JDBC_DRIVER";
 	public static final String JDBC_URL = "JDBC_URL";
 	public static final String DB_USER = "DB_USER";
 	public static final String DB_PASSWORD = "DB_PWD";
 	public static final String DB_SCHEMA = "DB_SCHEMA";
+
+	// SE-mode JDBC connection pool, timeouts in seconds
+	public static final String JDBC_CONNECTION_POOL_ENABLED = "JDBC_CONNECTION_POOL_ENABLED";
+	public static final String JDBC_CONNECTION_POOL_MAX_SIZE = "JDBC_CONNECTION_POOL_MAX_SIZE";
+	public static final String JDBC_CONNECTION_POOL_IDLE_TIMEOUT = "JDBC_CONNECTION_POOL_IDLE_TIMEOUT";
+	public static final String JDBC_CONNECTION_POOL_WAIT_TIMEOUT = "JDBC_CONNECTION_POOL_WAIT_TIMEOUT";
+	public static final String JDBC_STATEMENT_CACHE_SIZE = "JDBC_STATEMENT_CACHE_SIZE";
+
+	// Codec for persisted BLOBs, and the size in bytes at which they're compressed
+	public static final String SERIALIZATION_CODEC = "SERIALIZATION_CODEC";
+	public static final String SERIALIZATION_COMPRESSION_THRESHOLD = "SERIALIZATION_COMPRESSION_THRESHOLD";
+
+	// Layout of the JOBSTATUS and STEPSTATUS tables, either a serialized BLOB or one column per field
+	public static final String STATUS_SCHEMA_MODE = "STATUS_SCHEMA_MODE";
+	public static final String STATUS_SCHEMA_MODE_BLOB = "BLOB";
+	public static final String STATUS_SCHEMA_MODE_COLUMNS = "COLUMNS";
+
+	// Layout of the checkpoint data, either keyed by a single id string or by its own columns
+	public static final String CHECKPOINT_SCHEMA_MODE = "CHECKPOINT_SCHEMA_MODE";
+	public static final String CHECKPOINT_SCHEMA_MODE_LEGACY = "LEGACY";
+	public static final String CHECKPOINT_SCHEMA_MODE_STRUCTURED = "STRUCTURED";
+
+	// SE-mode write-behind of step status updates, linger in milliseconds
+	public static final String WRITE_BEHIND_ENABLED = "WRITE_BEHIND_ENABLED";
+	public static final String WRITE_BEHIND_MAX_PENDING = "WRITE_BEHIND_MAX_PENDING";
+	public static final String WRITE_BEHIND_LINGER = "WRITE_BEHIND_LINGER";
 	
 	public static final String DEFAULT_JDBC_JNDI_NAME = "jdbc/batch";
 	public static final String DEFAULT_JDBC_DRIVER = "org.apache.derby.jdbc.EmbeddedDriver";
 	public static final String DEFAULT_JDBC_URL = "jdbc:derby:RUNTIMEDB;create=true";
 	public static final String DEFAULT_DB_SCHEMA = "JBATCH";
+
+	public static final String DEFAULT_JDBC_CONNECTION_POOL_ENABLED = "true";
+	public static final String DEFAULT_JDBC_CONNECTION_POOL_MAX_SIZE = "20";
+	public static final String DEFAULT_JDBC_CONNECTION_POOL_IDLE_TIMEOUT = "300";
+	public static final String DEFAULT_JDBC_CONNECTION_POOL_WAIT_TIMEOUT = "60";
+	public static final String DEFAULT_JDBC_STATEMENT_CACHE_SIZE = "50";
+
+	public static final String DEFAULT_SERIALIZATION_CODEC = "java";
+	public static final String DEFAULT_SERIALIZATION_COMPRESSION_THRESHOLD = "-1";
+
+	public static final String DEFAULT_STATUS_SCHEMA_MODE = STATUS_SCHEMA_MODE_BLOB;
+
+	public static final String DEFAULT_CHECKPOINT_SCHEMA_MODE = CHECKPOINT_SCHEMA_MODE_LEGACY;
+
+	public static final String DEFAULT_WRITE_BEHIND_ENABLED = "false";
+	public static final String DEFAULT_WRITE_BEHIND_MAX_PENDING = "1000";
+	public static final String DEFAULT_WRITE_BEHIND_LINGER = "50";
+
+	public static final String DEFAULT_SCHEDULER_ENABLED = "false";
+	public static final String DEFAULT_SCHEDULER_MAX_CONCURRENT_JOBS = "10";
+	public static final String DEFAULT_SCHEDULER_PRIORITY_CLASSES = "high=8,normal=4,low=1";
+	public static final String DEFAULT_SCHEDULER_DEFAULT_PRIORITY_CLASS = "normal";
+	public static final String DEFAULT_SCHEDULER_MAX_PARALLEL_PER_PARENT = "-1";
+
+	public static final String DEFAULT_PURGE_BATCH_SIZE = "100";
+	public static final String DEFAULT_PURGE_BATCH_DELAY = "0";
+	public static final String DEFAULT_RETENTION_ENABLED = "false";
+	public static final String DEFAULT_RETENTION_MAX_AGE_HOURS = "720";
+	public static final String DEFAULT_RETENTION_BATCH_STATUSES = "COMPLETED,FAILED,STOPPED,ABANDONED";
+	public static final String DEFAULT_RETENTION_INTERVAL_MINUTES = "60";
+
+	public static final String DEFAULT_COMPLETED_EXECUTION_HISTORY_SIZE = "10000";
+
+	public static final String DEFAULT_CHUNK_INSTRUMENTATION = "none";
+	public static final String DEFAULT_CHUNK_INSTRUMENTATION_LOG_INTERVAL = "0";
+	public static final String DEFAULT_CHUNK_INSTRUMENTATION_JMX = "false";
+
+	public static final String DEFAULT_STEP_PROGRESS_SAMPLE_INTERVAL = "0";
+	public static final String DEFAULT_STEP_PROGRESS_LOG = "false";
 }
@@ -38,6 +38,11 @@ public class BatchFlowInSplitWorkUnit extends BatchParallelWorkUnit {
 		return completedThreadQueue;
 	}
 
+	@Override
+	public Object getSiblingGroup() {
+		return completedThreadQueue != null ? completedThreadQueue : this;
+	}
+
 	@Override
 	protected void markThreadCompleted() {
 		if (this.completedThreadQueue != null) {
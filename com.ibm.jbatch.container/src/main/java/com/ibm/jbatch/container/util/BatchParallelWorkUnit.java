@@ -16,6 +16,7 @@
  */
 package com.ibm.jbatch.container.util;
 
+import com.ibm.jbatch.container.IThreadRootController;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.services.IBatchKernelService;
 
@@ -31,4 +32,15 @@ public abstract class BatchParallelWorkUnit extends BatchWorkUnit {
 		super(batchKernel, jobExecutionImpl, notifyCallbackWhenDone);
 	}
 
+	protected BatchParallelWorkUnit(IBatchKernelService batchKernel, RuntimeJobExecution jobExecutionImpl, boolean notifyCallbackWhenDone,
+			IThreadRootController controller) {
+		super(batchKernel, jobExecutionImpl, notifyCallbackWhenDone, controller);
+	}
+
+	/**
+	 * @return an object shared by all the partitions of one partitioned step, or all the
+	 * flows of one split, identifying them as siblings
+	 */
+	public abstract Object getSiblingGroup();
+
 }
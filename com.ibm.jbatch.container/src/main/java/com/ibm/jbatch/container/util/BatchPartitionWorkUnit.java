@@ -18,6 +18,7 @@ package com.ibm.jbatch.container.util;
 
 import java.util.concurrent.BlockingQueue;
 
+import com.ibm.jbatch.container.IThreadRootController;
 import com.ibm.jbatch.container.impl.PartitionThreadRootControllerImpl;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.services.IBatchKernelService;
@@ -32,12 +33,29 @@ public class BatchPartitionWorkUnit extends BatchParallelWorkUnit {
 		this.controller = new PartitionThreadRootControllerImpl(jobExecution, config);
 	}
 
+	/**
+	 * For a partition run in-process, sharing the parent's job execution, so the kernel
+	 * mustn't be told when it's done.
+	 */
+	public BatchPartitionWorkUnit(IBatchKernelService batchKernelService,
+			RuntimeJobExecution jobExecution,
+			PartitionsBuilderConfig config,
+			IThreadRootController controller) {
+		super(batchKernelService, jobExecution, false, controller);
+		this.completedThreadQueue = config.getCompletedQueue();
+	}
+
 	protected BlockingQueue<BatchPartitionWorkUnit> completedThreadQueue;
 
 	public BlockingQueue<BatchPartitionWorkUnit> getCompletedThreadQueue() {
 		return completedThreadQueue;
 	}
 
+	@Override
+	public Object getSiblingGroup() {
+		return completedThreadQueue != null ? completedThreadQueue : this;
+	}
+
 	@Override
 	protected void markThreadCompleted() {
 		if (this.completedThreadQueue != null) {
@@ -58,6 +58,17 @@ public class BatchWorkUnit implements Runnable {
 		this.controller = new JobControllerImpl(jobExecutionImpl);
 	}
 
+	/**
+	 * For work run by some other controller than a top-level job's.
+	 */
+	protected BatchWorkUnit(IBatchKernelService batchKernel, RuntimeJobExecution jobExecutionImpl,
+			boolean notifyCallbackWhenDone, IThreadRootController controller) {
+		this.setBatchKernel(batchKernel);
+		this.setJobExecutionImpl(jobExecutionImpl);
+		this.setNotifyCallbackWhenDone(notifyCallbackWhenDone);
+		this.controller = controller;
+	}
+
 	public IThreadRootController getController() {
 		return this.controller;
 	}
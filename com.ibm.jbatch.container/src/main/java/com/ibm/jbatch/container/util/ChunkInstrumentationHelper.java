@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.util;
+
+import java.util.Properties;
+
+import com.ibm.jbatch.spi.ChunkInstrumentation;
+
+/**
+ * Holds the {@link ChunkInstrumentation} chunk steps time their phases with, if any.
+ */
+public class ChunkInstrumentationHelper {
+
+	public static final String NONE_NAME = "none";
+	public static final String REGISTRY_NAME = "registry";
+
+	// Null unless configured, so an uninstrumented chunk loop never reads the clock
+	private static volatile ChunkInstrumentation instrumentation = null;
+
+	/**
+	 * @param name 'none', 'registry' for the in-process {@link PhaseTimerRegistry}, or the 
+	 * class name of a {@link ChunkInstrumentation} impl
+	 * @param props the batch container properties, configuring the registry
+	 * @return the instrumentation, or null for 'none'
+	 */
+	public static ChunkInstrumentation lookupInstrumentation(String name, Properties props) {
+		String trimmed = name.trim();
+		if (NONE_NAME.equalsIgnoreCase(trimmed) || trimmed.isEmpty()) {
+			return null;
+		} else if (REGISTRY_NAME.equalsIgnoreCase(trimmed)) {
+			return new PhaseTimerRegistry(props);
+		}
+
+		try {
+			Class<?> clazz;
+			try {
+				clazz = Class.forName(trimmed);
+			} catch (ClassNotFoundException cnfe) {
+				clazz = Thread.currentThread().getContextClassLoader().loadClass(trimmed);
+			}
+			return (ChunkInstrumentation) clazz.getConstructor().newInstance();
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Could not load chunk instrumentation: " + trimmed, e);
+		}
+	}
+
+	public static void setInstrumentation(ChunkInstrumentation instrumentation) {
+		ChunkInstrumentationHelper.instrumentation = instrumentation;
+	}
+
+	/**
+	 * @return the configured instrumentation, or null if chunk steps aren't timed
+	 */
+	public static ChunkInstrumentation getInstrumentation() {
+		return instrumentation;
+	}
+}
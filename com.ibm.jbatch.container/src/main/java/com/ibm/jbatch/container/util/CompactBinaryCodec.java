@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+
+import com.ibm.jbatch.spi.SerializationCodec;
+
+/**
+ * A compact encoding for the value types most often used as checkpoint tokens and
+ * persistent user data, i.e. Long, Integer, String, byte[] and String-valued Properties,
+ * which avoids the class descriptors Java serialization writes for even the
+ * simplest value.  Anything else falls back to Java serialization.
+ */
+public class CompactBinaryCodec implements SerializationCodec {
+
+	public static final byte CODEC_ID = 1;
+
+	private static final byte TYPE_NULL = 0;
+	private static final byte TYPE_STRING = 1;
+	private static final byte TYPE_LONG = 2;
+	private static final byte TYPE_INTEGER = 3;
+	private static final byte TYPE_BYTES = 4;
+	private static final byte TYPE_PROPERTIES = 5;
+	private static final byte TYPE_JAVA = 6;
+
+	private final JavaSerializationCodec javaCodec = new JavaSerializationCodec();
+
+	@Override
+	public byte getCodecId() {
+		return CODEC_ID;
+	}
+
+	@Override
+	public byte[] encode(Serializable object) throws IOException {
+		if (object == null) {
+			return new byte[] { TYPE_NULL };
+		}
+
+		Class<?> clazz = object.getClass();
+		if (clazz == byte[].class) {
+			byte[] bytes = (byte[]) object;
+			byte[] retVal = new byte[bytes.length + 1];
+			retVal[0] = TYPE_BYTES;
+			System.arraycopy(bytes, 0, retVal, 1, bytes.length);
+			return retVal;
+		}
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(baos);
+		if (clazz == String.class) {
+			out.writeByte(TYPE_STRING);
+			writeString(out, (String) object);
+		} else if (clazz == Long.class) {
+			out.writeByte(TYPE_LONG);
+			out.writeLong((Long) object);
+		} else if (clazz == Integer.class) {
+			out.writeByte(TYPE_INTEGER);
+			out.writeInt((Integer) object);
+		} else if (clazz == Properties.class && isSimpleProperties((Properties) object)) {
+			Properties props = (Properties) object;
+			out.writeByte(TYPE_PROPERTIES);
+			out.writeInt(props.size());
+			for (Map.Entry<Object, Object> entry : props.entrySet()) {
+				writeString(out, (String) entry.getKey());
+				writeString(out, (String) entry.getValue());
+			}
+		} else {
+			out.writeByte(TYPE_JAVA);
+			out.write(javaCodec.encode(object));
+		}
+		out.close();
+		return baos.toByteArray();
+	}
+
+	@Override
+	public Serializable decode(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		if (bytes.length == 0) {
+			throw new IOException("Empty value");
+		}
+
+		byte type = bytes[0];
+		switch (type) {
+		case TYPE_NULL:
+			return null;
+		case TYPE_BYTES:
+			byte[] retVal = new byte[bytes.length - 1];
+			System.arraycopy(bytes, 1, retVal, 0, retVal.length);
+			return retVal;
+		case TYPE_JAVA:
+			byte[] javaBytes = new byte[bytes.length - 1];
+			System.arraycopy(bytes, 1, javaBytes, 0, javaBytes.length);
+			return javaCodec.decode(javaBytes, classLoader);
+		default:
+			break;
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+		switch (type) {
+		case TYPE_STRING:
+			return readString(in);
+		case TYPE_LONG:
+			return in.readLong();
+		case TYPE_INTEGER:
+			return in.readInt();
+		case TYPE_PROPERTIES:
+			Properties props = new Properties();
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				String key = readString(in);
+				props.setProperty(key, readString(in));
+			}
+			return props;
+		default:
+			throw new IOException("Unknown type tag: " + type);
+		}
+	}
+
+	/**
+	 * Only plain String to String maps qualify, we don't want to lose any defaults
+	 * or non-String entries.
+	 */
+	private boolean isSimpleProperties(Properties props) {
+		if (props.stringPropertyNames().size() != props.size()) {
+			return false;
+		}
+		for (Map.Entry<Object, Object> entry : props.entrySet()) {
+			if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof String)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Unlike writeUTF(), not limited to 64K
+	private void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
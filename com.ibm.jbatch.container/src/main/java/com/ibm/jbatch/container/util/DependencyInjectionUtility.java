@@ -16,10 +16,17 @@
  */
 package com.ibm.jbatch.container.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,6 +49,20 @@ public class DependencyInjectionUtility {
     private final static String sourceClass = DependencyInjectionUtility.class.getName();
     private final static Logger logger = Logger.getLogger(sourceClass);
 
+    // Every setter is adapted to this type, so it can be invoked exactly
+    private final static MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /*
+     * The fields to inject into, found once per artifact class rather than once per artifact
+     * instance.  Kept on the class itself, so an application's classes can still be unloaded.
+     */
+    private final static ClassValue<InjectionPlan> injectionPlans = new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> artifactClass) {
+            return new InjectionPlan(artifactClass);
+        }
+    };
+
     
     public static void injectReferences(Object artifact, InjectionReferences injectionRefs) {
         if (logger.isLoggable(Level.FINE)) {
@@ -49,14 +70,14 @@ public class DependencyInjectionUtility {
             logger.fine("InjectionReferences = " + injectionRefs);
         }
 
-        Map<String, Field> propertyMap = findPropertyFields(artifact);
+        InjectionPlan plan = injectionPlans.get(artifact.getClass());
 
         if (injectionRefs.getProps() != null) {
-            injectProperties(artifact, injectionRefs.getProps(), propertyMap);
+            injectProperties(artifact, injectionRefs.getProps(), plan);
         }
 
         injectBatchContextFields(artifact, injectionRefs.getJobContext(), 
-                injectionRefs.getStepContext());
+                injectionRefs.getStepContext(), plan);
         
         if (logger.isLoggable(Level.FINE)) {
             logger.exiting(sourceClass, "injectReferences");
@@ -70,33 +91,40 @@ public class DependencyInjectionUtility {
      * @param props
      *            The properties directly associated with this batch artifact.
      */
-    private static void injectProperties(Object artifact , List<Property> props, Map<String, Field> propertyFieldMap) {
+    private static void injectProperties(Object artifact , List<Property> props, InjectionPlan plan) {
 
         //check if jsl properties are null or if 
-        //the propertyMap is null. this means there are no annotated fields with @BatchProperty
+        //there are no annotated fields with @BatchProperty
 
-        if (props == null || propertyFieldMap == null) {
+        if (props == null || plan.propertySetters.isEmpty()) {
             return;
         }
+
+        // Hash the properties once, unless there's just the one to look up
+        Map<String, String> propValues = null;
+        if (plan.propertySetters.size() > 1 && props.size() > 1) {
+            propValues = toPropertyValueMap(props);
+        }
         
         // go through each field marked with @BatchProperty
-        for (Entry<String, Field> batchProperty : propertyFieldMap.entrySet()) {
-            String propValue = getPropertyValue(props, batchProperty.getKey());
+        for (Entry<String, MethodHandle> batchProperty : plan.propertySetters.entrySet()) {
+            String propValue = (propValues != null) ? propValues.get(batchProperty.getKey()) : getPropertyValue(props, batchProperty.getKey());
 
             // if a property is supplied in the job xml inject the given value
             // into
             // the field otherwise the default value will remain
-            try {
-                if (!(propValue == null)) {
-                    batchProperty.getValue().set(artifact, propValue);
-                } else {
-                    //DO NOTHING so that the Java initialized value is used as the default for unresolved properties
+            if (!(propValue == null)) {
+                try {
+                    batchProperty.getValue().invokeExact(artifact, (Object) propValue);
+                } catch (ClassCastException e) {
+                    throw new IllegalBatchPropertyException("The given property value is not an instance of the declared field.", e);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new BatchContainerRuntimeException(t);
                 }
-
-            } catch (IllegalArgumentException e) {
-                throw new IllegalBatchPropertyException("The given property value is not an instance of the declared field.", e);
-            } catch (IllegalAccessException e) {
-                throw new BatchContainerRuntimeException(e);
+            } else {
+                //DO NOTHING so that the Java initialized value is used as the default for unresolved properties
             }
 
         }
@@ -132,90 +160,147 @@ public class DependencyInjectionUtility {
         return null;
     }
 
+    /*
+     * Same answers as getPropertyValue(), i.e. the first property of a name wins, and an
+     * empty value counts as none.
+     */
+    private static Map<String, String> toPropertyValueMap(List<Property> props) {
+        Map<String, String> propValues = new HashMap<String, String>(props.size() * 2);
+        for (Property prop : props) {
+            if (!propValues.containsKey(prop.getName())) {
+                String propValue = prop.getValue();
+                propValues.put(prop.getName(), "".equals(propValue) ? null : propValue);
+            }
+        }
+        return propValues;
+    }
+
     /**
      * 
      * @param artifact
      *            An instance of the batch artifact
-     * @return an ArrayList<Field> of fields annotated with @JobContext
      */
-    private static void injectBatchContextFields(Object artifact, JobContext jobCtx, StepContext stepCtx) {
-
-        // Go through declared field annotations
-        for (final Field field : artifact.getClass().getDeclaredFields()) {
-            AccessController.doPrivileged(new PrivilegedAction<Object>() {
-                public Object run() {
-                    field.setAccessible(true); // ignore java accessibility
-                    return null;
-                }
-            });
-
-            Inject injectAnnotation = field.getAnnotation(Inject.class);
-            if (injectAnnotation != null) {
-
-                if (logger.isLoggable(Level.FINER)) {
-                    logger.log(Level.FINER, "Found Context on (Object, field)", new Object[] { artifact, field.getName() });
-                }
-
-                try {
-                    // check the field for the context type
-                    if (JobContext.class.isAssignableFrom(field.getType())) {
-                        field.set(artifact, jobCtx);
-                    } else if (StepContext.class.isAssignableFrom(field.getType())) {
-                        field.set(artifact, stepCtx);
-                    }
-                } catch (IllegalArgumentException e) {
-                    throw new BatchContainerRuntimeException(e);
-                } catch (IllegalAccessException e) {
-                    throw new BatchContainerRuntimeException(e);
-                }
+    private static void injectBatchContextFields(Object artifact, JobContext jobCtx, StepContext stepCtx, InjectionPlan plan) {
 
+        try {
+            for (MethodHandle setter : plan.jobContextSetters) {
+                setter.invokeExact(artifact, (Object) jobCtx);
+            }
+            for (MethodHandle setter : plan.stepContextSetters) {
+                setter.invokeExact(artifact, (Object) stepCtx);
             }
+        } catch (RuntimeException e) {
+            throw new BatchContainerRuntimeException(e);
+        } catch (Throwable t) {
+            throw new BatchContainerRuntimeException(t);
         }
 
     }
 
-    /**
-     * 
-     * @param delegate
-     *            An instance of the batch artifact
-     * @return A map of Fields annotated with @BatchProperty.
+    /*
+     * The @BatchProperty fields by property name, and the @Inject JobContext and StepContext
+     * fields, of one artifact class, each as a setter taking (artifact, value).
      */
-    private static Map<String, Field> findPropertyFields(Object delegate) {
-
-        HashMap<String, Field> propertyMap = null;
-        // Go through declared field annotations
-        for (final Field field : delegate.getClass().getDeclaredFields()) {
-            AccessController.doPrivileged(new PrivilegedAction<Object>() {
-                public Object run() {
-                    field.setAccessible(true); // ignore java accessibility
-                    return null;
+    private static class InjectionPlan {
+
+        private final Map<String, MethodHandle> propertySetters = new LinkedHashMap<String, MethodHandle>();
+        private final List<MethodHandle> jobContextSetters = new ArrayList<MethodHandle>(1);
+        private final List<MethodHandle> stepContextSetters = new ArrayList<MethodHandle>(1);
+
+        private InjectionPlan(Class<?> artifactClass) {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            // Go through declared field annotations
+            for (final Field field : artifactClass.getDeclaredFields()) {
+                BatchProperty batchPropertyAnnotation = field.getAnnotation(BatchProperty.class);
+                Inject injectAnnotation = field.getAnnotation(Inject.class);
+                boolean jobContextField = injectAnnotation != null && JobContext.class.isAssignableFrom(field.getType());
+                boolean stepContextField = injectAnnotation != null && StepContext.class.isAssignableFrom(field.getType());
+                if (batchPropertyAnnotation == null && !jobContextField && !stepContextField) {
+                    continue;
                 }
-            });
 
-            BatchProperty batchPropertyAnnotation = field.getAnnotation(BatchProperty.class);
-            if (batchPropertyAnnotation != null) {
-                if (propertyMap == null) {
-                    propertyMap = new HashMap<String, Field>();
-                }
-                // If a name is not supplied the batch property name defaults to
-                // the field name
-                String batchPropName = null;
-                if (batchPropertyAnnotation.name().equals("")) {
-                    batchPropName = field.getName();
-                } else {
-                    batchPropName = batchPropertyAnnotation.name();
+                AccessController.doPrivileged(new PrivilegedAction<Object>() {
+                    public Object run() {
+                        field.setAccessible(true); // ignore java accessibility
+                        return null;
+                    }
+                });
+                MethodHandle setter = toSetter(lookup, field);
+
+                if (batchPropertyAnnotation != null) {
+                    // If a name is not supplied the batch property name defaults to
+                    // the field name
+                    String batchPropName = null;
+                    if (batchPropertyAnnotation.name().equals("")) {
+                        batchPropName = field.getName();
+                    } else {
+                        batchPropName = batchPropertyAnnotation.name();
+                    }
+
+                    // Check if we have already used this name for a property.
+                    if (propertySetters.containsKey(batchPropName)) {
+                        throw new IllegalBatchPropertyException("There is already a batch property with this name: " + batchPropName);
+                    }
+
+                    propertySetters.put(batchPropName, setter);
                 }
 
-                // Check if we have already used this name for a property.
-                if (propertyMap.containsKey(batchPropName)) {
-                    throw new IllegalBatchPropertyException("There is already a batch property with this name: " + batchPropName);
+                if (jobContextField) {
+                    if (logger.isLoggable(Level.FINER)) {
+                        logger.log(Level.FINER, "Found JobContext on (Class, field)", new Object[] { artifactClass, field.getName() });
+                    }
+                    jobContextSetters.add(setter);
+                } else if (stepContextField) {
+                    if (logger.isLoggable(Level.FINER)) {
+                        logger.log(Level.FINER, "Found StepContext on (Class, field)", new Object[] { artifactClass, field.getName() });
+                    }
+                    stepContextSetters.add(setter);
                 }
+            }
+        }
 
-                propertyMap.put(batchPropName, field);
+        private static MethodHandle toSetter(MethodHandles.Lookup lookup, Field field) {
+            MethodHandle setter;
+            try {
+                setter = lookup.unreflectSetter(field);
+            } catch (IllegalAccessException e) {
+                // e.g. a static final field, only an error once something's injected into it
+                return throwing("failAccess", e.getMessage());
+            }
+            if (Modifier.isStatic(field.getModifiers())) {
+                // Ignore the artifact instance
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
             }
+            try {
+                return setter.asType(SETTER_TYPE);
+            } catch (WrongMethodTypeException e) {
+                // e.g. a primitive field, never assignable from a property value or a context
+                return throwing("failType", "Cannot inject into field: " + field + " of type: " + field.getType());
+            }
+        }
+
+        /*
+         * A setter which throws a new exception each time, since the plan, and so the setter, is
+         * shared by every thread injecting into an artifact of the class
+         */
+        private static MethodHandle throwing(String failMethod, String message) {
+            try {
+                MethodHandle fail = MethodHandles.lookup().findStatic(InjectionPlan.class, failMethod,
+                        MethodType.methodType(void.class, String.class, Object.class, Object.class));
+                return fail.bindTo(message);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void failAccess(String message, Object artifact, Object value) {
+            throw new BatchContainerRuntimeException(new IllegalAccessException(message));
+        }
 
+        private static void failType(String message, Object artifact, Object value) {
+            throw new ClassCastException(message);
         }
-        return propertyMap;
     }
     
 }
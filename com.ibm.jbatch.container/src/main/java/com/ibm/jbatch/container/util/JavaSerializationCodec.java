@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+
+import com.ibm.jbatch.spi.SerializationCodec;
+
+/**
+ * Plain Java serialization, i.e. the format the runtime has always used.
+ */
+public class JavaSerializationCodec implements SerializationCodec {
+
+	public static final byte CODEC_ID = 0;
+
+	@Override
+	public byte getCodecId() {
+		return CODEC_ID;
+	}
+
+	@Override
+	public byte[] encode(Serializable object) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ObjectOutputStream oout = new ObjectOutputStream(baos);
+		oout.writeObject(object);
+		oout.close();
+		return baos.toByteArray();
+	}
+
+	@Override
+	public Serializable decode(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		ObjectInputStream objectIn = null;
+		if (classLoader == null) {
+			objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes));
+		} else {
+			objectIn = new ClassLoaderObjectInputStream(new ByteArrayInputStream(bytes), classLoader);
+		}
+		try {
+			return (Serializable) objectIn.readObject();
+		} finally {
+			objectIn.close();
+		}
+	}
+
+	private static class ClassLoaderObjectInputStream extends ObjectInputStream {
+
+		private final ClassLoader classLoader;
+
+		private ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+			super(in);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				// Unlike loadClass(), this handles array classes too
+				return Class.forName(desc.getName(), false, classLoader);
+			} catch (ClassNotFoundException e) {
+				// Primitives
+				return super.resolveClass(desc);
+			}
+		}
+	}
+}
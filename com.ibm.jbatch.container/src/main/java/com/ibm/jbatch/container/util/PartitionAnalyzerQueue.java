@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Hands collector data and partition statuses from the partitions of a step to its analyzer,
+ * on the step's main thread.  Bounded, so partitions handing off data faster than the 
+ * analyzer can take it wait for room, rather than piling it up in memory.  The analyzer 
+ * takes everything waiting each time it wakes, rather than an entry at a time.
+ *
+ * Once closed, e.g. when the analyzer has stopped taking, partitions no longer wait and
+ * anything they hand off is dropped.  Whatever is dropped, whether handed off too late or
+ * still waiting when the queue is closed, is logged as a warning.
+ */
+public class PartitionAnalyzerQueue extends ArrayBlockingQueue<PartitionDataWrapper> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final static String sourceClass = PartitionAnalyzerQueue.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	// How often a waiting partition checks whether the queue was closed
+	private static final long CLOSED_CHECK_MILLIS = 100;
+
+	private volatile boolean closed = false;
+
+	public PartitionAnalyzerQueue(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * Waits for room, unless the queue is closed, in which case the entry is dropped.
+	 *
+	 * @return false if the entry was dropped, for the caller to report
+	 */
+	public boolean handOff(PartitionDataWrapper dataWrapper) throws InterruptedException {
+		while (!closed) {
+			if (offer(dataWrapper, CLOSED_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+				// Closed just as we added it, so it may have missed being drained
+				return !closed || !remove(dataWrapper);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * As {@link #handOff(PartitionDataWrapper)}, logging the entry if it's dropped.
+	 */
+	@Override
+	public void put(PartitionDataWrapper dataWrapper) throws InterruptedException {
+		if (!handOff(dataWrapper)) {
+			logger.warning("Analyzer queue closed, dropped: " + dataWrapper);
+		}
+	}
+
+	/**
+	 * Waits for at least one entry, then adds it and all the others waiting to the batch, in
+	 * the order they were handed off.
+	 */
+	public void takeBatch(List<PartitionDataWrapper> batch) throws InterruptedException {
+		batch.add(take());
+		drainTo(batch);
+	}
+
+	public void close() {
+		closed = true;
+		List<PartitionDataWrapper> dropped = new ArrayList<PartitionDataWrapper>();
+		drainTo(dropped);
+		for (PartitionDataWrapper dataWrapper : dropped) {
+			logger.warning("Analyzer queue closed before the analyzer took: " + dataWrapper);
+		}
+	}
+}
@@ -17,6 +17,7 @@
 package com.ibm.jbatch.container.util;
 
 import java.io.Serializable;
+import java.util.List;
 
 import jakarta.batch.runtime.BatchStatus;
 
@@ -24,6 +25,8 @@ public class PartitionDataWrapper {
     
     private Serializable collectorData;
 
+    private List<Serializable> collectorDataBatch;
+
     private BatchStatus batchStatus;
     
     private String exitStatus;
@@ -56,6 +59,18 @@ public class PartitionDataWrapper {
         this.collectorData = collectorData;
     }
 
+    /**
+     * @return the data of several collector calls, handed off together, in the order they were
+     * collected, or null if this holds a single call's data
+     */
+    public List<Serializable> getCollectorDataBatch() {
+        return collectorDataBatch;
+    }
+
+    public void setCollectorDataBatch(List<Serializable> collectorDataBatch) {
+        this.collectorDataBatch = collectorDataBatch;
+    }
+
     public PartitionEventType getEventType() {
         return eventType;
     }
@@ -64,4 +79,11 @@ public class PartitionDataWrapper {
         this.eventType = eventType;
     }
     
+    @Override
+    public String toString() {
+        if (eventType == PartitionEventType.ANALYZE_STATUS) {
+            return "partition status, batchStatus: " + batchStatus + ", exitStatus: " + exitStatus;
+        }
+        return "collector data: " + (collectorDataBatch != null ? collectorDataBatch : collectorData);
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.ibm.jbatch.spi.ChunkInstrumentation;
+
+/**
+ * Keeps a timer per job, step, partition and phase in memory, each one a count, total, max
+ * and a histogram with a bucket per power of two nanoseconds, from which percentiles are
+ * estimated.  Recording only updates a few counters, so never allocates or blocks.
+ *
+ * The timers can be written to the log every so often, and are readable over JMX as 
+ * {@link #OBJECT_NAME}.
+ */
+public class PhaseTimerRegistry implements ChunkInstrumentation, PhaseTimerRegistryMBean {
+
+	private final static String sourceClass = PhaseTimerRegistry.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final String OBJECT_NAME = "com.ibm.jbatch:type=ChunkPhaseTimers";
+
+	private static final Phase[] PHASES = Phase.values();
+
+	private final ConcurrentHashMap<String, StepTimers> steps = new ConcurrentHashMap<String, StepTimers>();
+
+	// Null unless CHUNK_INSTRUMENTATION_LOG_INTERVAL is set
+	private ScheduledExecutorService logTimer = null;
+
+	private static class Timer {
+		final LongAdder count = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final AtomicLong maxNanos = new AtomicLong();
+		final AtomicLongArray buckets = new AtomicLongArray(64);
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			long max = maxNanos.get();
+			while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+				max = maxNanos.get();
+			}
+			buckets.incrementAndGet(nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos));
+		}
+
+		// Upper bound of the bucket the percentile falls in
+		long percentileNanos(long count, double percentile) {
+			long rank = (long) Math.ceil(count * percentile);
+			long seen = 0;
+			for (int i = 0; i < 64; i++) {
+				seen += buckets.get(i);
+				if (seen >= rank) {
+					return i >= 62 ? Long.MAX_VALUE : (2L << i) - 1;
+				}
+			}
+			return maxNanos.get();
+		}
+
+		// Not atomic with a concurrent record(), which is fine for a fresh start
+		void reset() {
+			count.reset();
+			totalNanos.reset();
+			maxNanos.set(0);
+			for (int i = 0; i < 64; i++) {
+				buckets.set(i, 0);
+			}
+		}
+	}
+
+	private static class StepTimers implements PhaseTimer {
+		final Timer[] timers = new Timer[PHASES.length];
+
+		StepTimers() {
+			for (int i = 0; i < timers.length; i++) {
+				timers[i] = new Timer();
+			}
+		}
+
+		@Override
+		public void record(Phase phase, long nanos) {
+			timers[phase.ordinal()].record(nanos);
+		}
+	}
+
+	public PhaseTimerRegistry(Properties props) {
+		long interval = Long.parseLong(props.getProperty(BatchContainerConstants.CHUNK_INSTRUMENTATION_LOG_INTERVAL,
+				BatchContainerConstants.DEFAULT_CHUNK_INSTRUMENTATION_LOG_INTERVAL).trim());
+		if (interval > 0) {
+			logTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Batch chunk phase timer log");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			logTimer.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					logTimers();
+				}
+			}, interval, interval, TimeUnit.SECONDS);
+		}
+
+		if (Boolean.parseBoolean(props.getProperty(BatchContainerConstants.CHUNK_INSTRUMENTATION_JMX,
+				BatchContainerConstants.DEFAULT_CHUNK_INSTRUMENTATION_JMX).trim())) {
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				ObjectName name = new ObjectName(OBJECT_NAME);
+				if (!server.isRegistered(name)) {
+					server.registerMBean(this, name);
+				}
+			} catch (Exception e) {
+				logger.log(Level.WARNING, "Failed to register chunk phase timers with JMX as: " + OBJECT_NAME, e);
+			}
+		}
+	}
+
+	@Override
+	public PhaseTimer startStep(String jobName, String stepName, int partition) {
+		String key = key(jobName, stepName, partition);
+		StepTimers timers = steps.get(key);
+		if (timers == null) {
+			StepTimers newTimers = new StepTimers();
+			timers = steps.putIfAbsent(key, newTimers);
+			if (timers == null) {
+				timers = newTimers;
+			}
+		}
+		return timers;
+	}
+
+	/**
+	 * @return the number of times the phase was timed for the step (or partition)
+	 */
+	public long getCount(String jobName, String stepName, int partition, Phase phase) {
+		StepTimers timers = steps.get(key(jobName, stepName, partition));
+		return timers == null ? 0 : timers.timers[phase.ordinal()].count.sum();
+	}
+
+	/**
+	 * @return the total time spent in the phase by the step (or partition)
+	 */
+	public long getTotalNanos(String jobName, String stepName, int partition, Phase phase) {
+		StepTimers timers = steps.get(key(jobName, stepName, partition));
+		return timers == null ? 0 : timers.timers[phase.ordinal()].totalNanos.sum();
+	}
+
+	private String key(String jobName, String stepName, int partition) {
+		return partition < 0 ? jobName + "/" + stepName : jobName + "/" + stepName + "/" + partition;
+	}
+
+	@Override
+	public String[] getTimers() {
+		List<String> lines = new ArrayList<String>();
+		for (Map.Entry<String, StepTimers> entry : new TreeMap<String, StepTimers>(steps).entrySet()) {
+			for (Phase phase : PHASES) {
+				Timer timer = entry.getValue().timers[phase.ordinal()];
+				long count = timer.count.sum();
+				if (count == 0) {
+					continue;
+				}
+				long total = timer.totalNanos.sum();
+				lines.add(entry.getKey() + " " + phase + ": count=" + count
+						+ ", total=" + TimeUnit.NANOSECONDS.toMillis(total) + "ms"
+						+ ", mean=" + (total / count / 1000) + "us"
+						+ ", p50<=" + (timer.percentileNanos(count, 0.5) / 1000) + "us"
+						+ ", p99<=" + (timer.percentileNanos(count, 0.99) / 1000) + "us"
+						+ ", max=" + (timer.maxNanos.get() / 1000) + "us");
+			}
+		}
+		return lines.toArray(new String[lines.size()]);
+	}
+
+	@Override
+	public void logTimers() {
+		String[] lines = getTimers();
+		if (lines.length > 0) {
+			StringBuilder report = new StringBuilder("Chunk phase timers:");
+			for (String line : lines) {
+				report.append("\n  ").append(line);
+			}
+			logger.info(report.toString());
+		}
+	}
+
+	@Override
+	public void reset() {
+		// Steps still running hold on to their timers, so zero them rather than dropping them
+		for (StepTimers timers : steps.values()) {
+			for (Timer timer : timers.timers) {
+				timer.reset();
+			}
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.container.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.ibm.jbatch.spi.SerializationCodec;
+
+/**
+ * Encodes and decodes every value the runtime persists as a BLOB, using the configured
+ * {@link SerializationCodec}.
+ *
+ * Values are written as a 4-byte header (2 magic bytes, the codec id, and flags) followed
+ * by the codec's payload, optionally deflated.  The one exception is the Java serialization
+ * codec without compression, whose output is written as is, exactly as before codecs existed.
+ * Since a Java serialization stream always begins with its own magic number, values without
+ * our header are recognized and decoded as Java serialization.
+ */
+public class SerializationHelper {
+
+	private final static String sourceClass = SerializationHelper.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final String JAVA_CODEC_NAME = "java";
+	public static final String BINARY_CODEC_NAME = "binary";
+
+	private static final byte MAGIC_0 = (byte) 0xBA;
+	private static final byte MAGIC_1 = (byte) 0x7C;
+	private static final int HEADER_LENGTH = 4;
+	private static final byte FLAG_DEFLATED = 0x01;
+
+	// java.io.ObjectStreamConstants.STREAM_MAGIC
+	private static final byte JAVA_MAGIC_0 = (byte) 0xAC;
+	private static final byte JAVA_MAGIC_1 = (byte) 0xED;
+
+	private static final ConcurrentHashMap<Byte, SerializationCodec> codecs = new ConcurrentHashMap<Byte, SerializationCodec>();
+	private static final SerializationCodec javaCodec = new JavaSerializationCodec();
+	private static final SerializationCodec binaryCodec = new CompactBinaryCodec();
+	static {
+		codecs.put(javaCodec.getCodecId(), javaCodec);
+		codecs.put(binaryCodec.getCodecId(), binaryCodec);
+	}
+
+	private static volatile SerializationCodec activeCodec = javaCodec;
+
+	// Payloads at least this long are deflated, a negative value disables compression.
+	private static volatile int compressionThreshold = -1;
+
+	private SerializationHelper() {}
+
+	/**
+	 * @param name "java", "binary", or the class name of a {@link SerializationCodec} impl
+	 * @return the codec
+	 * @throws IllegalArgumentException if there is no such codec
+	 */
+	public static SerializationCodec lookupCodec(String name) {
+		String trimmed = name.trim();
+		if (JAVA_CODEC_NAME.equalsIgnoreCase(trimmed)) {
+			return javaCodec;
+		} else if (BINARY_CODEC_NAME.equalsIgnoreCase(trimmed)) {
+			return binaryCodec;
+		}
+
+		try {
+			Class<?> clazz;
+			try {
+				clazz = Class.forName(trimmed);
+			} catch (ClassNotFoundException cnfe) {
+				clazz = Thread.currentThread().getContextClassLoader().loadClass(trimmed);
+			}
+			return (SerializationCodec) clazz.getConstructor().newInstance();
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Could not load serialization codec: " + trimmed, e);
+		}
+	}
+
+	/**
+	 * Sets the codec used to encode new values, and makes sure it can be decoded later.
+	 */
+	public static void setCodec(SerializationCodec codec) {
+		SerializationCodec existing = codecs.get(codec.getCodecId());
+		if (existing != null && existing.getClass() != codec.getClass()) {
+			throw new IllegalArgumentException("Serialization codec: " + codec.getClass().getName() + " uses codec id: "
+					+ codec.getCodecId() + ", which is already used by: " + existing.getClass().getName());
+		}
+		codecs.put(codec.getCodecId(), codec);
+		activeCodec = codec;
+		logger.config("Using serialization codec: " + codec.getClass().getName() + " with codec id: " + codec.getCodecId());
+	}
+
+	public static SerializationCodec getCodec() {
+		return activeCodec;
+	}
+
+	public static void setCompressionThreshold(int threshold) {
+		compressionThreshold = threshold;
+	}
+
+	public static int getCompressionThreshold() {
+		return compressionThreshold;
+	}
+
+	/**
+	 * @param object the value to encode
+	 * @return the value encoded with the active codec, plus header
+	 * @throws IOException
+	 */
+	public static byte[] serialize(Serializable object) throws IOException {
+		SerializationCodec codec = activeCodec;
+		byte[] payload = codec.encode(object);
+
+		byte flags = 0;
+		int threshold = compressionThreshold;
+		if (threshold >= 0 && payload.length >= threshold) {
+			byte[] deflated = deflate(payload);
+			// Not worth it unless it's actually smaller
+			if (deflated.length < payload.length) {
+				payload = deflated;
+				flags |= FLAG_DEFLATED;
+			}
+		}
+
+		if (flags == 0 && codec == javaCodec) {
+			return payload;
+		}
+
+		byte[] retVal = new byte[HEADER_LENGTH + payload.length];
+		retVal[0] = MAGIC_0;
+		retVal[1] = MAGIC_1;
+		retVal[2] = codec.getCodecId();
+		retVal[3] = flags;
+		System.arraycopy(payload, 0, retVal, HEADER_LENGTH, payload.length);
+		return retVal;
+	}
+
+	/**
+	 * Decodes resolving classes the way Java serialization does by default, suitable for the
+	 * runtime's own types.
+	 */
+	public static Serializable deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		return deserialize(bytes, null);
+	}
+
+	/**
+	 * Decodes resolving classes with the thread context classloader, needed for application
+	 * values like checkpoint tokens and persistent user data.
+	 */
+	public static Serializable deserializeWithTCCL(byte[] bytes) throws IOException, ClassNotFoundException {
+		return deserialize(bytes, Thread.currentThread().getContextClassLoader());
+	}
+
+	public static Serializable deserialize(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		if (bytes == null) {
+			return null;
+		}
+
+		if (bytes.length >= 2 && bytes[0] == JAVA_MAGIC_0 && bytes[1] == JAVA_MAGIC_1) {
+			return javaCodec.decode(bytes, classLoader);
+		}
+
+		if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC_0 || bytes[1] != MAGIC_1) {
+			throw new IOException("Unrecognized serialized value, not written by a known serialization codec");
+		}
+
+		SerializationCodec codec = codecs.get(bytes[2]);
+		if (codec == null) {
+			throw new IOException("Value was written with serialization codec id: " + bytes[2] + ", but no such codec is configured");
+		}
+
+		byte[] payload = new byte[bytes.length - HEADER_LENGTH];
+		System.arraycopy(bytes, HEADER_LENGTH, payload, 0, payload.length);
+		if ((bytes[3] & FLAG_DEFLATED) != 0) {
+			payload = inflate(payload);
+		}
+		return codec.decode(payload, classLoader);
+	}
+
+	private static byte[] deflate(byte[] bytes) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2 + 16);
+			byte[] buf = new byte[4096];
+			while (!deflater.finished()) {
+				int len = deflater.deflate(buf);
+				baos.write(buf, 0, len);
+			}
+			return baos.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] inflate(byte[] bytes) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(bytes);
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length * 2);
+			byte[] buf = new byte[4096];
+			while (!inflater.finished()) {
+				int len = inflater.inflate(buf);
+				if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("Truncated compressed value");
+				}
+				baos.write(buf, 0, len);
+			}
+			return baos.toByteArray();
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt compressed value", e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.jsl.util;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Shares a single JAXBContext for the JSL model across all job starts and keeps a small
+ * pool of Unmarshallers, which are not thread-safe and so can't be shared directly.
+ *
+ * Also remembers (by content hash) which JSL documents have already passed schema
+ * validation, so that a restart, partition or split-flow re-parse of the same job XML
+ * can skip the comparatively expensive schema validation.
+ *
+ * Note the unmarshalled model itself is NOT cached, since the property resolvers
+ * substitute values directly into the JAXB objects; each caller gets its own copy.
+ */
+public class JSLUnmarshallerPool {
+
+	private final static String CLASSNAME = JSLUnmarshallerPool.class.getName();
+	private final static Logger logger = Logger.getLogger(CLASSNAME);
+
+	public final static String JSL_MODEL_PACKAGE = "com.ibm.jbatch.jsl.model";
+
+	private final static int MAX_POOLED_UNMARSHALLERS = 16;
+	private final static int MAX_VALIDATED_DOCUMENTS = 512;
+
+	// Lazily-loaded singleton, the JAXBContext is thread-safe once built.
+	private static class JAXBContextHolder {
+		private static final JAXBContext INSTANCE = newContext();
+
+		private static JAXBContext newContext() {
+			try {
+				return JAXBContext.newInstance(JSL_MODEL_PACKAGE);
+			} catch (JAXBException e) {
+				throw new IllegalStateException("Exception creating JAXBContext for package: " + JSL_MODEL_PACKAGE, e);
+			}
+		}
+	}
+
+	private final static ConcurrentLinkedQueue<Unmarshaller> validatingPool = new ConcurrentLinkedQueue<Unmarshaller>();
+	private final static ConcurrentLinkedQueue<Unmarshaller> nonValidatingPool = new ConcurrentLinkedQueue<Unmarshaller>();
+	private final static AtomicInteger validatingPoolSize = new AtomicInteger();
+	private final static AtomicInteger nonValidatingPoolSize = new AtomicInteger();
+
+	// Access-ordered so the least recently parsed documents are the first to be forgotten.
+	private final static Map<String, Boolean> validatedDocuments = Collections.synchronizedMap(
+			new LinkedHashMap<String, Boolean>(64, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+					return size() > MAX_VALIDATED_DOCUMENTS;
+				}
+			});
+
+	public static JAXBContext getJAXBContext() {
+		return JAXBContextHolder.INSTANCE;
+	}
+
+	/**
+	 * Unmarshals the given JSL, validating against the Job XML schema unless this exact
+	 * document has already been validated successfully.
+	 *
+	 * @param xml the JSL document
+	 * @param expectedType the type of the root element value, e.g. JSLJob
+	 * @return a newly-unmarshalled model object, owned by the caller
+	 * @throws IllegalArgumentException if the document can't be unmarshalled or is invalid per the schema
+	 */
+	public static <T> T unmarshal(String xml, Class<T> expectedType) {
+		String key = contentHash(xml);
+		boolean validate = !validatedDocuments.containsKey(key);
+
+		if (logger.isLoggable(Level.FINER)) {
+			logger.finer("Unmarshalling JSL with content hash: " + key + ", schema validation = " + validate);
+		}
+
+		ConcurrentLinkedQueue<Unmarshaller> pool = validate ? validatingPool : nonValidatingPool;
+		AtomicInteger poolSize = validate ? validatingPoolSize : nonValidatingPoolSize;
+
+		JSLValidationEventHandler handler = new JSLValidationEventHandler();
+		Object result = null;
+		Unmarshaller u = pool.poll();
+		try {
+			if (u == null) {
+				u = createUnmarshaller(validate);
+			} else {
+				poolSize.decrementAndGet();
+			}
+			u.setEventHandler(handler);
+			result = u.unmarshal(new StreamSource(new StringReader(xml)));
+		} catch (JAXBException e) {
+			throw new IllegalArgumentException("Exception unmarshalling jobXML", e);
+		} finally {
+			if (u != null) {
+				release(u, pool, poolSize);
+			}
+		}
+
+		if (handler.eventOccurred()) {
+			throw new IllegalArgumentException("xJCL invalid per schema");
+		}
+
+		if (validate) {
+			validatedDocuments.put(key, Boolean.TRUE);
+		}
+
+		return expectedType.cast(((JAXBElement<?>)result).getValue());
+	}
+
+	private static Unmarshaller createUnmarshaller(boolean validate) throws JAXBException {
+		Unmarshaller u = getJAXBContext().createUnmarshaller();
+		if (validate) {
+			u.setSchema(ValidatorHelper.getXJCLSchema());
+		}
+		return u;
+	}
+
+	private static void release(Unmarshaller u, ConcurrentLinkedQueue<Unmarshaller> pool, AtomicInteger poolSize) {
+		// Don't hang on to the last caller's handler
+		try {
+			u.setEventHandler(null);
+		} catch (JAXBException e) {
+			// Not worth pooling an instance we can't reset
+			return;
+		}
+		if (poolSize.incrementAndGet() <= MAX_POOLED_UNMARSHALLERS) {
+			pool.offer(u);
+		} else {
+			poolSize.decrementAndGet();
+		}
+	}
+
+	private static String contentHash(String xml) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			byte[] digest = md.digest(xml.getBytes(StandardCharsets.UTF_8));
+			StringBuilder buf = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				buf.append(Character.forDigit((b >> 4) & 0xF, 16));
+				buf.append(Character.forDigit(b & 0xF, 16));
+			}
+			return buf.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every JRE is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Forget which documents have been validated, mostly for unit tests.
+	 */
+	public static void clearValidatedDocuments() {
+		validatedDocuments.clear();
+	}
+
+	public static boolean isValidated(String xml) {
+		return validatedDocuments.containsKey(contentHash(xml));
+	}
+}
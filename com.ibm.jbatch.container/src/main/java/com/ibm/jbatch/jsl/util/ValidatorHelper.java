@@ -34,15 +34,25 @@ public class ValidatorHelper {
 
 
     
-    private static Schema schema = null;
+    // Declared 'volatile' to allow use in double-checked locking.  A Schema is
+    // thread-safe once built, so only its creation needs the lock.
+    private static volatile Schema schema = null;
     
     private static SchemaFactory sf = 
         SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);              
 
+    public static Schema getXJCLSchema() {
+        Schema result = schema;
+        if (result == null) {
+            result = createXJCLSchema();
+        }
+        return result;
+    }
+
     /**
      * This method must be synchronized as SchemaFactory is not thread-safe
      */
-    public static synchronized Schema getXJCLSchema() {
+    private static synchronized Schema createXJCLSchema() {
         if (schema == null) {
             try {
                 URL url = thisClass.getResource(SCHEMA_LOCATION);
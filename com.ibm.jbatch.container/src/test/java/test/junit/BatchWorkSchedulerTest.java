@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchWorkScheduler;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.services.IBatchConfig;
+import com.ibm.jbatch.spi.services.IBatchThreadPoolService;
+import com.ibm.jbatch.spi.services.ParallelTaskResult;
+
+public class BatchWorkSchedulerTest {
+
+	// Holds on to dispatched work until the test runs it
+	private static class ManualThreadPool implements IBatchThreadPoolService {
+		final List<Runnable> dispatched = new ArrayList<Runnable>();
+
+		@Override
+		public void init(IBatchConfig batchConfig) {
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public void executeTask(Runnable work, Object config) {
+			dispatched.add(work);
+		}
+
+		@Override
+		public ParallelTaskResult executeParallelTask(Runnable work, Object config) {
+			dispatched.add(work);
+			return null;
+		}
+
+		void runNext() {
+			dispatched.remove(0).run();
+		}
+	}
+
+	private static class NamedWork implements Runnable {
+		final String name;
+		final List<String> ran;
+
+		NamedWork(String name, List<String> ran) {
+			this.name = name;
+			this.ran = ran;
+		}
+
+		@Override
+		public void run() {
+			ran.add(name);
+		}
+	}
+
+	private final ManualThreadPool pool = new ManualThreadPool();
+	private final List<String> ran = new ArrayList<String>();
+
+	@Test
+	public void testWeightedFairQueuing() {
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.SCHEDULER_MAX_CONCURRENT_JOBS, "1");
+		props.setProperty(BatchContainerConstants.SCHEDULER_PRIORITY_CLASSES, "high=3,low=1,batch=1");
+		props.setProperty(BatchContainerConstants.SCHEDULER_DEFAULT_PRIORITY_CLASS, "batch");
+		BatchWorkScheduler scheduler = new BatchWorkScheduler(pool, props);
+
+		// Holds the only slot while the rest queue up
+		scheduler.submitJob(new NamedWork("first", ran), null, null);
+		for (int i = 0; i < 6; i++) {
+			scheduler.submitJob(new NamedWork("high", ran), "high", null);
+			scheduler.submitJob(new NamedWork("low", ran), "low", null);
+		}
+		assertEquals(1, pool.dispatched.size());
+		assertEquals(6L, (long) scheduler.getQueueStatistics().get("high").get("queued"));
+
+		for (int i = 0; i < 9; i++) {
+			pool.runNext();
+		}
+		assertEquals("first", ran.remove(0));
+		int high = 0;
+		for (String name : ran) {
+			if (name.equals("high")) {
+				high++;
+			}
+		}
+		assertEquals("Expected 3 high for each low in: " + ran, 6, high);
+
+		Map<String, Map<String, Long>> stats = scheduler.getQueueStatistics();
+		assertEquals(6L, (long) stats.get("high").get("dispatched"));
+		assertEquals(3L, (long) stats.get("low").get("dispatched"));
+		assertEquals(1L, (long) stats.get("batch").get("dispatched"));
+		assertEquals(1, scheduler.getRunningJobCount());
+	}
+
+	@Test
+	public void testUnknownPriorityUsesDefaultClass() {
+		BatchWorkScheduler scheduler = new BatchWorkScheduler(pool, new Properties());
+		scheduler.submitJob(new NamedWork("job", ran), "urgent", null);
+		assertEquals(1L, (long) scheduler.getQueueStatistics().get("normal").get("dispatched"));
+	}
+
+	@Test
+	public void testApptagQuota() {
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.SCHEDULER_MAX_CONCURRENT_JOBS, "4");
+		props.setProperty(BatchContainerConstants.SCHEDULER_APPTAG_QUOTAS, "reports=1");
+		props.setProperty(BatchContainerConstants.SCHEDULER_APPTAG_PRIORITY_CLASSES, "billing=high");
+		BatchWorkScheduler scheduler = new BatchWorkScheduler(pool, props);
+
+		scheduler.submitJob(new NamedWork("reports1", ran), null, "reports");
+		scheduler.submitJob(new NamedWork("reports2", ran), null, "reports");
+		scheduler.submitJob(new NamedWork("billing", ran), null, "billing");
+
+		// reports2 waits for reports1 even though there are free slots, billing doesn't wait behind it
+		assertEquals(2, pool.dispatched.size());
+		assertEquals(1L, (long) scheduler.getQueueStatistics().get("normal").get("queued"));
+		assertEquals(1L, (long) scheduler.getQueueStatistics().get("high").get("dispatched"));
+
+		pool.runNext();
+		assertEquals("reports1", ran.get(0));
+		assertEquals(2, pool.dispatched.size());
+		assertEquals(0L, (long) scheduler.getQueueStatistics().get("normal").get("queued"));
+		pool.runNext();
+		pool.runNext();
+		assertEquals(0, scheduler.getRunningJobCount());
+	}
+
+	@Test
+	public void testParallelWorkAdmittedPerParent() {
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.SCHEDULER_MAX_PARALLEL_PER_PARENT, "2");
+		BatchWorkScheduler scheduler = new BatchWorkScheduler(pool, props);
+
+		Object step1 = new Object();
+		Object step2 = new Object();
+		for (int i = 0; i < 5; i++) {
+			scheduler.submitParallelWork(new NamedWork("step1:" + i, ran), step1);
+		}
+		scheduler.submitParallelWork(new NamedWork("step2:0", ran), step2);
+
+		assertEquals(3, pool.dispatched.size());
+		assertEquals(3, scheduler.getParallelDeferredCount());
+
+		// Each partition finishing lets the next one of the same step in
+		while (!pool.dispatched.isEmpty()) {
+			pool.runNext();
+			assertTrue(pool.dispatched.size() <= 3);
+		}
+		assertEquals(6, ran.size());
+		assertEquals("step1:4", ran.get(ran.size() - 1));
+	}
+}
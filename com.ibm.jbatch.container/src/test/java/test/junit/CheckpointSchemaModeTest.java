@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.services.impl.JDBCPersistenceManagerImpl;
+import com.ibm.jbatch.container.status.StepStatus;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.DatabaseConfigurationBean;
+
+public class CheckpointSchemaModeTest {
+
+	private static final String URL = "jdbc:derby:memory:checkpointSchemaModeTest;create=true";
+
+	private JDBCPersistenceManagerImpl persistence;
+
+	@After
+	public void tearDown() {
+		if (persistence != null) {
+			persistence.shutdown();
+		}
+	}
+
+	@Test
+	public void testMigrateAndUpsert() throws Exception {
+		persistence = open(BatchContainerConstants.CHECKPOINT_SCHEMA_MODE_LEGACY);
+		long instanceId = persistence.createSubJobInstance("checkpointSchemaModeTest", "tag").getInstanceId();
+		CheckpointDataKey readerKey = new CheckpointDataKey(instanceId, "step1", "READER");
+		persistence.updateCheckpointData(readerKey, checkpoint(readerKey, 1));
+		persistence.updateCheckpointData(readerKey, checkpoint(readerKey, 2));
+		// Left over from an instance which no longer exists
+		persistence.createCheckpointData(new CheckpointDataKey(Long.MAX_VALUE, "step1", "READER"), checkpoint(readerKey, 3));
+		persistence.shutdown();
+
+		persistence = open(BatchContainerConstants.CHECKPOINT_SCHEMA_MODE_STRUCTURED);
+		assertEquals(0, count("CHECKPOINTDATA"));
+		assertEquals(1, count("STEPCHECKPOINTDATA"));
+		assertEquals(2, persistence.getCheckpointData(readerKey).getRestartToken()[0]);
+
+		CheckpointDataKey writerKey = new CheckpointDataKey(instanceId, "step1", "WRITER");
+		Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+		checkpoints.put(readerKey, checkpoint(readerKey, 4));
+		checkpoints.put(writerKey, checkpoint(writerKey, 5));
+		persistence.updateCheckpointData(checkpoints, (StepStatus) null);
+		persistence.updateCheckpointData(checkpoints, (StepStatus) null);
+
+		assertEquals(2, count("STEPCHECKPOINTDATA"));
+		assertEquals(4, persistence.getCheckpointData(readerKey).getRestartToken()[0]);
+		assertEquals(5, persistence.getCheckpointData(writerKey).getRestartToken()[0]);
+		assertNull(persistence.getCheckpointData(new CheckpointDataKey(instanceId, "step2", "READER")));
+	}
+
+	private JDBCPersistenceManagerImpl open(String checkpointSchemaMode) {
+		DatabaseConfigurationBean dbConfig = new DatabaseConfigurationBean();
+		dbConfig.setJdbcDriver(BatchContainerConstants.DEFAULT_JDBC_DRIVER);
+		dbConfig.setJdbcUrl(URL);
+		dbConfig.setSchema(BatchContainerConstants.DEFAULT_DB_SCHEMA);
+		dbConfig.setDbUser("");
+		dbConfig.setDbPassword("");
+
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.CHECKPOINT_SCHEMA_MODE, checkpointSchemaMode);
+		BatchConfigImpl config = new BatchConfigImpl();
+		config.setJ2seMode(true);
+		config.setDatabaseConfigurationBean(dbConfig);
+		config.setConfigProperties(props);
+
+		JDBCPersistenceManagerImpl impl = new JDBCPersistenceManagerImpl();
+		impl.init(config);
+		return impl;
+	}
+
+	private CheckpointData checkpoint(CheckpointDataKey key, int token) {
+		CheckpointData data = new CheckpointData(key.getJobInstanceId(), key.getStepName(), key.getBatchDataStreamName());
+		data.setRestartToken(new byte[] { (byte) token });
+		return data;
+	}
+
+	private int count(String table) throws Exception {
+		Connection conn = DriverManager.getConnection(URL);
+		try {
+			Statement statement = conn.createStatement();
+			ResultSet rs = statement.executeQuery("select count(*) from " + BatchContainerConstants.DEFAULT_DB_SCHEMA + "." + table);
+			rs.next();
+			return rs.getInt(1);
+		} finally {
+			conn.close();
+		}
+	}
+}
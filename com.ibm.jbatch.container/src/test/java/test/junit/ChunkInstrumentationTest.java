@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.api.impl.JobOperatorImpl;
+import com.ibm.jbatch.container.util.ChunkInstrumentationHelper;
+import com.ibm.jbatch.container.util.PhaseTimerRegistry;
+import com.ibm.jbatch.spi.ChunkInstrumentation.Phase;
+
+public class ChunkInstrumentationTest {
+
+	@After
+	public void tearDown() {
+		ChunkInstrumentationHelper.setInstrumentation(null);
+	}
+
+	@Test
+	public void testPartitionPhaseTimers() throws Exception {
+		JobOperatorImpl jobOp = (JobOperatorImpl) BatchRuntime.getJobOperator();
+		PhaseTimerRegistry registry = new PhaseTimerRegistry(new Properties());
+		ChunkInstrumentationHelper.setInstrumentation(registry);
+
+		Properties params = new Properties();
+		params.setProperty("step1Size", "15");
+		params.setProperty("step2Size", "20");
+		long execId = jobOp.start("partitionMetrics", params);
+		assertEquals(BatchStatus.COMPLETED, jobOp.getJobExecutionCompletion(execId).get(60, TimeUnit.SECONDS).getBatchStatus());
+
+		for (int partition = 0; partition < 3; partition++) {
+			// 15 items plus the null read ending the step, in 3 chunks plus 1 without items
+			assertEquals(16, registry.getCount("partitionMetrics", "step1", partition, Phase.READ));
+			assertEquals(15, registry.getCount("partitionMetrics", "step1", partition, Phase.PROCESS));
+			assertEquals(4, registry.getCount("partitionMetrics", "step1", partition, Phase.TRANSACTION_BEGIN));
+			assertEquals(4, registry.getCount("partitionMetrics", "step1", partition, Phase.CHECKPOINT_SERIALIZATION));
+			assertEquals(4, registry.getCount("partitionMetrics", "step1", partition, Phase.PERSISTENCE));
+			assertEquals(4, registry.getCount("partitionMetrics", "step1", partition, Phase.TRANSACTION_COMMIT));
+			assertTrue(registry.getCount("partitionMetrics", "step1", partition, Phase.WRITE) > 0);
+			// The chunk listener
+			assertEquals(8, registry.getCount("partitionMetrics", "step1", partition, Phase.LISTENERS));
+			assertTrue(registry.getTotalNanos("partitionMetrics", "step1", partition, Phase.READ) > 0);
+		}
+		assertEquals(0, registry.getCount("partitionMetrics", "step1", -1, Phase.READ));
+		assertTrue(registry.getTimers().length > 0);
+	}
+
+	/*
+	 * Partitions in split flows, even nested ones, are timed under the top-level job's name
+	 */
+	@Test
+	public void testPartitionInSplitFlowPhaseTimers() throws Exception {
+		JobOperatorImpl jobOp = (JobOperatorImpl) BatchRuntime.getJobOperator();
+		PhaseTimerRegistry registry = new PhaseTimerRegistry(new Properties());
+		ChunkInstrumentationHelper.setInstrumentation(registry);
+
+		Properties params = new Properties();
+		params.setProperty("step1Size", "15");
+		params.setProperty("step2Size", "20");
+		long execId = jobOp.start("partitionSplitFlowMetrics", params);
+		assertEquals(BatchStatus.COMPLETED, jobOp.getJobExecutionCompletion(execId).get(60, TimeUnit.SECONDS).getBatchStatus());
+
+		for (int partition = 0; partition < 3; partition++) {
+			assertEquals(15, registry.getCount("partitionSplitFlowMetrics", "step1", partition, Phase.PROCESS));
+			assertEquals(20, registry.getCount("partitionSplitFlowMetrics", "step2", partition, Phase.PROCESS));
+		}
+		for (String name : registry.getTimers()) {
+			assertFalse("timer named after a sub-job: " + name, name.startsWith(":"));
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.jsl.CloneUtility;
+import com.ibm.jbatch.container.modelresolver.PropertyResolverFactory;
+import com.ibm.jbatch.jsl.model.Chunk;
+import com.ibm.jbatch.jsl.model.ExceptionClassFilter;
+import com.ibm.jbatch.jsl.model.ItemProcessor;
+import com.ibm.jbatch.jsl.model.ItemReader;
+import com.ibm.jbatch.jsl.model.ItemWriter;
+import com.ibm.jbatch.jsl.model.JSLProperties;
+import com.ibm.jbatch.jsl.model.ObjectFactory;
+import com.ibm.jbatch.jsl.model.Property;
+
+public class CloneUtilityTest {
+
+	private static final String PARTITION_EXPRESSION = "#{partitionPlan['start']}";
+
+	private final ObjectFactory jslFactory = new ObjectFactory();
+
+	// The step's chunk, as resolved at the job level
+	private Chunk chunk;
+
+	@Before
+	public void buildChunk() {
+		chunk = jslFactory.createChunk();
+		chunk.setItemCount("#{jobParameters['itemCount']}");
+
+		ItemReader reader = jslFactory.createItemReader();
+		reader.setRef("reader");
+		reader.setProperties(properties("start", PARTITION_EXPRESSION, "name", "#{jobParameters['name']}"));
+		chunk.setReader(reader);
+
+		ItemProcessor processor = jslFactory.createItemProcessor();
+		processor.setRef("processor");
+		processor.setProperties(properties("mode", "#{jobParameters['mode']}"));
+		chunk.setProcessor(processor);
+
+		ItemWriter writer = jslFactory.createItemWriter();
+		writer.setRef("writer");
+		chunk.setWriter(writer);
+
+		ExceptionClassFilter skippable = jslFactory.createExceptionClassFilter();
+		ExceptionClassFilter.Include include = jslFactory.createExceptionClassFilterInclude();
+		include.setClazz("java.lang.IllegalStateException");
+		skippable.getIncludeList().add(include);
+		chunk.setSkippableExceptionClasses(skippable);
+
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("itemCount", "5");
+		jobParameters.setProperty("name", "job");
+		jobParameters.setProperty("mode", "fast");
+		PropertyResolverFactory.createChunkPropertyResolver(false).substituteProperties(chunk, jobParameters);
+	}
+
+	/*
+	 * Only what refers to the partition plan is copied, the rest is shared with the step
+	 */
+	@Test
+	public void testOnlyPartitionDependentPartsCopied() {
+		Chunk copy = CloneUtility.cloneChunk(chunk);
+
+		assertNotSame(chunk, copy);
+		assertNotSame(chunk.getReader(), copy.getReader());
+		assertSame(chunk.getProcessor(), copy.getProcessor());
+		assertSame(chunk.getWriter(), copy.getWriter());
+		assertSame(chunk.getSkippableExceptionClasses(), copy.getSkippableExceptionClasses());
+		// The reader's other, already resolved, property is shared too
+		assertSame(chunk.getReader().getProperties().getPropertyList().get(1), copy.getReader().getProperties().getPropertyList().get(1));
+	}
+
+	/*
+	 * Resolving each partition's copy leaves the step's model, and the other partitions', as they were
+	 */
+	@Test
+	public void testResolvedCopyLeavesStepModelUnchanged() {
+		Chunk copy0 = resolveForPartition(CloneUtility.cloneChunk(chunk), "0");
+		Chunk copy1 = resolveForPartition(CloneUtility.cloneChunk(chunk), "100");
+
+		assertEquals("0", propertyValue(copy0.getReader().getProperties(), "start"));
+		assertEquals("100", propertyValue(copy1.getReader().getProperties(), "start"));
+
+		assertEquals(PARTITION_EXPRESSION, propertyValue(chunk.getReader().getProperties(), "start"));
+		assertEquals("job", propertyValue(chunk.getReader().getProperties(), "name"));
+		assertEquals("fast", propertyValue(chunk.getProcessor().getProperties(), "mode"));
+		assertEquals("5", chunk.getItemCount());
+		assertEquals("java.lang.IllegalStateException", chunk.getSkippableExceptionClasses().getIncludeList().get(0).getClazz());
+		assertEquals(2, chunk.getReader().getProperties().getPropertyList().size());
+
+		// Resolving again is harmless to the copies made earlier
+		assertEquals("0", propertyValue(copy0.getReader().getProperties(), "start"));
+		assertEquals("job", propertyValue(copy0.getReader().getProperties(), "name"));
+	}
+
+	private Chunk resolveForPartition(Chunk copy, String start) {
+		Properties partitionProps = new Properties();
+		partitionProps.setProperty("start", start);
+		PropertyResolverFactory.createChunkPropertyResolver(true).substituteProperties(copy, partitionProps);
+		return copy;
+	}
+
+	private JSLProperties properties(String... namesAndValues) {
+		JSLProperties props = jslFactory.createJSLProperties();
+		for (int i = 0; i < namesAndValues.length; i += 2) {
+			Property prop = jslFactory.createProperty();
+			prop.setName(namesAndValues[i]);
+			prop.setValue(namesAndValues[i + 1]);
+			props.getPropertyList().add(prop);
+		}
+		return props;
+	}
+
+	private String propertyValue(JSLProperties props, String name) {
+		for (Property prop : props.getPropertyList()) {
+			if (name.equals(prop.getName())) {
+				return prop.getValue();
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import jakarta.batch.api.AbstractBatchlet;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.artifact.proxy.InjectionReferences;
+import com.ibm.jbatch.container.artifact.proxy.ProxyFactory;
+
+public class DelegatingBatchArtifactFactoryTest {
+
+	private static final InjectionReferences NO_REFERENCES = new InjectionReferences(null, null, null);
+
+	/*
+	 * The constructor is cached per class, the instances it creates aren't
+	 */
+	@Test
+	public void testFreshInstanceOnEachLoad() throws Exception {
+		Object first = load(Artifact.class.getName(), getClass().getClassLoader());
+		Object second = load(Artifact.class.getName(), getClass().getClassLoader());
+
+		assertSame(Artifact.class, first.getClass());
+		assertSame(Artifact.class, second.getClass());
+		assertNotSame(first, second);
+	}
+
+	/*
+	 * The same class name loaded by two applications' loaders gives two classes, and each
+	 * loader keeps getting instances of its own
+	 */
+	@Test
+	public void testLoadersIsolated() throws Exception {
+		URL testClasses = Artifact.class.getProtectionDomain().getCodeSource().getLocation();
+		ClassLoader loader1 = new ArtifactFirstClassLoader(testClasses, getClass().getClassLoader());
+		ClassLoader loader2 = new ArtifactFirstClassLoader(testClasses, getClass().getClassLoader());
+
+		Object fromLoader1 = load(Artifact.class.getName(), loader1);
+		Object fromLoader2 = load(Artifact.class.getName(), loader2);
+		assertSame(loader1, fromLoader1.getClass().getClassLoader());
+		assertSame(loader2, fromLoader2.getClass().getClassLoader());
+		assertNotSame(fromLoader1.getClass(), fromLoader2.getClass());
+
+		Object againFromLoader1 = load(Artifact.class.getName(), loader1);
+		assertSame(fromLoader1.getClass(), againFromLoader1.getClass());
+		assertNotSame(fromLoader1, againFromLoader1);
+		assertNotSame(Artifact.class, load(Artifact.class.getName(), loader2).getClass());
+	}
+
+	private Object load(String className, ClassLoader loader) throws Exception {
+		Thread thread = Thread.currentThread();
+		ClassLoader tccl = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			return ProxyFactory.createBatchletProxy(className, NO_REFERENCES, null).getDelegate();
+		} finally {
+			thread.setContextClassLoader(tccl);
+		}
+	}
+
+	public static class Artifact extends AbstractBatchlet {
+		@Override
+		public String process() throws Exception {
+			return null;
+		}
+	}
+
+	/*
+	 * Defines its own copy of the artifact class, like an application's loader would, while
+	 * sharing the batch API with the test
+	 */
+	private static class ArtifactFirstClassLoader extends URLClassLoader {
+
+		ArtifactFirstClassLoader(URL classes, ClassLoader parent) {
+			super(new URL[] { classes }, parent);
+		}
+
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.equals(Artifact.class.getName())) {
+				return super.loadClass(name, resolve);
+			}
+			Class<?> artifactClass = findLoadedClass(name);
+			if (artifactClass == null) {
+				artifactClass = findClass(name);
+			}
+			if (resolve) {
+				resolveClass(artifactClass);
+			}
+			return artifactClass;
+		}
+	}
+}
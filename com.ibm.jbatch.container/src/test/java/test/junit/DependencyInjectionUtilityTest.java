@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.runtime.context.JobContext;
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.inject.Inject;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.artifact.proxy.InjectionReferences;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
+import com.ibm.jbatch.container.exception.IllegalBatchPropertyException;
+import com.ibm.jbatch.container.util.DependencyInjectionUtility;
+import com.ibm.jbatch.jsl.model.Property;
+
+public class DependencyInjectionUtilityTest {
+
+	@Test
+	public void testFieldInjection() {
+		StepContextImpl stepContext = new StepContextImpl("step1");
+		Artifact artifact = new Artifact();
+		DependencyInjectionUtility.injectReferences(artifact,
+				new InjectionReferences(null, stepContext, properties("plain", "a", "renamed", "b", "unused", "c")));
+
+		assertEquals("a", artifact.plain);
+		assertEquals("b", artifact.named);
+		assertEquals("default", artifact.unset);
+		assertSame(stepContext, artifact.stepContext);
+		assertNull(artifact.jobContext);
+	}
+
+	/*
+	 * Each class's setters are found once, then used for every instance
+	 */
+	@Test
+	public void testSettersReusedAcrossInstances() {
+		Artifact first = new Artifact();
+		Artifact second = new Artifact();
+		DependencyInjectionUtility.injectReferences(first, new InjectionReferences(null, null, properties("plain", "1")));
+		DependencyInjectionUtility.injectReferences(second, new InjectionReferences(null, null, properties("plain", "2")));
+
+		assertEquals("1", first.plain);
+		assertEquals("2", second.plain);
+	}
+
+	@Test
+	public void testStaticFieldInjection() {
+		DependencyInjectionUtility.injectReferences(new StaticArtifact(), new InjectionReferences(null, null, properties("shared", "s")));
+		assertEquals("s", StaticArtifact.shared);
+	}
+
+	/*
+	 * A field that can't take the value fails only when there's a value for it, with a new
+	 * exception each time
+	 */
+	@Test
+	public void testUninjectableFields() {
+		DependencyInjectionUtility.injectReferences(new BadArtifact(), new InjectionReferences(null, null, properties("other", "x")));
+
+		List<Throwable> failures = new ArrayList<Throwable>();
+		for (int i = 0; i < 2; i++) {
+			try {
+				DependencyInjectionUtility.injectReferences(new BadArtifact(), new InjectionReferences(null, null, properties("count", "3")));
+				fail("Injected a String into an int field");
+			} catch (IllegalBatchPropertyException e) {
+				assertTrue(e.getCause() instanceof ClassCastException);
+				failures.add(e.getCause());
+			}
+		}
+		assertNotSame(failures.get(0), failures.get(1));
+
+		try {
+			DependencyInjectionUtility.injectReferences(new BadArtifact(), new InjectionReferences(null, null, properties("constant", "y")));
+			fail("Injected into a static final field");
+		} catch (BatchContainerRuntimeException e) {
+			assertTrue(e.getCause() instanceof IllegalAccessException);
+		}
+	}
+
+	private List<Property> properties(String... namesAndValues) {
+		List<Property> props = new ArrayList<Property>();
+		for (int i = 0; i < namesAndValues.length; i += 2) {
+			Property prop = new Property();
+			prop.setName(namesAndValues[i]);
+			prop.setValue(namesAndValues[i + 1]);
+			props.add(prop);
+		}
+		return props;
+	}
+
+	public static class Artifact {
+
+		@Inject @BatchProperty
+		private String plain;
+
+		@Inject @BatchProperty(name = "renamed")
+		String named;
+
+		@Inject @BatchProperty
+		String unset = "default";
+
+		@Inject
+		StepContext stepContext;
+
+		@Inject
+		JobContext jobContext;
+	}
+
+	public static class StaticArtifact {
+
+		@Inject @BatchProperty
+		static String shared;
+	}
+
+	public static class BadArtifact {
+
+		@Inject @BatchProperty
+		int count;
+
+		@Inject @BatchProperty
+		static final String constant = "fixed";
+
+		@Inject @BatchProperty
+		String other;
+	}
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.StepExecution;
+import jakarta.inject.Inject;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.PartitionState;
+import com.ibm.jbatch.spi.SplittableItemReader;
+
+public class DynamicPartitionSchedulingTest {
+
+	private static final int ITEMS = 245;
+
+	private static JobOperator jobOp = null;
+
+	static final List<Integer> written = Collections.synchronizedList(new ArrayList<Integer>());
+	static final List<Integer> started = Collections.synchronizedList(new ArrayList<Integer>());
+	static final AtomicBoolean failed = new AtomicBoolean();
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		written.clear();
+		started.clear();
+		failed.set(false);
+	}
+
+	@Test
+	public void testLargestFirst() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("threads", "1");
+		long execId = jobOp.start("dynamicPartitionTest", params);
+		assertEquals("batch status", BatchStatus.COMPLETED, waitForEnd(execId).getBatchStatus());
+
+		// By size hint: 200, 20, 15 then 10 items
+		assertEquals(Arrays.asList(0, 210, 230, 200), started);
+		assertEquals(expected(), sorted(written));
+	}
+
+	/*
+	 * The big partition is left running alone, so it's split for the idle worker, repeatedly
+	 */
+	@Test
+	public void testIdleWorkerSplitsRunningPartition() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("threads", "2");
+		params.setProperty("sleepMillis", "2");
+		long execId = jobOp.start("dynamicPartitionTest", params);
+		assertEquals("batch status", BatchStatus.COMPLETED, waitForEnd(execId).getBatchStatus());
+
+		assertEquals(expected(), sorted(written));
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals(ITEMS, getMetric(step, Metric.MetricType.READ_COUNT));
+		assertEquals(ITEMS, getMetric(step, Metric.MetricType.WRITE_COUNT));
+
+		long instanceId = jobOp.getJobInstance(execId).getInstanceId();
+		Map<Integer, PartitionState> statuses = ServicesManagerImpl.getInstance().getPersistenceManagerService()
+				.getPartitionStates(instanceId, "step1");
+		assertTrue("no partition was split: " + statuses.keySet(), statuses.size() > 4);
+		for (PartitionState status : statuses.values()) {
+			assertEquals(BatchStatus.COMPLETED, status.getBatchStatus());
+			if (status.getPartitionNumber() >= 4) {
+				assertEquals("split off the big partition", 0, status.getPlanPartitionNumber());
+			}
+		}
+	}
+
+	/*
+	 * Splits are persisted along with the checkpoint of the partition they're split off, so
+	 * on restart each item is still read by exactly one partition.
+	 */
+	@Test
+	public void testRestartAfterSplit() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("threads", "2");
+		params.setProperty("sleepMillis", "2");
+		params.setProperty("failAt", "160");
+		long execId = jobOp.start("dynamicPartitionTest", params);
+		assertEquals("batch status", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+		assertTrue(written.size() < ITEMS);
+
+		long restartId = jobOp.restart(execId, params);
+		assertEquals("restart batch status", BatchStatus.COMPLETED, waitForEnd(restartId).getBatchStatus());
+
+		assertEquals(expected(), sorted(written));
+		StepExecution step = jobOp.getStepExecutions(restartId).get(0);
+		assertEquals(ITEMS, getMetric(step, Metric.MetricType.WRITE_COUNT));
+	}
+
+	/*
+	 * A split whose checkpoint never commits isn't persisted, its items stay with the
+	 * partition they were to be split off
+	 */
+	@Test
+	public void testSplitAbandonedOnCheckpointFailure() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("threads", "2");
+		params.setProperty("sleepMillis", "2");
+		params.setProperty("failCheckpointAfterSplit", "true");
+		long execId = jobOp.start("dynamicPartitionTest", params);
+		assertEquals("batch status", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+
+		long instanceId = jobOp.getJobInstance(execId).getInstanceId();
+		Map<Integer, PartitionState> statuses = ServicesManagerImpl.getInstance().getPersistenceManagerService()
+				.getPartitionStates(instanceId, "step1");
+		assertEquals(new TreeSet<Integer>(Arrays.asList(0, 1, 2, 3)), new TreeSet<Integer>(statuses.keySet()));
+
+		long restartId = jobOp.restart(execId, params);
+		assertEquals("restart batch status", BatchStatus.COMPLETED, waitForEnd(restartId).getBatchStatus());
+
+		// The chunk rolled back reached our (non-transactional) writer, and is written again on restart
+		assertEquals(expected(), new ArrayList<Integer>(new TreeSet<Integer>(written)));
+		StepExecution step = jobOp.getStepExecutions(restartId).get(0);
+		assertEquals(ITEMS, getMetric(step, Metric.MetricType.WRITE_COUNT));
+	}
+
+	private List<Integer> expected() {
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < ITEMS; i++) {
+			expected.add(i);
+		}
+		return expected;
+	}
+
+	private List<Integer> sorted(List<Integer> items) {
+		List<Integer> sorted;
+		synchronized (items) {
+			sorted = new ArrayList<Integer>(items);
+		}
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	private JobExecution waitForEnd(long execId) throws Exception {
+		long deadline = System.currentTimeMillis() + 30000;
+		JobExecution je = jobOp.getJobExecution(execId);
+		while (System.currentTimeMillis() < deadline) {
+			BatchStatus status = je.getBatchStatus();
+			if (status == BatchStatus.COMPLETED || status == BatchStatus.FAILED || status == BatchStatus.STOPPED) {
+				break;
+			}
+			Thread.sleep(100);
+			je = jobOp.getJobExecution(execId);
+		}
+		return je;
+	}
+
+	private long getMetric(StepExecution step, Metric.MetricType type) {
+		for (Metric metric : step.getMetrics()) {
+			if (metric.getType() == type) {
+				return metric.getValue();
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Reads the integers from start up to end, giving up the back half of what's left
+	 */
+	public static class Reader implements SplittableItemReader {
+
+		@Inject @BatchProperty
+		String start;
+
+		@Inject @BatchProperty
+		String end;
+
+		@Inject @BatchProperty
+		String failAt;
+
+		@Inject @BatchProperty
+		String sleepMillis;
+
+		@Inject @BatchProperty
+		String failCheckpointAfterSplit;
+
+		private int next;
+		private int last;
+		private boolean split = false;
+
+		@Override
+		public void open(Serializable checkpoint) throws Exception {
+			if (checkpoint != null) {
+				int[] range = (int[]) checkpoint;
+				next = range[0];
+				last = range[1];
+			} else {
+				next = Integer.parseInt(start);
+				last = Integer.parseInt(end);
+				started.add(next);
+			}
+		}
+
+		@Override
+		public Object readItem() throws Exception {
+			if (next >= last) {
+				return null;
+			}
+			if (next == Integer.parseInt(failAt) && failed.compareAndSet(false, true)) {
+				throw new IllegalArgumentException("Forcing failure at item " + next);
+			}
+			Thread.sleep(Long.parseLong(sleepMillis));
+			return next++;
+		}
+
+		@Override
+		public Serializable checkpointInfo() throws Exception {
+			if (split && Boolean.parseBoolean(failCheckpointAfterSplit) && failed.compareAndSet(false, true)) {
+				throw new IllegalStateException("Forcing checkpoint failure after split at item " + next);
+			}
+			split = false;
+			return new int[] {next, last};
+		}
+
+		@Override
+		public Serializable splitRemaining() throws Exception {
+			int remaining = last - next;
+			if (remaining < 10) {
+				return null;
+			}
+			int split = next + remaining / 2;
+			int[] givenUp = new int[] {split, last};
+			last = split;
+			this.split = true;
+			return givenUp;
+		}
+
+		@Override
+		public void close() throws Exception {
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+			for (Object item : items) {
+				written.add((Integer) item);
+			}
+		}
+	}
+}
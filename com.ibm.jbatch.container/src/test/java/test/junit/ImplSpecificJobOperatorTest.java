@@ -22,6 +22,9 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import jakarta.batch.operations.JobOperator;
 import jakarta.batch.operations.JobRestartException;
@@ -36,6 +39,8 @@ import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.ibm.jbatch.container.api.impl.JobOperatorImpl;
+import com.ibm.jbatch.container.callback.JobEndCallbackManagerImpl;
 import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
@@ -171,4 +176,92 @@ public class ImplSpecificJobOperatorTest {
 		Properties exec2Props = jo.getParameters(exec2Id);
 		assertEquals("Expecting empty parameters", 0, exec2Props.entrySet().size());
 	}
+
+	@Test
+	public void testPagingBeforeId() throws Exception {
+		JobOperatorImpl jo = (JobOperatorImpl) BatchRuntime.getJobOperator();
+		for (int i = 0; i < 3; i++) {
+			Properties props = new Properties();
+			props.setProperty("run", String.valueOf(i));
+			jo.start("alwaysFails1", props);
+		}
+		String jobName = "runtimejunit.alwaysFails1";
+
+		// Keyset pages match the offset pages
+		List<JobInstance> byOffset = jo.getJobInstances(jobName, 0, 3);
+		List<JobInstance> firstPage = jo.getJobInstancesBefore(jobName, Long.MAX_VALUE, 2);
+		assertEquals(2, firstPage.size());
+		List<JobInstance> secondPage = jo.getJobInstancesBefore(jobName, firstPage.get(1).getInstanceId(), 1);
+		assertEquals(1, secondPage.size());
+		assertEquals(byOffset.get(0).getInstanceId(), firstPage.get(0).getInstanceId());
+		assertEquals(byOffset.get(1).getInstanceId(), firstPage.get(1).getInstanceId());
+		assertEquals(byOffset.get(2).getInstanceId(), secondPage.get(0).getInstanceId());
+		assertEquals(jobName, secondPage.get(0).getJobName());
+		assertTrue(jo.getJobInstancesBefore(jobName, 0, 10).isEmpty());
+
+		List<JobExecution> executions = jo.getJobExecutionsBefore(jobName, Long.MAX_VALUE, 3);
+		assertEquals(3, executions.size());
+		assertTrue(executions.get(0).getExecutionId() > executions.get(1).getExecutionId());
+		assertEquals("2", executions.get(0).getJobParameters().getProperty("run"));
+		assertEquals(jobName, executions.get(0).getJobName());
+
+		// Past the last instance is an empty page, not an unknown job
+		int instanceCount = jo.getJobInstanceCount(jobName);
+		assertTrue(jo.getJobInstances(jobName, instanceCount, 10).isEmpty());
+	}
+
+	@Test
+	public void testJobExecutionCompletion() throws Exception {
+		final JobOperatorImpl jo = (JobOperatorImpl) BatchRuntime.getJobOperator();
+		Properties props = new Properties();
+		props.setProperty("sleepTime", "500");
+		long execId = jo.start("simpleJob", props);
+
+		// Chain the next job on the end of the first, with no thread waiting in between
+		CompletableFuture<Long> next = jo.getJobExecutionCompletion(execId).thenApply(new Function<JobExecution, Long>() {
+			@Override
+			public Long apply(JobExecution execution) {
+				assertEquals(BatchStatus.COMPLETED, execution.getBatchStatus());
+				return jo.start("simpleJob", null);
+			}
+		});
+		long nextExecId = next.get(60, TimeUnit.SECONDS);
+		JobExecution nextExecution = jo.getJobExecutionCompletion(nextExecId).get(60, TimeUnit.SECONDS);
+		assertEquals(BatchStatus.COMPLETED, nextExecution.getBatchStatus());
+		assertNotNull(nextExecution.getEndTime());
+
+		// Already ended
+		CompletableFuture<JobExecution> ended = jo.getJobExecutionCompletion(execId);
+		assertTrue(ended.isDone());
+		assertEquals(execId, ended.get().getExecutionId());
+
+		try {
+			jo.getJobExecutionCompletion(Long.MAX_VALUE);
+			fail("Expected NoSuchJobExecutionException");
+		} catch (NoSuchJobExecutionException e) {
+			// expected
+		}
+	}
+
+	/*
+	 * Waiters that give up don't affect the others, nor those that come after them
+	 */
+	@Test
+	public void testCancelledCompletionWaiters() throws Exception {
+		JobEndCallbackManagerImpl callbackManager = new JobEndCallbackManagerImpl();
+		CompletableFuture<Long> first = callbackManager.getCompletionFuture(1L);
+		CompletableFuture<Long> second = callbackManager.getCompletionFuture(1L);
+		first.cancel(false);
+		callbackManager.done(1L);
+		assertEquals(Long.valueOf(1L), second.get(1, TimeUnit.SECONDS));
+
+		// All waiters gone, then a new one
+		CompletableFuture<Long> abandoned = callbackManager.getCompletionFuture(2L);
+		abandoned.cancel(false);
+		CompletableFuture<Long> later = callbackManager.getCompletionFuture(2L);
+		assertFalse(later.isDone());
+		callbackManager.done(2L);
+		assertEquals(Long.valueOf(2L), later.get(1, TimeUnit.SECONDS));
+		assertTrue(abandoned.isCancelled());
+	}
 }
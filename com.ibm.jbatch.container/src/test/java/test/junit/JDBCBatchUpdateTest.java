@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.services.impl.JDBCBatchUpdate;
+
+public class JDBCBatchUpdateTest {
+
+	private static final String URL = "jdbc:derby:memory:batchupdatetest;create=true";
+
+	private Connection conn;
+
+	private final String[] ids = { "a", "b", "c" };
+
+	private final JDBCBatchUpdate.RowBinder binder = new JDBCBatchUpdate.RowBinder() {
+		@Override
+		public void bind(PreparedStatement statement, int row) throws SQLException {
+			statement.setInt(1, row);
+			statement.setString(2, ids[row]);
+		}
+	};
+
+	@Before
+	public void setUp() throws SQLException {
+		conn = DriverManager.getConnection(URL);
+		Statement statement = conn.createStatement();
+		try {
+			statement.execute("CREATE TABLE ROWS_TEST (ID VARCHAR(10) PRIMARY KEY, VAL INT)");
+		} catch (SQLException e) {
+			statement.execute("DELETE FROM ROWS_TEST");
+		}
+		statement.execute("INSERT INTO ROWS_TEST VALUES ('b', -1)");
+		statement.close();
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		conn.close();
+	}
+
+	@Test
+	public void testUpdateCounts() throws SQLException {
+		boolean[] found = JDBCBatchUpdate.updateRows(conn, "UPDATE ROWS_TEST SET VAL = ? WHERE ID = ?", ids.length, binder);
+		assertTrue(Arrays.equals(new boolean[] { false, true, false }, found));
+	}
+
+	@Test
+	public void testSuccessNoInfo() throws SQLException {
+		boolean[] found = JDBCBatchUpdate.updateRows(noInfo(conn), "UPDATE ROWS_TEST SET VAL = ? WHERE ID = ?", ids.length, binder);
+		assertTrue(Arrays.equals(new boolean[] { false, true, false }, found));
+	}
+
+	@Test(expected = SQLException.class)
+	public void testExecuteFailed() throws SQLException {
+		JDBCBatchUpdate.updateRows(countsOf(conn, Statement.EXECUTE_FAILED), "UPDATE ROWS_TEST SET VAL = ? WHERE ID = ?", ids.length, binder);
+	}
+
+	private Connection noInfo(Connection conn) {
+		return countsOf(conn, Statement.SUCCESS_NO_INFO);
+	}
+
+	// A connection whose statements run their batches, but answer every count with the one given
+	private Connection countsOf(final Connection conn, final int count) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				Object result = invokeOn(conn, method, args);
+				if (!method.getName().equals("prepareStatement")) {
+					return result;
+				}
+				final PreparedStatement statement = (PreparedStatement) result;
+				return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						Object result = invokeOn(statement, method, args);
+						if (method.getName().equals("executeBatch")) {
+							int[] counts = new int[((int[]) result).length];
+							Arrays.fill(counts, count);
+							return counts;
+						}
+						return result;
+					}
+				});
+			}
+		});
+	}
+
+	private Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.services.impl.JDBCConnectionPool;
+
+public class JDBCConnectionPoolTest {
+
+	private static final String URL = "jdbc:derby:memory:pooltest;create=true";
+
+	private JDBCConnectionPool pool;
+
+	private JDBCConnectionPool.ConnectionFactory factory = new JDBCConnectionPool.ConnectionFactory() {
+		@Override
+		public Connection newConnection() throws SQLException {
+			return DriverManager.getConnection(URL);
+		}
+	};
+
+	@Before
+	public void setUp() throws Exception {
+		Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
+	}
+
+	@After
+	public void tearDown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testConnectionAndStatementReuse() throws Exception {
+		pool = new JDBCConnectionPool(factory, 2, 0, 1000, 10);
+
+		for (int i = 0; i < 3; i++) {
+			Connection conn = pool.getConnection();
+			PreparedStatement ps = conn.prepareStatement("values 1");
+			ResultSet rs = ps.executeQuery();
+			assertTrue(rs.next());
+			assertEquals(1, rs.getInt(1));
+			rs.close();
+			ps.close();
+			conn.close();
+			// cleanupConnection() closes twice
+			conn.close();
+			assertTrue(conn.isClosed());
+		}
+
+		assertEquals(1, pool.getConnectionsCreated());
+		assertEquals(3, pool.getBorrowCount());
+		assertEquals(1, pool.getIdleConnections());
+		assertEquals(1, pool.getStatementCacheMisses());
+		assertEquals(2, pool.getStatementCacheHits());
+	}
+
+	@Test
+	public void testStatementUnusableAfterClose() throws Exception {
+		pool = new JDBCConnectionPool(factory, 1, 0, 1000, 10);
+
+		Connection conn = pool.getConnection();
+		PreparedStatement ps = conn.prepareStatement("values 1");
+		conn.close();
+		try {
+			ps.executeQuery();
+			fail("Statement should not be usable once its connection is back in the pool");
+		} catch (SQLException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testWaitTimeoutWhenExhausted() throws Exception {
+		pool = new JDBCConnectionPool(factory, 1, 0, 100, 10);
+
+		Connection conn = pool.getConnection();
+		try {
+			pool.getConnection();
+			fail("Expected the bounded pool to time out");
+		} catch (SQLException e) {
+			// expected
+		}
+		assertEquals(1, pool.getWaitTimeoutCount());
+
+		conn.close();
+		pool.getConnection().close();
+		assertEquals(1, pool.getConnectionsCreated());
+	}
+
+	@Test
+	public void testIdleEviction() throws Exception {
+		pool = new JDBCConnectionPool(factory, 2, 1, 1000, 10);
+
+		pool.getConnection().close();
+		Thread.sleep(20);
+		pool.getConnection().close();
+
+		assertEquals(1, pool.getConnectionsEvicted());
+		assertEquals(2, pool.getConnectionsCreated());
+		assertEquals(1, pool.getTotalConnections());
+	}
+
+	@Test
+	public void testBrokenConnectionNotReused() throws Exception {
+		pool = new JDBCConnectionPool(droppingFactory, 1, 0, 1000, 10);
+
+		// Once via the statement cache, once via an uncached statement
+		for (int i = 0; i < 2; i++) {
+			Connection conn = pool.getConnection();
+			Statement s = (i == 0) ? conn.prepareStatement("values 1") : conn.createStatement();
+			try {
+				if (i == 0) {
+					((PreparedStatement) s).executeQuery();
+				} else {
+					s.executeQuery("values 1");
+				}
+				fail("Expected the statement to fail");
+			} catch (SQLException e) {
+				assertEquals("08006", e.getSQLState());
+			}
+			s.close();
+			conn.close();
+			assertEquals(i + 1, pool.getConnectionsDestroyed());
+			assertEquals(0, pool.getTotalConnections());
+		}
+		assertEquals(2, pool.getConnectionsCreated());
+	}
+
+	/*
+	 * Connections whose statements fail as if the database had dropped the connection
+	 */
+	private JDBCConnectionPool.ConnectionFactory droppingFactory = new JDBCConnectionPool.ConnectionFactory() {
+		@Override
+		public Connection newConnection() throws SQLException {
+			final Connection physical = DriverManager.getConnection(URL);
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+					new InvocationHandler() {
+						@Override
+						public Object invoke(Object proxy, final Method method, Object[] args) throws Throwable {
+							final Object result = invokeTarget(physical, method, args);
+							if (!(result instanceof Statement)) {
+								return result;
+							}
+							return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { method.getReturnType() },
+									new InvocationHandler() {
+										@Override
+										public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+											if (m.getName().startsWith("execute")) {
+												throw new SQLException("Connection dropped", "08006");
+											}
+											return invokeTarget(result, m, args);
+										}
+									});
+						}
+					});
+		}
+	};
+
+	private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
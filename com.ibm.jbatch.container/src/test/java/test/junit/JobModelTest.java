@@ -18,7 +18,9 @@ package test.junit;
 
 import static org.junit.Assert.*;
 
+import java.io.InputStream;
 import java.net.URL;
+import java.util.Scanner;
 
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
@@ -31,6 +33,7 @@ import org.junit.Test;
 import com.ibm.jbatch.jsl.model.Batchlet;
 import com.ibm.jbatch.jsl.model.JSLJob;
 import com.ibm.jbatch.jsl.model.Step;
+import com.ibm.jbatch.jsl.util.JSLUnmarshallerPool;
 import com.ibm.jbatch.jsl.util.ValidatorHelper;
 import com.ibm.jbatch.jsl.util.JSLValidationEventHandler;
 
@@ -107,6 +110,48 @@ public class JobModelTest {
     }
     
     
+    @Test
+    public void testPooledUnmarshalSkipsRevalidation() throws Exception {
+        JSLUnmarshallerPool.clearValidatedDocuments();
+        String xml = readResource("/job1.xml");
+        assertFalse(JSLUnmarshallerPool.isValidated(xml));
+
+        JSLJob first = JSLUnmarshallerPool.unmarshal(xml, JSLJob.class);
+        assertTrue(JSLUnmarshallerPool.isValidated(xml));
+
+        // Second parse goes through the non-validating path, but must still yield a distinct, equivalent model
+        JSLJob second = JSLUnmarshallerPool.unmarshal(xml, JSLJob.class);
+        assertNotSame(first, second);
+        assertEquals(first.getId(), second.getId());
+        Step step = (Step)second.getExecutionElements().get(0);
+        assertEquals("step1Ref", step.getBatchlet().getRef());
+    }
+
+    @Test
+    public void testPooledUnmarshalInvalidNotCached() throws Exception {
+        JSLUnmarshallerPool.clearValidatedDocuments();
+        String xml = readResource("/invalid.job1.xml");
+        for (int i = 0; i < 2; i++) {
+            try {
+                JSLUnmarshallerPool.unmarshal(xml, JSLJob.class);
+                fail("Expected schema validation failure on attempt: " + i);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        assertFalse(JSLUnmarshallerPool.isValidated(xml));
+    }
+
+    private String readResource(String name) throws Exception {
+        InputStream is = this.getClass().getResourceAsStream(name);
+        Scanner s = new Scanner(is, "UTF-8").useDelimiter("\\A");
+        try {
+            return s.next();
+        } finally {
+            s.close();
+        }
+    }
+
     // Empty string is schema-valid so deleting previous test in this place.
 
 
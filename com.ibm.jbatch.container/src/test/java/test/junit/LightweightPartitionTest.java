@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.chunk.AbstractItemReader;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.StepExecution;
+import jakarta.inject.Inject;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.impl.PartitionedStepBuilder;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.persistence.PartitionStepStateStore;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.PartitionState;
+
+public class LightweightPartitionTest {
+
+	private static final int PARTITIONS = 4;
+	private static final int ITEMS = 20;
+
+	private static JobOperator jobOp = null;
+	private static IPersistenceManagerService persistence = null;
+
+	static final List<String> written = Collections.synchronizedList(new ArrayList<String>());
+	static final Set<Integer> opened = Collections.synchronizedSet(new HashSet<Integer>());
+	static volatile boolean writeFailed = false;
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+		persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+	}
+
+	@Before
+	public void reset() {
+		written.clear();
+		opened.clear();
+		writeFailed = false;
+	}
+
+	@Test
+	public void testRunsWithoutSubJobs() throws Exception {
+		long execId = jobOp.start("lightweightPartitionTest", null);
+		assertEquals("batch status", BatchStatus.COMPLETED, waitForEnd(execId).getBatchStatus());
+
+		assertEquals(expected(), sorted(written));
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals(PARTITIONS * ITEMS, getMetric(step, Metric.MetricType.READ_COUNT));
+		assertEquals(PARTITIONS * ITEMS, getMetric(step, Metric.MetricType.WRITE_COUNT));
+
+		long instanceId = jobOp.getJobInstance(execId).getInstanceId();
+		assertEquals("sub-job instances", 0, persistence.jobOperatorGetJobInstanceCount(":" + instanceId + ":step1:0"));
+		Map<Integer, PartitionState> statuses = persistence.getPartitionStates(instanceId, "step1");
+		assertEquals(PARTITIONS, statuses.size());
+		for (PartitionState status : statuses.values()) {
+			assertEquals(BatchStatus.COMPLETED, status.getBatchStatus());
+		}
+	}
+
+	/*
+	 * Only the failed partition runs again, from its last checkpoint
+	 */
+	@Test
+	public void testRestartFromCheckpoint() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("failPartition", "2");
+		params.setProperty("failAt", "12");
+		long execId = jobOp.start("lightweightPartitionTest", params);
+		assertEquals("batch status", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+		assertEquals((PARTITIONS - 1) * ITEMS + 10, written.size());
+
+		opened.clear();
+		long restartId = jobOp.restart(execId, params);
+		assertEquals("restart batch status", BatchStatus.COMPLETED, waitForEnd(restartId).getBatchStatus());
+
+		assertEquals(Collections.singleton(2), opened);
+		// Each item written exactly once
+		assertEquals(expected(), sorted(written));
+
+		StepExecution step = jobOp.getStepExecutions(restartId).get(0);
+		assertEquals(PARTITIONS * ITEMS, getMetric(step, Metric.MetricType.READ_COUNT));
+		assertEquals(PARTITIONS * ITEMS, getMetric(step, Metric.MetricType.WRITE_COUNT));
+		assertTrue(getMetric(step, Metric.MetricType.ROLLBACK_COUNT) >= 1);
+	}
+
+	/*
+	 * The writer fails the chunk after a checkpoint, the restart picks up from that checkpoint
+	 */
+	@Test
+	public void testRestartAfterWriterFailure() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("failWriteItem", "1:12");
+		long execId = jobOp.start("lightweightPartitionTest", params);
+		assertEquals("batch status", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+		assertEquals((PARTITIONS - 1) * ITEMS + 10, written.size());
+
+		opened.clear();
+		long restartId = jobOp.restart(execId, params);
+		assertEquals("restart batch status", BatchStatus.COMPLETED, waitForEnd(restartId).getBatchStatus());
+
+		assertEquals(Collections.singleton(1), opened);
+		// No item lost, none written twice
+		assertEquals(expected(), sorted(written));
+	}
+
+	/*
+	 * A checkpoint whose transaction never committed isn't what the partition ends with
+	 */
+	@Test
+	public void testUncommittedCheckpointNotPersisted() throws Exception {
+		// Named like a sub-job, so it isn't listed among the jobs
+		long instanceId = persistence.createSubJobInstance(PartitionedStepBuilder.JOB_ID_SEPARATOR + "lightweightPartitionStoreTest", "tag").getInstanceId();
+		PartitionStepStateStore store = new PartitionStepStateStore(instanceId, "step1", 0L, 0, null);
+		StepContextImpl stepContext = new StepContextImpl("step1");
+		store.createStepExecution(0L, stepContext);
+
+		CheckpointDataKey readerKey = new CheckpointDataKey(instanceId, "step1", "READER");
+		store.updateCheckpointData(checkpoint(readerKey, 1), null);
+		store.checkpointCommitted();
+		// Its commit then fails
+		store.updateCheckpointData(checkpoint(readerKey, 2), null);
+
+		assertArrayEquals(new byte[] { 1 }, store.getCheckpointData(readerKey).getRestartToken());
+		stepContext.setBatchStatus(BatchStatus.FAILED);
+		store.updateStepExecution(stepContext);
+		assertArrayEquals(new byte[] { 1 }, persistence.getPartitionStates(instanceId, "step1").get(0).getReaderCheckpoint());
+	}
+
+	private Map<CheckpointDataKey, CheckpointData> checkpoint(CheckpointDataKey key, int token) {
+		CheckpointData data = new CheckpointData(key.getJobInstanceId(), key.getStepName(), key.getBatchDataStreamName());
+		data.setRestartToken(new byte[] { (byte) token });
+		Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+		checkpoints.put(key, data);
+		return checkpoints;
+	}
+
+	private List<String> expected() {
+		List<String> expected = new ArrayList<String>();
+		for (int p = 0; p < PARTITIONS; p++) {
+			for (int i = 0; i < ITEMS; i++) {
+				expected.add(p + ":" + i);
+			}
+		}
+		return sorted(expected);
+	}
+
+	private List<String> sorted(List<String> items) {
+		List<String> sorted;
+		synchronized (items) {
+			sorted = new ArrayList<String>(items);
+		}
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	private JobExecution waitForEnd(long execId) throws Exception {
+		long deadline = System.currentTimeMillis() + 30000;
+		JobExecution je = jobOp.getJobExecution(execId);
+		while (System.currentTimeMillis() < deadline) {
+			BatchStatus status = je.getBatchStatus();
+			if (status == BatchStatus.COMPLETED || status == BatchStatus.FAILED || status == BatchStatus.STOPPED) {
+				break;
+			}
+			Thread.sleep(100);
+			je = jobOp.getJobExecution(execId);
+		}
+		return je;
+	}
+
+	private long getMetric(StepExecution step, Metric.MetricType type) {
+		for (Metric metric : step.getMetrics()) {
+			if (metric.getType() == type) {
+				return metric.getValue();
+			}
+		}
+		return -1;
+	}
+
+	public static class Reader extends AbstractItemReader {
+
+		@Inject @BatchProperty
+		String partition;
+
+		@Inject @BatchProperty
+		String failPartition;
+
+		@Inject @BatchProperty
+		String failAt;
+
+		private int next = 0;
+		private boolean restarted = false;
+
+		@Override
+		public void open(Serializable checkpoint) throws Exception {
+			opened.add(Integer.parseInt(partition));
+			if (checkpoint != null) {
+				next = (Integer) checkpoint;
+				restarted = true;
+			}
+		}
+
+		@Override
+		public Object readItem() throws Exception {
+			if (next == ITEMS) {
+				return null;
+			}
+			if (partition.equals(failPartition) && next == Integer.parseInt(failAt) && !restarted) {
+				throw new IllegalArgumentException("Forcing failure at item " + next + " of partition " + partition);
+			}
+			return partition + ":" + next++;
+		}
+
+		@Override
+		public Serializable checkpointInfo() throws Exception {
+			return next;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+
+		@Inject @BatchProperty
+		String failWriteItem;
+
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+			if (items.contains(failWriteItem) && !writeFailed) {
+				writeFailed = true;
+				throw new IllegalStateException("Forcing failure writing " + failWriteItem);
+			}
+			for (Object item : items) {
+				written.add((String) item);
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import jakarta.batch.api.chunk.AbstractItemReader;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.api.chunk.ItemProcessor;
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.StepExecution;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelProcessingTest {
+
+	private static final int ITEMS = 50;
+	private static final int SKIP_AT = 13;
+	private static final int RETRY_AT = 22;
+
+	private static JobOperator jobOp = null;
+
+	static final List<Integer> written = Collections.synchronizedList(new ArrayList<Integer>());
+	static final Set<String> processingThreads = Collections.synchronizedSet(new HashSet<String>());
+	static volatile boolean retried = false;
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	/*
+	 * Items are processed out of order, yet written in read order, with the usual filter, skip and retry
+	 */
+	@Test
+	public void testProcessInParallelWriteInOrder() throws Exception {
+		long execId = jobOp.start("parallelProcessingTest", null);
+		JobExecution je = waitForEnd(execId);
+		assertEquals("batch status", BatchStatus.COMPLETED, je.getBatchStatus());
+
+		List<Integer> expected = new ArrayList<Integer>();
+		int filtered = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			if (i % 7 == 0) {
+				filtered++;
+			} else if (i != SKIP_AT) {
+				expected.add(i * 2);
+			}
+		}
+		assertEquals(expected, written);
+		assertTrue("Processed on " + processingThreads, processingThreads.size() > 1);
+
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals(ITEMS, getMetric(step, Metric.MetricType.READ_COUNT));
+		assertEquals(filtered, getMetric(step, Metric.MetricType.FILTER_COUNT) - 1); // the skipped item counts as filtered too
+		assertEquals(1, getMetric(step, Metric.MetricType.PROCESS_SKIP_COUNT));
+		assertEquals(1, getMetric(step, Metric.MetricType.ROLLBACK_COUNT));
+	}
+
+	@Test
+	public void testInvalidProcessorThreads() throws Exception {
+		for (String threads : new String[] { "0", "-2", "four" }) {
+			Properties params = new Properties();
+			params.setProperty("processorThreads", threads);
+			long execId = jobOp.start("parallelProcessingTest", params);
+			assertEquals("batch status for " + threads + " threads", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+		}
+	}
+
+	private JobExecution waitForEnd(long execId) throws Exception {
+		long deadline = System.currentTimeMillis() + 30000;
+		JobExecution je = jobOp.getJobExecution(execId);
+		while (System.currentTimeMillis() < deadline) {
+			BatchStatus status = je.getBatchStatus();
+			if (status == BatchStatus.COMPLETED || status == BatchStatus.FAILED || status == BatchStatus.STOPPED) {
+				break;
+			}
+			Thread.sleep(100);
+			je = jobOp.getJobExecution(execId);
+		}
+		return je;
+	}
+
+	private long getMetric(StepExecution step, Metric.MetricType type) {
+		for (Metric metric : step.getMetrics()) {
+			if (metric.getType() == type) {
+				return metric.getValue();
+			}
+		}
+		return -1;
+	}
+
+	public static class Reader extends AbstractItemReader {
+		private int next = 0;
+
+		@Override
+		public void open(Serializable checkpoint) throws Exception {
+			if (checkpoint != null) {
+				next = (Integer) checkpoint;
+			}
+		}
+
+		@Override
+		public Object readItem() throws Exception {
+			return next < ITEMS ? next++ : null;
+		}
+
+		@Override
+		public Serializable checkpointInfo() throws Exception {
+			return next;
+		}
+	}
+
+	public static class Processor implements ItemProcessor {
+		@Override
+		public Object processItem(Object item) throws Exception {
+			int i = (Integer) item;
+			processingThreads.add(Thread.currentThread().getName());
+			// Earlier items take longer, so they finish out of order
+			Thread.sleep(10 - i % 10);
+			if (i % 7 == 0) {
+				return null;
+			}
+			if (i == SKIP_AT) {
+				throw new IllegalArgumentException("Forcing skip of item " + i);
+			}
+			if (i == RETRY_AT && !retried) {
+				retried = true;
+				throw new IllegalStateException("Forcing retry of item " + i);
+			}
+			return i * 2;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+			for (Object item : items) {
+				written.add((Integer) item);
+			}
+		}
+	}
+}
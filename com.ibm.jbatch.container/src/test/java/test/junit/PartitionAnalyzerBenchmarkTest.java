@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import jakarta.batch.api.chunk.AbstractItemReader;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.api.partition.AbstractPartitionAnalyzer;
+import jakarta.batch.api.partition.PartitionCollector;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.api.impl.JobOperatorImpl;
+
+/**
+ * 256 partitions whose collectors emit data after every chunk, through a small analyzer
+ * queue, handing off each chunk's data on its own and then 16 at a time.  Checks the 
+ * analyzer gets all of it, in order per partition, and logs how long each took.
+ *
+ * Not part of the default build, run with -Pbenchmarks.
+ */
+public class PartitionAnalyzerBenchmarkTest {
+
+	private final static Logger logger = Logger.getLogger(PartitionAnalyzerBenchmarkTest.class.getName());
+
+	private static final int PARTITIONS = 256;
+	private static final int ITEMS = 20;
+
+	private static final AtomicInteger collectorIds = new AtomicInteger();
+	private static final AtomicInteger collected = new AtomicInteger();
+	private static final AtomicInteger analyzed = new AtomicInteger();
+	private static final AtomicInteger statuses = new AtomicInteger();
+	private static final AtomicInteger outOfOrder = new AtomicInteger();
+	private static final Map<Integer, Integer> lastSequence = new ConcurrentHashMap<Integer, Integer>();
+
+	@Test
+	public void testPerChunkHandOff() throws Exception {
+		runBenchmark(1, 64);
+	}
+
+	@Test
+	public void testBatchedHandOff() throws Exception {
+		runBenchmark(16, 64);
+	}
+
+	private void runBenchmark(int collectorBatchSize, int analyzerQueueSize) throws Exception {
+		collected.set(0);
+		analyzed.set(0);
+		statuses.set(0);
+		outOfOrder.set(0);
+		lastSequence.clear();
+
+		JobOperatorImpl jobOp = (JobOperatorImpl) BatchRuntime.getJobOperator();
+		Properties params = new Properties();
+		params.setProperty("collectorBatchSize", Integer.toString(collectorBatchSize));
+		params.setProperty("analyzerQueueSize", Integer.toString(analyzerQueueSize));
+		long start = System.nanoTime();
+		long execId = jobOp.start("partitionAnalyzerBenchmark", params);
+		BatchStatus status = jobOp.getJobExecutionCompletion(execId).get(300, TimeUnit.SECONDS).getBatchStatus();
+		long elapsed = System.nanoTime() - start;
+
+		assertEquals(BatchStatus.COMPLETED, status);
+		assertEquals(PARTITIONS, statuses.get());
+		assertTrue(collected.get() >= PARTITIONS * ITEMS / 2);
+		assertEquals(collected.get(), analyzed.get());
+		assertEquals(0, outOfOrder.get());
+
+		logger.info("collectorBatchSize=" + collectorBatchSize
+				+ ", analyzerQueueSize=" + analyzerQueueSize + ", " + analyzed.get() + " collector payloads from " + PARTITIONS
+				+ " partitions in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+	}
+
+	public static class Reader extends AbstractItemReader {
+		private int next = 0;
+
+		@Override
+		public Object readItem() throws Exception {
+			return next < ITEMS ? Integer.valueOf(next++) : null;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+		}
+	}
+
+	public static class Collector implements PartitionCollector {
+		private final int id = collectorIds.incrementAndGet();
+		private int sequence = 0;
+
+		@Override
+		public Serializable collectPartitionData() throws Exception {
+			collected.incrementAndGet();
+			return new int[] { id, sequence++ };
+		}
+	}
+
+	public static class Analyzer extends AbstractPartitionAnalyzer {
+		@Override
+		public void analyzeCollectorData(Serializable data) throws Exception {
+			int[] payload = (int[]) data;
+			Integer last = lastSequence.put(payload[0], payload[1]);
+			if ((last == null && payload[1] != 0) || (last != null && payload[1] != last + 1)) {
+				outOfOrder.incrementAndGet();
+			}
+			analyzed.incrementAndGet();
+		}
+
+		@Override
+		public void analyzeStatus(BatchStatus batchStatus, String exitStatus) throws Exception {
+			statuses.incrementAndGet();
+		}
+	}
+}
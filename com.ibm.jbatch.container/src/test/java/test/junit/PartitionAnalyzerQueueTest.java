@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.batch.runtime.BatchStatus;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.util.PartitionAnalyzerQueue;
+import com.ibm.jbatch.container.util.PartitionDataWrapper;
+import com.ibm.jbatch.container.util.PartitionDataWrapper.PartitionEventType;
+
+public class PartitionAnalyzerQueueTest {
+
+	@Test
+	public void testHandOffAfterClose() throws Exception {
+		PartitionAnalyzerQueue queue = new PartitionAnalyzerQueue(2);
+		assertTrue(queue.handOff(status()));
+		queue.close();
+
+		assertEquals("entries still waiting are drained on close", 0, queue.size());
+		assertFalse(queue.handOff(status()));
+		// Doesn't wait, doesn't throw
+		queue.put(status());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testWaitingHandOffDroppedOnClose() throws Exception {
+		final PartitionAnalyzerQueue queue = new PartitionAnalyzerQueue(1);
+		queue.put(status());
+
+		final AtomicBoolean handedOff = new AtomicBoolean(true);
+		final CountDownLatch done = new CountDownLatch(1);
+		Thread partition = new Thread() {
+			@Override
+			public void run() {
+				try {
+					handedOff.set(queue.handOff(status()));
+				} catch (InterruptedException e) {
+					// handedOff stays true, failing the test
+				}
+				done.countDown();
+			}
+		};
+		partition.start();
+
+		Thread.sleep(50);
+		queue.close();
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertFalse(handedOff.get());
+		assertEquals(0, queue.size());
+	}
+
+	private PartitionDataWrapper status() {
+		PartitionDataWrapper dataWrapper = new PartitionDataWrapper();
+		dataWrapper.setBatchStatus(BatchStatus.COMPLETED);
+		dataWrapper.setEventType(PartitionEventType.ANALYZE_STATUS);
+		return dataWrapper;
+	}
+}
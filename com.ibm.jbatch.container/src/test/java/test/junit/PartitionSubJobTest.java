@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.batch.api.AbstractBatchlet;
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.inject.Inject;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.PartitionedStepBuilder;
+import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.JobStatus;
+
+public class PartitionSubJobTest {
+
+	private static final int PARTITIONS = 3;
+
+	private static JobOperator jobOp = null;
+	private static IPersistenceManagerService persistence = null;
+
+	static final AtomicBoolean failed = new AtomicBoolean();
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+		persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+	}
+
+	@Before
+	public void reset() {
+		failed.set(false);
+	}
+
+	/*
+	 * Each partition gets its own job instance, execution and status, created in one go
+	 */
+	@Test
+	public void testCreatePartitionSubJobExecutions() throws Exception {
+		String prefix = PartitionedStepBuilder.JOB_ID_SEPARATOR + System.nanoTime() + PartitionedStepBuilder.JOB_ID_SEPARATOR + "step1"
+				+ PartitionedStepBuilder.JOB_ID_SEPARATOR;
+		List<String> names = new ArrayList<String>();
+		List<Properties> partitionProps = new ArrayList<Properties>();
+		for (int i = 0; i < PARTITIONS; i++) {
+			names.add(prefix + i);
+			Properties props = null;
+			if (i > 0) {
+				props = new Properties();
+				props.setProperty("partition", String.valueOf(i));
+			}
+			partitionProps.add(props);
+		}
+
+		List<RuntimeJobExecution> executions = persistence.createPartitionSubJobExecutions(names, "partitionSubJobTest", partitionProps,
+				BatchStatus.STARTING);
+
+		assertEquals(PARTITIONS, executions.size());
+		Set<Long> instanceIds = new HashSet<Long>();
+		Set<Long> executionIds = new HashSet<Long>();
+		for (int i = 0; i < PARTITIONS; i++) {
+			RuntimeJobExecution execution = executions.get(i);
+			long instanceId = execution.getInstanceId();
+			long executionId = execution.getExecutionId();
+			instanceIds.add(instanceId);
+			executionIds.add(executionId);
+
+			assertEquals(names.get(i), execution.getJobInstance().getJobName());
+			assertEquals(Arrays.asList(instanceId), persistence.jobOperatorGetJobInstanceIds(names.get(i), 0, 10));
+			assertEquals(instanceId, persistence.getJobInstanceIdByExecutionId(executionId));
+			assertEquals(BatchStatus.STARTING.name(), persistence.jobOperatorQueryJobExecutionBatchStatus(executionId));
+
+			JobStatus jobStatus = persistence.getJobStatus(instanceId);
+			assertNotNull("no job status for partition: " + i, jobStatus);
+			assertEquals(instanceId, jobStatus.getJobInstance().getInstanceId());
+			assertEquals(names.get(i), jobStatus.getJobInstance().getJobName());
+
+			Properties params = persistence.getParameters(executionId);
+			if (i == 0) {
+				assertNull(params);
+			} else {
+				assertEquals(String.valueOf(i), params.getProperty("partition"));
+			}
+		}
+		assertEquals(PARTITIONS, instanceIds.size());
+		assertEquals(PARTITIONS, executionIds.size());
+	}
+
+	/*
+	 * A restart runs the partitions that didn't complete on the sub-job instances they already
+	 * have, rather than creating new ones
+	 */
+	@Test
+	public void testRestartReusesSubJobInstances() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("failPartition", "1");
+		long execId = jobOp.start("partitionSubJobTest", params);
+		assertEquals("batch status", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+
+		long instanceId = jobOp.getJobInstance(execId).getInstanceId();
+		List<Long> subJobInstanceIds = new ArrayList<Long>();
+		for (int i = 0; i < PARTITIONS; i++) {
+			List<Long> ids = persistence.jobOperatorGetJobInstanceIds(subJobName(instanceId, i), 0, 10);
+			assertEquals("sub-job instances of partition: " + i, 1, ids.size());
+			subJobInstanceIds.add(ids.get(0));
+		}
+
+		long restartId = jobOp.restart(execId, params);
+		assertEquals("restart batch status", BatchStatus.COMPLETED, waitForEnd(restartId).getBatchStatus());
+
+		for (int i = 0; i < PARTITIONS; i++) {
+			assertEquals(Arrays.asList(subJobInstanceIds.get(i)), persistence.jobOperatorGetJobInstanceIds(subJobName(instanceId, i), 0, 10));
+			int expectedExecutions = (i == 1) ? 2 : 1;
+			assertEquals("sub-job executions of partition: " + i, expectedExecutions,
+					persistence.jobOperatorGetJobExecutions(subJobInstanceIds.get(i)).size());
+		}
+	}
+
+	private String subJobName(long instanceId, int partition) {
+		return PartitionedStepBuilder.JOB_ID_SEPARATOR + instanceId + PartitionedStepBuilder.JOB_ID_SEPARATOR + "step1"
+				+ PartitionedStepBuilder.JOB_ID_SEPARATOR + partition;
+	}
+
+	private JobExecution waitForEnd(long execId) throws Exception {
+		long deadline = System.currentTimeMillis() + 30000;
+		JobExecution je = jobOp.getJobExecution(execId);
+		while (System.currentTimeMillis() < deadline) {
+			BatchStatus status = je.getBatchStatus();
+			if (status == BatchStatus.COMPLETED || status == BatchStatus.FAILED || status == BatchStatus.STOPPED) {
+				break;
+			}
+			Thread.sleep(100);
+			je = jobOp.getJobExecution(execId);
+		}
+		return je;
+	}
+
+	public static class Batchlet extends AbstractBatchlet {
+
+		@Inject @BatchProperty
+		String partition;
+
+		@Inject @BatchProperty
+		String failPartition;
+
+		@Override
+		public String process() throws Exception {
+			if (partition.equals(failPartition) && failed.compareAndSet(false, true)) {
+				throw new IllegalStateException("Forcing failure of partition: " + partition);
+			}
+			return "done";
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Properties;
+
+import jakarta.batch.api.chunk.AbstractItemReader;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.api.partition.AbstractPartitionAnalyzer;
+import jakarta.batch.api.partition.PartitionCollector;
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PartitionTuningPropertiesTest {
+
+	private static final int ITEMS = 6;
+
+	private static JobOperator jobOp = null;
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Test
+	public void testValidSizes() throws Exception {
+		assertEquals(BatchStatus.COMPLETED, run("1", "2").getBatchStatus());
+	}
+
+	@Test
+	public void testInvalidAnalyzerQueueSize() throws Exception {
+		for (String size : new String[] { "0", "-1", "big" }) {
+			assertEquals("batch status for analyzerQueueSize " + size, BatchStatus.FAILED, run(size, "").getBatchStatus());
+		}
+	}
+
+	@Test
+	public void testInvalidCollectorBatchSize() throws Exception {
+		for (String size : new String[] { "0", "-1", "big" }) {
+			assertEquals("batch status for collectorBatchSize " + size, BatchStatus.FAILED, run("", size).getBatchStatus());
+		}
+	}
+
+	private JobExecution run(String analyzerQueueSize, String collectorBatchSize) throws Exception {
+		Properties params = new Properties();
+		params.setProperty("analyzerQueueSize", analyzerQueueSize);
+		params.setProperty("collectorBatchSize", collectorBatchSize);
+		long execId = jobOp.start("partitionTuningTest", params);
+		long deadline = System.currentTimeMillis() + 30000;
+		JobExecution je = jobOp.getJobExecution(execId);
+		while (System.currentTimeMillis() < deadline) {
+			BatchStatus status = je.getBatchStatus();
+			if (status == BatchStatus.COMPLETED || status == BatchStatus.FAILED || status == BatchStatus.STOPPED) {
+				break;
+			}
+			Thread.sleep(100);
+			je = jobOp.getJobExecution(execId);
+		}
+		return je;
+	}
+
+	public static class Reader extends AbstractItemReader {
+		private int next = 0;
+
+		@Override
+		public Object readItem() throws Exception {
+			return next < ITEMS ? Integer.valueOf(next++) : null;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+		}
+	}
+
+	public static class Collector implements PartitionCollector {
+		@Override
+		public Serializable collectPartitionData() throws Exception {
+			return Boolean.TRUE;
+		}
+	}
+
+	public static class Analyzer extends AbstractPartitionAnalyzer {
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.chunk.AbstractItemReader;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.api.chunk.listener.AbstractItemReadListener;
+import jakarta.batch.operations.JobOperator;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.StepExecution;
+import jakarta.inject.Inject;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PipelinedChunkTest {
+
+	private static final int ITEMS = 50;
+
+	private static JobOperator jobOp = null;
+
+	static final List<Integer> written = Collections.synchronizedList(new ArrayList<Integer>());
+	static volatile boolean retried = false;
+	static final Set<String> readThreads = Collections.synchronizedSet(new HashSet<String>());
+	static final Set<String> listenerThreads = Collections.synchronizedSet(new HashSet<String>());
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		written.clear();
+		retried = false;
+		readThreads.clear();
+		listenerThreads.clear();
+	}
+
+	@Test
+	public void testAllItemsWrittenInOrder() throws Exception {
+		long execId = jobOp.start("pipelinedChunkTest", null);
+		JobExecution je = waitForEnd(execId);
+
+		assertEquals("batch status", BatchStatus.COMPLETED, je.getBatchStatus());
+		assertEquals(expected(), written);
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals(ITEMS, getMetric(step, Metric.MetricType.READ_COUNT));
+		assertEquals(ITEMS, getMetric(step, Metric.MetricType.WRITE_COUNT));
+	}
+
+	/*
+	 * Items read ahead of the failing chunk must not be in the checkpoint, or the restart would skip them
+	 */
+	@Test
+	public void testRestartFromCommittedPosition() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("failAt", "25");
+		long execId = jobOp.start("pipelinedChunkTest", params);
+		assertEquals("batch status", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+		assertEquals(expected().subList(0, 20), written);
+
+		long restartId = jobOp.restart(execId, new Properties());
+		assertEquals("restart batch status", BatchStatus.COMPLETED, waitForEnd(restartId).getBatchStatus());
+		assertEquals(expected(), written);
+	}
+
+	/*
+	 * An Error ends the read-ahead thread, the step thread mustn't be left waiting for the next item
+	 */
+	@Test
+	public void testReaderError() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("errorAt", "25");
+		long execId = jobOp.start("pipelinedChunkTest", params);
+		assertEquals("batch status", BatchStatus.FAILED, waitForEnd(execId).getBatchStatus());
+		assertEquals(expected().subList(0, 20), written);
+	}
+
+	@Test
+	public void testRetryWithRollback() throws Exception {
+		Properties params = new Properties();
+		params.setProperty("retryAt", "15");
+		long execId = jobOp.start("pipelinedChunkTest", params);
+		JobExecution je = waitForEnd(execId);
+
+		assertEquals("batch status", BatchStatus.COMPLETED, je.getBatchStatus());
+		assertEquals(expected(), written);
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals(1, getMetric(step, Metric.MetricType.ROLLBACK_COUNT));
+	}
+
+	/*
+	 * Read listeners must see each read as it happens, so the step isn't pipelined
+	 */
+	@Test
+	public void testNotPipelinedWithReadListener() throws Exception {
+		long execId = jobOp.start("pipelinedChunkListenerTest", null);
+		assertEquals("batch status", BatchStatus.COMPLETED, waitForEnd(execId).getBatchStatus());
+		assertEquals(expected(), written);
+		assertEquals(listenerThreads, readThreads);
+	}
+
+	private List<Integer> expected() {
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < ITEMS; i++) {
+			expected.add(i);
+		}
+		return expected;
+	}
+
+	private JobExecution waitForEnd(long execId) throws Exception {
+		long deadline = System.currentTimeMillis() + 30000;
+		JobExecution je = jobOp.getJobExecution(execId);
+		while (System.currentTimeMillis() < deadline) {
+			BatchStatus status = je.getBatchStatus();
+			if (status == BatchStatus.COMPLETED || status == BatchStatus.FAILED || status == BatchStatus.STOPPED) {
+				break;
+			}
+			Thread.sleep(100);
+			je = jobOp.getJobExecution(execId);
+		}
+		return je;
+	}
+
+	private long getMetric(StepExecution step, Metric.MetricType type) {
+		for (Metric metric : step.getMetrics()) {
+			if (metric.getType() == type) {
+				return metric.getValue();
+			}
+		}
+		return -1;
+	}
+
+	public static class Reader extends AbstractItemReader {
+
+		@Inject @BatchProperty
+		String failAt;
+
+		@Inject @BatchProperty
+		String retryAt;
+
+		@Inject @BatchProperty
+		String errorAt;
+
+		private int next = 0;
+		private boolean restarted = false;
+
+		@Override
+		public void open(Serializable checkpoint) throws Exception {
+			if (checkpoint != null) {
+				next = (Integer) checkpoint;
+				restarted = true;
+			}
+		}
+
+		@Override
+		public Object readItem() throws Exception {
+			readThreads.add(Thread.currentThread().getName());
+			// Simulated I/O
+			Thread.sleep(2);
+			if (next == ITEMS) {
+				return null;
+			}
+			if (next == Integer.parseInt(failAt) && !restarted) {
+				throw new IllegalArgumentException("Forcing failure at item " + next);
+			}
+			if (next == Integer.parseInt(errorAt)) {
+				throw new AssertionError("Forcing error at item " + next);
+			}
+			if (next == Integer.parseInt(retryAt) && !retried) {
+				retried = true;
+				throw new IllegalStateException("Forcing retry at item " + next);
+			}
+			return next++;
+		}
+
+		@Override
+		public Serializable checkpointInfo() throws Exception {
+			return next;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+			// Simulated I/O
+			Thread.sleep(20);
+			for (Object item : items) {
+				written.add((Integer) item);
+			}
+		}
+	}
+
+	public static class ReadListener extends AbstractItemReadListener {
+		@Override
+		public void beforeRead() throws Exception {
+			listenerThreads.add(Thread.currentThread().getName());
+		}
+	}
+}
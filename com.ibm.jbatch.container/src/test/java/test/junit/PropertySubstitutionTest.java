@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.modelresolver.PropertyResolver;
+import com.ibm.jbatch.container.modelresolver.PropertyResolverFactory;
+import com.ibm.jbatch.jsl.model.Batchlet;
+import com.ibm.jbatch.jsl.model.JSLProperties;
+import com.ibm.jbatch.jsl.model.Property;
+
+public class PropertySubstitutionTest {
+
+	@Test
+	public void testSubstitutions() {
+		Properties params = new Properties();
+		params.setProperty("a", "A");
+		params.setProperty("b", "B");
+
+		assertEquals("x-A-B-A-y", resolve(false, "x-#{jobParameters['a']}-#{jobParameters['b']}-#{jobParameters['a']}-y", params));
+		assertEquals("no properties", resolve(false, "no properties", params));
+		assertEquals("[]", resolve(false, "[#{jobParameters['missing']}]", params));
+	}
+
+	@Test
+	public void testDefaultValues() {
+		Properties params = new Properties();
+		params.setProperty("a", "A");
+
+		assertEquals("A.txt", resolve(false, "#{jobParameters['a']}?:dflt;.txt", params));
+		assertEquals("dflt.txt", resolve(false, "#{jobParameters['missing']}?:dflt;.txt", params));
+		assertEquals("A.txt", resolve(false, "#{jobParameters['missing']}?:#{jobParameters['a']};.txt", params));
+	}
+
+	/*
+	 * More distinct strings than are kept compiled, still resolved right once some have been dropped
+	 */
+	@Test
+	public void testManyDistinctStrings() {
+		Properties params = new Properties();
+		params.setProperty("a", "A");
+
+		for (int i = 0; i < 5000; i++) {
+			assertEquals(i + "-A", resolve(false, i + "-#{jobParameters['a']}", params));
+		}
+		assertEquals("0-A", resolve(false, "0-#{jobParameters['a']}", params));
+	}
+
+	@Test
+	public void testJobProperties() {
+		Batchlet batchlet = new Batchlet();
+		batchlet.setRef("#{jobProperties['ref']}");
+		batchlet.setProperties(new JSLProperties());
+		batchlet.getProperties().getPropertyList().add(property("p1", "#{jobProperties['ref']}-#{jobProperties['p0']}"));
+
+		Properties parentProps = new Properties();
+		parentProps.setProperty("ref", "myBatchlet");
+		parentProps.setProperty("p0", "0");
+
+		PropertyResolverFactory.createBatchletPropertyResolver(false).substituteProperties(batchlet, null, parentProps);
+		assertEquals("myBatchlet", batchlet.getRef());
+		assertEquals("myBatchlet-0", batchlet.getProperties().getPropertyList().get(0).getValue());
+	}
+
+	@Test
+	public void testPartitionPlanOnlyInPartitionedStep() {
+		Properties partitionProps = new Properties();
+		partitionProps.setProperty("p", "P");
+
+		String str = "#{partitionPlan['p']}/#{jobParameters['p']}";
+		// Left for the partitions to resolve, along with anything after it
+		assertEquals(str, resolve(false, str, partitionProps));
+		assertEquals("P/P", resolve(true, str, partitionProps));
+	}
+
+	private String resolve(boolean isPartitionedStep, String ref, Properties submittedProps) {
+		Batchlet batchlet = new Batchlet();
+		batchlet.setRef(ref);
+		PropertyResolver<Batchlet> resolver = PropertyResolverFactory.createBatchletPropertyResolver(isPartitionedStep);
+		return resolver.substituteProperties(batchlet, submittedProps, null).getRef();
+	}
+
+	private Property property(String name, String value) {
+		Property property = new Property();
+		property.setName(name);
+		property.setValue(value);
+		return property;
+	}
+}
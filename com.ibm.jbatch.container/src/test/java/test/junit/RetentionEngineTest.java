@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobInstance;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.impl.BatchWorkScheduler;
+import com.ibm.jbatch.container.impl.PurgeProgress;
+import com.ibm.jbatch.container.impl.RetentionEngine;
+import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.services.PurgeCriteria;
+import com.ibm.jbatch.container.services.impl.GrowableThreadPoolServiceImpl;
+import com.ibm.jbatch.container.services.impl.JDBCPersistenceManagerImpl;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.DatabaseConfigurationBean;
+
+public class RetentionEngineTest {
+
+	private static final String URL = "jdbc:derby:memory:retentionEngineTest;create=true";
+
+	private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+	private JDBCPersistenceManagerImpl persistence;
+	private GrowableThreadPoolServiceImpl threadPool;
+	private RetentionEngine engine;
+
+	@Before
+	public void setUp() {
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.PURGE_BATCH_SIZE, "1");
+		BatchConfigImpl config = new BatchConfigImpl();
+		config.setJ2seMode(true);
+		config.setDatabaseConfigurationBean(dbConfig());
+		config.setConfigProperties(props);
+
+		persistence = new JDBCPersistenceManagerImpl();
+		persistence.init(config);
+		threadPool = new GrowableThreadPoolServiceImpl();
+		threadPool.init(config);
+
+		// The in-memory database outlives each test
+		persistence.purge("retentionTag");
+		persistence.purge("otherRetentionTag");
+	}
+
+	@After
+	public void tearDown() {
+		if (engine != null) {
+			engine.shutdown();
+		}
+		threadPool.shutdown();
+		persistence.shutdown();
+	}
+
+	@Test
+	public void testRetentionPurgesOnlyOldFinishedInstances() throws Exception {
+		long oldCompleted = createJob("retentionTest", "retentionTag", BatchStatus.COMPLETED, 3 * HOUR);
+		long oldFailed = createJob("retentionTest", "retentionTag", BatchStatus.FAILED, 3 * HOUR);
+		long recentCompleted = createJob("retentionTest", "retentionTag", BatchStatus.COMPLETED, 0);
+		long oldStarted = createJob("retentionTest", "retentionTag", BatchStatus.STARTED, 3 * HOUR);
+		long oldStopped = createJob("retentionTest", "retentionTag", BatchStatus.STOPPED, 3 * HOUR);
+
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.PURGE_BATCH_SIZE, "1");
+		props.setProperty(BatchContainerConstants.RETENTION_ENABLED, "true");
+		props.setProperty(BatchContainerConstants.RETENTION_MAX_AGE_HOURS, "2");
+		props.setProperty(BatchContainerConstants.RETENTION_BATCH_STATUSES, "COMPLETED,FAILED");
+		engine = new RetentionEngine(persistence, threadPool, props);
+		PurgeProgress progress = engine.runRetention();
+		assertTrue(progress.awaitCompletion(30, TimeUnit.SECONDS));
+
+		assertNull(progress.getFailure());
+		assertEquals(2, progress.getInstancesPurged());
+		assertEquals(2, progress.getBatches());
+		assertEquals(2, engine.getTotalInstancesPurged());
+		assertFalse(exists(oldCompleted));
+		assertFalse(exists(oldFailed));
+		assertTrue(exists(recentCompleted));
+		assertTrue(exists(oldStarted));
+		assertTrue(exists(oldStopped));
+		// Everything belonging to the purged instances, sub-jobs included, is gone
+		assertEquals(3, count("select count(*) from jobinstancedata where name like ':%'"));
+		assertEquals(3, count("select count(*) from jobstatus"));
+		assertEquals(6, count("select count(*) from executioninstancedata"));
+		assertEquals(3, count("select count(*) from stepexecutioninstancedata"));
+		assertEquals(3, count("select count(*) from stepstatus"));
+		assertEquals(3, count("select count(*) from checkpointdata"));
+	}
+
+	@Test
+	public void testPurgeByJobNameAndApptag() throws Exception {
+		long mine = createJob("retentionTest", "retentionTag", BatchStatus.COMPLETED, 0);
+		long otherJob = createJob("otherRetentionTest", "retentionTag", BatchStatus.COMPLETED, 0);
+		long otherTag = createJob("retentionTest", "otherRetentionTag", BatchStatus.COMPLETED, 0);
+
+		engine = new RetentionEngine(persistence, threadPool, new Properties());
+		PurgeCriteria criteria = new PurgeCriteria();
+		criteria.setApptag("retentionTag");
+		criteria.setJobName("retentionTest");
+		PurgeProgress progress = engine.purge(criteria);
+		assertTrue(progress.awaitCompletion(30, TimeUnit.SECONDS));
+		assertEquals(1, progress.getInstancesPurged());
+		assertFalse(exists(mine));
+		assertTrue(exists(otherJob));
+		assertTrue(exists(otherTag));
+
+		persistence.purge("otherRetentionTag");
+		assertFalse(exists(otherTag));
+		assertTrue(exists(otherJob));
+	}
+
+	@Test
+	public void testPurgeWaitsForSchedulerJobSlot() throws Exception {
+		long mine = createJob("retentionTest", "retentionTag", BatchStatus.COMPLETED, 0);
+
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.SCHEDULER_MAX_CONCURRENT_JOBS, "1");
+		BatchWorkScheduler scheduler = new BatchWorkScheduler(threadPool, props);
+		final CountDownLatch jobRunning = new CountDownLatch(1);
+		final CountDownLatch releaseJob = new CountDownLatch(1);
+		scheduler.submitJob(new Runnable() {
+			@Override
+			public void run() {
+				jobRunning.countDown();
+				try {
+					releaseJob.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, "high", null);
+		assertTrue(jobRunning.await(30, TimeUnit.SECONDS));
+
+		engine = new RetentionEngine(persistence, threadPool, scheduler, new Properties());
+		PurgeCriteria criteria = new PurgeCriteria();
+		criteria.setApptag("retentionTag");
+		PurgeProgress progress = engine.purge(criteria);
+		// The job holds the only slot, so the purge stays queued in its own class
+		assertFalse(progress.awaitCompletion(500, TimeUnit.MILLISECONDS));
+		assertEquals(1L, (long) scheduler.getQueueStatistics().get(BatchWorkScheduler.PURGE_PRIORITY_CLASS).get("queued"));
+		assertTrue(exists(mine));
+
+		releaseJob.countDown();
+		assertTrue(progress.awaitCompletion(30, TimeUnit.SECONDS));
+		assertEquals(1, progress.getInstancesPurged());
+		assertFalse(exists(mine));
+		assertEquals(1L, (long) scheduler.getQueueStatistics().get(BatchWorkScheduler.PURGE_PRIORITY_CLASS).get("dispatched"));
+	}
+
+	/*
+	 * A top-level job instance with one execution, step execution and checkpoint, and one
+	 * partition sub-job with an execution of its own, all ended the given time ago.
+	 */
+	private long createJob(String name, String apptag, BatchStatus batchStatus, long agoMillis) {
+		Timestamp ended = new Timestamp(System.currentTimeMillis() - agoMillis);
+		JobInstance instance = persistence.createSubJobInstance(name, apptag);
+		long instanceId = instance.getInstanceId();
+		persistence.createJobStatus(instanceId);
+		RuntimeJobExecution execution = persistence.createJobExecution(instance, new Properties(), BatchStatus.STARTING);
+		long stepExecId = persistence.createStepExecution(execution.getExecutionId(), new StepContextImpl("step1")).getStepExecutionId();
+		persistence.createStepStatus(stepExecId);
+		CheckpointDataKey key = new CheckpointDataKey(instanceId, "step1", "READER");
+		CheckpointData checkpoint = new CheckpointData(instanceId, "step1", "READER");
+		checkpoint.setRestartToken(new byte[] { 1 });
+		persistence.createCheckpointData(key, checkpoint);
+		persistence.updateWithFinalExecutionStatusesAndTimestamps(execution.getExecutionId(), batchStatus, batchStatus.name(), ended);
+
+		JobInstance subJob = persistence.createSubJobInstance(":" + instanceId + ":step1:0", apptag);
+		RuntimeJobExecution subJobExecution = persistence.createJobExecution(subJob, new Properties(), BatchStatus.STARTING);
+		persistence.updateWithFinalExecutionStatusesAndTimestamps(subJobExecution.getExecutionId(), batchStatus, batchStatus.name(), ended);
+		return instanceId;
+	}
+
+	private boolean exists(long instanceId) throws Exception {
+		Connection conn = DriverManager.getConnection(URL);
+		try {
+			conn.setSchema(BatchContainerConstants.DEFAULT_DB_SCHEMA);
+			PreparedStatement statement = conn.prepareStatement("select count(*) from jobinstancedata where jobinstanceid = ?");
+			statement.setLong(1, instanceId);
+			ResultSet rs = statement.executeQuery();
+			rs.next();
+			return rs.getInt(1) > 0;
+		} finally {
+			conn.close();
+		}
+	}
+
+	private int count(String query) throws Exception {
+		Connection conn = DriverManager.getConnection(URL);
+		try {
+			conn.setSchema(BatchContainerConstants.DEFAULT_DB_SCHEMA);
+			ResultSet rs = conn.createStatement().executeQuery(query);
+			rs.next();
+			return rs.getInt(1);
+		} finally {
+			conn.close();
+		}
+	}
+
+	private DatabaseConfigurationBean dbConfig() {
+		DatabaseConfigurationBean dbConfig = new DatabaseConfigurationBean();
+		dbConfig.setJdbcDriver(BatchContainerConstants.DEFAULT_JDBC_DRIVER);
+		dbConfig.setJdbcUrl(URL);
+		dbConfig.setSchema(BatchContainerConstants.DEFAULT_DB_SCHEMA);
+		dbConfig.setDbUser("");
+		dbConfig.setDbPassword("");
+		return dbConfig;
+	}
+}
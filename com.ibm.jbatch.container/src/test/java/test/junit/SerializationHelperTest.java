@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.util.SerializationHelper;
+import com.ibm.jbatch.spi.SerializationCodec;
+
+public class SerializationHelperTest {
+
+	private SerializationCodec savedCodec;
+	private int savedThreshold;
+
+	@Before
+	public void setUp() {
+		savedCodec = SerializationHelper.getCodec();
+		savedThreshold = SerializationHelper.getCompressionThreshold();
+	}
+
+	@After
+	public void tearDown() {
+		SerializationHelper.setCodec(savedCodec);
+		SerializationHelper.setCompressionThreshold(savedThreshold);
+	}
+
+	@Test
+	public void testBinaryRoundTrips() throws Exception {
+		SerializationHelper.setCodec(SerializationHelper.lookupCodec(SerializationHelper.BINARY_CODEC_NAME));
+		SerializationHelper.setCompressionThreshold(-1);
+
+		Properties props = new Properties();
+		props.setProperty("key", "value");
+		ArrayList<String> list = new ArrayList<String>(Arrays.asList("a", "b"));
+
+		Serializable[] values = new Serializable[] { null, 42L, 7, "token é", new byte[] { 1, 2, 3 }, props, list };
+		for (Serializable value : values) {
+			Serializable result = SerializationHelper.deserialize(SerializationHelper.serialize(value));
+			if (value instanceof byte[]) {
+				assertArrayEquals((byte[]) value, (byte[]) result);
+			} else {
+				assertEquals(value, result);
+			}
+		}
+
+		assertTrue("Binary encoding of a Long should beat Java serialization",
+				SerializationHelper.serialize(42L).length < javaSerialize(42L).length);
+	}
+
+	@Test
+	public void testJavaSerializedValuesStillReadable() throws Exception {
+		SerializationHelper.setCodec(SerializationHelper.lookupCodec(SerializationHelper.BINARY_CODEC_NAME));
+		assertEquals("legacy", SerializationHelper.deserialize(javaSerialize("legacy")));
+	}
+
+	@Test
+	public void testJavaCodecWritesPlainJavaSerialization() throws Exception {
+		SerializationHelper.setCodec(SerializationHelper.lookupCodec(SerializationHelper.JAVA_CODEC_NAME));
+		SerializationHelper.setCompressionThreshold(-1);
+		assertArrayEquals(javaSerialize("plain"), SerializationHelper.serialize("plain"));
+	}
+
+	@Test
+	public void testCompression() throws Exception {
+		SerializationHelper.setCodec(SerializationHelper.lookupCodec(SerializationHelper.BINARY_CODEC_NAME));
+		SerializationHelper.setCompressionThreshold(64);
+
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			buf.append("repetitive ");
+		}
+		String big = buf.toString();
+		byte[] bytes = SerializationHelper.serialize(big);
+		assertTrue(bytes.length < big.length() / 10);
+		assertEquals(big, SerializationHelper.deserialize(bytes));
+	}
+
+	private byte[] javaSerialize(Serializable value) throws Exception {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ObjectOutputStream oout = new ObjectOutputStream(baos);
+		oout.writeObject(value);
+		oout.close();
+		return baos.toByteArray();
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+
+import jakarta.batch.runtime.BatchStatus;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.services.impl.JDBCPersistenceManagerImpl;
+import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.DatabaseConfigurationBean;
+
+public class StatusSchemaModeTest {
+
+	private static final String URL = "jdbc:derby:memory:statusSchemaModeTest;create=true";
+
+	// More than two pages of the migration
+	private static final int INSTANCES = 1234;
+
+	private JDBCPersistenceManagerImpl persistence;
+
+	@After
+	public void tearDown() {
+		if (persistence != null) {
+			persistence.shutdown();
+		}
+	}
+
+	@Test
+	public void testMigrateInPages() throws Exception {
+		persistence = open(BatchContainerConstants.STATUS_SCHEMA_MODE_BLOB);
+		long[] instanceIds = new long[INSTANCES];
+		for (int i = 0; i < INSTANCES; i++) {
+			instanceIds[i] = persistence.createSubJobInstance("statusSchemaModeTest", "tag").getInstanceId();
+			JobStatus jobStatus = persistence.createJobStatus(instanceIds[i]);
+			jobStatus.setBatchStatus(BatchStatus.COMPLETED);
+			jobStatus.setExitStatus("exit" + i);
+			persistence.updateJobStatus(instanceIds[i], jobStatus);
+		}
+		persistence.shutdown();
+
+		persistence = open(BatchContainerConstants.STATUS_SCHEMA_MODE_COLUMNS);
+		assertEquals(0, count("JOBSTATUS where batchstatus is null"));
+		assertEquals(INSTANCES, count("JOBSTATUS where obj is null"));
+		for (int i = 0; i < INSTANCES; i++) {
+			JobStatus jobStatus = persistence.getJobStatus(instanceIds[i]);
+			assertEquals(BatchStatus.COMPLETED, jobStatus.getBatchStatus());
+			assertEquals("exit" + i, jobStatus.getExitStatus());
+		}
+	}
+
+	private JDBCPersistenceManagerImpl open(String statusSchemaMode) {
+		DatabaseConfigurationBean dbConfig = new DatabaseConfigurationBean();
+		dbConfig.setJdbcDriver(BatchContainerConstants.DEFAULT_JDBC_DRIVER);
+		dbConfig.setJdbcUrl(URL);
+		dbConfig.setSchema(BatchContainerConstants.DEFAULT_DB_SCHEMA);
+		dbConfig.setDbUser("");
+		dbConfig.setDbPassword("");
+
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.STATUS_SCHEMA_MODE, statusSchemaMode);
+		BatchConfigImpl config = new BatchConfigImpl();
+		config.setJ2seMode(true);
+		config.setDatabaseConfigurationBean(dbConfig);
+		config.setConfigProperties(props);
+
+		JDBCPersistenceManagerImpl impl = new JDBCPersistenceManagerImpl();
+		impl.init(config);
+		return impl;
+	}
+
+	private int count(String tableAndCondition) throws Exception {
+		Connection conn = DriverManager.getConnection(URL);
+		try {
+			Statement statement = conn.createStatement();
+			ResultSet rs = statement.executeQuery("select count(*) from " + BatchContainerConstants.DEFAULT_DB_SCHEMA + "." + tableAndCondition);
+			rs.next();
+			return rs.getInt(1);
+		} finally {
+			conn.close();
+		}
+	}
+}
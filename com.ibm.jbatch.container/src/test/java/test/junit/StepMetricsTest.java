@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.Metric.MetricType;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.context.impl.MetricImpl;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.context.impl.StepMetricSampler;
+
+public class StepMetricsTest {
+
+	private static final int THREADS = 8;
+	private static final int INCREMENTS = 100000;
+
+	@Test
+	public void testConcurrentIncrements() throws Exception {
+		final StepContextImpl stepContext = new StepContextImpl("step1");
+		stepContext.addMetric(MetricType.PROCESS_SKIP_COUNT, 0);
+		stepContext.addMetric(MetricType.READ_COUNT, 5);
+
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					MetricImpl metric = stepContext.getMetric(MetricType.PROCESS_SKIP_COUNT);
+					for (int j = 0; j < INCREMENTS; j++) {
+						metric.incValue();
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(THREADS * INCREMENTS, stepContext.getMetricValue(MetricType.PROCESS_SKIP_COUNT));
+		assertEquals(5, stepContext.getMetricValue(MetricType.READ_COUNT));
+		assertEquals(0, stepContext.getMetricValue(MetricType.WRITE_COUNT));
+
+		Metric[] metrics = stepContext.getMetrics();
+		assertEquals(2, metrics.length);
+	}
+
+	@Test
+	public void testSampler() throws Exception {
+		StepContextImpl stepContext = new StepContextImpl("step1");
+		stepContext.addMetric(MetricType.READ_COUNT, 0);
+		stepContext.addMetric(MetricType.WRITE_COUNT, 0);
+		stepContext.addMetric(MetricType.FILTER_COUNT, 0);
+
+		StepMetricSampler sampler = new StepMetricSampler(stepContext);
+		stepContext.getMetric(MetricType.READ_COUNT).incValueBy(100);
+		stepContext.getMetric(MetricType.WRITE_COUNT).incValueBy(90);
+		stepContext.getMetric(MetricType.FILTER_COUNT).incValueBy(10);
+		Thread.sleep(20);
+		sampler.sample();
+
+		assertEquals(100, sampler.getValue(MetricType.READ_COUNT));
+		assertTrue(sampler.getReadRate() > 0);
+		assertTrue(sampler.getReadRate() > sampler.getWriteRate());
+		assertTrue(sampler.getWriteRate() > sampler.getFilterRate());
+		assertTrue(sampler.getFilterRate() > 0);
+
+		sampler.sample();
+		assertEquals(0.0d, sampler.getReadRate(), 0.0d);
+		assertEquals(100, sampler.getValue(MetricType.READ_COUNT));
+	}
+}
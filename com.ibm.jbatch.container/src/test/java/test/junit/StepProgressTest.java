@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.batch.api.chunk.AbstractItemReader;
+import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.Metric.MetricType;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.api.impl.JobOperatorImpl;
+import com.ibm.jbatch.container.impl.StepProgress;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+
+public class StepProgressTest {
+
+	// Each partition blocks reading the 3rd item of its 3rd chunk until released
+	private static final int ITEMS = 20;
+	private static final int BLOCK_AT = 12;
+
+	private static volatile CountDownLatch release;
+
+	@Test
+	public void testSubJobPartitionProgress() throws Exception {
+		checkProgress(false);
+	}
+
+	@Test
+	public void testLightweightPartitionProgress() throws Exception {
+		checkProgress(true);
+	}
+
+	private void checkProgress(boolean lightweight) throws Exception {
+		JobOperatorImpl jobOp = (JobOperatorImpl) BatchRuntime.getJobOperator();
+		release = new CountDownLatch(1);
+		Properties params = new Properties();
+		params.setProperty("lightweight", Boolean.toString(lightweight));
+		long execId = jobOp.start("stepProgressTest", params);
+		try {
+			StepProgress step = null;
+			long deadline = System.currentTimeMillis() + 30000;
+			while (System.currentTimeMillis() < deadline) {
+				step = ServicesManagerImpl.getInstance().getBatchKernelService().getStepProgress(execId, "step1");
+				if (step != null && bothBlocked(step.getPartitions())) {
+					break;
+				}
+				Thread.sleep(50);
+			}
+			assertNotNull(step);
+			List<StepProgress> partitions = step.getPartitions();
+			assertTrue("Partitions didn't reach their 3rd chunk: " + partitions, bothBlocked(partitions));
+
+			for (int i = 0; i < 2; i++) {
+				StepProgress partition = partitions.get(i);
+				assertEquals(i, partition.getPartition());
+				assertEquals(execId, partition.getExecutionId());
+				assertEquals(BatchStatus.STARTED, partition.getBatchStatus());
+				assertNotNull(partition.getLastCheckpointTime());
+				assertNotNull(partition.getCurrentChunkStartTime());
+				assertNull(partition.getEndTime());
+				// Metrics are counted as each chunk commits
+				assertEquals(10, partition.getMetricValue(MetricType.READ_COUNT));
+				assertEquals(10, partition.getMetricValue(MetricType.WRITE_COUNT));
+				assertEquals(2, partition.getMetricValue(MetricType.COMMIT_COUNT));
+			}
+			assertEquals(20, step.getMetricValue(MetricType.READ_COUNT));
+			assertEquals(1, jobOp.getStepProgress(execId).size());
+
+			ServicesManagerImpl.getInstance().getBatchKernelService().getStepProgressRegistry().sample();
+			assertEquals(0.0d, step.getReadRate(), 0.0d);
+		} finally {
+			release.countDown();
+		}
+
+		assertEquals(BatchStatus.COMPLETED, jobOp.getJobExecutionCompletion(execId).get(30, TimeUnit.SECONDS).getBatchStatus());
+		assertNull(ServicesManagerImpl.getInstance().getBatchKernelService().getStepProgress(execId, "step1"));
+		assertTrue(jobOp.getStepProgress(execId).isEmpty());
+	}
+
+	private boolean bothBlocked(List<StepProgress> partitions) {
+		if (partitions.size() != 2) {
+			return false;
+		}
+		for (StepProgress partition : partitions) {
+			if (partition.getCurrentChunk() != 3 || partition.getItemsInCurrentChunk() != 3) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static class Reader extends AbstractItemReader {
+		private int next = 0;
+
+		@Override
+		public Object readItem() throws Exception {
+			if (next == BLOCK_AT) {
+				release.await(30, TimeUnit.SECONDS);
+			}
+			return next < ITEMS ? Integer.valueOf(next++) : null;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.services.impl.VirtualThreadPoolServiceImpl;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.services.ParallelTaskResult;
+
+public class VirtualThreadPoolServiceTest {
+
+	private VirtualThreadPoolServiceImpl pool;
+
+	@After
+	public void tearDown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testConcurrencyLimit() throws Exception {
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.VIRTUAL_THREADPOOL_MAX_CONCURRENCY, "3");
+		BatchConfigImpl config = new BatchConfigImpl();
+		config.setConfigProperties(props);
+		pool = new VirtualThreadPoolServiceImpl();
+		pool.init(config);
+
+		final AtomicInteger completed = new AtomicInteger();
+		List<ParallelTaskResult> results = new ArrayList<ParallelTaskResult>();
+		for (int i = 0; i < 20; i++) {
+			results.add(pool.executeParallelTask(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep(20);
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+					completed.incrementAndGet();
+				}
+			}, null));
+		}
+		for (ParallelTaskResult result : results) {
+			result.waitForResult();
+		}
+
+		assertEquals(20, completed.get());
+		assertTrue("Peak of " + pool.getPeakRunningCount() + " running", pool.getPeakRunningCount() <= 3);
+		assertEquals(0, pool.getRunningCount());
+		assertEquals(0, pool.getWaitingCount());
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package test.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.exception.PersistenceException;
+import com.ibm.jbatch.container.services.impl.WriteBehindQueue;
+
+public class WriteBehindQueueTest {
+
+	private WriteBehindQueue queue;
+
+	// Stands in for the table, key -> last value written
+	private final Map<String, Integer> rows = Collections.synchronizedMap(new LinkedHashMap<String, Integer>());
+
+	@After
+	public void tearDown() {
+		if (queue != null) {
+			queue.shutdown();
+		}
+	}
+
+	@Test
+	public void testCoalescesAndFlushes() {
+		// Long linger so nothing is written until we flush
+		queue = new WriteBehindQueue(100, 60000);
+		for (int i = 1; i <= 5; i++) {
+			queue.enqueue("job1", "step:1", write("step:1", i));
+		}
+		queue.enqueue("job1", "step:2", write("step:2", 1));
+
+		assertEquals(2, queue.getQueueDepth());
+		assertEquals(4, queue.getCoalescedCount());
+		assertTrue(rows.isEmpty());
+
+		queue.flush();
+
+		assertEquals(0, queue.getQueueDepth());
+		assertEquals(Integer.valueOf(5), rows.get("step:1"));
+		assertEquals(Integer.valueOf(1), rows.get("step:2"));
+		assertEquals(2, queue.getWriteCount());
+		assertEquals(1, queue.getFlushCount());
+	}
+
+	@Test
+	public void testWriterDrainsInBackground() throws Exception {
+		queue = new WriteBehindQueue(100, 10);
+		queue.enqueue("job1", "step:1", write("step:1", 1));
+
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!rows.containsKey("step:1") && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(Integer.valueOf(1), rows.get("step:1"));
+	}
+
+	@Test
+	public void testFullQueueFlushedByCaller() {
+		queue = new WriteBehindQueue(3, 60000);
+		queue.enqueue("job1", "a", write("a", 1));
+		queue.enqueue("job1", "b", write("b", 1));
+		assertTrue(rows.isEmpty());
+		queue.enqueue("job1", "c", write("c", 1));
+
+		assertEquals(3, rows.size());
+		assertEquals(1, queue.getOverflowCount());
+	}
+
+	@Test
+	public void testBackgroundFailureRethrownOnFlush() throws Exception {
+		queue = new WriteBehindQueue(100, 0);
+		queue.enqueue("job1", "bad", failingWrite());
+		awaitFirstBatch();
+
+		try {
+			queue.flush("job1");
+			fail("Expected the background failure");
+		} catch (PersistenceException e) {
+			// expected
+		}
+		// Only reported once
+		queue.flush("job1");
+	}
+
+	@Test
+	public void testFailureOnlyRethrownToItsOwner() throws Exception {
+		queue = new WriteBehindQueue(100, 0);
+		queue.enqueue("job1", "bad", failingWrite());
+		awaitFirstBatch();
+
+		queue.enqueue("job2", "step:2", write("step:2", 1));
+		queue.flush("job2");
+		queue.flush();
+		assertEquals(Integer.valueOf(1), rows.get("step:2"));
+
+		try {
+			queue.flush("job1");
+			fail("Expected the background failure");
+		} catch (PersistenceException e) {
+			// expected
+		}
+	}
+
+	private void awaitFirstBatch() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (queue.getFlushCount() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private WriteBehindQueue.PendingWrite failingWrite() {
+		return new WriteBehindQueue.PendingWrite() {
+			@Override
+			public void write() {
+				throw new PersistenceException(new IllegalStateException("test failure"));
+			}
+		};
+	}
+
+	private WriteBehindQueue.PendingWrite write(final String key, final int value) {
+		return new WriteBehindQueue.PendingWrite() {
+			@Override
+			public void write() {
+				rows.put(key, value);
+			}
+		};
+	}
+}
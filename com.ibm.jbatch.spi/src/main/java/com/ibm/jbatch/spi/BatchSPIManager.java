@@ -51,6 +51,10 @@ public final class BatchSPIManager {
 	
 	private ExecutorServiceProvider executorServiceProvider = null;
 
+	private volatile SerializationCodec serializationCodec = null;
+
+	private volatile ChunkInstrumentation chunkInstrumentation = null;
+
 	/**
 	 * @return The most recently set BatchJobUtil
 	 */
@@ -89,6 +93,20 @@ public final class BatchSPIManager {
 		return executorServiceProvider;
 	}
         
+	/**
+	 * @return The most recently set SerializationCodec, or <b>null</b> if none has been set.
+	 */
+	public SerializationCodec getSerializationCodec() {
+		return serializationCodec;
+	}
+
+	/**
+	 * @return The most recently set ChunkInstrumentation, or <b>null</b> if none has been set.
+	 */
+	public ChunkInstrumentation getChunkInstrumentation() {
+		return chunkInstrumentation;
+	}
+
 	public Properties getBatchContainerOverrideProperties() {
 		return overrideProperties;
 	}
@@ -140,6 +158,25 @@ public final class BatchSPIManager {
 		this.executorServiceProvider = provider;
 	}
         
+	/**
+	 * Takes precedence over any codec configured in batch-config.properties.  Must be
+	 * called before the batch runtime is initialized, and should be registered again 
+	 * in any later deployment which may need to read values it encoded.
+	 * @param codec impl
+	 */
+	public void registerSerializationCodec(SerializationCodec codec) {
+		this.serializationCodec = codec;
+	}
+
+	/**
+	 * Takes precedence over any instrumentation configured in batch-config.properties.  Must
+	 * be called before the batch runtime is initialized.
+	 * @param instrumentation impl
+	 */
+	public void registerChunkInstrumentation(ChunkInstrumentation instrumentation) {
+		this.chunkInstrumentation = instrumentation;
+	}
+
 	/**
 	 * Override container properties read from META-INF
      * @param properties The {@link Properties} to use as overrides.
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.spi;
+
+/**
+ * Times the phases of each chunk of a chunk step, e.g. to feed a metrics library.
+ *
+ * The batch runtime asks for one {@link PhaseTimer} as each chunk step, or each
+ * partition of one, starts.  With no instrumentation configured, or when this returns
+ * <code>null</code>, the runtime doesn't read the clock or allocate anything to time
+ * the chunk loop.
+ */
+public interface ChunkInstrumentation {
+
+	/**
+	 * The parts of a chunk the time is spent in.
+	 */
+	public enum Phase {
+		/** ItemReader.readItem() */
+		READ,
+		/** ItemProcessor.processItem() */
+		PROCESS,
+		/** ItemWriter.writeItems() */
+		WRITE,
+		/** Getting and serializing the reader and writer checkpoints and the persistent user data */
+		CHECKPOINT_SERIALIZATION,
+		/** Writing the checkpoint and step status to the job repository */
+		PERSISTENCE,
+		/** Beginning each chunk's transaction */
+		TRANSACTION_BEGIN,
+		/** Committing each chunk's transaction */
+		TRANSACTION_COMMIT,
+		/** The item read, process and write listeners and the chunk listeners, all together */
+		LISTENERS
+	}
+
+	/**
+	 * Records the time spent in each phase of one chunk step or partition.
+	 */
+	public interface PhaseTimer {
+
+		/**
+		 * Called once per item for READ and PROCESS, and once per chunk for the other
+		 * phases.  With parallel processing, PROCESS and its listeners are recorded on 
+		 * processor threads, so concurrently with the other phases.
+		 *
+		 * @param phase the phase timed
+		 * @param nanos the time spent in it, by {@link System#nanoTime()}
+		 */
+		public void record(Phase phase, long nanos);
+	}
+
+	/**
+	 * Called on the step's thread as each chunk step, or partition of one, starts.
+	 *
+	 * @param jobName the name of the top-level job
+	 * @param stepName the step
+	 * @param partition the partition number, or -1 for a step which isn't partitioned
+	 * @return the timer for the step's phases, or <code>null</code> to not time them
+	 */
+	public PhaseTimer startStep(String jobName, String stepName, int partition);
+}
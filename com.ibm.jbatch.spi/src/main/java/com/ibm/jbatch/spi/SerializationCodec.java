@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.spi;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Encodes the objects the batch runtime persists as BLOBs, e.g. checkpoint
+ * tokens, persistent user data, job parameters and the internal job and
+ * step status.
+ *
+ * The runtime writes a small header in front of each encoded value,
+ * recording the id of the codec that produced it, so a deployment can
+ * switch codecs without losing the ability to read rows written earlier
+ * (including rows written with plain Java serialization before codecs
+ * existed).
+ */
+public interface SerializationCodec {
+
+	/**
+	 * Ids 0 through 15 are reserved for codecs built into the batch runtime.
+	 *
+	 * @return the id recorded in the header of each value this codec encodes,
+	 * which must never change once values have been persisted with it.
+	 */
+	public byte getCodecId();
+
+	/**
+	 * @param object the value to encode, possibly <code>null</code>
+	 * @return the encoded value, without any header
+	 * @throws IOException if the value can't be encoded
+	 */
+	public byte[] encode(Serializable object) throws IOException;
+
+	/**
+	 * @param bytes a value previously returned by {@link #encode(Serializable)}
+	 * @param classLoader the loader to resolve application classes with, or
+	 * <code>null</code> to use the codec's default.
+	 * @return the decoded value
+	 * @throws IOException if the bytes can't be decoded
+	 * @throws ClassNotFoundException if a class named in the encoded value can't be loaded
+	 */
+	public Serializable decode(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException;
+}
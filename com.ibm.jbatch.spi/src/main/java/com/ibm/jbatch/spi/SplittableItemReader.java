@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.spi;
+
+import java.io.Serializable;
+
+import jakarta.batch.api.chunk.ItemReader;
+
+/**
+ * An ItemReader which can give up part of the items it hasn't read yet, so that when the
+ * partitions of a step are scheduled dynamically, a worker left idle near the end of the
+ * step can take over some of the work of a partition still running.
+ *
+ * The items given up are described by a checkpoint: a new instance of the reader, with
+ * the same properties as this one, opened with that checkpoint must read exactly those
+ * items.  This reader must never read them, and its own checkpoints from then on must say
+ * so, since the runtime persists its next checkpoint together with the one given up.
+ *
+ * Only called on the step thread between chunks, with the reader positioned just after the
+ * last item of the chunk that was committed.
+ */
+public interface SplittableItemReader extends ItemReader {
+
+	/**
+	 * Give up some of the items this reader has yet to read, typically the back half.
+	 *
+	 * @return a checkpoint from which a new instance of this reader reads the items given
+	 * up, or <code>null</code> to keep them all, e.g. if too few are left to be worth it.
+	 * @throws Exception if the reader can't be split
+	 */
+	public Serializable splitRemaining() throws Exception;
+}